@@ -0,0 +1,157 @@
+package com.empresa.transferencias.carga;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuração do gerador de carga, lida das propriedades de sistema
+ * {@code carga.*} (ver o perfil Maven carga).
+ */
+final class ConfiguracaoCarga {
+
+    private final int taxa;
+    private final Duration duracao;
+    private final Duration aquecimento;
+    private final Map<Operacao, Integer> mix;
+    private final int threads;
+    private final long semente;
+    private final int contas;
+    private final int diasAgendamento;
+    private final int limiteListagem;
+    private final Path relatorio;
+    private final String[] argumentos;
+    private final LocalDate dataAgendamento = LocalDate.now();
+    private final Operacao[] sorteio;
+
+    private ConfiguracaoCarga(int taxa, Duration duracao, Duration aquecimento, Map<Operacao, Integer> mix,
+                              int threads, long semente, int contas, int diasAgendamento, int limiteListagem,
+                              Path relatorio, String[] argumentos) {
+        if (taxa <= 0 || threads <= 0 || contas < 2 || diasAgendamento <= 0 || limiteListagem <= 0) {
+            throw new IllegalArgumentException("Taxa, threads, contas, dias e limite devem ser positivos.");
+        }
+        this.taxa = taxa;
+        this.duracao = duracao;
+        this.aquecimento = aquecimento;
+        this.mix = Collections.unmodifiableMap(mix);
+        this.threads = threads;
+        this.semente = semente;
+        this.contas = contas;
+        this.diasAgendamento = diasAgendamento;
+        this.limiteListagem = limiteListagem;
+        this.relatorio = relatorio;
+        this.argumentos = argumentos;
+        this.sorteio = mix.entrySet().stream()
+                .flatMap(e -> Collections.nCopies(e.getValue(), e.getKey()).stream())
+                .toArray(Operacao[]::new);
+        if (sorteio.length == 0) {
+            throw new IllegalArgumentException("O mix deve ter ao menos uma operação com peso positivo.");
+        }
+    }
+
+    /**
+     * @return Configuração a partir das propriedades de sistema, com os valores padrão.
+     */
+    static ConfiguracaoCarga dePropriedades() {
+        return new ConfiguracaoCarga(
+                Integer.getInteger("carga.taxa", 500),
+                Duration.parse(System.getProperty("carga.duracao", "PT60S")),
+                Duration.parse(System.getProperty("carga.aquecimento", "PT15S")),
+                lerMix(System.getProperty("carga.mix", "agendar:20,listar:30,porData:50")),
+                Integer.getInteger("carga.threads", 64),
+                Long.getLong("carga.semente", 42L),
+                Integer.getInteger("carga.contas", 10_000),
+                Integer.getInteger("carga.dias", 30),
+                Integer.getInteger("carga.limite-listagem", 100),
+                Paths.get(System.getProperty("carga.relatorio", "carga/resultado.json")),
+                System.getProperty("carga.argumentos",
+                        "--spring.profiles.active=memoria --logging.level.com.empresa.transferencias=WARN")
+                        .trim().split("\\s+"));
+    }
+
+    /**
+     * Lê o mix no formato {@code operacao:peso,operacao:peso}.
+     */
+    static Map<Operacao, Integer> lerMix(String valor) {
+        Map<Operacao, Integer> mix = new EnumMap<>(Operacao.class);
+        for (String item : valor.split(",")) {
+            String[] partes = item.trim().split(":");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Item do mix inválido (esperado operacao:peso): " + item);
+            }
+            int peso = Integer.parseInt(partes[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("Peso negativo no mix: " + item);
+            }
+            mix.merge(Operacao.porNome(partes[0].trim()), peso, Integer::sum);
+        }
+        return mix;
+    }
+
+    /**
+     * @param sorteio Número sorteado entre zero (inclusivo) e {@link #getPesoTotal()} (exclusivo).
+     * @return Operação correspondente, na proporção dos pesos do mix.
+     */
+    Operacao escolher(int sorteio) {
+        return this.sorteio[sorteio];
+    }
+
+    int getPesoTotal() {
+        return sorteio.length;
+    }
+
+    /**
+     * @return Requisições iniciadas por segundo (taxa de chegada constante).
+     */
+    int getTaxa() {
+        return taxa;
+    }
+
+    Duration getDuracao() {
+        return duracao;
+    }
+
+    Duration getAquecimento() {
+        return aquecimento;
+    }
+
+    Map<Operacao, Integer> getMix() {
+        return mix;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    long getSemente() {
+        return semente;
+    }
+
+    int getContas() {
+        return contas;
+    }
+
+    int getDiasAgendamento() {
+        return diasAgendamento;
+    }
+
+    int getLimiteListagem() {
+        return limiteListagem;
+    }
+
+    Path getRelatorio() {
+        return relatorio;
+    }
+
+    String[] getArgumentos() {
+        return argumentos.clone();
+    }
+
+    LocalDate getDataAgendamento() {
+        return dataAgendamento;
+    }
+}
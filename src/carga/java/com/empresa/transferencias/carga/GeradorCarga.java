@@ -0,0 +1,216 @@
+package com.empresa.transferencias.carga;
+
+import com.empresa.transferencias.AgendamentoTransferenciasApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga com taxa de chegada constante (modelo aberto).
+ *
+ * Inicia a aplicação na mesma JVM, por padrão com o perfil {@code memoria}
+ * (sem PostgreSQL), e envia as operações do mix na taxa configurada durante
+ * o aquecimento e a medição. A requisição n é prevista para o instante
+ * {@code inicio + n / taxa}, independentemente de quando as anteriores
+ * terminaram; as threads apenas executam as requisições previstas. As
+ * latências são registradas em histogramas HdrHistogram corrigidos para
+ * coordinated omission ({@link MedidasOperacao}) e o relatório é gravado
+ * em JSON (por padrão em {@code carga/resultado.json}, versionado com o
+ * código).
+ *
+ * Execução: {@code mvn -Pcarga verify [-Dcarga.taxa=500] [-Dcarga.duracao=PT60S]
+ * [-Dcarga.mix=agendar:20,listar:30,porData:50]}.
+ */
+public final class GeradorCarga {
+
+    /** Multiplicador usado para derivar a semente de cada requisição. */
+    private static final long PROPORCAO_AUREA = 0x9E3779B97F4A7C15L;
+
+    private final ConfiguracaoCarga configuracao;
+    private final URI base;
+    private final HttpClient cliente;
+    private final Map<Operacao, MedidasOperacao> medidas = new EnumMap<>(Operacao.class);
+    private final AtomicLong sequencia = new AtomicLong();
+
+    private GeradorCarga(ConfiguracaoCarga configuracao, URI base) {
+        this.configuracao = configuracao;
+        this.base = base;
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        for (Operacao operacao : Operacao.values()) {
+            medidas.put(operacao, new MedidasOperacao());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracaoCarga configuracao = ConfiguracaoCarga.dePropriedades();
+        String[] argumentos = Arrays.copyOf(configuracao.getArgumentos(), configuracao.getArgumentos().length + 1);
+        argumentos[argumentos.length - 1] = "--server.port=0";
+
+        ConfigurableApplicationContext contexto =
+                new SpringApplicationBuilder(AgendamentoTransferenciasApplication.class).run(argumentos);
+        Map<String, Object> relatorio;
+        try {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            relatorio = new GeradorCarga(configuracao, URI.create("http://localhost:" + porta)).executar();
+        } finally {
+            SpringApplication.exit(contexto);
+        }
+
+        Path arquivo = configuracao.getRelatorio().toAbsolutePath();
+        Files.createDirectories(arquivo.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo.toFile(), relatorio);
+        System.out.println("Relatório gravado em " + arquivo);
+        System.exit(0);
+    }
+
+    private Map<String, Object> executar() throws InterruptedException {
+        long inicio = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long inicioMedicao = inicio + configuracao.getAquecimento().toNanos();
+        long fim = inicioMedicao + configuracao.getDuracao().toNanos();
+
+        ExecutorService threads = Executors.newFixedThreadPool(configuracao.getThreads());
+        for (int i = 0; i < configuracao.getThreads(); i++) {
+            threads.submit(() -> enviar(inicio, inicioMedicao, fim));
+        }
+        threads.shutdown();
+        long limite = fim - System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        if (!threads.awaitTermination(limite, TimeUnit.NANOSECONDS)) {
+            threads.shutdownNow();
+        }
+        return relatorio();
+    }
+
+    /**
+     * Envia as requisições previstas até o fim da medição. Cada thread pega
+     * a próxima requisição da sequência e aguarda o instante previsto; se
+     * todas estiverem ocupadas, a requisição sai atrasada e o atraso entra
+     * no tempo de resposta.
+     */
+    private void enviar(long inicio, long inicioMedicao, long fim) {
+        double intervaloNanos = 1e9 / configuracao.getTaxa();
+        while (!Thread.currentThread().isInterrupted()) {
+            long n = sequencia.getAndIncrement();
+            long previsto = inicio + (long) (n * intervaloNanos);
+            if (previsto >= fim) {
+                return;
+            }
+            aguardar(previsto);
+
+            SplittableRandom aleatorio = new SplittableRandom(configuracao.getSemente() * PROPORCAO_AUREA + n);
+            Operacao operacao = configuracao.escolher(aleatorio.nextInt(configuracao.getPesoTotal()));
+            HttpRequest requisicao = operacao.criar(base, aleatorio, configuracao);
+
+            long enviado = System.nanoTime();
+            boolean sucesso;
+            try {
+                sucesso = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+            } catch (IOException e) {
+                sucesso = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long concluido = System.nanoTime();
+            MedidasOperacao medidasOperacao = medidas.get(operacao);
+            if (previsto >= inicioMedicao) {
+                medidasOperacao.registrar(sucesso, previsto, enviado, concluido);
+            }
+            if (sucesso && concluido >= inicioMedicao && concluido < fim) {
+                medidasOperacao.contarConclusao();
+            }
+        }
+    }
+
+    private static void aguardar(long instante) {
+        long espera;
+        while ((espera = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(espera);
+        }
+    }
+
+    private Map<String, Object> relatorio() {
+        double segundos = configuracao.getDuracao().toNanos() / 1e9;
+        MedidasOperacao total = new MedidasOperacao();
+        Map<String, Object> operacoes = new LinkedHashMap<>();
+        for (Map.Entry<Operacao, MedidasOperacao> entrada : medidas.entrySet()) {
+            if (configuracao.getMix().getOrDefault(entrada.getKey(), 0) > 0) {
+                total.somar(entrada.getValue());
+                operacoes.put(entrada.getKey().getNome(), entrada.getValue().resumir(segundos));
+            }
+        }
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("geradoEm", Instant.now().toString());
+        relatorio.put("versao", System.getProperty("carga.versao", "desconhecida"));
+        relatorio.put("ambiente", ambiente());
+        relatorio.put("configuracao", configuracao());
+        relatorio.put("total", total.resumir(segundos));
+        relatorio.put("operacoes", operacoes);
+
+        System.out.printf("%-10s %12s %8s %10s %10s %10s %10s%n",
+                "operacao", "requisicoes", "erros", "vazao/s", "p50 ms", "p99 ms", "p999 ms");
+        operacoes.forEach((nome, resumo) -> imprimir(nome, resumo));
+        imprimir("total", relatorio.get("total"));
+        return relatorio;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void imprimir(String nome, Object resumo) {
+        Map<String, Object> valores = (Map<String, Object>) resumo;
+        Map<String, Object> resposta = (Map<String, Object>) valores.get("respostaMs");
+        System.out.printf("%-10s %12s %8s %10s %10s %10s %10s%n", nome, valores.get("requisicoes"),
+                valores.get("erros"), valores.get("vazao"), resposta.get("p50"), resposta.get("p99"),
+                resposta.get("p999"));
+    }
+
+    private Map<String, Object> configuracao() {
+        Map<String, Object> mix = new LinkedHashMap<>();
+        configuracao.getMix().forEach((operacao, peso) -> mix.put(operacao.getNome(), peso));
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put("taxa", configuracao.getTaxa());
+        valores.put("duracao", configuracao.getDuracao().toString());
+        valores.put("aquecimento", configuracao.getAquecimento().toString());
+        valores.put("threads", configuracao.getThreads());
+        valores.put("semente", configuracao.getSemente());
+        valores.put("contas", configuracao.getContas());
+        valores.put("dias", configuracao.getDiasAgendamento());
+        valores.put("limiteListagem", configuracao.getLimiteListagem());
+        valores.put("mix", mix);
+        valores.put("argumentos", configuracao.getArgumentos());
+        return valores;
+    }
+
+    private static Map<String, Object> ambiente() {
+        Map<String, Object> ambiente = new LinkedHashMap<>();
+        ambiente.put("java", System.getProperty("java.version"));
+        ambiente.put("vm", System.getProperty("java.vm.name"));
+        ambiente.put("so", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        ambiente.put("processadores", Runtime.getRuntime().availableProcessors());
+        ambiente.put("memoriaMaximaMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        return ambiente;
+    }
+}
@@ -0,0 +1,130 @@
+package com.empresa.transferencias.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências de uma operação, em microssegundos.
+ *
+ * O tempo de resposta é contado a partir do instante em que a requisição
+ * deveria ter sido enviada pela taxa de chegada configurada, e não do
+ * instante em que foi de fato enviada: quando a aplicação (ou o próprio
+ * gerador) atrasa, as requisições que ficaram esperando entram no
+ * histograma com a espera incluída (correção de coordinated omission). O
+ * tempo de serviço, contado a partir do envio, é registrado à parte para
+ * comparação.
+ */
+final class MedidasOperacao {
+
+    private static final int DIGITOS_SIGNIFICATIVOS = 3;
+
+    private final ConcurrentHistogram resposta = new ConcurrentHistogram(DIGITOS_SIGNIFICATIVOS);
+    private final ConcurrentHistogram servico = new ConcurrentHistogram(DIGITOS_SIGNIFICATIVOS);
+    private final ConcurrentHistogram atrasoEnvio = new ConcurrentHistogram(DIGITOS_SIGNIFICATIVOS);
+    private final LongAdder erros = new LongAdder();
+    private final LongAdder concluidasNaMedicao = new LongAdder();
+
+    /**
+     * @param sucesso    Se a resposta foi recebida com status abaixo de 400.
+     * @param previsto   Instante previsto de envio ({@link System#nanoTime()}).
+     * @param enviado    Instante de envio.
+     * @param concluido  Instante de recebimento da resposta.
+     */
+    void registrar(boolean sucesso, long previsto, long enviado, long concluido) {
+        if (!sucesso) {
+            erros.increment();
+            return;
+        }
+        resposta.recordValue(micros(concluido - previsto));
+        servico.recordValue(micros(concluido - enviado));
+        atrasoEnvio.recordValue(micros(enviado - previsto));
+    }
+
+    /**
+     * Conta uma resposta com sucesso recebida durante a medição, seja qual
+     * for o instante previsto de envio (base da vazão obtida).
+     */
+    void contarConclusao() {
+        concluidasNaMedicao.increment();
+    }
+
+    /**
+     * Acumula as medidas de outra operação (para o total).
+     */
+    void somar(MedidasOperacao outra) {
+        resposta.add(outra.resposta);
+        servico.add(outra.servico);
+        atrasoEnvio.add(outra.atrasoEnvio);
+        erros.add(outra.erros.sum());
+        concluidasNaMedicao.add(outra.concluidasNaMedicao.sum());
+    }
+
+    long getSucessos() {
+        return resposta.getTotalCount();
+    }
+
+    long getErros() {
+        return erros.sum();
+    }
+
+    /**
+     * Resumo da operação para o relatório.
+     *
+     * @param segundos Duração da medição, para o cálculo da vazão.
+     * @return Requisições previstas na medição, erros, vazão obtida (respostas
+     *         com sucesso por segundo durante a medição), percentis de
+     *         resposta, serviço e atraso de envio (ms) e o histograma de
+     *         resposta codificado.
+     */
+    Map<String, Object> resumir(double segundos) {
+        Map<String, Object> resumo = new LinkedHashMap<>();
+        resumo.put("requisicoes", getSucessos() + getErros());
+        resumo.put("erros", getErros());
+        resumo.put("vazao", arredondar(concluidasNaMedicao.sum() / segundos));
+        resumo.put("respostaMs", percentis(resposta));
+        resumo.put("servicoMs", percentis(servico));
+        resumo.put("atrasoEnvioMs", percentis(atrasoEnvio));
+        resumo.put("histogramaResposta", codificar(resposta));
+        return resumo;
+    }
+
+    private static Map<String, Object> percentis(Histogram histograma) {
+        Map<String, Object> percentis = new LinkedHashMap<>();
+        percentis.put("p50", ms(histograma.getValueAtPercentile(50)));
+        percentis.put("p90", ms(histograma.getValueAtPercentile(90)));
+        percentis.put("p99", ms(histograma.getValueAtPercentile(99)));
+        percentis.put("p999", ms(histograma.getValueAtPercentile(99.9)));
+        percentis.put("max", ms(histograma.getMaxValue()));
+        percentis.put("media", arredondar(histograma.getMean() / 1000));
+        return percentis;
+    }
+
+    /**
+     * Histograma no formato comprimido do HdrHistogram, em Base64, para
+     * reanálise ({@code Histogram.decodeFromCompressedByteBuffer}).
+     */
+    private static String codificar(Histogram histograma) {
+        ByteBuffer buffer = ByteBuffer.allocate(histograma.getNeededByteBufferCapacity());
+        int tamanho = histograma.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), tamanho));
+    }
+
+    private static long micros(long nanos) {
+        return Math.max(1, nanos / 1_000);
+    }
+
+    private static double ms(long micros) {
+        return micros / 1_000.0;
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 1_000) / 1_000.0;
+    }
+}
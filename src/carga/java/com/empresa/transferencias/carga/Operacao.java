@@ -0,0 +1,105 @@
+package com.empresa.transferencias.carga;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Operações que compõem o tráfego gerado. Cada requisição é montada a partir
+ * de um gerador aleatório derivado do número de sequência da requisição, de
+ * modo que a mesma semente produz sempre a mesma sequência de requisições.
+ */
+enum Operacao {
+
+    /** {@code POST /api/transferencias}, com data entre amanhã e o último dia da tabela de taxas. */
+    AGENDAR("agendar") {
+        @Override
+        HttpRequest criar(URI base, SplittableRandom aleatorio, ConfiguracaoCarga configuracao) {
+            int origem = aleatorio.nextInt(configuracao.getContas());
+            String corpo = String.format(Locale.ROOT,
+                    "{\"contaOrigem\":\"%06d\",\"contaDestino\":\"%06d\","
+                            + "\"valorTransferencia\":%d.%02d,\"dataTransferencia\":\"%s\"}",
+                    CONTA_INICIAL + origem,
+                    CONTA_INICIAL + (origem + 1) % configuracao.getContas(),
+                    1 + aleatorio.nextInt(5_000), aleatorio.nextInt(100),
+                    data(aleatorio, configuracao));
+            return requisicao(base.resolve("/api/transferencias"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                    .build();
+        }
+    },
+
+    /** {@code GET /api/transferencias}: primeira página da listagem. */
+    LISTAR("listar") {
+        @Override
+        HttpRequest criar(URI base, SplittableRandom aleatorio, ConfiguracaoCarga configuracao) {
+            return requisicao(base.resolve("/api/transferencias?limite=" + configuracao.getLimiteListagem()))
+                    .GET()
+                    .build();
+        }
+    },
+
+    /** {@code GET /api/transferencias/data}: transferências de uma data do intervalo agendado. */
+    BUSCAR_POR_DATA("porData") {
+        @Override
+        HttpRequest criar(URI base, SplittableRandom aleatorio, ConfiguracaoCarga configuracao) {
+            return requisicao(base.resolve("/api/transferencias/data?data=" + data(aleatorio, configuracao)))
+                    .GET()
+                    .build();
+        }
+    };
+
+    private static final int CONTA_INICIAL = 100_000;
+    private static final Duration TEMPO_MAXIMO_REQUISICAO = Duration.ofSeconds(30);
+
+    private final String nome;
+
+    Operacao(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * @return Nome da operação no mix e no relatório.
+     */
+    String getNome() {
+        return nome;
+    }
+
+    /**
+     * Monta uma requisição desta operação.
+     *
+     * @param base         Endereço da aplicação.
+     * @param aleatorio    Gerador da requisição.
+     * @param configuracao Configuração da carga.
+     * @return Requisição a ser enviada.
+     */
+    abstract HttpRequest criar(URI base, SplittableRandom aleatorio, ConfiguracaoCarga configuracao);
+
+    /**
+     * @param nome Nome usado no mix.
+     * @return Operação com o nome informado.
+     * @throws IllegalArgumentException Se não houver operação com o nome.
+     */
+    static Operacao porNome(String nome) {
+        for (Operacao operacao : values()) {
+            if (operacao.nome.equals(nome)) {
+                return operacao;
+            }
+        }
+        throw new IllegalArgumentException("Operação desconhecida no mix: " + nome);
+    }
+
+    private static LocalDate data(SplittableRandom aleatorio, ConfiguracaoCarga configuracao) {
+        return configuracao.getDataAgendamento().plusDays(1 + aleatorio.nextInt(configuracao.getDiasAgendamento()));
+    }
+
+    private static HttpRequest.Builder requisicao(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .header("Accept", "application/json")
+                .timeout(TEMPO_MAXIMO_REQUISICAO);
+    }
+}
@@ -0,0 +1,128 @@
+package com.empresa.transferencias;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo até a primeira requisição atendida: cada execução inicia a
+ * aplicação em uma JVM nova e conta o tempo até a primeira resposta 200 de
+ * {@code GET /api/transferencias/conta/{conta}/total}, que passa por filtros,
+ * controlador e serviço sem depender de dados no banco.
+ *
+ * O banco é o H2 embarcado (sem o perfil dev), com o esquema desligado,
+ * de modo que a medida compara apenas a configuração da inicialização.
+ * Para medir com o arquivo CDS, gere-o com {@code mvn -Pcds package} e
+ * informe o diretório: {@code -Djmh.diretorioCds=target/cds}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InicializacaoBenchmark {
+
+    static final String SEM_CDS = "sem-cds";
+
+    private static final long TEMPO_MAXIMO_NANOS = TimeUnit.SECONDS.toNanos(120);
+
+    @Param({"default", "prod-fast"})
+    private String perfil;
+
+    /**
+     * Diretório gerado pelo perfil Maven cds (app.jar, lib/, classpath.txt e
+     * app.jsa), ou {@value #SEM_CDS} para usar o classpath do benchmark.
+     */
+    @Param({SEM_CDS})
+    private String diretorioCds;
+
+    private Process processo;
+    private int porta;
+
+    @Setup(Level.Invocation)
+    public void escolherPorta() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            porta = socket.getLocalPort();
+        }
+    }
+
+    @Benchmark
+    public long tempoAtePrimeiraRequisicao() throws Exception {
+        long inicio = System.nanoTime();
+        processo = iniciar().start();
+        URL url = new URL("http://localhost:" + porta + "/api/transferencias/conta/123456/total");
+        while (System.nanoTime() - inicio < TEMPO_MAXIMO_NANOS) {
+            if (!processo.isAlive()) {
+                throw new IllegalStateException("A aplicação encerrou com código " + processo.exitValue() + ".");
+            }
+            if (responde(url)) {
+                return System.nanoTime() - inicio;
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("A aplicação não respondeu em " + TEMPO_MAXIMO_NANOS / 1_000_000 + " ms.");
+    }
+
+    @TearDown(Level.Invocation)
+    public void encerrar() throws InterruptedException {
+        if (processo != null) {
+            processo.destroy();
+            if (!processo.waitFor(30, TimeUnit.SECONDS)) {
+                processo.destroyForcibly().waitFor();
+            }
+            processo = null;
+        }
+    }
+
+    private ProcessBuilder iniciar() throws IOException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        File diretorio = null;
+        if (SEM_CDS.equals(diretorioCds)) {
+            comando.add("-cp");
+            comando.add(System.getProperty("java.class.path"));
+        } else {
+            Path cds = Paths.get(diretorioCds).toAbsolutePath();
+            diretorio = cds.toFile();
+            comando.add("-XX:SharedArchiveFile=app.jsa");
+            comando.add("-cp");
+            comando.add("app.jar" + File.pathSeparator
+                    + new String(Files.readAllBytes(cds.resolve("classpath.txt")), StandardCharsets.UTF_8).trim());
+        }
+        comando.add(AgendamentoTransferenciasApplication.class.getName());
+        comando.add("--server.port=" + porta);
+        comando.add("--spring.profiles.active=" + perfil);
+        comando.add("--spring.jpa.hibernate.ddl-auto=none");
+        return new ProcessBuilder(comando)
+                .directory(diretorio)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+    }
+
+    private static boolean responde(URL url) {
+        try {
+            HttpURLConnection conexao = (HttpURLConnection) url.openConnection();
+            conexao.setConnectTimeout(100);
+            conexao.setReadTimeout(10_000);
+            try {
+                return conexao.getResponseCode() == 200;
+            } finally {
+                conexao.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.empresa.transferencias.dto;
+
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a escrita de uma listagem de transferências pelo Jackson (mapa com
+ * as entidades, como antes) com a escrita em streaming por
+ * {@link CampoTransferencia}, com e sem projeção de campos.
+ *
+ * Para medir alocação por operação, execute com o profiler de GC:
+ * {@code mvn -Pbenchmarks verify -Djmh.includes="ListaTransferenciasBenchmark -prof gc"}.
+ * O tamanho de cada resposta é impresso na preparação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListaTransferenciasBenchmark {
+
+    @Param({"100", "1000"})
+    private int quantidade;
+
+    private ObjectMapper objectMapper;
+    private List<Transferencia> transferencias;
+    private Set<CampoTransferencia> projecao;
+    private ByteArrayOutputStream saida;
+
+    @Setup
+    public void preparar() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        transferencias = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            Transferencia transferencia = new Transferencia();
+            transferencia.setId(UUID.randomUUID());
+            transferencia.setContaOrigem("123456");
+            transferencia.setContaDestino("654321");
+            transferencia.setValorTransferencia(new BigDecimal("1500.00"));
+            transferencia.setTaxa(new BigDecimal("12.0"));
+            transferencia.setDataTransferencia(LocalDate.of(2030, 1, 10));
+            transferencia.setDataAgendamento(LocalDate.of(2030, 1, 1));
+            transferencia.setStatus(StatusTransferencia.AGENDADA);
+            transferencia.setAtualizadoEm(Instant.parse("2030-01-01T00:00:00Z"));
+            transferencias.add(transferencia);
+        }
+        projecao = CampoTransferencia.projecao("id,valorTransferencia,dataTransferencia");
+        saida = new ByteArrayOutputStream(1 << 20);
+
+        System.out.printf("%nBytes por resposta (%d transferências): jackson=%d, streaming=%d, projecao=%d%n",
+                quantidade, tamanho(jacksonMapa()), tamanho(streaming()), tamanho(streamingComProjecao()));
+    }
+
+    private static int tamanho(ByteArrayOutputStream saida) {
+        return saida.size();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream jacksonMapa() throws IOException {
+        saida.reset();
+        objectMapper.writeValue(saida, Map.of(
+                "quantidade", transferencias.size(),
+                "transferencias", transferencias
+        ));
+        return saida;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream streaming() throws IOException {
+        return escrever(CampoTransferencia.TODOS);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream streamingComProjecao() throws IOException {
+        return escrever(projecao);
+    }
+
+    private ByteArrayOutputStream escrever(Set<CampoTransferencia> campos) throws IOException {
+        saida.reset();
+        JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+        gerador.writeStartObject();
+        gerador.writeNumberField("quantidade", transferencias.size());
+        gerador.writeArrayFieldStart("transferencias");
+        for (Transferencia transferencia : transferencias) {
+            CampoTransferencia.escrever(gerador, transferencia, campos);
+        }
+        gerador.writeEndArray();
+        gerador.writeEndObject();
+        gerador.flush();
+        return saida;
+    }
+}
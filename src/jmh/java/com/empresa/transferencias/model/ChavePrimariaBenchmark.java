@@ -0,0 +1,124 @@
+package com.empresa.transferencias.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a gravação com chaves primárias UUID aleatórias (versão 4) e
+ * ordenadas pelo tempo (versão 7, {@link GeradorUuidV7}): cada execução
+ * insere {@code linhas} registros com as colunas de uma transferência, em
+ * batches, em uma tabela nova, e mede o tempo total. Ao final, o tamanho do
+ * índice da chave primária é impresso (apenas no PostgreSQL, via
+ * {@code pg_relation_size}).
+ *
+ * Por padrão usa um H2 em memória com um milhão de linhas, para que a
+ * execução completa dos benchmarks não dependa de banco externo. A
+ * comparação relevante é no PostgreSQL, com o índice maior que a memória
+ * disponível para cache:
+ * {@code mvn -Pbenchmarks verify -Djmh.includes=ChavePrimariaBenchmark
+ * -Djmh.urlBanco=jdbc:postgresql://localhost:5432/transferencias -Djmh.usuarioBanco=...
+ * -Djmh.senhaBanco=... -Djmh.linhasChaves=10000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(1)
+public class ChavePrimariaBenchmark {
+
+    private static final String TABELA = "chaves_benchmark";
+    private static final int TAMANHO_BATCH = 1_000;
+    private static final int COMMIT_A_CADA = 100_000;
+
+    @Param({"v4", "v7"})
+    private String chave;
+
+    @Param({"1000000"})
+    private int linhas;
+
+    /** URL JDBC, sem parâmetros (o JMH não aceita '=' no valor); o usuário e a senha vêm à parte. */
+    @Param({"jdbc:h2:mem:chaves"})
+    private String urlBanco;
+
+    @Param({"sa"})
+    private String usuarioBanco;
+
+    @Param({"sa"})
+    private String senhaBanco;
+
+    private Connection conexao;
+
+    @Setup(Level.Iteration)
+    public void criarTabela() throws SQLException {
+        conexao = DriverManager.getConnection(urlBanco, usuarioBanco, senhaBanco);
+        conexao.setAutoCommit(false);
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("drop table if exists " + TABELA);
+            comando.execute("create table " + TABELA + " ("
+                    + "id uuid primary key, conta_origem varchar(6) not null, conta_destino varchar(6) not null,"
+                    + " valor_transferencia numeric(19,2) not null, taxa numeric(19,2) not null,"
+                    + " data_transferencia date not null, data_agendamento date not null)");
+        }
+        conexao.commit();
+    }
+
+    @Benchmark
+    public int inserir() throws SQLException {
+        boolean ordenada = "v7".equals(chave);
+        Date hoje = Date.valueOf(LocalDate.now());
+        Date amanha = Date.valueOf(LocalDate.now().plusDays(1));
+        BigDecimal valor = new BigDecimal("100.00");
+        BigDecimal taxa = new BigDecimal("12.00");
+        try (PreparedStatement insert = conexao.prepareStatement("insert into " + TABELA
+                + " (id, conta_origem, conta_destino, valor_transferencia, taxa, data_transferencia,"
+                + " data_agendamento) values (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= linhas; i++) {
+                insert.setObject(1, ordenada ? GeradorUuidV7.gerar() : UUID.randomUUID());
+                insert.setString(2, "123456");
+                insert.setString(3, "654321");
+                insert.setBigDecimal(4, valor);
+                insert.setBigDecimal(5, taxa);
+                insert.setDate(6, amanha);
+                insert.setDate(7, hoje);
+                insert.addBatch();
+                if (i % TAMANHO_BATCH == 0 || i == linhas) {
+                    insert.executeBatch();
+                }
+                if (i % COMMIT_A_CADA == 0 || i == linhas) {
+                    conexao.commit();
+                }
+            }
+        }
+        return linhas;
+    }
+
+    @TearDown(Level.Iteration)
+    public void medirIndice() throws SQLException {
+        if (conexao.getMetaData().getDatabaseProductName().equalsIgnoreCase("PostgreSQL")) {
+            try (Statement comando = conexao.createStatement();
+                 ResultSet resultado = comando.executeQuery(
+                         "select pg_relation_size('" + TABELA + "_pkey'), pg_relation_size('" + TABELA + "')")) {
+                resultado.next();
+                System.out.printf("%nChave %s, %d linhas: índice da chave primária %d MB, tabela %d MB%n",
+                        chave, linhas, resultado.getLong(1) / (1024 * 1024), resultado.getLong(2) / (1024 * 1024));
+            }
+        }
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("drop table " + TABELA);
+        }
+        conexao.commit();
+        conexao.close();
+    }
+}
@@ -0,0 +1,52 @@
+package com.empresa.transferencias.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a serialização e a desserialização JSON de {@link Transferencia}
+ * com um ObjectMapper configurado como o da aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferenciaJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Transferencia transferencia;
+    private byte[] json;
+
+    @Setup
+    public void preparar() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        transferencia = new Transferencia();
+        transferencia.setId(UUID.randomUUID());
+        transferencia.setContaOrigem("123456");
+        transferencia.setContaDestino("654321");
+        transferencia.setValorTransferencia(new BigDecimal("1500.00"));
+        transferencia.setTaxa(new BigDecimal("12.0"));
+        transferencia.setDataTransferencia(LocalDate.now().plusDays(10));
+        transferencia.setDataAgendamento(LocalDate.now());
+        json = objectMapper.writeValueAsBytes(transferencia);
+    }
+
+    @Benchmark
+    public byte[] serializar() throws IOException {
+        return objectMapper.writeValueAsBytes(transferencia);
+    }
+
+    @Benchmark
+    public Transferencia desserializar() throws IOException {
+        return objectMapper.readValue(json, Transferencia.class);
+    }
+}
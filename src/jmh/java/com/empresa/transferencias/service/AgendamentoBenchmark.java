@@ -0,0 +1,61 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.ResultadoAgendamento;
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import com.empresa.transferencias.repository.TransferenciaRepositoryEmMemoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o caminho completo de agendamento (validação, cálculo de taxa e
+ * persistência) contra um repositório em memória, isolando o custo da
+ * aplicação do custo do banco de dados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgendamentoBenchmark {
+
+    /**
+     * Antecedência da transferência. 5 e 30 medem agendamentos aceitos;
+     * 0 mede a rejeição, já que a data de transferência deve ser futura
+     * (valida, sem calcular a taxa nem gravar).
+     */
+    @Param({"0", "5", "30"})
+    private int diasAntecedencia;
+
+    private TransferenciaService service;
+    private LocalDate dataTransferencia;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransferenciaRepository repositorio = new TransferenciaRepositoryEmMemoria();
+        service = new TransferenciaService(repositorio, new TransferenciaMetricas(registry),
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry),
+                new AgregadoDiarioContas(repositorio, null), null,
+                TransactionOperations.withoutTransaction(), null);
+        dataTransferencia = LocalDate.now().plusDays(diasAntecedencia);
+    }
+
+    @Benchmark
+    public ResultadoAgendamento agendarTransferencia() {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem("123456");
+        transferencia.setContaDestino("654321");
+        transferencia.setValorTransferencia(new BigDecimal("1500.00"));
+        transferencia.setDataTransferencia(dataTransferencia);
+        return service.agendarTransferencia(transferencia);
+    }
+}
@@ -0,0 +1,56 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.CotacaoTaxa;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o cálculo de taxa em cada faixa de dias e percorrendo todas as faixas,
+ * e a cotação completa (validação do valor e da data mais o cálculo). Com 0
+ * dias, a cotação mede o caminho da rejeição (a data deve ser futura).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxaBenchmark {
+
+    @Param({"0", "5", "15", "25", "35", "45"})
+    private int diasDiferenca;
+
+    private BigDecimal valor;
+    private TransferenciaService service;
+    private LocalDate hoje;
+
+    @Setup
+    public void preparar() {
+        valor = new BigDecimal("1534.27");
+        // A cotação não usa repositório, cache nem métricas.
+        service = new TransferenciaService(null, null, null, null, null, null, null);
+        hoje = LocalDate.now();
+    }
+
+    @Benchmark
+    public BigDecimal calcularTaxaPorFaixa() {
+        return TransferenciaService.calcularTaxa(diasDiferenca, valor);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(51)
+    public void calcularTaxaTodosOsDias(Blackhole blackhole) {
+        for (int dias = 0; dias <= 50; dias++) {
+            blackhole.consume(TransferenciaService.calcularTaxa(dias, valor));
+        }
+    }
+
+    @Benchmark
+    public CotacaoTaxa cotarTaxa() {
+        return service.cotarTaxa(valor, hoje.plusDays(diasDiferenca), hoje);
+    }
+}
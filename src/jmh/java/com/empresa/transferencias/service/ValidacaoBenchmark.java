@@ -0,0 +1,76 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.ResultadoValidacao;
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import com.empresa.transferencias.repository.TransferenciaRepositoryEmMemoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a validação de uma transferência, tanto para dados válidos quanto
+ * para dados rejeitados. A rejeição devolve um resultado, sem exceção, e
+ * a validação de uma transferência válida não aloca memória (verificável
+ * com {@code -prof gc}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoBenchmark {
+
+    private TransferenciaService service;
+    private Transferencia valida;
+    private Transferencia contasIguais;
+    private Transferencia variasViolacoes;
+    private LocalDate hoje;
+
+    @Setup
+    public void preparar() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransferenciaRepository repositorio = new TransferenciaRepositoryEmMemoria();
+        service = new TransferenciaService(repositorio, new TransferenciaMetricas(registry),
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry),
+                new AgregadoDiarioContas(repositorio, null), null,
+                TransactionOperations.withoutTransaction(), null);
+        valida = criar("123456", "654321");
+        contasIguais = criar("123456", "123456");
+        variasViolacoes = criar("12345", "1234567");
+        variasViolacoes.setValorTransferencia(BigDecimal.ZERO);
+        variasViolacoes.setDataTransferencia(null);
+        hoje = LocalDate.now();
+    }
+
+    private static Transferencia criar(String origem, String destino) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem(origem);
+        transferencia.setContaDestino(destino);
+        transferencia.setValorTransferencia(new BigDecimal("250.00"));
+        transferencia.setDataTransferencia(LocalDate.now().plusDays(15));
+        return transferencia;
+    }
+
+    @Benchmark
+    public ResultadoValidacao validarTransferenciaValida() {
+        return service.validarTransferencia(valida, hoje);
+    }
+
+    @Benchmark
+    public ResultadoValidacao validarTransferenciaRejeitada() {
+        return service.validarTransferencia(contasIguais, hoje);
+    }
+
+    @Benchmark
+    public ResultadoValidacao validarTransferenciaComVariasViolacoes() {
+        return service.validarTransferencia(variasViolacoes, hoje);
+    }
+}
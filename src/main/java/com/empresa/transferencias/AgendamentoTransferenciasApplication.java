@@ -2,11 +2,24 @@ package com.empresa.transferencias;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AgendamentoTransferenciasApplication {
 
+	/**
+	 * Propriedade de sistema da execução de treino do arquivo CDS (perfil
+	 * Maven cds): a aplicação encerra assim que termina de inicializar, após
+	 * carregar as classes usadas na inicialização.
+	 */
+	static final String PROPRIEDADE_TREINO_CDS = "transferencias.treino-cds";
+
 	public static void main(String[] args) {
-		SpringApplication.run(AgendamentoTransferenciasApplication.class, args);
+		ConfigurableApplicationContext contexto = SpringApplication.run(AgendamentoTransferenciasApplication.class, args);
+		if (Boolean.getBoolean(PROPRIEDADE_TREINO_CDS)) {
+			System.exit(SpringApplication.exit(contexto));
+		}
 	}
 }
@@ -0,0 +1,172 @@
+package com.empresa.transferencias.config;
+
+import com.empresa.transferencias.controller.CotacaoTaxaController;
+import com.empresa.transferencias.controller.EventoTransferenciaController;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Filtro de controle de admissão.
+ * Limita a quantidade de requisições em processamento simultâneo ao tamanho
+ * do pool de conexões. Quando não há vaga dentro do tempo de espera máximo, a
+ * requisição é recusada imediatamente (429/503 com Retry-After), em vez de
+ * ficar enfileirada aguardando uma conexão.
+ *
+ * Em requisições assíncronas (ex.: transmissão em NDJSON), a vaga só é
+ * liberada quando a resposta é concluída.
+ */
+public class AdmissaoFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissaoFilter.class);
+
+    private final Semaphore vagas;
+    private final long esperaMaximaNanos;
+    private final int statusRecusa;
+    private final String retryAfter;
+    private final Counter recusas;
+
+    /**
+     * @param admissao Configuração do controle de admissão.
+     * @param registry Registro de métricas para vagas em uso e recusas.
+     */
+    public AdmissaoFilter(ExecucaoProperties.Admissao admissao, MeterRegistry registry) {
+        this.vagas = new Semaphore(admissao.getMaximoConcorrentes());
+        this.esperaMaximaNanos = admissao.getEsperaMaxima().toNanos();
+        this.statusRecusa = admissao.getStatusRecusa();
+        this.retryAfter = String.valueOf(admissao.getRetryAfterSegundos());
+        this.recusas = Counter.builder("transferencias.admissao.recusas")
+                .description("Requisições recusadas por falta de capacidade")
+                .register(registry);
+        int maximo = admissao.getMaximoConcorrentes();
+        Gauge.builder("transferencias.admissao.em.uso", vagas, s -> maximo - s.availablePermits())
+                .description("Requisições em processamento")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!adquirirVaga()) {
+            recusar(response);
+            return;
+        }
+        AtomicBoolean liberada = new AtomicBoolean();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberarVagaListener(liberada));
+            } else {
+                liberar(liberada);
+            }
+        }
+    }
+
+    private boolean adquirirVaga() {
+        try {
+            return vagas.tryAcquire(esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void liberar(AtomicBoolean liberada) {
+        if (liberada.compareAndSet(false, true)) {
+            vagas.release();
+        }
+    }
+
+    private void recusar(HttpServletResponse response) throws IOException {
+        recusas.increment();
+        logger.debug("Requisição recusada por falta de capacidade.");
+        response.setStatus(statusRecusa);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"erro\":\"Serviço sobrecarregado. Tente novamente em instantes.\"}");
+    }
+
+    /**
+     * Requisições de preflight (OPTIONS) não ocupam conexões e não passam pelo
+     * controle. O acompanhamento de eventos por SSE (GET em
+     * {@link EventoTransferenciaController#CAMINHO}) também não: a conexão fica
+     * aberta por minutos, mas só usa uma conexão do banco durante cada
+     * consulta, feita fora da thread da requisição. As cotações de taxa não
+     * acessam o banco e também ficam de fora.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return HttpMethod.OPTIONS.matches(request.getMethod()) || isCotacao(request) || isAcompanhamentoSse(request);
+    }
+
+    private static boolean isAcompanhamentoSse(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())
+                || !request.getRequestURI().equals(request.getContextPath() + EventoTransferenciaController.CAMINHO)) {
+            return false;
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private static boolean isCotacao(HttpServletRequest request) {
+        return request.getRequestURI().equals(request.getContextPath() + CotacaoTaxaController.CAMINHO);
+    }
+
+    /**
+     * Os filtros não são executados novamente no despacho assíncrono: a vaga
+     * adquirida na requisição original vale até a conclusão da resposta.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    private class LiberarVagaListener implements AsyncListener {
+
+        private final AtomicBoolean liberada;
+
+        LiberarVagaListener(AtomicBoolean liberada) {
+            this.liberada = liberada;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar(liberada);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar(liberada);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar(liberada);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
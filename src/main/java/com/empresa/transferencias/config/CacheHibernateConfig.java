@@ -0,0 +1,75 @@
+package com.empresa.transferencias.config;
+
+import com.empresa.transferencias.model.Transferencia;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cria as regiões do cache de segundo nível do Hibernate (JCache sobre o
+ * Caffeine), com tamanho máximo e expiração, e as entrega ao Hibernate.
+ *
+ * - Entidade {@link Transferencia}: consultas por id sem acesso ao banco.
+ *   A expiração limita o tempo em que uma instância serve uma transferência
+ *   alterada por outra instância (ex.: status após a liquidação).
+ *
+ * O cache de consultas fica desabilitado: com o pool de leitura, um
+ * resultado lido na réplica seria servido às leituras que devem ir ao
+ * primário, e a região de consultas é descartada a cada gravação na tabela.
+ *
+ * Habilitado por {@code spring.jpa.properties.hibernate.cache.use_second_level_cache=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class CacheHibernateConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheHibernateConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerHibernate(
+            @Value("${transferencias.cache.hibernate.maximo-entidades:100000}") long maximoEntidades,
+            @Value("${transferencias.cache.hibernate.expiracao-entidades:5m}") Duration expiracaoEntidades) {
+        CachingProvider provedor = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Um gerenciador por contexto: o padrão do provedor é compartilhado na JVM.
+        CacheManager cacheManager = provedor.getCacheManager(
+                URI.create("transferencias-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(Transferencia.class.getName(), regiao(maximoEntidades, expiracaoEntidades));
+        logger.info("Cache de segundo nível do Hibernate: até {} transferências por {}.",
+                maximoEntidades, expiracaoEntidades);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheHibernate(CacheManager cacheManagerHibernate) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerHibernate);
+    }
+
+    private static CaffeineConfiguration<Object, Object> regiao(long maximo, Duration expiracao) {
+        CaffeineConfiguration<Object, Object> configuracao = regiao();
+        configuracao.setMaximumSize(OptionalLong.of(maximo));
+        configuracao.setExpireAfterWrite(OptionalLong.of(expiracao.toNanos()));
+        return configuracao;
+    }
+
+    private static CaffeineConfiguration<Object, Object> regiao() {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        // O Hibernate já guarda cópias desmontadas das entidades; não há o que copiar de novo.
+        configuracao.setStoreByValue(false);
+        return configuracao;
+    }
+}
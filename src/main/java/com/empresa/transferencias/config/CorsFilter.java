@@ -7,23 +7,57 @@ import java.io.IOException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 
+/**
+ * Filtro de CORS.
+ * As origens permitidas ({@code cors.allowed-origins}) são compiladas na
+ * inicialização. Sem configuração, nenhuma origem é permitida: como as
+ * respostas liberam credenciais, cada ambiente deve listar explicitamente as
+ * suas origens (em desenvolvimento, {@code application-dev.properties}
+ * permite {@code http://localhost:*}). Cada requisição faz apenas uma
+ * consulta à política de origens. Requisições de preflight são respondidas diretamente, sem passar
+ * pelo restante da cadeia, com {@code Access-Control-Max-Age} para que o
+ * navegador reutilize a resposta.
+ *
+ * Executa antes do controle de admissão, para que respostas recusadas por
+ * sobrecarga também tragam os cabeçalhos de CORS.
+ */
 @Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
 public class CorsFilter implements Filter {
 
     private static final Logger logger = LoggerFactory.getLogger(CorsFilter.class);
 
-    @Override
-    public void init(FilterConfig filterConfig) throws ServletException {
-        try {
-            logger.info("Inicializando CorsFilter...");
-        } catch (Exception e) {
-            throw new ServletException("Erro ao inicializar o CorsFilter", e);
+    private static final String METODOS_PERMITIDOS = "GET, POST, PUT, DELETE, OPTIONS";
+    private static final String CABECALHOS_PERMITIDOS = "Authorization, Content-Type, Accept, Idempotency-Key";
+    private static final String CABECALHOS_EXPOSTOS = "Idempotent-Replayed, Retry-After";
+
+    private final OrigensPermitidas origensPermitidas;
+    private final String maxAge;
+
+    /**
+     * @param allowedOrigins  Origens permitidas; aceita curingas ("*", "http://localhost:*").
+     * @param maxAgeSegundos  Tempo, em segundos, que o navegador pode reutilizar o preflight.
+     * @param maximoDecisoes  Quantidade máxima de origens com decisão mantida em cache.
+     */
+    public CorsFilter(@Value("${cors.allowed-origins:}") String[] allowedOrigins,
+                      @Value("${cors.max-age:3600}") long maxAgeSegundos,
+                      @Value("${cors.cache-decisoes:1000}") long maximoDecisoes) {
+        this.origensPermitidas = new OrigensPermitidas(allowedOrigins, maximoDecisoes);
+        this.maxAge = String.valueOf(maxAgeSegundos);
+        if (allowedOrigins.length == 0) {
+            logger.warn("Nenhuma origem de CORS configurada (cors.allowed-origins): "
+                    + "requisições de outras origens serão recusadas.");
+        } else {
+            logger.info("CorsFilter inicializado para as origens: {}", String.join(", ", allowedOrigins));
         }
     }
 
-
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -31,26 +65,34 @@ public class CorsFilter implements Filter {
         HttpServletRequest req = (HttpServletRequest) request;
         HttpServletResponse res = (HttpServletResponse) response;
 
-        String origin = req.getHeader("Origin");
-        logger.info("Requisição recebida com origem: {}", origin);
+        String origin = req.getHeader(HttpHeaders.ORIGIN);
+        boolean permitida = origin != null && origensPermitidas.permite(origin);
 
-        if (origin != null && res.getHeader("Access-Control-Allow-Origin") == null) {
-            res.setHeader("Access-Control-Allow-Origin", origin);
-            res.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
-            res.setHeader("Access-Control-Allow-Headers", "Authorization, Content-Type, Accept");
-            res.setHeader("Access-Control-Allow-Credentials", "true");
+        if (permitida && res.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN) == null) {
+            res.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+            res.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            res.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, CABECALHOS_EXPOSTOS);
+            res.addHeader(HttpHeaders.VARY, HttpHeaders.ORIGIN);
         }
 
         if ("OPTIONS".equalsIgnoreCase(req.getMethod())) {
-            logger.info("CORS preflight request detectada, enviando resposta...");
-            res.setStatus(HttpServletResponse.SC_OK);
+            responderPreflight(origin, permitida, res);
         } else {
             chain.doFilter(request, response);
         }
     }
 
-    @Override
-    public void destroy() {
-        logger.info("Destruindo CorsFilter...");
+    private void responderPreflight(String origin, boolean permitida, HttpServletResponse res) {
+        if (origin != null && !permitida) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Preflight recusado para a origem: {}", origin);
+            }
+            res.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return;
+        }
+        res.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, METODOS_PERMITIDOS);
+        res.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, CABECALHOS_PERMITIDOS);
+        res.setHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE, maxAge);
+        res.setStatus(HttpServletResponse.SC_OK);
     }
 }
@@ -0,0 +1,97 @@
+package com.empresa.transferencias.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configura o modo de execução das requisições e o controle de admissão.
+ *
+ * No modo VIRTUAL, o executor do Tomcat é substituído por um executor de
+ * virtual threads, obtido por reflexão para que a aplicação continue
+ * compilando e executando em JDKs anteriores ao 21 (nesse caso, o pool de
+ * threads de plataforma é mantido).
+ */
+@Configuration
+@EnableConfigurationProperties(ExecucaoProperties.class)
+public class ExecucaoConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecucaoConfig.class);
+
+    /**
+     * Registra o controle de admissão em {@code /api/*}.
+     *
+     * Com a gravação agrupada, cada agendamento aguarda o commit do seu grupo
+     * sem ocupar uma conexão; limitadas ao tamanho do pool, as requisições
+     * nunca completariam um grupo de {@code tamanho-grupo}. Nesse caso o
+     * limite recebe também a {@code capacidade} da fila, que já recusa com
+     * 503 o que passar dela.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "transferencias.execucao.admissao.habilitada", matchIfMissing = true)
+    public FilterRegistrationBean<AdmissaoFilter> admissaoFilter(
+            ExecucaoProperties properties, MeterRegistry registry,
+            @Value("${transferencias.gravacao-agrupada.habilitada:false}") boolean gravacaoAgrupada,
+            @Value("${transferencias.gravacao-agrupada.capacidade:4096}") int capacidadeGravacao) {
+        ExecucaoProperties.Admissao admissao = properties.getAdmissao();
+        if (gravacaoAgrupada) {
+            admissao = ampliar(admissao, capacidadeGravacao);
+        }
+        FilterRegistrationBean<AdmissaoFilter> registro =
+                new FilterRegistrationBean<>(new AdmissaoFilter(admissao, registry));
+        registro.addUrlPatterns("/api/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        logger.info("Controle de admissão habilitado: {} requisições simultâneas, espera máxima de {}.",
+                admissao.getMaximoConcorrentes(), admissao.getEsperaMaxima());
+        return registro;
+    }
+
+    /**
+     * @return Cópia da configuração de admissão com {@code vagas} a mais.
+     */
+    static ExecucaoProperties.Admissao ampliar(ExecucaoProperties.Admissao admissao, int vagas) {
+        ExecucaoProperties.Admissao ampliada = new ExecucaoProperties.Admissao();
+        ampliada.setHabilitada(admissao.isHabilitada());
+        ampliada.setMaximoConcorrentes(admissao.getMaximoConcorrentes() + vagas);
+        ampliada.setEsperaMaxima(admissao.getEsperaMaxima());
+        ampliada.setStatusRecusa(admissao.getStatusRecusa());
+        ampliada.setRetryAfterSegundos(admissao.getRetryAfterSegundos());
+        return ampliada;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "transferencias.execucao.modo", havingValue = "VIRTUAL")
+    public TomcatProtocolHandlerCustomizer<?> executorVirtualThreads() {
+        ExecutorService executor = criarExecutorVirtual();
+        return protocolHandler -> {
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+                logger.info("Requisições HTTP executadas em virtual threads.");
+            }
+        };
+    }
+
+    /**
+     * @return Executor de virtual threads, ou null se o JDK em execução não oferecer suporte.
+     */
+    static ExecutorService criarExecutorVirtual() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads indisponíveis no Java {}. Mantendo o pool de threads de plataforma.",
+                    System.getProperty("java.version"));
+            return null;
+        }
+    }
+}
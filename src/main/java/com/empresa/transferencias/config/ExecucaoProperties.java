@@ -0,0 +1,65 @@
+package com.empresa.transferencias.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades do modo de execução das requisições e do controle de admissão
+ * ({@code transferencias.execucao.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "transferencias.execucao")
+public class ExecucaoProperties {
+
+    /**
+     * Modos de execução das requisições HTTP.
+     */
+    public enum Modo {
+        /**
+         * Pool de threads de plataforma do Tomcat ({@code server.tomcat.threads.*}).
+         */
+        PLATAFORMA,
+        /**
+         * Uma virtual thread por requisição. Requer JDK 21 ou superior em tempo
+         * de execução; em JDKs anteriores a aplicação volta ao modo PLATAFORMA.
+         */
+        VIRTUAL
+    }
+
+    private Modo modo = Modo.PLATAFORMA;
+
+    private Admissao admissao = new Admissao();
+
+    @Data
+    public static class Admissao {
+
+        /**
+         * Habilita o controle de admissão nas rotas {@code /api/*}.
+         */
+        private boolean habilitada = true;
+
+        /**
+         * Requisições processadas simultaneamente. Deve acompanhar o tamanho do
+         * pool de conexões, já que cada requisição ocupa uma conexão. Com a
+         * gravação agrupada habilitada, soma-se a capacidade da fila dela.
+         */
+        private int maximoConcorrentes = 10;
+
+        /**
+         * Tempo máximo que uma requisição aguarda por uma vaga antes de ser recusada.
+         */
+        private Duration esperaMaxima = Duration.ofMillis(100);
+
+        /**
+         * Status HTTP das requisições recusadas (429 ou 503).
+         */
+        private int statusRecusa = 503;
+
+        /**
+         * Valor, em segundos, do cabeçalho Retry-After das requisições recusadas.
+         */
+        private int retryAfterSegundos = 1;
+    }
+}
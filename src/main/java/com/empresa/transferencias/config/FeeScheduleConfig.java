@@ -0,0 +1,43 @@
+package com.empresa.transferencias.config;
+
+import com.empresa.transferencias.service.FeeSchedule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Carrega a tabela de taxas a partir das propriedades e a publica como
+ * tabela em uso no início da aplicação.
+ */
+@Configuration
+@EnableConfigurationProperties(FeeScheduleProperties.class)
+public class FeeScheduleConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeeScheduleConfig.class);
+
+    @Bean
+    public FeeSchedule feeSchedule(FeeScheduleProperties properties) {
+        FeeSchedule tabela = criarTabela(properties);
+        FeeSchedule.instalar(tabela);
+        logger.info("Tabela de taxas carregada com {} faixas, até {} dias.",
+                tabela.getFaixas().size(), tabela.getDiasMaximos());
+        return tabela;
+    }
+
+    static FeeSchedule criarTabela(FeeScheduleProperties properties) {
+        if (properties.getFaixas().isEmpty()) {
+            return FeeSchedule.padrao();
+        }
+        List<FeeSchedule.Faixa> faixas = properties.getFaixas().stream()
+                .map(f -> new FeeSchedule.Faixa(f.getDiaInicial(), f.getDiaFinal(), f.getPercentual(), f.getTaxaFixa()))
+                .collect(Collectors.toList());
+        return properties.getEscala() == null
+                ? FeeSchedule.de(faixas)
+                : FeeSchedule.de(faixas, properties.getEscala(), properties.getArredondamento());
+    }
+}
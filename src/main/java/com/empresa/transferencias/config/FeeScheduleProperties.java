@@ -0,0 +1,43 @@
+package com.empresa.transferencias.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propriedades da tabela de taxas ({@code transferencias.taxas.*}).
+ * Quando nenhuma faixa é configurada, a tabela padrão do sistema é utilizada.
+ */
+@Data
+@ConfigurationProperties(prefix = "transferencias.taxas")
+public class FeeScheduleProperties {
+
+    /**
+     * Faixas de dias, contíguas a partir do dia 0.
+     */
+    private List<Faixa> faixas = new ArrayList<>();
+
+    /**
+     * Casas decimais da taxa calculada. Quando ausente, a taxa mantém a
+     * escala exata resultante do cálculo.
+     */
+    private Integer escala;
+
+    /**
+     * Modo de arredondamento aplicado quando a escala é informada.
+     */
+    private RoundingMode arredondamento = RoundingMode.HALF_EVEN;
+
+    @Data
+    public static class Faixa {
+
+        private int diaInicial;
+        private int diaFinal;
+        private BigDecimal percentual = BigDecimal.ZERO;
+        private BigDecimal taxaFixa = BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,39 @@
+package com.empresa.transferencias.config;
+
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.service.FeeSchedule;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Define quais beans continuam sendo criados na inicialização quando a
+ * inicialização preguiçosa está ativa ({@code spring.main.lazy-initialization},
+ * perfil prod-fast). Permanecem imediatos os beans cujo efeito depende de
+ * serem criados no início:
+ * - a tabela de taxas, publicada ao ser criada;
+ * - as métricas, que devem existir (zeradas) antes do primeiro uso;
+ * - beans com trabalho na inicialização ({@link SmartInitializingSingleton}),
+ *   como a reconstrução do agregado por conta;
+ * - beans com métodos {@link Scheduled}, registrados apenas quando criados.
+ */
+@Configuration
+public class InicializacaoConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter beansDeInicializacao() {
+        return (nome, definicao, tipo) -> FeeSchedule.class.isAssignableFrom(tipo)
+                || TransferenciaMetricas.class.isAssignableFrom(tipo)
+                || SmartInitializingSingleton.class.isAssignableFrom(tipo)
+                || possuiMetodoAgendado(tipo);
+    }
+
+    static boolean possuiMetodoAgendado(Class<?> tipo) {
+        return !MethodIntrospector.selectMethods(tipo, (MethodIntrospector.MetadataLookup<Boolean>) metodo ->
+                AnnotatedElementUtils.hasAnnotation(metodo, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
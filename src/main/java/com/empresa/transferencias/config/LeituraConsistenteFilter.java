@@ -0,0 +1,165 @@
+package com.empresa.transferencias.config;
+
+import com.empresa.transferencias.controller.CotacaoTaxaController;
+import com.empresa.transferencias.repository.RoteamentoLeitura;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Duration;
+
+/**
+ * Filtro que garante que o cliente leia as próprias gravações com a réplica
+ * de leitura habilitada.
+ *
+ * Requisições de gravação (qualquer método exceto GET, HEAD e OPTIONS) fazem
+ * todas as leituras no primário e devolvem o cookie
+ * {@value #COOKIE}, com o instante (epoch em milissegundos) até o qual as
+ * leituras do cliente continuam no primário. Enquanto o cookie for válido,
+ * as consultas do cliente também usam o primário; depois, voltam para o
+ * pool de leitura. A janela deve cobrir o atraso de replicação esperado.
+ * Ela é contada a partir do envio da resposta (o primeiro acesso ao corpo,
+ * ou o fim da requisição se não houver corpo), e não do início: numa
+ * gravação demorada, a janela contada da chegada já teria em parte passado
+ * quando o commit acontece.
+ *
+ * Clientes que não guardam cookies podem reenviar o valor recebido no
+ * cabeçalho {@code Cookie}.
+ *
+ * As cotações de taxa não passam pelo filtro: não acessam o banco, e a
+ * cotação em lote, apesar do POST, não grava nada e não deve mandar as
+ * leituras seguintes do cliente para o primário.
+ */
+public class LeituraConsistenteFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "leitura-primario-ate";
+
+    private final Duration janela;
+
+    /**
+     * @param janela Tempo, após uma gravação, em que as leituras do cliente são feitas no primário.
+     */
+    public LeituraConsistenteFilter(Duration janela) {
+        this.janela = janela;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RespostaComCookie resposta = null;
+        if (isGravacao(request)) {
+            resposta = new RespostaComCookie(response);
+        } else if (!dentroDaJanela(request, System.currentTimeMillis())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        RoteamentoLeitura.exigirPrimario();
+        try {
+            chain.doFilter(request, resposta != null ? resposta : response);
+        } finally {
+            RoteamentoLeitura.liberar();
+            if (resposta != null && !request.isAsyncStarted()) {
+                resposta.adicionarCookie();
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().equals(request.getContextPath() + CotacaoTaxaController.CAMINHO);
+    }
+
+    private static boolean isGravacao(HttpServletRequest request) {
+        String metodo = request.getMethod();
+        return !HttpMethod.GET.matches(metodo) && !HttpMethod.HEAD.matches(metodo)
+                && !HttpMethod.OPTIONS.matches(metodo);
+    }
+
+    /**
+     * Resposta que adiciona o cookie {@value #COOKIE} imediatamente antes de
+     * o corpo começar a ser escrito, quando os cabeçalhos ainda podem ser
+     * alterados.
+     */
+    private final class RespostaComCookie extends HttpServletResponseWrapper {
+
+        private boolean cookieAdicionado;
+
+        RespostaComCookie(HttpServletResponse response) {
+            super(response);
+        }
+
+        void adicionarCookie() {
+            if (cookieAdicionado || isCommitted()) {
+                return;
+            }
+            cookieAdicionado = true;
+            ResponseCookie cookie = ResponseCookie.from(COOKIE,
+                            String.valueOf(System.currentTimeMillis() + janela.toMillis()))
+                    .maxAge(Duration.ofSeconds(Math.max(1, janela.toSeconds())))
+                    .path("/api")
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            adicionarCookie();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            adicionarCookie();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            adicionarCookie();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            adicionarCookie();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            adicionarCookie();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            adicionarCookie();
+            super.sendRedirect(location);
+        }
+    }
+
+    private static boolean dentroDaJanela(HttpServletRequest request, long agora) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(cookie.getValue()) > agora;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.empresa.transferencias.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Separa as conexões em dois pools Hikari: o primário, que recebe as
+ * gravações, e o de leitura, usado pelas transações somente leitura
+ * (uma réplica, ou o próprio primário em ambientes locais).
+ *
+ * O pool primário é configurado como o pool padrão do Spring Boot
+ * ({@code spring.datasource.*} e {@code spring.datasource.hikari.*}). O de
+ * leitura parte da mesma configuração e recebe por cima
+ * {@code transferencias.leitura.hikari.*}, onde ficam o endereço da réplica
+ * ({@code jdbc-url}) e o tamanho do pool. Com o AWS Advanced JDBC Wrapper,
+ * cada pool usa a URL {@code jdbc:aws-wrapper:postgresql://} do endpoint
+ * correspondente do cluster (escrita e somente leitura), e as propriedades
+ * do wrapper em {@code data-source-properties} valem para os dois.
+ *
+ * Habilitado por {@code transferencias.leitura.habilitada=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transferencias.leitura.habilitada", havingValue = "true")
+public class LeituraReplicaConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeituraReplicaConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties properties) {
+        HikariDataSource primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName("primario");
+        return primario;
+    }
+
+    @Bean
+    @ConfigurationProperties("transferencias.leitura.hikari")
+    public HikariDataSource dataSourceLeitura(DataSourceProperties properties,
+                                              @Qualifier("dataSourcePrimario") HikariDataSource primario) {
+        HikariDataSource leitura = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        leitura.setPoolName("leitura");
+        leitura.setDataSourceProperties(primario.getDataSourceProperties());
+        return leitura;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") HikariDataSource primario,
+                                 @Qualifier("dataSourceLeitura") HikariDataSource leitura) {
+        RoteamentoDataSource roteamento = new RoteamentoDataSource();
+        roteamento.setTargetDataSources(Map.of(
+                RoteamentoDataSource.Destino.PRIMARIO, primario,
+                RoteamentoDataSource.Destino.LEITURA, leitura));
+        roteamento.setDefaultTargetDataSource(primario);
+        roteamento.afterPropertiesSet();
+        logger.info("Pool de leitura habilitado: primário com até {} conexões, leitura com até {} conexões.",
+                primario.getMaximumPoolSize(), leitura.getMaximumPoolSize());
+        return new LazyConnectionDataSourceProxy(roteamento);
+    }
+
+    @Bean
+    public FilterRegistrationBean<LeituraConsistenteFilter> leituraConsistenteFilter(
+            @Value("${transferencias.leitura.janela-consistencia:5s}") Duration janela) {
+        FilterRegistrationBean<LeituraConsistenteFilter> registro =
+                new FilterRegistrationBean<>(new LeituraConsistenteFilter(janela));
+        registro.addUrlPatterns("/api/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registro;
+    }
+}
@@ -0,0 +1,79 @@
+package com.empresa.transferencias.config;
+
+import com.empresa.transferencias.dto.CampoTransferencia;
+import com.empresa.transferencias.dto.ListaTransferencias;
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.model.Transferencia;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Escreve {@link ListaTransferencias} diretamente no corpo da resposta com
+ * um {@link JsonGenerator}, transferência por transferência, sem construir
+ * mapas nem passar pela serialização por reflexão do Jackson.
+ */
+public class ListaTransferenciasHttpMessageConverter extends AbstractHttpMessageConverter<ListaTransferencias> {
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * @param jsonFactory Fábrica de geradores JSON (a do ObjectMapper da aplicação).
+     */
+    public ListaTransferenciasHttpMessageConverter(JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON);
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ListaTransferencias.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ListaTransferencias readInternal(Class<? extends ListaTransferencias> clazz, HttpInputMessage inputMessage)
+            throws HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("ListaTransferencias é apenas uma resposta.", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ListaTransferencias lista, HttpOutputMessage outputMessage) throws IOException {
+        JsonGenerator gerador = jsonFactory.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8);
+        gerador.writeStartObject();
+        gerador.writeNumberField("quantidade", lista.getQuantidade());
+        gerador.writeArrayFieldStart("transferencias");
+        for (Transferencia transferencia : lista.getTransferencias()) {
+            CampoTransferencia.escrever(gerador, transferencia, lista.getCampos());
+        }
+        gerador.writeEndArray();
+        if (lista.getProximoCursor() != null) {
+            gerador.writeStringField("proximoCursor", lista.getProximoCursor());
+        }
+        if (lista.getTotaisPorDia() != null) {
+            gerador.writeArrayFieldStart("totaisPorDia");
+            for (TotalDiario total : lista.getTotaisPorDia()) {
+                gerador.writeStartObject();
+                gerador.writeStringField("data", total.getData().toString());
+                gerador.writeNumberField("quantidade", total.getQuantidade());
+                gerador.writeNumberField("valorTotal", total.getValorTotal());
+                gerador.writeNumberField("taxaTotal", total.getTaxaTotal());
+                gerador.writeEndObject();
+            }
+            gerador.writeEndArray();
+        }
+        gerador.writeEndObject();
+        gerador.flush();
+    }
+}
@@ -0,0 +1,88 @@
+package com.empresa.transferencias.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Política de origens permitidas para CORS.
+ * As origens configuradas são compiladas uma única vez: valores exatos vão para
+ * um conjunto e valores com curinga (ex.: {@code http://localhost:*} ou
+ * {@code https://*.empresa.com}) viram expressões regulares. As decisões são
+ * guardadas em um cache limitado, já que o número de origens distintas
+ * recebidas é pequeno, mas não controlado pelo servidor.
+ */
+class OrigensPermitidas {
+
+    private static final String QUALQUER = "*";
+
+    private final boolean permiteQualquer;
+    private final Set<String> exatas = new HashSet<>();
+    private final List<Pattern> padroes = new ArrayList<>();
+    private final Cache<String, Boolean> decisoes;
+
+    /**
+     * @param origens         Origens permitidas; "*" permite qualquer origem.
+     * @param maximoDecisoes  Quantidade máxima de decisões mantidas em cache.
+     */
+    OrigensPermitidas(String[] origens, long maximoDecisoes) {
+        boolean qualquer = false;
+        for (String origem : origens) {
+            String valor = origem.trim();
+            if (valor.isEmpty()) {
+                continue;
+            }
+            if (QUALQUER.equals(valor)) {
+                qualquer = true;
+            } else if (valor.contains(QUALQUER)) {
+                padroes.add(compilar(valor));
+            } else {
+                exatas.add(valor.toLowerCase());
+            }
+        }
+        this.permiteQualquer = qualquer;
+        this.decisoes = Caffeine.newBuilder().maximumSize(maximoDecisoes).build();
+    }
+
+    /**
+     * @param origem Valor do cabeçalho Origin.
+     * @return true se a origem for permitida.
+     */
+    boolean permite(String origem) {
+        if (permiteQualquer) {
+            return true;
+        }
+        return decisoes.get(origem, this::avaliar);
+    }
+
+    private boolean avaliar(String origem) {
+        String normalizada = origem.toLowerCase();
+        if (exatas.contains(normalizada)) {
+            return true;
+        }
+        for (Pattern padrao : padroes) {
+            if (padrao.matcher(normalizada).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Converte um padrão com curingas em expressão regular. O curinga não
+     * atravessa "/", impedindo que um padrão de subdomínio aceite outro host.
+     */
+    private static Pattern compilar(String padrao) {
+        String[] partes = padrao.toLowerCase().split("\\*", -1);
+        StringBuilder regex = new StringBuilder(Pattern.quote(partes[0]));
+        for (int i = 1; i < partes.length; i++) {
+            regex.append("[^/]*").append(Pattern.quote(partes[i]));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package com.empresa.transferencias.config;
+
+import com.empresa.transferencias.repository.RoteamentoLeitura;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * DataSource que direciona as conexões de transações somente leitura
+ * ({@code @Transactional(readOnly = true)}) para o pool de leitura e as
+ * demais, inclusive as obtidas fora de transação, para o primário.
+ *
+ * A transação só é marcada como somente leitura depois de iniciada; por
+ * isso este DataSource deve ser envolvido por um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * que obtém a conexão apenas no primeiro comando SQL.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Destino de uma conexão.
+     */
+    public enum Destino {
+        PRIMARIO,
+        LEITURA
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return destinoAtual();
+    }
+
+    /**
+     * @return Destino das conexões obtidas pela thread atual.
+     */
+    static Destino destinoAtual() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !RoteamentoLeitura.isPrimarioExigido()) {
+            return Destino.LEITURA;
+        }
+        return Destino.PRIMARIO;
+    }
+}
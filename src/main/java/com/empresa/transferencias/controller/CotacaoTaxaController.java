@@ -0,0 +1,148 @@
+package com.empresa.transferencias.controller;
+
+import com.empresa.transferencias.dto.CotacaoTaxa;
+import com.empresa.transferencias.dto.ResultadoValidacao;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.service.TransferenciaService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST de cotação de taxas, para exibir a taxa antes do
+ * agendamento. As cotações não acessam o banco nem gravam nada: por isso não
+ * passam pelo controle de admissão nem pelo roteamento de leitura (ver
+ * {@link #CAMINHO}).
+ */
+@RestController
+@RequestMapping(CotacaoTaxaController.CAMINHO)
+public class CotacaoTaxaController {
+
+    /**
+     * Caminho das cotações, ignorado pelos filtros que reservam conexões do
+     * banco ({@code AdmissaoFilter} e {@code LeituraConsistenteFilter}).
+     */
+    public static final String CAMINHO = "/api/transferencias/taxa";
+
+    private static final Logger logger = LoggerFactory.getLogger(CotacaoTaxaController.class);
+    private static final int LIMITE_MAXIMO_COTACOES = 1000;
+
+    private final TransferenciaService service;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param service      Serviço com as regras de validação e cálculo de taxa.
+     * @param objectMapper Mapper JSON da aplicação, usado na leitura da cotação em lote.
+     */
+    @Autowired
+    public CotacaoTaxaController(TransferenciaService service, ObjectMapper objectMapper) {
+        this.service = service;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Endpoint para cotar a taxa de uma transferência agendada hoje.
+     *
+     * @param valor Valor da transferência.
+     * @param data  Data da transferência (formato yyyy-MM-dd).
+     * @return ResponseEntity contendo a cotação, ou erro com as violações caso
+     *         o valor ou a data sejam inválidos.
+     */
+    @GetMapping
+    public ResponseEntity<?> cotar(@RequestParam("valor") String valor, @RequestParam("data") String data) {
+        BigDecimal valorTransferencia;
+        LocalDate dataTransferencia;
+        try {
+            valorTransferencia = new BigDecimal(valor);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "Valor da transferência inválido: " + valor + "."
+            ));
+        }
+        try {
+            dataTransferencia = LocalDate.parse(data);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "Formato de data inválido: " + e.getMessage()
+            ));
+        }
+
+        CotacaoTaxa cotacao = service.cotarTaxa(valorTransferencia, dataTransferencia, LocalDate.now());
+        if (!cotacao.isValida()) {
+            ResultadoValidacao validacao = cotacao.getValidacao();
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "Erro de validação: " + validacao.getMensagem(),
+                    "violacoes", validacao.getViolacoes()
+            ));
+        }
+        return ResponseEntity.ok(cotacao);
+    }
+
+    /**
+     * Endpoint para cotar várias transferências de uma vez (ex.: simulação de
+     * um lote antes do envio). Os itens têm o formato do agendamento, mas só
+     * o valor e a data são considerados. Apesar do POST, nada é gravado.
+     *
+     * O array é lido de forma incremental, como no lote, e cada item é cotado
+     * assim que lido: a leitura para no item seguinte ao limite, sem
+     * desserializar o restante do corpo.
+     *
+     * @param corpo Corpo da requisição contendo um array JSON de transferências.
+     * @return ResponseEntity contendo uma cotação por item, na ordem recebida
+     *         (itens inválidos trazem as violações em vez da taxa), ou erro
+     *         caso o corpo não seja um array JSON válido ou a quantidade de
+     *         itens exceda o limite.
+     * @throws IOException Em caso de falha na leitura do corpo da requisição.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> cotarLote(InputStream corpo) throws IOException {
+        LocalDate hoje = LocalDate.now();
+        List<CotacaoTaxa> resultado = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(corpo)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "erro", "O corpo da requisição deve ser um array JSON."
+                ));
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (resultado.size() == LIMITE_MAXIMO_COTACOES) {
+                    logger.warn("Cotação recusada: mais de {} itens", LIMITE_MAXIMO_COTACOES);
+                    return ResponseEntity.badRequest().body(Map.of(
+                            "erro", "A quantidade de cotações deve ser no máximo " + LIMITE_MAXIMO_COTACOES + "."
+                    ));
+                }
+                Transferencia item = parser.readValueAs(Transferencia.class);
+                resultado.add(item == null
+                        ? service.cotarTaxa(null, null, hoje)
+                        : service.cotarTaxa(item.getValorTransferencia(), item.getDataTransferencia(), hoje));
+            }
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "JSON inválido: " + e.getOriginalMessage()
+            ));
+        }
+        return ResponseEntity.ok(resultado);
+    }
+}
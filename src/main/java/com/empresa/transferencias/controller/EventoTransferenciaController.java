@@ -0,0 +1,137 @@
+package com.empresa.transferencias.controller;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+import com.empresa.transferencias.service.AcompanhamentoEventos;
+import com.empresa.transferencias.service.EventosTransferencia;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Controlador REST do fluxo de eventos das transferências (outbox).
+ * Os consumidores acompanham as mudanças de forma incremental a partir de
+ * uma sequência, em NDJSON (consultas sucessivas) ou SSE (conexão aberta),
+ * em vez de consultar periodicamente a listagem completa.
+ *
+ * Com o outbox desabilitado, as rotas respondem 404. Como o corpo é
+ * transmitido, as respostas de erro não têm corpo; o motivo vai para o log.
+ */
+@RestController
+@RequestMapping(EventoTransferenciaController.CAMINHO)
+public class EventoTransferenciaController {
+
+    /**
+     * Caminho do fluxo de eventos; o acompanhamento por SSE nesse caminho não
+     * passa pelo {@code AdmissaoFilter}.
+     */
+    public static final String CAMINHO = "/api/transferencias/eventos";
+
+    private static final Logger logger = LoggerFactory.getLogger(EventoTransferenciaController.class);
+    private static final int LIMITE_MAXIMO = 10_000;
+
+    private final EventosTransferencia eventos;
+    private final AcompanhamentoEventos acompanhamento;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param eventos        Outbox dos eventos, ou {@code null} se desabilitado.
+     * @param acompanhamento Acompanhamento por SSE, ou {@code null} se o outbox estiver desabilitado.
+     * @param objectMapper   Mapper JSON usado na transmissão em NDJSON.
+     */
+    @Autowired
+    public EventoTransferenciaController(@Nullable EventosTransferencia eventos,
+                                         @Nullable AcompanhamentoEventos acompanhamento,
+                                         ObjectMapper objectMapper) {
+        this.eventos = eventos;
+        this.acompanhamento = acompanhamento;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Endpoint para ler os eventos posteriores a uma sequência, em NDJSON (um
+     * evento por linha, em ordem de sequência). O consumidor repete a
+     * requisição com a sequência da última linha recebida; uma resposta vazia
+     * indica que não há eventos novos.
+     *
+     * @param desde  Sequência do último evento já recebido (0 para o início).
+     * @param limite Quantidade máxima de eventos (1 a 10000).
+     * @return ResponseEntity com os eventos, 400 sem corpo se os parâmetros
+     *         forem inválidos ou 404 sem corpo se o outbox estiver desabilitado.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> listarEventos(
+            @RequestParam(value = "desde", defaultValue = "0") long desde,
+            @RequestParam(value = "limite", defaultValue = "1000") int limite) {
+        if (eventos == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (desde < 0 || limite < 1 || limite > LIMITE_MAXIMO) {
+            logger.warn("Parâmetros inválidos na leitura de eventos: desde={}, limite={}", desde, limite);
+            return ResponseEntity.badRequest().build();
+        }
+        List<EventoTransferencia> lote = eventos.buscarApos(desde, limite);
+        logger.debug("Eventos de transferência lidos após {}: {}", desde, lote.size());
+        StreamingResponseBody corpo = saida -> {
+            JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+            for (EventoTransferencia evento : lote) {
+                gerador.writeObject(evento);
+                gerador.writeRaw('\n');
+            }
+            gerador.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+
+    /**
+     * Endpoint para acompanhar os eventos por Server-Sent Events. Cada evento
+     * SSE tem como id a sequência e como nome o tipo do evento; ao
+     * reconectar, o cliente envia {@code Last-Event-ID} e continua de onde
+     * parou.
+     *
+     * @param desde       Sequência do último evento já recebido (0 para o início).
+     * @param ultimoEvento Cabeçalho {@code Last-Event-ID}, que prevalece sobre {@code desde}.
+     * @return Emissor SSE, 400 sem corpo se a sequência for inválida ou 404
+     *         sem corpo se o outbox estiver desabilitado.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> acompanharEventos(
+            @RequestParam(value = "desde", defaultValue = "0") long desde,
+            @RequestHeader(value = "Last-Event-ID", required = false) String ultimoEvento) {
+        if (acompanhamento == null) {
+            return ResponseEntity.notFound().build();
+        }
+        long inicio;
+        try {
+            inicio = ultimoEvento == null || ultimoEvento.isBlank() ? desde : Long.parseLong(ultimoEvento.trim());
+        } catch (NumberFormatException e) {
+            inicio = -1;
+        }
+        if (inicio < 0) {
+            logger.warn("Sequência inválida no acompanhamento de eventos: desde={}, Last-Event-ID={}",
+                    desde, ultimoEvento);
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("Acompanhamento de eventos iniciado a partir da sequência {}.", inicio);
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(acompanhamento.acompanhar(inicio));
+    }
+}
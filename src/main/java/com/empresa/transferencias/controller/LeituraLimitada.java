@@ -0,0 +1,107 @@
+package com.empresa.transferencias.controller;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Leitura de corpos de requisição com um limite por item (uma linha NDJSON
+ * ou um elemento de um array JSON), para que um único item enorme não seja
+ * guardado inteiro em memória.
+ */
+final class LeituraLimitada {
+
+    private LeituraLimitada() {
+    }
+
+    /**
+     * Lê a próxima linha, sem o terminador, guardando no máximo
+     * {@code tamanhoMaximo} caracteres: o restante de uma linha longa é
+     * descartado, sem ocupar memória.
+     *
+     * @param reader        Corpo da requisição.
+     * @param linha         Destino da linha lida; é esvaziado antes da leitura.
+     * @param tamanhoMaximo Quantidade máxima de caracteres guardados.
+     * @return Quantidade de caracteres da linha, ou -1 no fim do corpo.
+     * @throws IOException Em caso de falha na leitura do corpo.
+     */
+    static int lerLinha(BufferedReader reader, StringBuilder linha, int tamanhoMaximo) throws IOException {
+        linha.setLength(0);
+        int tamanho = 0;
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (c == '\r') {
+                continue;
+            }
+            if (tamanho++ < tamanhoMaximo) {
+                linha.append((char) c);
+            }
+        }
+        return c == -1 && tamanho == 0 ? -1 : tamanho;
+    }
+
+    /**
+     * Corpo que conta os bytes lidos desde o início do item corrente
+     * ({@link #iniciarItem()}) e falha com {@link ItemGrandeDemaisException}
+     * ao passar do limite. A contagem inclui a leitura antecipada do parser
+     * (até alguns KB), então o limite é aproximado e deve ficar bem acima do
+     * tamanho de um item válido.
+     */
+    static final class Corpo extends FilterInputStream {
+
+        private final long tamanhoMaximoItem;
+        private long lidosNoItem;
+
+        /**
+         * @param corpo             Corpo da requisição.
+         * @param tamanhoMaximoItem Quantidade máxima de bytes lidos por item.
+         */
+        Corpo(InputStream corpo, long tamanhoMaximoItem) {
+            super(corpo);
+            this.tamanhoMaximoItem = tamanhoMaximoItem;
+        }
+
+        /**
+         * Recomeça a contagem, no início de um novo item.
+         */
+        void iniciarItem() {
+            lidosNoItem = 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                contar(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int lidos = super.read(b, off, len);
+            if (lidos > 0) {
+                contar(lidos);
+            }
+            return lidos;
+        }
+
+        private void contar(int lidos) throws ItemGrandeDemaisException {
+            lidosNoItem += lidos;
+            if (lidosNoItem > tamanhoMaximoItem) {
+                throw new ItemGrandeDemaisException(tamanhoMaximoItem);
+            }
+        }
+    }
+
+    /**
+     * Item do corpo maior que o limite configurado.
+     */
+    static final class ItemGrandeDemaisException extends IOException {
+
+        ItemGrandeDemaisException(long tamanhoMaximo) {
+            super("Item com mais de " + tamanhoMaximo + " bytes.");
+        }
+    }
+}
@@ -1,61 +1,118 @@
 package com.empresa.transferencias.controller;
 
+import com.empresa.transferencias.dto.CampoTransferencia;
+import com.empresa.transferencias.dto.ListaTransferencias;
+import com.empresa.transferencias.dto.PaginaTransferencias;
+import com.empresa.transferencias.dto.ResultadoAgendamento;
+import com.empresa.transferencias.dto.ResultadoValidacao;
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.exception.GravacaoIndisponivelException;
 import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.service.IdempotenciaService;
+import com.empresa.transferencias.service.ResumoDiarioService;
 import com.empresa.transferencias.service.TransferenciaService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Controlador REST para gerenciar transferências financeiras.
- * Expõe endpoints para agendar e listar transferências.
+ * Expõe endpoints para agendar, listar (paginado ou em stream) e buscar
+ * transferências por data, por período ou por conta de origem.
  */
 @RestController
 @RequestMapping("/api/transferencias")
 public class TransferenciaController {
 
     private static final Logger logger = LoggerFactory.getLogger(TransferenciaController.class);
+    private static final int LIMITE_MAXIMO_PAGINA = 1000;
+    private static final int TAMANHO_CONTA = 6;
+    private static final String PADRAO_UUID = "[0-9a-fA-F]{8}(?:-[0-9a-fA-F]{4}){3}-[0-9a-fA-F]{12}";
+
     private final TransferenciaService service;
+    private final IdempotenciaService idempotencia;
+    private final ResumoDiarioService resumoDiario;
+    private final ObjectMapper objectMapper;
 
     /**
      * Construtor para injeção de dependência.
      *
-     * @param service Instância do TransferenciaService.
+     * @param service      Instância do TransferenciaService.
+     * @param idempotencia Serviço de idempotência das requisições de agendamento.
+     * @param resumoDiario Serviço dos totais por data.
+     * @param objectMapper Mapper JSON usado na transmissão em NDJSON.
      */
     @Autowired
-    public TransferenciaController(TransferenciaService service) {
+    public TransferenciaController(TransferenciaService service, IdempotenciaService idempotencia,
+                                   ResumoDiarioService resumoDiario, ObjectMapper objectMapper) {
         this.service = service;
+        this.idempotencia = idempotencia;
+        this.resumoDiario = resumoDiario;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Endpoint para agendar uma nova transferência.
+     * Com o cabeçalho Idempotency-Key, repetições da requisição devolvem a
+     * resposta original sem agendar a transferência novamente.
+     *
+     * A validação é feita pelo serviço em uma única passagem; transferências
+     * inválidas são respondidas com 400 e a lista de violações (código, campo
+     * e mensagem), sem exceções nem stack trace no log.
      *
-     * @param transferencia Dados válidos da transferência a ser agendada.
+     * @param transferencia Dados da transferência a ser agendada.
+     * @param chave         Chave de idempotência opcional, gerada pelo cliente.
      * @return ResponseEntity contendo uma mensagem de sucesso e os dados da
-     *         transferência agendada, ou erros detalhados em caso de falha.
+     *         transferência agendada, 400 com as violações se a transferência
+     *         for rejeitada, 503 com Retry-After se a fila da gravação
+     *         agrupada estiver cheia, ou erros detalhados em caso de falha.
      */
     @PostMapping
-    public ResponseEntity<?> agendarTransferencia(@Valid @RequestBody Transferencia transferencia) {
+    public ResponseEntity<?> agendarTransferencia(@RequestBody Transferencia transferencia,
+                                                  @RequestHeader(value = IdempotenciaService.CABECALHO, required = false)
+                                                  String chave) {
+        return idempotencia.executar(chave, "POST /api/transferencias", () -> agendar(transferencia));
+    }
+
+    private ResponseEntity<?> agendar(Transferencia transferencia) {
         try {
-            logger.info("Requisição para agendar transferência recebida: {}", transferencia);
-            Transferencia transferenciaAgendada = service.agendarTransferencia(transferencia);
-            logger.info("Transferência agendada com sucesso: ID = {}", transferenciaAgendada.getId());
+            logger.debug("Requisição para agendar transferência recebida: {}", transferencia);
+            ResultadoAgendamento resultado = service.agendarTransferencia(transferencia);
+            if (!resultado.isAceita()) {
+                ResultadoValidacao validacao = resultado.getValidacao();
+                return ResponseEntity.badRequest().body(Map.of(
+                        "erro", "Erro de validação: " + validacao.getMensagem(),
+                        "violacoes", validacao.getViolacoes()
+                ));
+            }
+            Transferencia transferenciaAgendada = resultado.getTransferencia();
+            logger.debug("Transferência agendada com sucesso: ID = {}", transferenciaAgendada.getId());
             return ResponseEntity.ok(Map.of(
                     "mensagem", "Transferência agendada com sucesso.",
                     "dados", transferenciaAgendada
             ));
-        } catch (IllegalArgumentException e) {
-            logger.error("Erro de validação ao agendar transferência: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest().body(Map.of(
-                    "erro", "Erro de validação: " + e.getMessage()
-            ));
+        } catch (GravacaoIndisponivelException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("erro", e.getMessage()));
         } catch (RuntimeException e) {
             logger.error("Erro interno ao agendar transferência: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body(Map.of(
@@ -70,21 +127,42 @@ public class TransferenciaController {
     }
 
     /**
-     * Endpoint para listar todas as transferências cadastradas no sistema.
+     * Endpoint para listar as transferências cadastradas no sistema, de forma
+     * paginada por chave (dataTransferencia, id).
      *
-     * @return ResponseEntity contendo a quantidade e os dados de todas
-     *         as transferências registradas, ou uma mensagem de erro em
-     *         caso de falha no processamento.
+     * @param cursor Token opaco retornado em {@code proximoCursor} pela página
+     *               anterior; ausente na primeira página.
+     * @param limite Quantidade máxima de transferências por página (1 a 1000).
+     * @param campos Campos de cada transferência, separados por vírgula
+     *               (ex.: "id,valorTransferencia"); ausente para todos.
+     * @return ResponseEntity contendo a quantidade, as transferências da página
+     *         e o cursor da próxima página, ou uma mensagem de erro em caso de
+     *         parâmetros inválidos ou falha no processamento.
      */
-    @GetMapping
-    public ResponseEntity<?> listarTransferencias() {
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> listarTransferencias(@RequestParam(value = "cursor", required = false) String cursor,
+                                                  @RequestParam(value = "limite", defaultValue = "100") int limite,
+                                                  @RequestParam(value = "fields", required = false) String campos) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "O limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA + "."
+            ));
+        }
+        Set<CampoTransferencia> projecao;
         try {
-            logger.info("Requisição para listar transferências recebida.");
-            List<Transferencia> transferencias = service.listarTransferencias();
-            logger.info("Transferências listadas com sucesso. Quantidade: {}", transferencias.size());
-            return ResponseEntity.ok(Map.of(
-                    "quantidade", transferencias.size(),
-                    "transferencias", transferencias
+            projecao = CampoTransferencia.projecao(campos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
+        }
+        try {
+            logger.debug("Requisição para listar transferências recebida. Limite: {}", limite);
+            PaginaTransferencias pagina = service.listarTransferencias(cursor, limite);
+            logger.debug("Transferências listadas com sucesso. Quantidade: {}", pagina.getQuantidade());
+            return ResponseEntity.ok(ListaTransferencias.de(pagina, projecao));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cursor de paginação inválido: {}", cursor);
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "Cursor inválido."
             ));
         } catch (RuntimeException e) {
             logger.error("Erro interno ao listar transferências: {}", e.getMessage(), e);
@@ -99,25 +177,68 @@ public class TransferenciaController {
         }
     }
 
+    /**
+     * Endpoint para transmitir todas as transferências cadastradas como NDJSON
+     * (uma transferência por linha). As linhas são escritas à medida que são
+     * lidas do banco, com uso de memória constante.
+     *
+     * @param campos Campos de cada transferência, separados por vírgula; ausente para todos.
+     * @return ResponseEntity cujo corpo é escrito de forma assíncrona, ou 400
+     *         sem corpo se algum campo for desconhecido.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> transmitirTransferencias(
+            @RequestParam(value = "fields", required = false) String campos) {
+        Set<CampoTransferencia> projecao;
+        try {
+            projecao = CampoTransferencia.projecao(campos);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Projeção inválida na transmissão de transferências: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        logger.debug("Requisição para transmitir transferências recebida.");
+        StreamingResponseBody corpo = saida -> {
+            JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+            long quantidade = service.transmitirTransferencias(transferencia -> {
+                try {
+                    CampoTransferencia.escrever(gerador, transferencia, projecao);
+                    gerador.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            gerador.flush();
+            logger.debug("Transferências transmitidas com sucesso. Quantidade: {}", quantidade);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
+    }
+
     /**
      * Endpoint para buscar transferências agendadas em uma data específica.
      *
      * @param dataTransferencia Data de transferência no formato ISO-8601 (yyyy-MM-dd).
+     * @param campos            Campos de cada transferência, separados por vírgula; ausente para todos.
      * @return ResponseEntity contendo a lista de transferências agendadas
      *         para a data especificada, ou erros em caso de entrada inválida
      *         ou falha interna.
      */
     @GetMapping("/data")
-    public ResponseEntity<?> buscarPorData(@RequestParam("data") String dataTransferencia) {
+    public ResponseEntity<?> buscarPorData(@RequestParam("data") String dataTransferencia,
+                                           @RequestParam(value = "fields", required = false) String campos) {
+        Set<CampoTransferencia> projecao;
         try {
-            logger.info("Requisição para buscar transferências pela data: {}", dataTransferencia);
+            projecao = CampoTransferencia.projecao(campos);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
+        }
+        try {
+            logger.debug("Requisição para buscar transferências pela data: {}", dataTransferencia);
             LocalDate data = LocalDate.parse(dataTransferencia);
             List<Transferencia> transferencias = service.buscarPorDataTransferencia(data);
-            logger.info("Transferências encontradas para a data {}: {}", dataTransferencia, transferencias.size());
-            return ResponseEntity.ok(Map.of(
-                    "quantidade", transferencias.size(),
-                    "transferencias", transferencias
-            ));
+            logger.debug("Transferências encontradas para a data {}: {}", dataTransferencia, transferencias.size());
+            return ResponseEntity.ok(ListaTransferencias.de(transferencias, projecao));
         } catch (IllegalArgumentException e) {
             logger.error("Erro de formatação de data: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(Map.of(
@@ -135,4 +256,173 @@ public class TransferenciaController {
             ));
         }
     }
+
+    /**
+     * Endpoint para buscar uma transferência pelo identificador. A
+     * transferência é servida do cache de segundo nível do Hibernate quando
+     * foi gravada ou lida recentemente por esta instância.
+     *
+     * @param id Identificador da transferência (UUID).
+     * @return ResponseEntity contendo a transferência, 404 se ela não existir
+     *         ou erro em caso de falha interna.
+     */
+    @GetMapping("/{id:" + PADRAO_UUID + "}")
+    public ResponseEntity<?> buscarPorId(@PathVariable("id") UUID id) {
+        try {
+            return service.buscarPorId(id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                            "erro", "Transferência não encontrada: " + id
+                    )));
+        } catch (RuntimeException e) {
+            logger.error("Erro interno ao buscar a transferência {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "erro", "Erro interno ao buscar a transferência: " + e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Endpoint para listar as transferências de um período, paginadas por
+     * chave (dataTransferencia, id). A primeira página traz também os totais
+     * por data do período inteiro (quantidade, soma dos valores e soma das
+     * taxas), calculados no banco.
+     *
+     * @param de     Data inicial (yyyy-MM-dd, inclusiva).
+     * @param ate    Data final (yyyy-MM-dd, inclusiva).
+     * @param cursor Token retornado em {@code proximoCursor} pela página anterior.
+     * @param limite Quantidade máxima de transferências por página (1 a 1000).
+     * @param campos Campos de cada transferência, separados por vírgula; ausente para todos.
+     * @return ResponseEntity contendo a página e, na primeira página, os totais
+     *         por data, ou erros em caso de entrada inválida ou falha interna.
+     */
+    @GetMapping("/periodo")
+    public ResponseEntity<?> listarPeriodo(@RequestParam("de") String de,
+                                           @RequestParam("ate") String ate,
+                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                           @RequestParam(value = "limite", defaultValue = "100") int limite,
+                                           @RequestParam(value = "fields", required = false) String campos) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "O limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA + "."
+            ));
+        }
+        Set<CampoTransferencia> projecao;
+        LocalDate inicio;
+        LocalDate fim;
+        try {
+            projecao = CampoTransferencia.projecao(campos);
+            inicio = LocalDate.parse(de);
+            fim = LocalDate.parse(ate);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
+        }
+        if (inicio.isAfter(fim)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "A data inicial deve ser anterior ou igual à data final."
+            ));
+        }
+        try {
+            logger.debug("Requisição para listar transferências do período {} a {} recebida.", inicio, fim);
+            PaginaTransferencias pagina = service.listarPeriodo(inicio, fim, cursor, limite);
+            List<TotalDiario> totais = cursor == null || cursor.isBlank()
+                    ? resumoDiario.totaisPorDia(inicio, fim)
+                    : null;
+            return ResponseEntity.ok(ListaTransferencias.de(pagina, projecao, totais));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Cursor de paginação inválido: {}", cursor);
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "Cursor inválido."
+            ));
+        } catch (RuntimeException e) {
+            logger.error("Erro interno ao listar transferências do período: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "erro", "Erro interno ao listar transferências do período: " + e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Endpoint para buscar as transferências de uma conta de origem, em uma
+     * data ou de hoje em diante.
+     *
+     * @param conta             Conta de origem (6 caracteres).
+     * @param dataTransferencia Data de transferência (yyyy-MM-dd); ausente para todas a partir de hoje.
+     * @param limite            Quantidade máxima de transferências (1 a 1000).
+     * @param campos            Campos de cada transferência, separados por vírgula; ausente para todos.
+     * @return ResponseEntity contendo as transferências da conta, ordenadas por
+     *         (dataTransferencia, id), ou erros em caso de entrada inválida ou falha interna.
+     */
+    @GetMapping("/conta/{conta}")
+    public ResponseEntity<?> buscarPorConta(@PathVariable("conta") String conta,
+                                            @RequestParam(value = "data", required = false) String dataTransferencia,
+                                            @RequestParam(value = "limite", defaultValue = "100") int limite,
+                                            @RequestParam(value = "fields", required = false) String campos) {
+        if (conta.length() != TAMANHO_CONTA) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "A conta deve ter exatamente " + TAMANHO_CONTA + " caracteres."
+            ));
+        }
+        if (limite < 1 || limite > LIMITE_MAXIMO_PAGINA) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "O limite deve estar entre 1 e " + LIMITE_MAXIMO_PAGINA + "."
+            ));
+        }
+        Set<CampoTransferencia> projecao;
+        LocalDate data;
+        try {
+            projecao = CampoTransferencia.projecao(campos);
+            data = dataTransferencia == null ? null : LocalDate.parse(dataTransferencia);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("erro", e.getMessage()));
+        }
+        try {
+            logger.debug("Requisição para buscar transferências da conta {} recebida. Data: {}", conta, data);
+            List<Transferencia> transferencias = service.buscarPorConta(conta, data, limite);
+            logger.debug("Transferências encontradas para a conta {}: {}", conta, transferencias.size());
+            return ResponseEntity.ok(ListaTransferencias.de(transferencias, projecao));
+        } catch (RuntimeException e) {
+            logger.error("Erro interno ao buscar transferências da conta: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "erro", "Erro interno ao buscar transferências da conta: " + e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Endpoint para consultar o total agendado por uma conta de origem em uma
+     * data. Para hoje e datas futuras a resposta é servida da memória, sem
+     * acesso ao banco.
+     *
+     * @param conta             Conta de origem (6 caracteres).
+     * @param dataTransferencia Data de transferência (yyyy-MM-dd); ausente para hoje.
+     * @return ResponseEntity contendo a quantidade, o valor total e o limite
+     *         diário configurado, ou erros em caso de entrada inválida.
+     */
+    @GetMapping("/conta/{conta}/total")
+    public ResponseEntity<?> totalPorConta(@PathVariable("conta") String conta,
+                                           @RequestParam(value = "data", required = false) String dataTransferencia) {
+        if (conta.length() != TAMANHO_CONTA) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "A conta deve ter exatamente " + TAMANHO_CONTA + " caracteres."
+            ));
+        }
+        LocalDate data;
+        try {
+            data = dataTransferencia == null ? LocalDate.now() : LocalDate.parse(dataTransferencia);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "erro", "Formato de data inválido: " + e.getMessage()
+            ));
+        }
+        try {
+            TotalDiarioConta total = service.totalDiarioPorConta(conta, data);
+            return ResponseEntity.ok(total);
+        } catch (RuntimeException e) {
+            logger.error("Erro interno ao consultar total da conta: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "erro", "Erro interno ao consultar total da conta: " + e.getMessage()
+            ));
+        }
+    }
 }
@@ -0,0 +1,329 @@
+package com.empresa.transferencias.controller;
+
+import com.empresa.transferencias.dto.CampoTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.service.IdempotenciaService;
+import com.empresa.transferencias.service.TransferenciaImportacaoService;
+import com.empresa.transferencias.service.TransferenciaService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Controlador REST para importação e exportação de arquivos de transferências.
+ * A importação aceita CSV ou NDJSON e a exportação produz CSV; os dois lados
+ * processam o arquivo de forma incremental, com uso de memória constante
+ * independentemente do tamanho do arquivo.
+ *
+ * Se a leitura falhar depois de gravado algum bloco, a resposta é o resumo
+ * parcial (200, {@code interrompida}), gravado com a chave de idempotência:
+ * repetir a requisição com a mesma chave não grava os blocos de novo.
+ */
+@RestController
+@RequestMapping("/api/transferencias")
+public class TransferenciaImportacaoController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferenciaImportacaoController.class);
+
+    static final String TEXT_CSV = "text/csv";
+
+    private static final String ROTA_IMPORTACAO = "POST /api/transferencias/import";
+
+    /**
+     * Colunas lidas da importação em CSV; as demais (ex.: as de um arquivo
+     * exportado) são ignoradas.
+     */
+    private static final List<String> COLUNAS_IMPORTACAO = List.of(
+            "contaOrigem", "contaDestino", "valorTransferencia", "dataTransferencia");
+
+    private static final String BOM = "\uFEFF";
+
+    private final TransferenciaImportacaoService importacaoService;
+    private final TransferenciaService service;
+    private final IdempotenciaService idempotencia;
+    private final ObjectMapper objectMapper;
+    private final int tamanhoMaximoLinha;
+    private final CsvMapper csvMapper = CsvMapper.builder()
+            // Aspas apenas nos valores que precisam delas (ex.: com vírgula).
+            .enable(CsvGenerator.Feature.STRICT_CHECK_FOR_QUOTING)
+            .build();
+    private final ObjectReader leitorCsv = csvMapper.readerForListOf(String.class)
+            .with(CsvParser.Feature.WRAP_AS_ARRAY)
+            .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .with(CsvParser.Feature.TRIM_SPACES);
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param importacaoService Serviço de importação.
+     * @param service           Serviço de transferências, usado na exportação.
+     * @param idempotencia      Serviço de idempotência das requisições de importação.
+     * @param objectMapper       Mapper JSON da aplicação, usado nas linhas NDJSON.
+     * @param tamanhoMaximoLinha Quantidade máxima de caracteres de uma linha NDJSON.
+     */
+    @Autowired
+    public TransferenciaImportacaoController(TransferenciaImportacaoService importacaoService,
+                                             TransferenciaService service,
+                                             IdempotenciaService idempotencia,
+                                             ObjectMapper objectMapper,
+                                             @Value("${transferencias.importacao.tamanho-maximo-linha:16384}")
+                                             int tamanhoMaximoLinha) {
+        this.importacaoService = importacaoService;
+        this.service = service;
+        this.idempotencia = idempotencia;
+        this.objectMapper = objectMapper;
+        this.tamanhoMaximoLinha = tamanhoMaximoLinha;
+    }
+
+    /**
+     * Endpoint para importar um arquivo CSV de transferências. A primeira linha
+     * é o cabeçalho, com as colunas contaOrigem, contaDestino,
+     * valorTransferencia (ex.: 1500.00) e dataTransferencia (yyyy-MM-dd), em
+     * qualquer ordem. Linhas em branco são ignoradas; linhas com valores
+     * inválidos são rejeitadas sem interromper as demais.
+     *
+     * @param corpo Corpo da requisição com o arquivo CSV.
+     * @param chave Chave de idempotência opcional; repetições devolvem o resultado original.
+     * @return ResponseEntity contendo os totais e as primeiras rejeições, ou
+     *         erro caso o cabeçalho não traga as colunas obrigatórias.
+     * @throws IOException Em caso de falha na leitura do corpo da requisição.
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV)
+    public ResponseEntity<?> importarCsv(InputStream corpo,
+                                         @RequestHeader(value = IdempotenciaService.CABECALHO, required = false)
+                                         String chave) throws IOException {
+        return idempotencia.executar(chave, ROTA_IMPORTACAO, () -> lerCsv(corpo));
+    }
+
+    private ResponseEntity<?> lerCsv(InputStream corpo) throws IOException {
+        try (MappingIterator<List<String>> linhas = leitorCsv.readValues(
+                new InputStreamReader(corpo, StandardCharsets.UTF_8))) {
+            int[] posicoes = linhas.hasNextValue() ? posicoes(linhas.nextValue()) : null;
+            if (posicoes == null) {
+                return ResponseEntity.badRequest().body(Map.of(
+                        "erro", "O cabeçalho do CSV deve conter as colunas " + String.join(",", COLUNAS_IMPORTACAO) + "."
+                ));
+            }
+            try (TransferenciaImportacaoService.Importacao importacao = importacaoService.iniciarImportacao()) {
+                try {
+                    try {
+                        while (linhas.hasNextValue()) {
+                            try {
+                                importacao.adicionar(converter(linhas.nextValue(), posicoes));
+                            } catch (IllegalArgumentException e) {
+                                importacao.rejeitar(e.getMessage());
+                            }
+                        }
+                    } catch (JsonProcessingException e) {
+                        logger.warn("Importação CSV interrompida por erro de sintaxe: {}", e.getOriginalMessage());
+                        importacao.rejeitar("CSV inválido, linhas seguintes ignoradas: " + e.getOriginalMessage());
+                    }
+                    return ResponseEntity.ok(importacao.concluir());
+                } catch (IOException | RuntimeException e) {
+                    if (importacao.getAceitas() == 0) {
+                        throw e;
+                    }
+                    return interrompida(importacao, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Posição de cada coluna de {@link #COLUNAS_IMPORTACAO} no cabeçalho,
+     *         ou null se alguma estiver ausente.
+     */
+    private static int[] posicoes(List<String> cabecalho) {
+        if (!cabecalho.isEmpty() && cabecalho.get(0).startsWith(BOM)) {
+            // Planilhas costumam gravar o CSV em UTF-8 com BOM.
+            cabecalho.set(0, cabecalho.get(0).substring(BOM.length()));
+        }
+        int[] posicoes = new int[COLUNAS_IMPORTACAO.size()];
+        for (int i = 0; i < posicoes.length; i++) {
+            posicoes[i] = cabecalho.indexOf(COLUNAS_IMPORTACAO.get(i));
+            if (posicoes[i] < 0) {
+                return null;
+            }
+        }
+        return posicoes;
+    }
+
+    private static Transferencia converter(List<String> linha, int[] posicoes) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem(coluna(linha, posicoes[0]));
+        transferencia.setContaDestino(coluna(linha, posicoes[1]));
+        String valor = coluna(linha, posicoes[2]);
+        try {
+            transferencia.setValorTransferencia(valor == null ? null : new BigDecimal(valor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor da transferência inválido: " + valor + ".");
+        }
+        String data = coluna(linha, posicoes[3]);
+        try {
+            transferencia.setDataTransferencia(data == null ? null : LocalDate.parse(data));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data da transferência inválida: " + data + ".");
+        }
+        return transferencia;
+    }
+
+    private static String coluna(List<String> linha, int posicao) {
+        if (posicao >= linha.size() || linha.get(posicao).isEmpty()) {
+            return null;
+        }
+        return linha.get(posicao);
+    }
+
+    /**
+     * Endpoint para importar um arquivo NDJSON de transferências (um objeto
+     * JSON por linha, no formato do agendamento). Linhas em branco são
+     * ignoradas; linhas com JSON inválido são rejeitadas sem interromper o
+     * processamento das demais.
+     *
+     * @param corpo Corpo da requisição com uma transferência por linha.
+     * @param chave Chave de idempotência opcional; repetições devolvem o resultado original.
+     * @return ResponseEntity contendo os totais e as primeiras rejeições.
+     * @throws IOException Em caso de falha na leitura do corpo da requisição.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> importarNdjson(InputStream corpo,
+                                            @RequestHeader(value = IdempotenciaService.CABECALHO, required = false)
+                                            String chave) throws IOException {
+        return idempotencia.executar(chave, ROTA_IMPORTACAO, () -> lerNdjson(corpo));
+    }
+
+    private ResponseEntity<?> lerNdjson(InputStream corpo) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+        StringBuilder linha = new StringBuilder();
+        try (TransferenciaImportacaoService.Importacao importacao = importacaoService.iniciarImportacao()) {
+            try {
+                int tamanho;
+                while ((tamanho = LeituraLimitada.lerLinha(reader, linha, tamanhoMaximoLinha)) >= 0) {
+                    if (tamanho > tamanhoMaximoLinha) {
+                        importacao.rejeitar("Linha com mais de " + tamanhoMaximoLinha + " caracteres.");
+                        continue;
+                    }
+                    String json = linha.toString();
+                    if (json.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        importacao.adicionar(objectMapper.readValue(json, Transferencia.class));
+                    } catch (JsonProcessingException e) {
+                        importacao.rejeitar("JSON inválido: " + e.getOriginalMessage());
+                    }
+                }
+                return ResponseEntity.ok(importacao.concluir());
+            } catch (IOException | RuntimeException e) {
+                if (importacao.getAceitas() == 0) {
+                    throw e;
+                }
+                return interrompida(importacao, e);
+            }
+        }
+    }
+
+    /**
+     * Resposta de uma importação cuja leitura falhou depois de gravados alguns
+     * blocos. Não é um 5xx para que o resumo parcial fique gravado com a chave
+     * de idempotência e uma repetição não grave os mesmos blocos de novo.
+     */
+    private static ResponseEntity<?> interrompida(TransferenciaImportacaoService.Importacao importacao,
+                                                  Exception e) {
+        logger.warn("Importação interrompida após gravar {} transferências: {}",
+                importacao.getAceitas(), e.getMessage());
+        return ResponseEntity.ok(importacao.interromper());
+    }
+
+    /**
+     * Endpoint para exportar as transferências de um período como CSV, com
+     * cabeçalho. As linhas são lidas do banco com um cursor no servidor e
+     * escritas diretamente na resposta, com uso de memória constante.
+     *
+     * @param de     Data inicial (yyyy-MM-dd, inclusiva).
+     * @param ate    Data final (yyyy-MM-dd, inclusiva).
+     * @param campos Colunas do arquivo, separadas por vírgula; ausente para todas.
+     * @return ResponseEntity cujo corpo é escrito de forma assíncrona, ou 400
+     *         sem corpo se as datas ou os campos forem inválidos.
+     */
+    @GetMapping(value = "/export", produces = TEXT_CSV)
+    public ResponseEntity<StreamingResponseBody> exportarCsv(@RequestParam("de") String de,
+                                                             @RequestParam("ate") String ate,
+                                                             @RequestParam(value = "fields", required = false)
+                                                             String campos) {
+        Set<CampoTransferencia> projecao;
+        LocalDate inicio;
+        LocalDate fim;
+        try {
+            projecao = CampoTransferencia.projecao(campos);
+            inicio = LocalDate.parse(de);
+            fim = LocalDate.parse(ate);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            logger.warn("Parâmetros inválidos na exportação de transferências: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        if (inicio.isAfter(fim)) {
+            logger.warn("Período inválido na exportação de transferências: {} a {}", inicio, fim);
+            return ResponseEntity.badRequest().build();
+        }
+        CsvSchema.Builder colunas = CsvSchema.builder();
+        projecao.forEach(campo -> colunas.addColumn(campo.getNome()));
+        CsvSchema esquema = colunas.build().withHeader();
+
+        logger.info("Requisição para exportar transferências do período {} a {} recebida.", inicio, fim);
+        StreamingResponseBody corpo = saida -> {
+            JsonGenerator gerador = csvMapper.getFactory().createGenerator(saida);
+            gerador.setSchema(esquema);
+            long quantidade = service.transmitirPeriodo(inicio, fim, transferencia -> {
+                try {
+                    CampoTransferencia.escrever(gerador, transferencia, projecao);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            gerador.flush();
+            logger.info("Transferências exportadas com sucesso. Quantidade: {}", quantidade);
+        };
+        ContentDisposition anexo = ContentDisposition.attachment()
+                .filename("transferencias-" + inicio + "-" + fim + ".csv")
+                .build();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV))
+                .header(HttpHeaders.CONTENT_DISPOSITION, anexo.toString())
+                .body(corpo);
+    }
+}
@@ -0,0 +1,219 @@
+package com.empresa.transferencias.controller;
+
+import com.empresa.transferencias.dto.ResultadoLote;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.service.IdempotenciaService;
+import com.empresa.transferencias.service.TransferenciaLoteService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para agendamento de transferências em lote.
+ * Aceita um array JSON ou um corpo NDJSON (um objeto JSON por linha), lidos
+ * de forma incremental, e retorna o resultado de cada item individualmente.
+ * Cada item é limitado a {@code transferencias.lote.tamanho-maximo-item}
+ * (caracteres por linha NDJSON, bytes por elemento do array), de modo que
+ * um item enorme não é guardado em memória.
+ *
+ * Se a leitura do corpo falhar depois de gravado algum bloco, a resposta é o
+ * resultado parcial (200, {@code interrompido}), gravado com a chave de
+ * idempotência: repetir a requisição com a mesma chave não grava os blocos
+ * de novo.
+ */
+@RestController
+@RequestMapping("/api/transferencias")
+public class TransferenciaLoteController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferenciaLoteController.class);
+
+    private static final String ROTA_LOTE = "POST /api/transferencias/lote";
+
+    private final TransferenciaLoteService loteService;
+    private final IdempotenciaService idempotencia;
+    private final ObjectMapper objectMapper;
+    private final int tamanhoMaximoItem;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param loteService       Serviço de agendamento em lote.
+     * @param idempotencia      Serviço de idempotência das requisições de lote.
+     * @param objectMapper      Mapper JSON da aplicação.
+     * @param tamanhoMaximoItem Tamanho máximo de um item do lote.
+     */
+    @Autowired
+    public TransferenciaLoteController(TransferenciaLoteService loteService, IdempotenciaService idempotencia,
+                                       ObjectMapper objectMapper,
+                                       @Value("${transferencias.lote.tamanho-maximo-item:16384}")
+                                       int tamanhoMaximoItem) {
+        this.loteService = loteService;
+        this.idempotencia = idempotencia;
+        this.objectMapper = objectMapper;
+        this.tamanhoMaximoItem = tamanhoMaximoItem;
+    }
+
+    /**
+     * Endpoint para agendar um lote de transferências enviado como array JSON.
+     * Um erro de sintaxe ou um item acima do tamanho máximo interrompe a
+     * leitura: os itens anteriores são mantidos e o erro é registrado como um
+     * item rejeitado.
+     *
+     * @param corpo Corpo da requisição contendo um array JSON de transferências.
+     * @param chave Chave de idempotência opcional; repetições devolvem o resultado original.
+     * @return ResponseEntity contendo os totais e o resultado de cada item,
+     *         ou erro caso o corpo não seja um array JSON.
+     * @throws IOException Em caso de falha na leitura do corpo da requisição.
+     */
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> agendarLoteJson(InputStream corpo,
+                                             @RequestHeader(value = IdempotenciaService.CABECALHO, required = false)
+                                             String chave) throws IOException {
+        return idempotencia.executar(chave, ROTA_LOTE, () -> lerLoteJson(corpo));
+    }
+
+    private ResponseEntity<?> lerLoteJson(InputStream corpo) throws IOException {
+        TransferenciaLoteService.Lote lote = loteService.iniciarLote();
+        LeituraLimitada.Corpo limitado = new LeituraLimitada.Corpo(corpo, tamanhoMaximoItem);
+        try {
+            try (JsonParser parser = objectMapper.getFactory().createParser(limitado)) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    return ResponseEntity.badRequest().body(Map.of(
+                            "erro", "O corpo da requisição deve ser um array JSON."
+                    ));
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                    limitado.iniciarItem();
+                    if (token == JsonToken.START_OBJECT) {
+                        JsonNode item = parser.readValueAsTree();
+                        adicionarItem(lote, item);
+                    } else {
+                        parser.skipChildren();
+                        lote.rejeitar("Item não é um objeto JSON.");
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                logger.warn("Lote JSON interrompido por erro de sintaxe: {}", e.getOriginalMessage());
+                lote.rejeitar("JSON inválido, itens seguintes ignorados: " + e.getOriginalMessage());
+            } catch (LeituraLimitada.ItemGrandeDemaisException e) {
+                logger.warn("Lote JSON interrompido por item grande demais: {}", e.getMessage());
+                lote.rejeitar(e.getMessage() + " Itens seguintes ignorados.");
+            }
+            return responder(lote.concluir(), false);
+        } catch (IOException | RuntimeException e) {
+            List<ResultadoLote> resultados = lote.interromper();
+            if (lote.getAceitas() == 0) {
+                throw e;
+            }
+            return interrompido(lote, resultados, e);
+        }
+    }
+
+    /**
+     * Endpoint para agendar um lote de transferências enviado como NDJSON.
+     * Linhas em branco são ignoradas; linhas com JSON inválido são rejeitadas
+     * sem interromper o processamento das demais.
+     *
+     * @param corpo Corpo da requisição com uma transferência por linha.
+     * @param chave Chave de idempotência opcional; repetições devolvem o resultado original.
+     * @return ResponseEntity contendo os totais e o resultado de cada item.
+     * @throws IOException Em caso de falha na leitura do corpo da requisição.
+     */
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> agendarLoteNdjson(InputStream corpo,
+                                               @RequestHeader(value = IdempotenciaService.CABECALHO, required = false)
+                                               String chave) throws IOException {
+        return idempotencia.executar(chave, ROTA_LOTE, () -> lerLoteNdjson(corpo));
+    }
+
+    private ResponseEntity<?> lerLoteNdjson(InputStream corpo) throws IOException {
+        TransferenciaLoteService.Lote lote = loteService.iniciarLote();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+        StringBuilder linha = new StringBuilder();
+        try {
+            int tamanho;
+            while ((tamanho = LeituraLimitada.lerLinha(reader, linha, tamanhoMaximoItem)) >= 0) {
+                if (tamanho > tamanhoMaximoItem) {
+                    lote.rejeitar("Linha com mais de " + tamanhoMaximoItem + " caracteres.");
+                    continue;
+                }
+                String json = linha.toString();
+                if (json.isBlank()) {
+                    continue;
+                }
+                try {
+                    adicionarItem(lote, objectMapper.readTree(json));
+                } catch (JsonProcessingException e) {
+                    lote.rejeitar("JSON inválido: " + e.getOriginalMessage());
+                }
+            }
+            return responder(lote.concluir(), false);
+        } catch (IOException | RuntimeException e) {
+            List<ResultadoLote> resultados = lote.interromper();
+            if (lote.getAceitas() == 0) {
+                throw e;
+            }
+            return interrompido(lote, resultados, e);
+        }
+    }
+
+    /**
+     * Resposta de um lote cuja leitura falhou depois de gravados alguns
+     * blocos (sem blocos gravados, a falha é propagada e a chave de
+     * idempotência é liberada). Não é um 5xx para que o resultado parcial
+     * fique gravado com a chave e uma repetição não grave os mesmos blocos de
+     * novo.
+     */
+    private ResponseEntity<?> interrompido(TransferenciaLoteService.Lote lote, List<ResultadoLote> resultados,
+                                           Exception e) {
+        logger.warn("Lote interrompido após gravar {} transferências: {}", lote.getAceitas(), e.getMessage());
+        return responder(resultados, true);
+    }
+
+    private void adicionarItem(TransferenciaLoteService.Lote lote, JsonNode item) {
+        Transferencia transferencia;
+        try {
+            transferencia = objectMapper.treeToValue(item, Transferencia.class);
+        } catch (JsonProcessingException e) {
+            lote.rejeitar("JSON inválido: " + e.getOriginalMessage());
+            return;
+        }
+        lote.adicionar(transferencia);
+    }
+
+    private ResponseEntity<?> responder(List<ResultadoLote> resultados, boolean interrompido) {
+        long aceitas = resultados.stream()
+                .filter(r -> r.getStatus() == ResultadoLote.Status.ACEITA)
+                .count();
+        logger.info("Lote processado. Itens: {}, aceitos: {}, rejeitados: {}",
+                resultados.size(), aceitas, resultados.size() - aceitas);
+        return ResponseEntity.ok(Map.of(
+                "quantidade", resultados.size(),
+                "aceitas", aceitas,
+                "rejeitadas", resultados.size() - aceitas,
+                "interrompido", interrompido,
+                "resultados", resultados
+        ));
+    }
+}
@@ -0,0 +1,160 @@
+package com.empresa.transferencias.dto;
+
+import com.empresa.transferencias.model.Transferencia;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Campos de uma transferência nas respostas de listagem, na mesma ordem e
+ * com o mesmo formato que o Jackson usa para a entidade. Cada campo se
+ * escreve diretamente no {@link JsonGenerator}, sem reflexão nem objetos
+ * intermediários; os nomes são pré-codificados uma única vez.
+ */
+public enum CampoTransferencia {
+
+    ID("id") {
+        @Override
+        void escreverValor(JsonGenerator gerador, Transferencia t) throws IOException {
+            escreverTexto(gerador, t.getId() == null ? null : t.getId().toString());
+        }
+    },
+    CONTA_ORIGEM("contaOrigem") {
+        @Override
+        void escreverValor(JsonGenerator gerador, Transferencia t) throws IOException {
+            escreverTexto(gerador, t.getContaOrigem());
+        }
+    },
+    CONTA_DESTINO("contaDestino") {
+        @Override
+        void escreverValor(JsonGenerator gerador, Transferencia t) throws IOException {
+            escreverTexto(gerador, t.getContaDestino());
+        }
+    },
+    VALOR_TRANSFERENCIA("valorTransferencia") {
+        @Override
+        void escreverValor(JsonGenerator gerador, Transferencia t) throws IOException {
+            escreverNumero(gerador, t.getValorTransferencia());
+        }
+    },
+    TAXA("taxa") {
+        @Override
+        void escreverValor(JsonGenerator gerador, Transferencia t) throws IOException {
+            escreverNumero(gerador, t.getTaxa());
+        }
+    },
+    DATA_TRANSFERENCIA("dataTransferencia") {
+        @Override
+        void escreverValor(JsonGenerator gerador, Transferencia t) throws IOException {
+            escreverTexto(gerador, t.getDataTransferencia() == null ? null : t.getDataTransferencia().toString());
+        }
+    },
+    DATA_AGENDAMENTO("dataAgendamento") {
+        @Override
+        void escreverValor(JsonGenerator gerador, Transferencia t) throws IOException {
+            escreverTexto(gerador, t.getDataAgendamento() == null ? null : t.getDataAgendamento().toString());
+        }
+    },
+    STATUS("status") {
+        @Override
+        void escreverValor(JsonGenerator gerador, Transferencia t) throws IOException {
+            escreverTexto(gerador, t.getStatus() == null ? null : t.getStatus().name());
+        }
+    },
+    ATUALIZADO_EM("atualizadoEm") {
+        @Override
+        void escreverValor(JsonGenerator gerador, Transferencia t) throws IOException {
+            escreverTexto(gerador, t.getAtualizadoEm() == null ? null : t.getAtualizadoEm().toString());
+        }
+    };
+
+    /**
+     * Todos os campos, usado quando nenhuma projeção é informada.
+     */
+    public static final Set<CampoTransferencia> TODOS = Collections.unmodifiableSet(EnumSet.allOf(CampoTransferencia.class));
+
+    private final String nome;
+    private final SerializableString nomeCodificado;
+
+    CampoTransferencia(String nome) {
+        this.nome = nome;
+        this.nomeCodificado = new SerializedString(nome);
+    }
+
+    /**
+     * @return Nome do campo no JSON.
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    abstract void escreverValor(JsonGenerator gerador, Transferencia transferencia) throws IOException;
+
+    /**
+     * Interpreta uma projeção no formato do parâmetro {@code fields}
+     * (nomes separados por vírgula, ex.: "id,valorTransferencia").
+     *
+     * @param campos Nomes dos campos; nulo ou vazio seleciona todos.
+     * @return Campos selecionados, na ordem de escrita.
+     * @throws IllegalArgumentException Se algum nome não corresponder a um campo.
+     */
+    public static Set<CampoTransferencia> projecao(String campos) {
+        if (campos == null || campos.isBlank()) {
+            return TODOS;
+        }
+        EnumSet<CampoTransferencia> selecionados = EnumSet.noneOf(CampoTransferencia.class);
+        for (String nome : campos.split(",")) {
+            selecionados.add(porNome(nome.trim()));
+        }
+        return selecionados;
+    }
+
+    private static CampoTransferencia porNome(String nome) {
+        for (CampoTransferencia campo : values()) {
+            if (campo.nome.equals(nome)) {
+                return campo;
+            }
+        }
+        throw new IllegalArgumentException("Campo desconhecido: " + nome + ".");
+    }
+
+    /**
+     * Escreve uma transferência como objeto JSON contendo apenas os campos informados.
+     *
+     * @param gerador       Gerador JSON de destino.
+     * @param transferencia Transferência a ser escrita.
+     * @param campos        Campos selecionados.
+     * @throws IOException Em caso de falha na escrita.
+     */
+    public static void escrever(JsonGenerator gerador, Transferencia transferencia, Set<CampoTransferencia> campos)
+            throws IOException {
+        gerador.writeStartObject();
+        for (CampoTransferencia campo : campos) {
+            gerador.writeFieldName(campo.nomeCodificado);
+            campo.escreverValor(gerador, transferencia);
+        }
+        gerador.writeEndObject();
+    }
+
+    private static void escreverTexto(JsonGenerator gerador, String valor) throws IOException {
+        if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeString(valor);
+        }
+    }
+
+    private static void escreverNumero(JsonGenerator gerador, BigDecimal valor) throws IOException {
+        if (valor == null) {
+            gerador.writeNull();
+        } else {
+            gerador.writeNumber(valor);
+        }
+    }
+}
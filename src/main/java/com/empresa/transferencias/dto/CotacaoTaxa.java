@@ -0,0 +1,72 @@
+package com.empresa.transferencias.dto;
+
+import com.empresa.transferencias.dto.ResultadoValidacao.Violacao;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Cotação da taxa de uma transferência ainda não agendada. Uma cotação válida
+ * traz a taxa que seria cobrada se a transferência fosse agendada hoje; uma
+ * inválida traz as violações do valor ou da data, com os mesmos códigos e
+ * mensagens do agendamento.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CotacaoTaxa {
+
+    private final BigDecimal valorTransferencia;
+    private final LocalDate dataTransferencia;
+    private final BigDecimal taxa;
+    private final ResultadoValidacao validacao;
+
+    /**
+     * @param valor Valor cotado.
+     * @param data  Data cotada.
+     * @param taxa  Taxa calculada.
+     * @return Cotação válida.
+     */
+    public static CotacaoTaxa aceita(BigDecimal valor, LocalDate data, BigDecimal taxa) {
+        return new CotacaoTaxa(valor, data, taxa, ResultadoValidacao.VALIDA);
+    }
+
+    /**
+     * @param valor     Valor cotado.
+     * @param data      Data cotada.
+     * @param validacao Resultado com as violações encontradas.
+     * @return Cotação sem taxa, com as violações.
+     */
+    public static CotacaoTaxa rejeitada(BigDecimal valor, LocalDate data, ResultadoValidacao validacao) {
+        return new CotacaoTaxa(valor, data, null, validacao);
+    }
+
+    /**
+     * @return Violações do valor ou da data, ou {@code null} se a cotação for válida.
+     */
+    public List<Violacao> getViolacoes() {
+        return validacao.isValida() ? null : validacao.getViolacoes();
+    }
+
+    /**
+     * @return Resultado da validação do valor e da data.
+     */
+    @JsonIgnore
+    public ResultadoValidacao getValidacao() {
+        return validacao;
+    }
+
+    /**
+     * @return Se a taxa pôde ser calculada.
+     */
+    @JsonIgnore
+    public boolean isValida() {
+        return validacao.isValida();
+    }
+}
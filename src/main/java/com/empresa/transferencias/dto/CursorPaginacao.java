@@ -0,0 +1,56 @@
+package com.empresa.transferencias.dto;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição de uma página na listagem paginada por chave (keyset).
+ * Representa a última transferência retornada, ordenada por
+ * (dataTransferencia, id), e é trafegada como um token opaco.
+ */
+@Value
+public class CursorPaginacao {
+
+    private static final char SEPARADOR = '|';
+
+    LocalDate dataTransferencia;
+    UUID id;
+
+    /**
+     * Converte o cursor em um token opaco, seguro para uso em URLs.
+     *
+     * @return Token codificado em Base64 URL-safe.
+     */
+    public String codificar() {
+        String conteudo = dataTransferencia.toString() + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reconstrói um cursor a partir do token recebido do cliente.
+     *
+     * @param token Token gerado por {@link #codificar()}.
+     * @return Cursor correspondente ao token.
+     * @throws IllegalArgumentException Se o token for inválido.
+     */
+    public static CursorPaginacao decodificar(String token) {
+        try {
+            String conteudo = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = conteudo.indexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor inválido.");
+            }
+            return new CursorPaginacao(
+                    LocalDate.parse(conteudo.substring(0, separador)),
+                    UUID.fromString(conteudo.substring(separador + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido.", e);
+        }
+    }
+}
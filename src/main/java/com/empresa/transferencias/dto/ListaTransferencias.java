@@ -0,0 +1,57 @@
+package com.empresa.transferencias.dto;
+
+import com.empresa.transferencias.model.Transferencia;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resposta das listagens de transferências.
+ * Escrita em streaming pelo {@code ListaTransferenciasHttpMessageConverter},
+ * no formato {@code {"quantidade":..,"transferencias":[..],"proximoCursor":..,"totaisPorDia":[..]}},
+ * com apenas os campos selecionados de cada transferência. O campo
+ * {@code proximoCursor} é omitido quando não há mais páginas, e
+ * {@code totaisPorDia} quando a listagem não traz totais.
+ */
+@Value
+public class ListaTransferencias {
+
+    List<Transferencia> transferencias;
+    String proximoCursor;
+    Set<CampoTransferencia> campos;
+    List<TotalDiario> totaisPorDia;
+
+    /**
+     * @param transferencias Transferências da resposta.
+     * @param campos         Campos escritos de cada transferência.
+     * @return Resposta sem paginação.
+     */
+    public static ListaTransferencias de(List<Transferencia> transferencias, Set<CampoTransferencia> campos) {
+        return new ListaTransferencias(transferencias, null, campos, null);
+    }
+
+    /**
+     * @param pagina Página da listagem paginada.
+     * @param campos Campos escritos de cada transferência.
+     * @return Resposta com o cursor da próxima página, se houver.
+     */
+    public static ListaTransferencias de(PaginaTransferencias pagina, Set<CampoTransferencia> campos) {
+        return de(pagina, campos, null);
+    }
+
+    /**
+     * @param pagina       Página da listagem paginada.
+     * @param campos       Campos escritos de cada transferência.
+     * @param totaisPorDia Totais por data do período listado, ou {@code null} para omiti-los.
+     * @return Resposta com o cursor da próxima página, se houver, e os totais por data.
+     */
+    public static ListaTransferencias de(PaginaTransferencias pagina, Set<CampoTransferencia> campos,
+                                         List<TotalDiario> totaisPorDia) {
+        return new ListaTransferencias(pagina.getTransferencias(), pagina.getProximoCursor(), campos, totaisPorDia);
+    }
+
+    public int getQuantidade() {
+        return transferencias.size();
+    }
+}
@@ -0,0 +1,25 @@
+package com.empresa.transferencias.dto;
+
+import com.empresa.transferencias.model.Transferencia;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Página da listagem de transferências.
+ * O campo {@code proximoCursor} é omitido quando não há mais páginas.
+ */
+@Value
+@JsonPropertyOrder({"quantidade", "transferencias", "proximoCursor"})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaginaTransferencias {
+
+    List<Transferencia> transferencias;
+    String proximoCursor;
+
+    public int getQuantidade() {
+        return transferencias.size();
+    }
+}
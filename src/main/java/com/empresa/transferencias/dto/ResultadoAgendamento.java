@@ -0,0 +1,43 @@
+package com.empresa.transferencias.dto;
+
+import com.empresa.transferencias.model.Transferencia;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado do agendamento de uma transferência: a transferência gravada,
+ * ou a validação que a rejeitou. Rejeições esperadas (dados inválidos,
+ * taxa não aplicável, limite diário) são devolvidas neste resultado, sem
+ * exceções.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ResultadoAgendamento {
+
+    private final Transferencia transferencia;
+    private final ResultadoValidacao validacao;
+
+    /**
+     * @param transferencia Transferência gravada.
+     * @return Resultado de uma transferência aceita.
+     */
+    public static ResultadoAgendamento aceita(Transferencia transferencia) {
+        return new ResultadoAgendamento(transferencia, ResultadoValidacao.VALIDA);
+    }
+
+    /**
+     * @param validacao Validação com as violações encontradas.
+     * @return Resultado de uma transferência rejeitada.
+     */
+    public static ResultadoAgendamento rejeitada(ResultadoValidacao validacao) {
+        return new ResultadoAgendamento(null, validacao);
+    }
+
+    /**
+     * @return Se a transferência foi aceita e gravada.
+     */
+    public boolean isAceita() {
+        return transferencia != null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.empresa.transferencias.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Resultado do processamento de um item de um lote de transferências.
+ * Indica se o item foi aceito (e persistido) ou rejeitado, preservando
+ * a posição do item no arquivo original.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoLote {
+
+    /**
+     * Situação final de um item do lote.
+     */
+    public enum Status {
+        ACEITA,
+        REJEITADA
+    }
+
+    private final int indice;
+    private final Status status;
+    private final UUID id;
+    private final BigDecimal taxa;
+    private final String erro;
+
+    /**
+     * Cria o resultado de um item persistido com sucesso.
+     *
+     * @param indice Posição do item no lote (iniciando em zero).
+     * @param id     Identificador gerado para a transferência.
+     * @param taxa   Taxa calculada para a transferência.
+     * @return Resultado com status ACEITA.
+     */
+    public static ResultadoLote aceita(int indice, UUID id, BigDecimal taxa) {
+        return new ResultadoLote(indice, Status.ACEITA, id, taxa, null);
+    }
+
+    /**
+     * Cria o resultado de um item rejeitado.
+     *
+     * @param indice Posição do item no lote (iniciando em zero).
+     * @param erro   Motivo da rejeição.
+     * @return Resultado com status REJEITADA.
+     */
+    public static ResultadoLote rejeitada(int indice, String erro) {
+        return new ResultadoLote(indice, Status.REJEITADA, null, null, erro);
+    }
+}
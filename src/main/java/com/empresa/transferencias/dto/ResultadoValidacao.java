@@ -0,0 +1,86 @@
+package com.empresa.transferencias.dto;
+
+import com.empresa.transferencias.exception.MotivoRejeicao;
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Resultado da validação de uma transferência. Uma transferência válida é
+ * representada sempre pela mesma instância ({@link #VALIDA}), sem alocação;
+ * uma inválida carrega todas as violações encontradas, cada uma com um
+ * código estável ({@link MotivoRejeicao}), o campo e a mensagem.
+ */
+public final class ResultadoValidacao {
+
+    /** Resultado de uma transferência sem violações. */
+    public static final ResultadoValidacao VALIDA = new ResultadoValidacao(Collections.emptyList());
+
+    /**
+     * Violação de uma regra de validação.
+     */
+    @Value
+    public static class Violacao {
+        MotivoRejeicao codigo;
+        String campo;
+        String mensagem;
+    }
+
+    private final List<Violacao> violacoes;
+
+    private ResultadoValidacao(List<Violacao> violacoes) {
+        this.violacoes = violacoes;
+    }
+
+    /**
+     * @param violacoes Violações encontradas, ou {@code null} se não houver nenhuma.
+     * @return {@link #VALIDA} se não houver violações, ou o resultado com as violações.
+     */
+    public static ResultadoValidacao de(List<Violacao> violacoes) {
+        return violacoes == null || violacoes.isEmpty()
+                ? VALIDA
+                : new ResultadoValidacao(Collections.unmodifiableList(violacoes));
+    }
+
+    /**
+     * @param codigo   Código da regra violada.
+     * @param campo    Campo da transferência ao qual a violação se refere.
+     * @param mensagem Descrição da violação.
+     * @return Resultado com uma única violação.
+     */
+    public static ResultadoValidacao rejeitada(MotivoRejeicao codigo, String campo, String mensagem) {
+        return new ResultadoValidacao(List.of(new Violacao(codigo, campo, mensagem)));
+    }
+
+    /**
+     * @return Se a transferência não possui violações.
+     */
+    public boolean isValida() {
+        return violacoes.isEmpty();
+    }
+
+    /**
+     * @return Violações encontradas, na ordem em que as regras foram verificadas.
+     */
+    public List<Violacao> getViolacoes() {
+        return violacoes;
+    }
+
+    /**
+     * @return Código da primeira violação, ou {@code null} se a transferência for válida.
+     */
+    public MotivoRejeicao getMotivo() {
+        return violacoes.isEmpty() ? null : violacoes.get(0).getCodigo();
+    }
+
+    /**
+     * @return Violações no formato "campo: mensagem", separadas por "; ".
+     */
+    public String getMensagem() {
+        return violacoes.stream()
+                .map(v -> v.getCampo() + ": " + v.getMensagem())
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,32 @@
+package com.empresa.transferencias.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Resumo de uma importação de transferências. Ao contrário do lote, não traz
+ * o resultado de cada item, para que a resposta não cresça com o arquivo:
+ * apenas os totais e as primeiras rejeições, com a posição do item no arquivo.
+ */
+@Getter
+@AllArgsConstructor
+public class ResumoImportacao {
+
+    private final long quantidade;
+    private final long aceitas;
+    private final long rejeitadas;
+
+    /**
+     * Rejeições na ordem em que foram detectadas, limitadas a
+     * {@code transferencias.importacao.maximo-rejeicoes}.
+     */
+    private final List<ResultadoLote> rejeicoes;
+
+    /**
+     * Indica que a leitura do arquivo falhou depois de gravados alguns blocos:
+     * os totais se referem apenas aos itens lidos até a falha.
+     */
+    private final boolean interrompida;
+}
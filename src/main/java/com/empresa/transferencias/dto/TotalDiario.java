@@ -0,0 +1,29 @@
+package com.empresa.transferencias.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totais das transferências de uma data: quantidade, soma dos valores e
+ * soma das taxas.
+ */
+@Value
+public class TotalDiario {
+
+    LocalDate data;
+    long quantidade;
+    BigDecimal valorTotal;
+    BigDecimal taxaTotal;
+
+    /**
+     * Construtor usado pelas consultas agregadas dos repositórios.
+     */
+    public TotalDiario(LocalDate data, Long quantidade, BigDecimal valorTotal, BigDecimal taxaTotal) {
+        this.data = data;
+        this.quantidade = quantidade;
+        this.valorTotal = valorTotal;
+        this.taxaTotal = taxaTotal;
+    }
+}
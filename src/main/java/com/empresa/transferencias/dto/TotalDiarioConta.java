@@ -0,0 +1,31 @@
+package com.empresa.transferencias.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Total agendado por uma conta de origem em uma data de transferência.
+ * O campo {@code limiteDiario} é omitido quando não há limite configurado.
+ */
+@Value
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TotalDiarioConta {
+
+    String conta;
+    LocalDate data;
+    long quantidade;
+    BigDecimal valorTotal;
+    BigDecimal limiteDiario;
+
+    /**
+     * Construtor usado pela consulta agregada do repositório.
+     */
+    public TotalDiarioConta(String conta, LocalDate data, Long quantidade, BigDecimal valorTotal) {
+        this(conta, data, quantidade, valorTotal, null);
+    }
+}
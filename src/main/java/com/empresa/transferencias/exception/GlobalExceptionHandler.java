@@ -1,8 +1,11 @@
 package com.empresa.transferencias.exception;
 
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -20,6 +23,18 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final TransferenciaMetricas metricas;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param metricas Métricas usadas para contabilizar rejeições de validação.
+     */
+    @Autowired
+    public GlobalExceptionHandler(TransferenciaMetricas metricas) {
+        this.metricas = metricas;
+    }
+
     /**
      * Captura e trata erros de validação de dados enviados para os endpoints.
      *
@@ -32,10 +47,28 @@ public class GlobalExceptionHandler {
         for (FieldError error : ex.getBindingResult().getFieldErrors()) {
             errors.put(error.getField(), error.getDefaultMessage());
         }
+        metricas.registrarRejeicao(MotivoRejeicao.CAMPO_INVALIDO);
         logger.error("Erro de validação: {}", errors);
         return ResponseEntity.badRequest().body(errors);
     }
 
+    /**
+     * Captura corpos de requisição que não podem ser lidos (JSON malformado ou
+     * com tipos incompatíveis). É uma rejeição esperada: responde 400 sem
+     * registrar o stack trace.
+     *
+     * @param ex Exceção de leitura do corpo.
+     * @return ResponseEntity com uma mensagem de erro.
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, String>> handleNotReadableExceptions(HttpMessageNotReadableException ex) {
+        metricas.registrarRejeicao(MotivoRejeicao.CAMPO_INVALIDO);
+        logger.debug("Corpo da requisição inválido: {}", ex.getMessage());
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("erro", "Corpo da requisição inválido.");
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
     /**
      * Captura e trata exceções genéricas não previstas no sistema.
      *
@@ -0,0 +1,13 @@
+package com.empresa.transferencias.exception;
+
+/**
+ * Exceção lançada quando a fila de gravação agrupada está cheia ou em
+ * encerramento, ou quando o limite diário por conta não pode ser verificado.
+ * A transferência não foi aceita e pode ser reenviada.
+ */
+public class GravacaoIndisponivelException extends RuntimeException {
+
+    public GravacaoIndisponivelException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,16 @@
+package com.empresa.transferencias.exception;
+
+/**
+ * Motivos pelos quais uma transferência pode ser rejeitada.
+ * Conjunto fechado, usado como tag de métricas e como código estável de erro.
+ */
+public enum MotivoRejeicao {
+    CAMPO_INVALIDO,
+    CAMPO_OBRIGATORIO,
+    CONTA_INVALIDA,
+    CONTAS_IGUAIS,
+    VALOR_INVALIDO,
+    DATA_INVALIDA,
+    TAXA_NAO_APLICAVEL,
+    LIMITE_DIARIO_EXCEDIDO
+}
@@ -0,0 +1,30 @@
+package com.empresa.transferencias.exception;
+
+/**
+ * Exceção lançada quando uma transferência viola uma regra de negócio.
+ * Carrega o {@link MotivoRejeicao} para que a rejeição possa ser
+ * classificada sem depender do texto da mensagem.
+ *
+ * As rejeições esperadas são devolvidas como resultado, sem exceção; esta
+ * exceção fica restrita aos casos residuais (ex.: tabela de taxas trocada
+ * durante um agendamento) e não captura o stack trace, que não é útil
+ * para uma rejeição de regra de negócio.
+ */
+public class TransferenciaInvalidaException extends IllegalArgumentException {
+
+    private final MotivoRejeicao motivo;
+
+    public TransferenciaInvalidaException(MotivoRejeicao motivo, String mensagem) {
+        super(mensagem);
+        this.motivo = motivo;
+    }
+
+    public MotivoRejeicao getMotivo() {
+        return motivo;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
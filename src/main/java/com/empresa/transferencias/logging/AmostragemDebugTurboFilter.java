@@ -0,0 +1,53 @@
+package com.empresa.transferencias.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TurboFilter do Logback que deixa passar apenas um a cada {@code taxa}
+ * eventos DEBUG dos loggers sob {@code prefixo}. Permite manter DEBUG
+ * habilitado nos caminhos quentes sem que a formatação e a escrita dos logs
+ * dominem o uso de CPU. Os demais níveis e loggers não são afetados.
+ *
+ * Configurado no logback-spring.xml:
+ * <pre>
+ * &lt;turboFilter class="com.empresa.transferencias.logging.AmostragemDebugTurboFilter"&gt;
+ *     &lt;prefixo&gt;com.empresa.transferencias&lt;/prefixo&gt;
+ *     &lt;taxa&gt;100&lt;/taxa&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class AmostragemDebugTurboFilter extends TurboFilter {
+
+    private final AtomicLong contador = new AtomicLong();
+    private String prefixo = "";
+    private long taxa = 100;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || level != Level.DEBUG || !logger.getName().startsWith(prefixo)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (format == null) {
+            // Chamadas a isDebugEnabled(): a amostragem é decidida no evento em si.
+            return FilterReply.NEUTRAL;
+        }
+        return contador.getAndIncrement() % taxa == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setPrefixo(String prefixo) {
+        this.prefixo = prefixo;
+    }
+
+    public void setTaxa(long taxa) {
+        if (taxa < 1) {
+            throw new IllegalArgumentException("A taxa de amostragem deve ser maior que zero.");
+        }
+        this.taxa = taxa;
+    }
+}
@@ -0,0 +1,166 @@
+package com.empresa.transferencias.metrics;
+
+import com.empresa.transferencias.exception.MotivoRejeicao;
+import com.empresa.transferencias.service.FeeSchedule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de negócio do agendamento de transferências.
+ * Todas as tags têm cardinalidade limitada: resultado do agendamento,
+ * faixa da tabela de taxas e motivo de rejeição. Os medidores são criados
+ * uma única vez e reutilizados, evitando buscas no registro a cada chamada.
+ */
+@Component
+public class TransferenciaMetricas {
+
+    public static final String AGENDAMENTO = "transferencias.agendamento";
+    public static final String CALCULO_TAXA = "transferencias.taxa.calculo";
+    public static final String REJEICOES = "transferencias.validacao.rejeicoes";
+    public static final String LIQUIDACOES = "transferencias.liquidacao";
+    public static final String LIQUIDACAO_BLOCO = "transferencias.liquidacao.bloco";
+    public static final String GRAVACAO_GRUPO = "transferencias.gravacao.grupo";
+    public static final String GRAVACAO_COMMIT = "transferencias.gravacao.commit";
+
+    /**
+     * Resultado de um agendamento, usado como tag {@code resultado}.
+     */
+    public enum Resultado {
+        SUCESSO,
+        REJEITADA,
+        ERRO
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Resultado, Timer> agendamentos = new EnumMap<>(Resultado.class);
+    private final Map<MotivoRejeicao, Counter> rejeicoes = new EnumMap<>(MotivoRejeicao.class);
+    private final ConcurrentMap<String, Timer> calculosTaxa = new ConcurrentHashMap<>();
+    private final Counter liquidacoesConcluidas;
+    private final Counter liquidacoesFalhas;
+    private final Timer liquidacaoBloco;
+    private final DistributionSummary gravacaoGrupo;
+    private final Timer gravacaoCommit;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param registry Registro de métricas da aplicação.
+     */
+    @Autowired
+    public TransferenciaMetricas(MeterRegistry registry) {
+        this.registry = registry;
+        for (Resultado resultado : Resultado.values()) {
+            agendamentos.put(resultado, Timer.builder(AGENDAMENTO)
+                    .description("Tempo de agendamento de uma transferência")
+                    .tag("resultado", resultado.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (MotivoRejeicao motivo : MotivoRejeicao.values()) {
+            rejeicoes.put(motivo, Counter.builder(REJEICOES)
+                    .description("Transferências rejeitadas por regra de validação")
+                    .tag("motivo", motivo.name())
+                    .register(registry));
+        }
+        liquidacoesConcluidas = Counter.builder(LIQUIDACOES)
+                .description("Transferências processadas pelo executor de liquidação")
+                .tag("resultado", "concluida")
+                .register(registry);
+        liquidacoesFalhas = Counter.builder(LIQUIDACOES)
+                .description("Transferências processadas pelo executor de liquidação")
+                .tag("resultado", "falhou")
+                .register(registry);
+        liquidacaoBloco = Timer.builder(LIQUIDACAO_BLOCO)
+                .description("Tempo de processamento de um bloco de liquidação")
+                .publishPercentileHistogram()
+                .register(registry);
+        gravacaoGrupo = DistributionSummary.builder(GRAVACAO_GRUPO)
+                .description("Transferências gravadas por transação na gravação agrupada")
+                .publishPercentileHistogram()
+                .register(registry);
+        gravacaoCommit = Timer.builder(GRAVACAO_COMMIT)
+                .description("Tempo de gravação e commit de um grupo na gravação agrupada")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Inicia a medição de um agendamento.
+     *
+     * @return Amostra a ser encerrada com {@link #registrarAgendamento(Timer.Sample, Resultado)}.
+     */
+    public Timer.Sample iniciarAgendamento() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Encerra a medição de um agendamento.
+     *
+     * @param amostra   Amostra obtida em {@link #iniciarAgendamento()}.
+     * @param resultado Resultado do agendamento.
+     */
+    public void registrarAgendamento(Timer.Sample amostra, Resultado resultado) {
+        amostra.stop(agendamentos.get(resultado));
+    }
+
+    /**
+     * Registra o tempo de cálculo de uma taxa na faixa correspondente.
+     *
+     * @param diasDiferenca Diferença em dias usada no cálculo.
+     * @param nanos         Duração do cálculo em nanossegundos.
+     */
+    public void registrarCalculoTaxa(int diasDiferenca, long nanos) {
+        String faixa = FeeSchedule.atual().faixa(diasDiferenca).getRotulo();
+        calculosTaxa.computeIfAbsent(faixa, f -> Timer.builder(CALCULO_TAXA)
+                        .description("Tempo de cálculo da taxa de transferência")
+                        .tag("faixa", f)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Contabiliza uma transferência rejeitada.
+     *
+     * @param motivo Motivo da rejeição.
+     */
+    public void registrarRejeicao(MotivoRejeicao motivo) {
+        rejeicoes.get(motivo).increment();
+    }
+
+    /**
+     * Registra o processamento de um bloco de liquidação. A vazão é obtida
+     * pela taxa do contador {@value #LIQUIDACOES}.
+     *
+     * @param concluidas Transferências liquidadas com sucesso.
+     * @param falhas     Transferências cuja liquidação falhou.
+     * @param nanos      Duração do processamento do bloco em nanossegundos.
+     */
+    public void registrarLiquidacao(int concluidas, int falhas, long nanos) {
+        liquidacoesConcluidas.increment(concluidas);
+        liquidacoesFalhas.increment(falhas);
+        liquidacaoBloco.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra a gravação de um grupo na gravação agrupada. A quantidade de
+     * commits por segundo é obtida pela taxa do timer {@value #GRAVACAO_COMMIT}.
+     *
+     * @param tamanho Quantidade de transferências gravadas na transação.
+     * @param nanos   Duração da gravação e do commit em nanossegundos.
+     */
+    public void registrarGravacaoGrupo(int tamanho, long nanos) {
+        gravacaoGrupo.record(tamanho);
+        gravacaoCommit.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
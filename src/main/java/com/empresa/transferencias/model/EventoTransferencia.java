@@ -0,0 +1,64 @@
+package com.empresa.transferencias.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Evento de mudança de uma transferência (outbox transacional).
+ * O evento é gravado na mesma transação que a transferência, de modo que
+ * existe se e somente se a mudança foi confirmada.
+ *
+ * O {@code id} (coluna {@code sequencia}) é gerado pelo banco no insert e
+ * segue a ordem de gravação, não a de confirmação. A {@code sequencia}
+ * (coluna {@code publicacao}) é atribuída depois do commit, em ordem e sem
+ * lacunas, e é a posição usada pelos consumidores; fica nula até o evento
+ * ser numerado.
+ *
+ * {@code dados} guarda a transferência em JSON no momento do evento e é
+ * escrito sem escape ao serializar o evento.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "eventos_transferencia")
+public class EventoTransferencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sequencia")
+    @JsonIgnore
+    private Long id;
+
+    @Column(name = "publicacao", unique = true)
+    private Long sequencia;
+
+    @Column(name = "transferencia_id", nullable = false)
+    private UUID transferenciaId;
+
+    /**
+     * Situação da transferência após a mudança (AGENDADA, CONCLUIDA ou FALHOU).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 12)
+    private StatusTransferencia tipo;
+
+    @JsonRawValue
+    @Column(name = "dados", nullable = false, columnDefinition = "text")
+    private String dados;
+
+    @Column(name = "criado_em", nullable = false)
+    private Instant criadoEm;
+
+    public EventoTransferencia(UUID transferenciaId, StatusTransferencia tipo, String dados, Instant criadoEm) {
+        this.transferenciaId = transferenciaId;
+        this.tipo = tipo;
+        this.dados = dados;
+        this.criadoEm = criadoEm;
+    }
+}
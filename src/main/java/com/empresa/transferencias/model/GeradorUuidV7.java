@@ -0,0 +1,80 @@
+package com.empresa.transferencias.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.io.Serializable;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de identificadores UUID versão 7 (RFC 9562): os 48 bits mais
+ * significativos são o instante de geração em milissegundos desde a época
+ * Unix, seguidos de um contador de 12 bits e de 62 bits aleatórios.
+ *
+ * Identificadores gerados em sequência são crescentes, de modo que os
+ * inserts acrescentam entradas ao final do índice da chave primária em vez
+ * de espalhá-las por páginas aleatórias (como acontece com UUIDs versão 4).
+ * Dentro de uma JVM a ordem é estritamente crescente, mesmo com várias
+ * gerações no mesmo milissegundo; entre instâncias, a unicidade vem dos 62
+ * bits aleatórios, sem coordenação.
+ *
+ * Usado como gerador do Hibernate para {@link Transferencia#getId()}.
+ */
+public class GeradorUuidV7 implements IdentifierGenerator {
+
+    /** Nome do gerador nas anotações da entidade. */
+    public static final String NOME = "uuid-v7";
+
+    private static final int BITS_CONTADOR = 12;
+    private static final long VERSAO = 0x7000L;
+    private static final long VARIANTE = 0x8000000000000000L;
+    private static final long MASCARA_ALEATORIA = 0x3FFFFFFFFFFFFFFFL;
+
+    /** Último (milissegundo, contador) gerado, como {@code ms << 12 | contador}. */
+    private static final AtomicLong ULTIMO = new AtomicLong();
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return gerar();
+    }
+
+    /**
+     * @return Novo UUID versão 7, maior que todos os gerados antes nesta JVM.
+     */
+    public static UUID gerar() {
+        return gerar(System.currentTimeMillis());
+    }
+
+    /**
+     * Gera um UUID versão 7 para o instante informado. Se o instante não for
+     * posterior ao da última geração (mesmo milissegundo ou relógio
+     * retrocedido), o contador da última geração é incrementado; ao esgotar
+     * os 12 bits, o transbordo avança o milissegundo.
+     *
+     * @param epochMillis Instante em milissegundos desde a época Unix.
+     * @return Novo UUID versão 7.
+     */
+    static UUID gerar(long epochMillis) {
+        long candidato = epochMillis << BITS_CONTADOR;
+        long anterior;
+        long marca;
+        do {
+            anterior = ULTIMO.get();
+            marca = candidato > anterior ? candidato : anterior + 1;
+        } while (!ULTIMO.compareAndSet(anterior, marca));
+
+        long maisSignificativos = (marca >>> BITS_CONTADOR) << 16 | VERSAO | (marca & 0xFFF);
+        long menosSignificativos = ThreadLocalRandom.current().nextLong() & MASCARA_ALEATORIA | VARIANTE;
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+
+    /**
+     * @param uuid UUID versão 7.
+     * @return Instante de geração em milissegundos desde a época Unix.
+     */
+    public static long instante(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
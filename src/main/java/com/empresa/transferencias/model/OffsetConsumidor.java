@@ -0,0 +1,35 @@
+package com.empresa.transferencias.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Posição de um consumidor no fluxo de {@link EventoTransferencia}: a
+ * sequência do último evento entregue e confirmado. Enquanto um consumidor
+ * estiver registrado, os eventos posteriores à sua posição não são removidos
+ * pela retenção.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "offsets_consumidor")
+public class OffsetConsumidor {
+
+    @Id
+    @Column(name = "consumidor", length = 100)
+    private String consumidor;
+
+    @Column(name = "sequencia", nullable = false)
+    private long sequencia;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private Instant atualizadoEm;
+}
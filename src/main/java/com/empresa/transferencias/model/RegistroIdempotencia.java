@@ -0,0 +1,74 @@
+package com.empresa.transferencias.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Registro de uma requisição identificada por Idempotency-Key.
+ * A linha é inserida antes da execução (reserva da chave, com status nulo)
+ * e atualizada com a resposta ao final. A chave primária garante que apenas
+ * uma instância da aplicação execute a operação para uma mesma chave.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "idempotencia")
+public class RegistroIdempotencia implements Persistable<String> {
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 100;
+
+    @Id
+    @Column(name = "chave", length = TAMANHO_MAXIMO_CHAVE)
+    private String chave;
+
+    @Column(name = "rota", nullable = false, length = 100)
+    private String rota;
+
+    /**
+     * Status HTTP da resposta; nulo enquanto a operação está em execução.
+     */
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "corpo", columnDefinition = "text")
+    private String corpo;
+
+    @Column(name = "criado_em", nullable = false)
+    private Instant criadoEm;
+
+    @Transient
+    private boolean novo = true;
+
+    public RegistroIdempotencia(String chave, String rota, Instant criadoEm) {
+        this.chave = chave;
+        this.rota = rota;
+        this.criadoEm = criadoEm;
+    }
+
+    @Override
+    public String getId() {
+        return chave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    /**
+     * @return true se a operação ainda não terminou.
+     */
+    public boolean isEmExecucao() {
+        return status == null;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        novo = false;
+    }
+}
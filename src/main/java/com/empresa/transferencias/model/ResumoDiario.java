@@ -0,0 +1,44 @@
+package com.empresa.transferencias.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Totais consolidados das transferências de uma data já passada.
+ * Como transferências só são agendadas para datas futuras, os totais de uma
+ * data anterior a hoje não mudam mais e podem ser gravados uma única vez.
+ * Datas sem transferências também são gravadas, com quantidade zero, para
+ * marcar que foram consolidadas.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "resumo_diario")
+public class ResumoDiario {
+
+    @Id
+    @Column(name = "data")
+    private LocalDate data;
+
+    @Column(name = "quantidade", nullable = false)
+    private long quantidade;
+
+    @Column(name = "valor_total", nullable = false)
+    private BigDecimal valorTotal;
+
+    @Column(name = "taxa_total", nullable = false)
+    private BigDecimal taxaTotal;
+
+    @Column(name = "consolidado_em", nullable = false)
+    private Instant consolidadoEm;
+}
@@ -0,0 +1,14 @@
+package com.empresa.transferencias.model;
+
+/**
+ * Situação de uma transferência no ciclo de liquidação.
+ * Transições: AGENDADA → PROCESSANDO → CONCLUIDA ou FALHOU. Uma transferência
+ * que permanece em PROCESSANDO além do tempo máximo (ex.: queda da instância
+ * que a reservou) volta para AGENDADA.
+ */
+public enum StatusTransferencia {
+    AGENDADA,
+    PROCESSANDO,
+    CONCLUIDA,
+    FALHOU
+}
@@ -3,29 +3,45 @@ package com.empresa.transferencias.model;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
 /**
  * Representa uma transferência financeira.
  * Inclui informações como:
- * - Identificador único (UUID) para cada transferência
+ * - Identificador único (UUID versão 7, ordenado pelo instante de criação)
  * - Conta de origem e destino (validadas)
  * - Valor e taxa da transferência
  * - Data da transferência e data de agendamento
+ * - Status de liquidação e momento da última transição
  *
  * Todos os atributos possuem validações para garantir consistência
  * e o cumprimento das regras de negócio definidas.
+ *
+ * As transferências lidas por id ficam no cache de segundo nível do
+ * Hibernate (ver CacheHibernateConfig); o status muda na liquidação, por
+ * isso a estratégia é de leitura e escrita.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
-@Table(name = "transferencias")
+@Table(name = "transferencias", indexes = {
+        @Index(name = "idx_transferencias_data_id", columnList = "data_transferencia, id"),
+        @Index(name = "idx_transferencias_status_data", columnList = "status, data_transferencia"),
+        @Index(name = "idx_transferencias_conta_data", columnList = "conta_origem, data_transferencia")
+})
 public class Transferencia {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = GeradorUuidV7.NOME)
+    @GenericGenerator(name = GeradorUuidV7.NOME, strategy = "com.empresa.transferencias.model.GeradorUuidV7")
     private UUID id;
 
     @NotNull
@@ -53,4 +69,11 @@ public class Transferencia {
 
     @Column(name = "data_agendamento", nullable = false)
     private LocalDate dataAgendamento;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", columnDefinition = "varchar(12) default 'AGENDADA' not null")
+    private StatusTransferencia status = StatusTransferencia.AGENDADA;
+
+    @Column(name = "atualizado_em")
+    private Instant atualizadoEm;
 }
@@ -0,0 +1,60 @@
+package com.empresa.transferencias.repository;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface de repositório para os eventos de transferência (outbox).
+ */
+@Repository
+public interface EventoTransferenciaRepository extends JpaRepository<EventoTransferencia, Long> {
+
+    /**
+     * Busca os eventos já numerados posteriores a uma posição.
+     *
+     * @param sequencia Sequência do último evento já lido (exclusiva).
+     * @param pageable  Quantidade máxima de eventos.
+     * @return Eventos em ordem de sequência.
+     */
+    @Query("select e from EventoTransferencia e where e.sequencia > :sequencia order by e.sequencia")
+    List<EventoTransferencia> buscarApos(@Param("sequencia") long sequencia, Pageable pageable);
+
+    /**
+     * Busca os eventos confirmados que ainda não receberam a sequência de
+     * publicação, na ordem de gravação.
+     *
+     * @param pageable Quantidade máxima de eventos.
+     * @return Eventos sem sequência, em ordem de id.
+     */
+    @Query("select e from EventoTransferencia e where e.sequencia is null order by e.id")
+    List<EventoTransferencia> buscarNaoNumerados(Pageable pageable);
+
+    /**
+     * @return Maior sequência de publicação atribuída, ou vazio se nenhuma.
+     */
+    @Query("select max(e.sequencia) from EventoTransferencia e")
+    Optional<Long> ultimaSequencia();
+
+    /**
+     * Remove os eventos criados antes do instante informado e já entregues a
+     * todos os consumidores registrados.
+     *
+     * @param limite Instante de corte.
+     * @return Quantidade de eventos removidos.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from EventoTransferencia e where e.criadoEm < :limite and e.sequencia is not null"
+            + " and not exists (select o from OffsetConsumidor o where o.sequencia < e.sequencia)")
+    int removerEntreguesAntes(@Param("limite") Instant limite);
+}
@@ -0,0 +1,34 @@
+package com.empresa.transferencias.repository;
+
+import com.empresa.transferencias.model.OffsetConsumidor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Optional;
+
+/**
+ * Interface de repositório para as posições dos consumidores de eventos.
+ */
+@Repository
+public interface OffsetConsumidorRepository extends JpaRepository<OffsetConsumidor, String> {
+
+    /**
+     * Bloqueia a posição do consumidor até o fim da transação, sem aguardar
+     * (SKIP LOCKED): se outra instância já estiver publicando para o mesmo
+     * consumidor, o resultado é vazio.
+     *
+     * @param consumidor Nome do consumidor.
+     * @return A posição bloqueada, ou vazio se não existir ou estiver bloqueada.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout",
+            value = TransferenciaJpaRepository.LOCK_SKIP_LOCKED))
+    @Query("select o from OffsetConsumidor o where o.consumidor = :consumidor")
+    Optional<OffsetConsumidor> bloquear(@Param("consumidor") String consumidor);
+}
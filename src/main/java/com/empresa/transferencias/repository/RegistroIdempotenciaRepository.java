@@ -0,0 +1,43 @@
+package com.empresa.transferencias.repository;
+
+import com.empresa.transferencias.model.RegistroIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Interface de repositório para os registros de Idempotency-Key.
+ */
+@Repository
+public interface RegistroIdempotenciaRepository extends JpaRepository<RegistroIdempotencia, String> {
+
+    /**
+     * Remove os registros criados antes do instante informado.
+     *
+     * @param limite Instante de corte.
+     * @return Quantidade de registros removidos.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RegistroIdempotencia r where r.criadoEm < :limite")
+    int removerCriadosAntes(@Param("limite") Instant limite);
+
+    /**
+     * Remove a reserva de uma chave cuja execução não gravou a resposta
+     * (status nulo) e foi criada antes do instante informado, por exemplo
+     * quando o processo foi encerrado durante a execução.
+     *
+     * @param chave  Chave de idempotência.
+     * @param limite Instante de corte.
+     * @return 1 se a reserva foi removida, 0 caso contrário.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RegistroIdempotencia r where r.chave = :chave and r.status is null and r.criadoEm < :limite")
+    int removerReservaAbandonada(@Param("chave") String chave, @Param("limite") Instant limite);
+}
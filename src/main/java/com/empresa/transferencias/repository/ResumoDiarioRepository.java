@@ -0,0 +1,36 @@
+package com.empresa.transferencias.repository;
+
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.model.ResumoDiario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Interface de repositório para os totais diários consolidados.
+ */
+@Repository
+public interface ResumoDiarioRepository extends JpaRepository<ResumoDiario, LocalDate> {
+
+    /**
+     * Busca os totais consolidados de um período, omitindo as datas sem transferências.
+     *
+     * @param de  Data inicial (inclusiva).
+     * @param ate Data final (inclusiva).
+     * @return Totais por data, em ordem de data.
+     */
+    @Query("select new com.empresa.transferencias.dto.TotalDiario(r.data, r.quantidade, r.valorTotal, r.taxaTotal)"
+            + " from ResumoDiario r where r.data between :de and :ate and r.quantidade > 0"
+            + " order by r.data")
+    List<TotalDiario> buscarPeriodo(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    /**
+     * @return Última data consolidada, ou {@code null} se nenhuma data foi consolidada.
+     */
+    @Query("select max(r.data) from ResumoDiario r")
+    LocalDate ultimaDataConsolidada();
+}
@@ -0,0 +1,65 @@
+package com.empresa.transferencias.repository;
+
+import java.util.function.Supplier;
+
+/**
+ * Indica, para a thread atual, que as leituras devem ser feitas no banco
+ * primário.
+ *
+ * Com a réplica de leitura habilitada ({@code transferencias.leitura.habilitada=true}),
+ * transações somente leitura usam o pool de leitura, que pode estar atrasado
+ * em relação ao primário. Leituras que precisam enxergar gravações recentes
+ * (do mesmo cliente, ou que alimentam decisões de gravação) são marcadas
+ * por aqui. Sem a réplica, a marcação não tem efeito.
+ */
+public final class RoteamentoLeitura {
+
+    private static final ThreadLocal<Boolean> PRIMARIO = new ThreadLocal<>();
+
+    private RoteamentoLeitura() {
+    }
+
+    /**
+     * @return {@code true} se as leituras da thread atual devem ser feitas no primário.
+     */
+    public static boolean isPrimarioExigido() {
+        return Boolean.TRUE.equals(PRIMARIO.get());
+    }
+
+    /**
+     * Executa as leituras no primário, mesmo em transações somente leitura.
+     * A transação deve ser iniciada dentro da leitura: a conexão de uma
+     * transação já em andamento não muda.
+     *
+     * @param leitura Leitura a ser executada.
+     * @param <T>     Tipo do resultado.
+     * @return Resultado da leitura.
+     */
+    public static <T> T noPrimario(Supplier<T> leitura) {
+        Boolean anterior = PRIMARIO.get();
+        PRIMARIO.set(Boolean.TRUE);
+        try {
+            return leitura.get();
+        } finally {
+            if (anterior == null) {
+                PRIMARIO.remove();
+            } else {
+                PRIMARIO.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * Passa a exigir o primário na thread atual, até {@link #liberar()}.
+     */
+    public static void exigirPrimario() {
+        PRIMARIO.set(Boolean.TRUE);
+    }
+
+    /**
+     * Volta a permitir leituras no pool de leitura na thread atual.
+     */
+    public static void liberar() {
+        PRIMARIO.remove();
+    }
+}
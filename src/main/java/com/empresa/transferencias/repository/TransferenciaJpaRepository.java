@@ -0,0 +1,192 @@
+package com.empresa.transferencias.repository;
+
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+/**
+ * Implementação do {@link TransferenciaRepository} com Spring Data JPA,
+ * usada em todos os perfis exceto {@code memoria}. Os métodos sem
+ * {@code @Query} são derivados do nome; a documentação de cada operação
+ * está em {@link TransferenciaRepository}.
+ *
+ * As consultas não usam o cache de consultas do Hibernate: um resultado
+ * lido na réplica poderia ser servido depois às leituras que devem ir ao
+ * primário. A varredura completa não passa pelo cache de segundo nível, para não substituir as transferências lidas por id (o
+ * mesmo vale para a varredura de um período, usada na exportação).
+ */
+@Repository
+@Profile("!" + TransferenciaRepositoryEmMemoria.PERFIL)
+public interface TransferenciaJpaRepository extends JpaRepository<Transferencia, UUID>, TransferenciaRepository {
+
+    /**
+     * Quantidade de linhas trazidas do banco por ida ao servidor nas consultas em stream.
+     */
+    String TAMANHO_FETCH_STREAM = "500";
+
+    /**
+     * Valor do hint de timeout de lock que o Hibernate traduz para SKIP LOCKED
+     * (LockOptions.SKIP_LOCKED) nos dialetos que o suportam.
+     */
+    String LOCK_SKIP_LOCKED = "-2";
+
+    @Override
+    List<Transferencia> findByDataTransferencia(LocalDate dataTransferencia);
+
+    @Override
+    List<Transferencia> findByContaOrigemAndDataTransferenciaOrderByIdAsc(String contaOrigem,
+                                                                          LocalDate dataTransferencia,
+                                                                          Pageable pageable);
+
+    @Override
+    @Query("select t from Transferencia t"
+            + " where t.contaOrigem = :contaOrigem and t.dataTransferencia >= :desde"
+            + " order by t.dataTransferencia, t.id")
+    List<Transferencia> buscarPorContaDesde(@Param("contaOrigem") String contaOrigem,
+                                            @Param("desde") LocalDate desde,
+                                            Pageable pageable);
+
+    @Override
+    @Query("select new com.empresa.transferencias.dto.TotalDiarioConta("
+            + "t.contaOrigem, t.dataTransferencia, count(t), sum(t.valorTransferencia))"
+            + " from Transferencia t where t.dataTransferencia >= :desde"
+            + " group by t.contaOrigem, t.dataTransferencia")
+    List<TotalDiarioConta> somarPorContaEDataDesde(@Param("desde") LocalDate desde);
+
+    @Override
+    @Query("select new com.empresa.transferencias.dto.TotalDiarioConta("
+            + "t.contaOrigem, t.dataTransferencia, count(t), sum(t.valorTransferencia))"
+            + " from Transferencia t where t.contaOrigem = :contaOrigem and t.dataTransferencia = :data"
+            + " group by t.contaOrigem, t.dataTransferencia")
+    Optional<TotalDiarioConta> somarPorContaEData(@Param("contaOrigem") String contaOrigem,
+                                                  @Param("data") LocalDate dataTransferencia);
+
+    @Override
+    @Query("select new com.empresa.transferencias.dto.TotalDiario("
+            + "t.dataTransferencia, count(t), sum(t.valorTransferencia), sum(t.taxa))"
+            + " from Transferencia t where t.dataTransferencia between :de and :ate"
+            + " group by t.dataTransferencia order by t.dataTransferencia")
+    List<TotalDiario> somarPorDia(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Override
+    @Query("select min(t.dataTransferencia) from Transferencia t")
+    LocalDate primeiraDataTransferencia();
+
+    @Override
+    @Query("select t from Transferencia t where t.dataTransferencia between :de and :ate"
+            + " order by t.dataTransferencia, t.id")
+    List<Transferencia> buscarPeriodo(@Param("de") LocalDate de,
+                                      @Param("ate") LocalDate ate,
+                                      Pageable pageable);
+
+    @Override
+    @Query("select t from Transferencia t"
+            + " where t.dataTransferencia between :de and :ate and (t.dataTransferencia > :dataTransferencia"
+            + " or (t.dataTransferencia = :dataTransferencia and t.id > :id))"
+            + " order by t.dataTransferencia, t.id")
+    List<Transferencia> buscarPeriodoApos(@Param("de") LocalDate de,
+                                          @Param("ate") LocalDate ate,
+                                          @Param("dataTransferencia") LocalDate dataTransferencia,
+                                          @Param("id") UUID id,
+                                          Pageable pageable);
+
+    @Override
+    @Query("select t from Transferencia t"
+            + " where t.dataTransferencia > :dataTransferencia"
+            + " or (t.dataTransferencia = :dataTransferencia and t.id > :id)"
+            + " order by t.dataTransferencia, t.id")
+    List<Transferencia> buscarPaginaApos(@Param("dataTransferencia") LocalDate dataTransferencia,
+                                         @Param("id") UUID id,
+                                         Pageable pageable);
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = TAMANHO_FETCH_STREAM),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select t from Transferencia t order by t.dataTransferencia, t.id")
+    Stream<Transferencia> streamTodas();
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = TAMANHO_FETCH_STREAM),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select t from Transferencia t where t.dataTransferencia between :de and :ate"
+            + " order by t.dataTransferencia, t.id")
+    Stream<Transferencia> streamPeriodo(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Override
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = LOCK_SKIP_LOCKED))
+    @Query("select t from Transferencia t"
+            + " where t.status = :status and t.dataTransferencia <= :data"
+            + " order by t.dataTransferencia, t.id")
+    List<Transferencia> bloquearVencidas(@Param("status") StatusTransferencia status,
+                                         @Param("data") LocalDate data,
+                                         Pageable pageable);
+
+    @Override
+    @Modifying(clearAutomatically = true)
+    @Query("update Transferencia t set t.status = :status, t.atualizadoEm = :atualizadoEm where t.id in :ids")
+    int atualizarStatus(@Param("ids") Collection<UUID> ids,
+                        @Param("status") StatusTransferencia status,
+                        @Param("atualizadoEm") Instant atualizadoEm);
+
+    @Override
+    @Modifying(clearAutomatically = true)
+    @Query("update Transferencia t set t.status = :status, t.atualizadoEm = :atualizadoEm"
+            + " where t.id in :ids and t.status = :esperado and t.atualizadoEm = :desde")
+    int atualizarStatusSe(@Param("ids") Collection<UUID> ids,
+                          @Param("esperado") StatusTransferencia esperado,
+                          @Param("desde") Instant desde,
+                          @Param("status") StatusTransferencia status,
+                          @Param("atualizadoEm") Instant atualizadoEm);
+
+    @Override
+    @Query("select t.id from Transferencia t"
+            + " where t.id in :ids and t.status = :status and t.atualizadoEm = :atualizadoEm")
+    List<UUID> buscarIdsComStatus(@Param("ids") Collection<UUID> ids,
+                                  @Param("status") StatusTransferencia status,
+                                  @Param("atualizadoEm") Instant atualizadoEm);
+
+    @Override
+    @Query("select distinct t.dataTransferencia from Transferencia t"
+            + " where t.status = :status and t.atualizadoEm < :limite")
+    List<LocalDate> buscarDatasComStatusAnteriorA(@Param("status") StatusTransferencia status,
+                                                  @Param("limite") Instant limite);
+
+    @Override
+    @Modifying
+    @Query("update Transferencia t set t.status = :novo"
+            + " where t.status = :atual and t.atualizadoEm < :limite")
+    int reverterStatusAnteriorA(@Param("atual") StatusTransferencia atual,
+                                @Param("novo") StatusTransferencia novo,
+                                @Param("limite") Instant limite);
+}
@@ -1,24 +1,274 @@
 package com.empresa.transferencias.repository;
 
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.model.StatusTransferencia;
 import com.empresa.transferencias.model.Transferencia;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Interface de repositório para a entidade Transferencia.
- * Fornece métodos para interagir com o banco de dados.
+ * Declara as operações de armazenamento usadas pela aplicação, de modo que
+ * o mecanismo de armazenamento possa ser escolhido por perfil:
+ * {@link TransferenciaJpaRepository} (banco de dados, padrão) ou
+ * {@link TransferenciaRepositoryEmMemoria} (perfil {@code memoria}).
+ *
+ * No PostgreSQL a tabela é particionada por mês de data_transferencia
+ * (migração V2__particionar_transferencias). Consultas que fixam uma data
+ * leem uma única partição; consultas por período, apenas as partições dos
+ * meses do período.
  */
-@Repository
-public interface TransferenciaRepository extends JpaRepository<Transferencia, Long> {
+public interface TransferenciaRepository {
+
+    /**
+     * Grava uma transferência, atribuindo o id quando ainda não houver.
+     *
+     * @param transferencia Transferência a ser gravada.
+     * @return A transferência gravada.
+     */
+    <S extends Transferencia> S save(S transferencia);
+
+    /**
+     * Grava um conjunto de transferências.
+     *
+     * @param transferencias Transferências a serem gravadas.
+     * @return As transferências gravadas, na ordem recebida.
+     */
+    <S extends Transferencia> List<S> saveAll(Iterable<S> transferencias);
+
+    /**
+     * Busca uma transferência pelo identificador.
+     *
+     * @param id Identificador da transferência.
+     * @return A transferência, ou vazio se não existir.
+     */
+    Optional<Transferencia> findById(UUID id);
 
     /**
      * Busca transferências agendadas com base na data de transferência.
+     * Atendida pelo índice idx_transferencias_data_id, cuja primeira coluna
+     * é data_transferencia, na partição do mês da data.
      *
      * @param dataTransferencia data da transferência a ser buscada.
      * @return Lista de transferências agendadas para a data especificada.
      */
     List<Transferencia> findByDataTransferencia(LocalDate dataTransferencia);
+
+    /**
+     * Busca as transferências de uma conta de origem em uma data.
+     * Atendida pelo índice idx_transferencias_conta_data, na partição do mês da data.
+     *
+     * @param contaOrigem       Conta de origem.
+     * @param dataTransferencia Data da transferência.
+     * @param pageable          Quantidade máxima de transferências (o deslocamento é sempre zero).
+     * @return Transferências da conta na data, ordenadas por id.
+     */
+    List<Transferencia> findByContaOrigemAndDataTransferenciaOrderByIdAsc(String contaOrigem,
+                                                                          LocalDate dataTransferencia,
+                                                                          Pageable pageable);
+
+    /**
+     * Busca as transferências de uma conta de origem a partir de uma data.
+     * Atendida pelo índice idx_transferencias_conta_data.
+     *
+     * @param contaOrigem Conta de origem.
+     * @param desde       Data inicial (inclusiva).
+     * @param pageable    Quantidade máxima de transferências (o deslocamento é sempre zero).
+     * @return Transferências da conta, ordenadas por (dataTransferencia, id).
+     */
+    List<Transferencia> buscarPorContaDesde(String contaOrigem,
+                                            LocalDate desde,
+                                            Pageable pageable);
+
+    /**
+     * Soma o valor agendado por conta de origem e data de transferência, a
+     * partir de uma data. Usada para reconstruir o agregado em memória.
+     *
+     * @param desde Data inicial (inclusiva).
+     * @return Totais por conta e data.
+     */
+    List<TotalDiarioConta> somarPorContaEDataDesde(LocalDate desde);
+
+    /**
+     * Soma o valor agendado por uma conta de origem em uma data.
+     *
+     * @param contaOrigem       Conta de origem.
+     * @param dataTransferencia Data da transferência.
+     * @return Total da conta na data, ou vazio se não houver transferências.
+     */
+    Optional<TotalDiarioConta> somarPorContaEData(String contaOrigem,
+                                                  LocalDate dataTransferencia);
+
+    /**
+     * Soma as transferências de um período por data, em uma única consulta
+     * agregada. Atendida pelo índice idx_transferencias_data_id.
+     *
+     * @param de  Data inicial (inclusiva).
+     * @param ate Data final (inclusiva).
+     * @return Quantidade, soma dos valores e soma das taxas por data, em ordem de data.
+     */
+    List<TotalDiario> somarPorDia(LocalDate de, LocalDate ate);
+
+    /**
+     * @return Menor data de transferência cadastrada, ou {@code null} se não houver transferências.
+     */
+    LocalDate primeiraDataTransferencia();
+
+    /**
+     * Busca a primeira página de um período, ordenada por (dataTransferencia, id).
+     *
+     * @param de       Data inicial (inclusiva).
+     * @param ate      Data final (inclusiva).
+     * @param pageable Tamanho da página (o deslocamento é sempre zero).
+     * @return Transferências da primeira página.
+     */
+    List<Transferencia> buscarPeriodo(LocalDate de,
+                                      LocalDate ate,
+                                      Pageable pageable);
+
+    /**
+     * Busca a página de um período seguinte a uma posição (paginação por chave).
+     *
+     * @param de                Data inicial do período (inclusiva).
+     * @param ate               Data final do período (inclusiva).
+     * @param dataTransferencia Data da última transferência da página anterior.
+     * @param id                Id da última transferência da página anterior.
+     * @param pageable          Tamanho da página (o deslocamento é sempre zero).
+     * @return Transferências do período posteriores à posição informada.
+     */
+    List<Transferencia> buscarPeriodoApos(LocalDate de,
+                                          LocalDate ate,
+                                          LocalDate dataTransferencia,
+                                          UUID id,
+                                          Pageable pageable);
+
+    /**
+     * Busca a primeira página da listagem ordenada por (dataTransferencia, id).
+     *
+     * @param pageable Tamanho da página (o deslocamento é sempre zero).
+     * @return Transferências da primeira página.
+     */
+    List<Transferencia> findAllByOrderByDataTransferenciaAscIdAsc(Pageable pageable);
+
+    /**
+     * Busca a página seguinte a uma posição da listagem (paginação por chave).
+     * Utiliza o índice em (data_transferencia, id), evitando o custo de OFFSET.
+     *
+     * @param dataTransferencia Data da última transferência da página anterior.
+     * @param id                Id da última transferência da página anterior.
+     * @param pageable          Tamanho da página (o deslocamento é sempre zero).
+     * @return Transferências posteriores à posição informada.
+     */
+    List<Transferencia> buscarPaginaApos(LocalDate dataTransferencia,
+                                         UUID id,
+                                         Pageable pageable);
+
+    /**
+     * Percorre todas as transferências com um cursor no servidor.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @return Stream com todas as transferências, ordenadas por (dataTransferencia, id).
+     */
+    Stream<Transferencia> streamTodas();
+
+    /**
+     * Percorre as transferências de um período com um cursor no servidor.
+     * Deve ser consumido dentro de uma transação e fechado ao final. Lê
+     * apenas as partições dos meses do período.
+     *
+     * @param de  Data inicial (inclusiva).
+     * @param ate Data final (inclusiva).
+     * @return Stream com as transferências do período, ordenadas por (dataTransferencia, id).
+     */
+    Stream<Transferencia> streamPeriodo(LocalDate de, LocalDate ate);
+
+    /**
+     * Bloqueia um bloco de transferências vencidas para processamento
+     * ({@code SELECT ... FOR UPDATE SKIP LOCKED}). Linhas já bloqueadas por
+     * outra instância são ignoradas, de modo que várias instâncias podem
+     * dividir o trabalho sem processar a mesma transferência. Deve ser
+     * chamado dentro de uma transação. Atendida pelo índice
+     * idx_transferencias_status_data.
+     *
+     * @param status   Status das transferências a serem reservadas.
+     * @param data     Data de referência; são vencidas as transferências até esta data.
+     * @param pageable Tamanho do bloco (o deslocamento é sempre zero).
+     * @return Transferências bloqueadas, ordenadas por (dataTransferencia, id).
+     */
+    List<Transferencia> bloquearVencidas(StatusTransferencia status,
+                                         LocalDate data,
+                                         Pageable pageable);
+
+    /**
+     * Altera o status de um conjunto de transferências em um único comando.
+     *
+     * @param ids          Ids das transferências.
+     * @param status       Novo status.
+     * @param atualizadoEm Momento da transição.
+     * @return Quantidade de transferências alteradas.
+     */
+    int atualizarStatus(Collection<UUID> ids,
+                        StatusTransferencia status,
+                        Instant atualizadoEm);
+
+    /**
+     * Altera o status apenas das transferências que ainda estão no status
+     * esperado desde o instante informado, em um único comando. Usado para
+     * concluir uma reserva: se a reserva foi devolvida (e talvez reservada de
+     * novo por outro ciclo), o instante não confere e a linha não é alterada.
+     *
+     * @param ids          Ids das transferências.
+     * @param esperado     Status atual esperado.
+     * @param desde        Instante da última transição esperado.
+     * @param status       Novo status.
+     * @param atualizadoEm Momento da transição.
+     * @return Quantidade de transferências alteradas.
+     */
+    int atualizarStatusSe(Collection<UUID> ids,
+                          StatusTransferencia esperado,
+                          Instant desde,
+                          StatusTransferencia status,
+                          Instant atualizadoEm);
+
+    /**
+     * Filtra as transferências que estão em um status desde um instante.
+     *
+     * @param ids          Ids das transferências.
+     * @param status       Status atual.
+     * @param atualizadoEm Instante da última transição.
+     * @return Ids, entre os informados, das transferências nesse status e instante.
+     */
+    List<UUID> buscarIdsComStatus(Collection<UUID> ids, StatusTransferencia status, Instant atualizadoEm);
+
+    /**
+     * Busca as datas de transferência das transferências que estão em um
+     * status desde antes do limite informado, para invalidar o cache por data
+     * antes de {@link #reverterStatusAnteriorA}.
+     *
+     * @param status Status atual das transferências.
+     * @param limite Transferências atualizadas antes deste instante são consideradas.
+     * @return Datas de transferência distintas.
+     */
+    List<LocalDate> buscarDatasComStatusAnteriorA(StatusTransferencia status, Instant limite);
+
+    /**
+     * Devolve para um novo status as transferências que estão em um status
+     * desde antes do limite informado (ex.: reservas abandonadas).
+     *
+     * @param atual  Status atual das transferências.
+     * @param novo   Novo status.
+     * @param limite Transferências atualizadas antes deste instante são alteradas.
+     * @return Quantidade de transferências alteradas.
+     */
+    int reverterStatusAnteriorA(StatusTransferencia atual,
+                                StatusTransferencia novo,
+                                Instant limite);
 }
@@ -0,0 +1,407 @@
+package com.empresa.transferencias.repository;
+
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.model.GeradorUuidV7;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Armazenamento das transferências em memória, ativado pelo perfil
+ * {@code memoria}. Destinado a testes de desempenho e execuções sem
+ * PostgreSQL: os dados não sobrevivem ao reinício da aplicação e as
+ * gravações não participam de transações (não há rollback).
+ *
+ * As transferências ficam em um mapa concorrente por id e em dois índices
+ * ordenados concorrentes ({@link ConcurrentSkipListMap}), equivalentes aos
+ * índices do banco: por (dataTransferencia, id), que atende as consultas
+ * por data, por período, a paginação por chave e o stream; e por
+ * (contaOrigem, dataTransferencia, id), que atende as consultas por conta.
+ * Leituras não bloqueiam e enxergam as gravações concluídas; as agregações
+ * são calculadas percorrendo o intervalo do índice.
+ *
+ * A ordem entre ids é a de {@link UUID#compareTo}, usada de forma
+ * consistente em todas as consultas e na paginação por chave.
+ */
+@Repository
+@Profile(TransferenciaRepositoryEmMemoria.PERFIL)
+public class TransferenciaRepositoryEmMemoria implements TransferenciaRepository {
+
+    /** Perfil que ativa o armazenamento em memória. */
+    public static final String PERFIL = "memoria";
+
+    private static final UUID MENOR_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID MAIOR_ID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final ConcurrentMap<UUID, Transferencia> porId = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<ChaveData, Transferencia> porData = new ConcurrentSkipListMap<>();
+    private final ConcurrentNavigableMap<ChaveConta, Transferencia> porConta = new ConcurrentSkipListMap<>();
+
+    @Override
+    public <S extends Transferencia> S save(S transferencia) {
+        if (transferencia.getId() == null) {
+            transferencia.setId(GeradorUuidV7.gerar());
+        }
+        UUID id = transferencia.getId();
+        Transferencia anterior = porId.put(id, transferencia);
+        if (anterior != null) {
+            porData.remove(new ChaveData(anterior.getDataTransferencia(), id));
+            porConta.remove(new ChaveConta(anterior.getContaOrigem(), anterior.getDataTransferencia(), id));
+        }
+        porData.put(new ChaveData(transferencia.getDataTransferencia(), id), transferencia);
+        porConta.put(new ChaveConta(transferencia.getContaOrigem(), transferencia.getDataTransferencia(), id),
+                transferencia);
+        return transferencia;
+    }
+
+    @Override
+    public <S extends Transferencia> List<S> saveAll(Iterable<S> transferencias) {
+        List<S> gravadas = new ArrayList<>();
+        for (S transferencia : transferencias) {
+            gravadas.add(save(transferencia));
+        }
+        return gravadas;
+    }
+
+    @Override
+    public Optional<Transferencia> findById(UUID id) {
+        return Optional.ofNullable(porId.get(id));
+    }
+
+    @Override
+    public List<Transferencia> findByDataTransferencia(LocalDate dataTransferencia) {
+        return new ArrayList<>(periodo(dataTransferencia, dataTransferencia).values());
+    }
+
+    @Override
+    public List<Transferencia> findByContaOrigemAndDataTransferenciaOrderByIdAsc(String contaOrigem,
+                                                                                 LocalDate dataTransferencia,
+                                                                                 Pageable pageable) {
+        return limitar(porConta.subMap(
+                new ChaveConta(contaOrigem, dataTransferencia, MENOR_ID), true,
+                new ChaveConta(contaOrigem, dataTransferencia, MAIOR_ID), true).values(), pageable);
+    }
+
+    @Override
+    public List<Transferencia> buscarPorContaDesde(String contaOrigem, LocalDate desde, Pageable pageable) {
+        return limitar(porConta.subMap(
+                new ChaveConta(contaOrigem, desde, MENOR_ID), true,
+                new ChaveConta(contaOrigem, LocalDate.MAX, MAIOR_ID), true).values(), pageable);
+    }
+
+    @Override
+    public List<TotalDiarioConta> somarPorContaEDataDesde(LocalDate desde) {
+        Map<ChaveConta, Totais> totais = new LinkedHashMap<>();
+        for (Transferencia t : porData.tailMap(new ChaveData(desde, MENOR_ID), true).values()) {
+            totais.computeIfAbsent(new ChaveConta(t.getContaOrigem(), t.getDataTransferencia(), MENOR_ID),
+                    chave -> new Totais()).somar(t);
+        }
+        return totais.entrySet().stream()
+                .map(e -> new TotalDiarioConta(e.getKey().conta, e.getKey().data,
+                        e.getValue().quantidade, e.getValue().valor))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<TotalDiarioConta> somarPorContaEData(String contaOrigem, LocalDate dataTransferencia) {
+        Totais totais = new Totais();
+        porConta.subMap(
+                new ChaveConta(contaOrigem, dataTransferencia, MENOR_ID), true,
+                new ChaveConta(contaOrigem, dataTransferencia, MAIOR_ID), true)
+                .values().forEach(totais::somar);
+        return totais.quantidade == 0
+                ? Optional.empty()
+                : Optional.of(new TotalDiarioConta(contaOrigem, dataTransferencia, totais.quantidade, totais.valor));
+    }
+
+    @Override
+    public List<TotalDiario> somarPorDia(LocalDate de, LocalDate ate) {
+        if (de.isAfter(ate)) {
+            return Collections.emptyList();
+        }
+        Map<LocalDate, Totais> totais = new LinkedHashMap<>();
+        for (Transferencia t : periodo(de, ate).values()) {
+            totais.computeIfAbsent(t.getDataTransferencia(), data -> new Totais()).somar(t);
+        }
+        return totais.entrySet().stream()
+                .map(e -> new TotalDiario(e.getKey(), e.getValue().quantidade, e.getValue().valor,
+                        e.getValue().taxa))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public LocalDate primeiraDataTransferencia() {
+        Map.Entry<ChaveData, Transferencia> primeira = porData.firstEntry();
+        return primeira == null ? null : primeira.getKey().data;
+    }
+
+    @Override
+    public List<Transferencia> buscarPeriodo(LocalDate de, LocalDate ate, Pageable pageable) {
+        if (de.isAfter(ate)) {
+            return Collections.emptyList();
+        }
+        return limitar(periodo(de, ate).values(), pageable);
+    }
+
+    @Override
+    public List<Transferencia> buscarPeriodoApos(LocalDate de, LocalDate ate, LocalDate dataTransferencia,
+                                                 UUID id, Pageable pageable) {
+        ChaveData posicao = new ChaveData(dataTransferencia, id);
+        ChaveData inicio = new ChaveData(de, MENOR_ID);
+        ChaveData fim = new ChaveData(ate, MAIOR_ID);
+        if (posicao.compareTo(fim) >= 0 || inicio.compareTo(fim) > 0) {
+            return Collections.emptyList();
+        }
+        return posicao.compareTo(inicio) < 0
+                ? limitar(porData.subMap(inicio, true, fim, true).values(), pageable)
+                : limitar(porData.subMap(posicao, false, fim, true).values(), pageable);
+    }
+
+    @Override
+    public List<Transferencia> findAllByOrderByDataTransferenciaAscIdAsc(Pageable pageable) {
+        return limitar(porData.values(), pageable);
+    }
+
+    @Override
+    public List<Transferencia> buscarPaginaApos(LocalDate dataTransferencia, UUID id, Pageable pageable) {
+        return limitar(porData.tailMap(new ChaveData(dataTransferencia, id), false).values(), pageable);
+    }
+
+    @Override
+    public Stream<Transferencia> streamTodas() {
+        return porData.values().stream();
+    }
+
+    @Override
+    public Stream<Transferencia> streamPeriodo(LocalDate de, LocalDate ate) {
+        if (de.isAfter(ate)) {
+            return Stream.empty();
+        }
+        return periodo(de, ate).values().stream();
+    }
+
+    /**
+     * Sem bloqueio de linhas: os chamadores que dividem o trabalho entre
+     * threads devem serializar a reserva dos blocos (como faz o ciclo de
+     * liquidação) e alterar o status antes da próxima reserva.
+     */
+    @Override
+    public List<Transferencia> bloquearVencidas(StatusTransferencia status, LocalDate data, Pageable pageable) {
+        return limitar(porData.headMap(new ChaveData(data, MAIOR_ID), true).values().stream()
+                .filter(t -> t.getStatus() == status), pageable);
+    }
+
+    @Override
+    public int atualizarStatus(Collection<UUID> ids, StatusTransferencia status, Instant atualizadoEm) {
+        int alteradas = 0;
+        for (UUID id : ids) {
+            Transferencia transferencia = porId.get(id);
+            if (transferencia != null) {
+                synchronized (transferencia) {
+                    transferencia.setStatus(status);
+                    transferencia.setAtualizadoEm(atualizadoEm);
+                }
+                alteradas++;
+            }
+        }
+        return alteradas;
+    }
+
+    @Override
+    public int atualizarStatusSe(Collection<UUID> ids, StatusTransferencia esperado, Instant desde,
+                                 StatusTransferencia status, Instant atualizadoEm) {
+        int alteradas = 0;
+        for (UUID id : ids) {
+            Transferencia transferencia = porId.get(id);
+            if (transferencia != null) {
+                synchronized (transferencia) {
+                    if (transferencia.getStatus() == esperado && desde.equals(transferencia.getAtualizadoEm())) {
+                        transferencia.setStatus(status);
+                        transferencia.setAtualizadoEm(atualizadoEm);
+                        alteradas++;
+                    }
+                }
+            }
+        }
+        return alteradas;
+    }
+
+    @Override
+    public List<UUID> buscarIdsComStatus(Collection<UUID> ids, StatusTransferencia status, Instant atualizadoEm) {
+        List<UUID> encontrados = new ArrayList<>();
+        for (UUID id : ids) {
+            Transferencia transferencia = porId.get(id);
+            if (transferencia != null) {
+                synchronized (transferencia) {
+                    if (transferencia.getStatus() == status && atualizadoEm.equals(transferencia.getAtualizadoEm())) {
+                        encontrados.add(id);
+                    }
+                }
+            }
+        }
+        return encontrados;
+    }
+
+    @Override
+    public List<LocalDate> buscarDatasComStatusAnteriorA(StatusTransferencia status, Instant limite) {
+        Set<LocalDate> datas = new TreeSet<>();
+        for (Transferencia transferencia : porId.values()) {
+            synchronized (transferencia) {
+                if (transferencia.getStatus() == status && transferencia.getAtualizadoEm() != null
+                        && transferencia.getAtualizadoEm().isBefore(limite)) {
+                    datas.add(transferencia.getDataTransferencia());
+                }
+            }
+        }
+        return new ArrayList<>(datas);
+    }
+
+    @Override
+    public int reverterStatusAnteriorA(StatusTransferencia atual, StatusTransferencia novo, Instant limite) {
+        int alteradas = 0;
+        for (Transferencia transferencia : porId.values()) {
+            synchronized (transferencia) {
+                if (transferencia.getStatus() == atual && transferencia.getAtualizadoEm() != null
+                        && transferencia.getAtualizadoEm().isBefore(limite)) {
+                    transferencia.setStatus(novo);
+                    alteradas++;
+                }
+            }
+        }
+        return alteradas;
+    }
+
+    /**
+     * @return Quantidade de transferências armazenadas.
+     */
+    public long count() {
+        return porId.size();
+    }
+
+    private ConcurrentNavigableMap<ChaveData, Transferencia> periodo(LocalDate de, LocalDate ate) {
+        return porData.subMap(new ChaveData(de, MENOR_ID), true, new ChaveData(ate, MAIOR_ID), true);
+    }
+
+    private static List<Transferencia> limitar(Collection<Transferencia> transferencias, Pageable pageable) {
+        return limitar(transferencias.stream(), pageable);
+    }
+
+    private static List<Transferencia> limitar(Stream<Transferencia> stream, Pageable pageable) {
+        if (pageable.isPaged()) {
+            stream = stream.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        return stream.collect(Collectors.toList());
+    }
+
+    /**
+     * Totais acumulados de um grupo de transferências.
+     */
+    private static final class Totais {
+
+        long quantidade;
+        BigDecimal valor = BigDecimal.ZERO;
+        BigDecimal taxa = BigDecimal.ZERO;
+
+        void somar(Transferencia transferencia) {
+            quantidade++;
+            valor = valor.add(transferencia.getValorTransferencia());
+            if (transferencia.getTaxa() != null) {
+                taxa = taxa.add(transferencia.getTaxa());
+            }
+        }
+    }
+
+    /**
+     * Chave do índice por (dataTransferencia, id).
+     */
+    private static final class ChaveData implements Comparable<ChaveData> {
+
+        private static final Comparator<ChaveData> ORDEM = Comparator
+                .comparing((ChaveData c) -> c.data)
+                .thenComparing(c -> c.id);
+
+        final LocalDate data;
+        final UUID id;
+
+        ChaveData(LocalDate data, UUID id) {
+            this.data = data;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(ChaveData outra) {
+            return ORDEM.compare(this, outra);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ChaveData && compareTo((ChaveData) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(data, id);
+        }
+    }
+
+    /**
+     * Chave do índice por (contaOrigem, dataTransferencia, id).
+     */
+    private static final class ChaveConta implements Comparable<ChaveConta> {
+
+        private static final Comparator<ChaveConta> ORDEM = Comparator
+                .comparing((ChaveConta c) -> c.conta)
+                .thenComparing(c -> c.data)
+                .thenComparing(c -> c.id);
+
+        final String conta;
+        final LocalDate data;
+        final UUID id;
+
+        ChaveConta(String conta, LocalDate data, UUID id) {
+            this.conta = conta;
+            this.data = data;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(ChaveConta outra) {
+            return ORDEM.compare(this, outra);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ChaveConta && compareTo((ChaveConta) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(conta, data, id);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Acompanhamento dos eventos de transferência por Server-Sent Events.
+ *
+ * Cada conexão parte de uma sequência e recebe os eventos posteriores à
+ * medida que são confirmados: uma thread de um pool pequeno consulta o
+ * outbox a cada {@code intervalo} a partir do último evento enviado (busca
+ * pela chave primária, sem varrer as transferências). O id de cada evento
+ * SSE é a sequência, de modo que o cliente retoma do ponto em que parou
+ * com o cabeçalho {@code Last-Event-ID} ao reconectar.
+ *
+ * Disponível com o outbox habilitado ({@code transferencias.eventos.habilitado=true}).
+ */
+@Service
+@ConditionalOnProperty(name = "transferencias.eventos.habilitado", havingValue = "true")
+public class AcompanhamentoEventos {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcompanhamentoEventos.class);
+
+    private final EventosTransferencia eventos;
+    private final Duration intervalo;
+    private final Duration duracaoMaxima;
+    private final int tamanhoLote;
+    private final ScheduledExecutorService agendador;
+    private final AtomicInteger conexoes = new AtomicInteger();
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param eventos       Outbox de onde os eventos são lidos.
+     * @param intervalo     Intervalo entre consultas de cada conexão.
+     * @param duracaoMaxima Duração máxima de uma conexão; o cliente reconecta em seguida.
+     * @param tamanhoLote   Quantidade máxima de eventos lidos por consulta.
+     * @param threads       Quantidade de threads que atendem as conexões.
+     */
+    @Autowired
+    public AcompanhamentoEventos(EventosTransferencia eventos,
+                                 @Value("${transferencias.eventos.acompanhamento.intervalo:500ms}") Duration intervalo,
+                                 @Value("${transferencias.eventos.acompanhamento.duracao-maxima:10m}")
+                                 Duration duracaoMaxima,
+                                 @Value("${transferencias.eventos.acompanhamento.tamanho-lote:500}") int tamanhoLote,
+                                 @Value("${transferencias.eventos.acompanhamento.threads:2}") int threads) {
+        this.eventos = eventos;
+        this.intervalo = intervalo;
+        this.duracaoMaxima = duracaoMaxima;
+        this.tamanhoLote = tamanhoLote;
+        AtomicInteger sequencia = new AtomicInteger();
+        this.agendador = Executors.newScheduledThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "acompanhamento-eventos-" + sequencia.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Abre uma conexão SSE que envia os eventos posteriores à sequência.
+     *
+     * @param desde Sequência do último evento já recebido; 0 para o início.
+     * @return Emissor da conexão, encerrado ao atingir a duração máxima ou quando o cliente desconecta.
+     */
+    public SseEmitter acompanhar(long desde) {
+        SseEmitter emissor = new SseEmitter(duracaoMaxima.toMillis());
+        AtomicReference<ScheduledFuture<?>> tarefa = new AtomicReference<>();
+        long[] ultima = {desde};
+        Runnable consulta = () -> {
+            try {
+                enviar(emissor, ultima);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Acompanhamento de eventos encerrado: {}", e.getMessage());
+                emissor.completeWithError(e);
+                cancelar(tarefa.get());
+            }
+        };
+        Runnable encerrar = () -> cancelar(tarefa.get());
+        emissor.onCompletion(encerrar);
+        emissor.onTimeout(encerrar);
+        emissor.onError(erro -> cancelar(tarefa.get()));
+        conexoes.incrementAndGet();
+        tarefa.set(agendador.scheduleWithFixedDelay(consulta, 0, intervalo.toMillis(), TimeUnit.MILLISECONDS));
+        return emissor;
+    }
+
+    /**
+     * @return Quantidade de conexões abertas.
+     */
+    public int conexoesAbertas() {
+        return conexoes.get();
+    }
+
+    private void enviar(SseEmitter emissor, long[] ultima) throws IOException {
+        List<EventoTransferencia> lote;
+        do {
+            lote = eventos.buscarApos(ultima[0], tamanhoLote);
+            for (EventoTransferencia evento : lote) {
+                emissor.send(SseEmitter.event()
+                        .id(String.valueOf(evento.getSequencia()))
+                        .name(evento.getTipo().name())
+                        .data(evento, MediaType.APPLICATION_JSON));
+                ultima[0] = evento.getSequencia();
+            }
+        } while (lote.size() == tamanhoLote);
+    }
+
+    private void cancelar(ScheduledFuture<?> tarefa) {
+        if (tarefa != null && tarefa.cancel(false)) {
+            conexoes.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        agendador.shutdownNow();
+    }
+}
@@ -0,0 +1,40 @@
+package com.empresa.transferencias.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Dispara periodicamente o ciclo de liquidação das transferências vencidas.
+ * Habilitado por {@code transferencias.liquidacao.habilitada=true}; pode
+ * ficar ativo em todas as instâncias, que dividem o trabalho entre si.
+ */
+@Component
+@ConditionalOnProperty(name = "transferencias.liquidacao.habilitada", havingValue = "true")
+public class AgendadorLiquidacao {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgendadorLiquidacao.class);
+
+    private final LiquidacaoService liquidacaoService;
+
+    @Autowired
+    public AgendadorLiquidacao(LiquidacaoService liquidacaoService) {
+        this.liquidacaoService = liquidacaoService;
+    }
+
+    @Scheduled(fixedDelayString = "${transferencias.liquidacao.intervalo:PT30S}")
+    public void executar() {
+        try {
+            liquidacaoService.executarCiclo(LocalDate.now());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Erro no ciclo de liquidação: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.exception.GravacaoIndisponivelException;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.RoteamentoLeitura;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Agregado em memória do valor agendado por conta de origem e data de
+ * transferência, de hoje em diante. É atualizado a cada agendamento e
+ * reconstruído a partir do banco na inicialização, antes de o servidor
+ * aceitar requisições, de modo que a verificação do limite diário por conta
+ * é uma consulta a dois mapas, sem acesso ao banco.
+ *
+ * Em implantações com várias instâncias, cada instância enxerga apenas os
+ * próprios agendamentos desde a inicialização; o limite é então aplicado
+ * por instância.
+ *
+ * Se a reconstrução falhar (ex.: banco indisponível na inicialização), o
+ * agregado fica indisponível até uma nova tentativa, feita periodicamente,
+ * ser concluída: com limite diário configurado, as reservas são recusadas
+ * em vez de partir de totais zerados.
+ *
+ * O agregado serve apenas à verificação do limite: ele inclui reservas de
+ * agendamentos ainda não confirmados e, com várias instâncias, só os da
+ * própria instância. O total consultado pela API vem do banco
+ * ({@link TransferenciaService#totalDiarioPorConta}).
+ */
+@Component
+public class AgregadoDiarioContas implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgregadoDiarioContas.class);
+
+    private final TransferenciaRepository repository;
+    private final BigDecimal limiteDiario;
+    private final ConcurrentMap<LocalDate, ConcurrentMap<String, Total>> totaisPorData = new ConcurrentHashMap<>();
+    private volatile boolean disponivel = true;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param repository   Repositório usado na reconstrução do agregado.
+     * @param limiteDiario Valor máximo agendado por conta em uma data, ou {@code null} para não limitar.
+     */
+    @Autowired
+    public AgregadoDiarioContas(TransferenciaRepository repository,
+                                @Value("${transferencias.limites.valor-diario-por-conta:}") BigDecimal limiteDiario) {
+        this.repository = repository;
+        this.limiteDiario = limiteDiario;
+    }
+
+    /**
+     * Reconstrói o agregado com as transferências de hoje em diante.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        tentarReconstruir();
+    }
+
+    /**
+     * Tenta novamente a reconstrução enquanto o agregado estiver indisponível.
+     */
+    @Scheduled(fixedDelayString = "${transferencias.limites.intervalo-reconstrucao:PT30S}")
+    public void reconstruirSeIndisponivel() {
+        if (!disponivel) {
+            tentarReconstruir();
+        }
+    }
+
+    private void tentarReconstruir() {
+        try {
+            int contas = reconstruir(LocalDate.now());
+            disponivel = true;
+            logger.info("Agregado diário por conta reconstruído: {} pares (conta, data).", contas);
+        } catch (RuntimeException e) {
+            disponivel = false;
+            logger.error("Não foi possível reconstruir o agregado diário por conta; "
+                    + "limite diário indisponível até a próxima tentativa: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Substitui o agregado pelos totais gravados no banco a partir de uma data.
+     * Os totais são lidos no primário: com a réplica de leitura habilitada,
+     * uma réplica atrasada deixaria o limite diário abaixo do agendado.
+     *
+     * @param desde Data inicial (inclusiva).
+     * @return Quantidade de pares (conta, data) carregados.
+     */
+    int reconstruir(LocalDate desde) {
+        List<TotalDiarioConta> totais =
+                RoteamentoLeitura.noPrimario(() -> repository.somarPorContaEDataDesde(desde));
+        totaisPorData.clear();
+        for (TotalDiarioConta total : totais) {
+            totaisPorData.computeIfAbsent(total.getData(), d -> new ConcurrentHashMap<>())
+                    .put(total.getConta(), new Total(total.getQuantidade(), total.getValorTotal()));
+        }
+        return totais.size();
+    }
+
+    /**
+     * Soma a transferência ao total da conta na data, verificando antes o
+     * limite diário. A verificação e a soma são atômicas por conta e data.
+     *
+     * @param transferencia Transferência a ser agendada.
+     * @return {@code true} se o valor foi reservado; {@code false}, sem alterar
+     *         o total, se o limite diário da conta for excedido.
+     * @throws GravacaoIndisponivelException Se houver limite diário e o agregado
+     *                                       não tiver sido reconstruído.
+     */
+    public boolean reservar(Transferencia transferencia) {
+        if (limiteDiario != null && !disponivel) {
+            throw new GravacaoIndisponivelException("Limite diário por conta indisponível. Tente novamente.");
+        }
+        BigDecimal valor = transferencia.getValorTransferencia();
+        ConcurrentMap<String, Total> totais = totaisDa(transferencia.getDataTransferencia());
+        if (limiteDiario == null) {
+            totais.merge(transferencia.getContaOrigem(), new Total(1, valor), (atual, novo) -> atual.somar(1, valor));
+            return true;
+        }
+        boolean[] reservado = {true};
+        totais.compute(transferencia.getContaOrigem(), (conta, atual) -> {
+            Total novo = atual == null ? new Total(1, valor) : atual.somar(1, valor);
+            if (novo.valor.compareTo(limiteDiario) > 0) {
+                reservado[0] = false;
+                return atual;
+            }
+            return novo;
+        });
+        return reservado[0];
+    }
+
+    /**
+     * Desfaz uma reserva cuja transferência não chegou a ser gravada.
+     *
+     * @param transferencia Transferência reservada anteriormente.
+     */
+    public void estornar(Transferencia transferencia) {
+        ConcurrentMap<String, Total> totais = totaisPorData.get(transferencia.getDataTransferencia());
+        if (totais == null) {
+            return;
+        }
+        totais.computeIfPresent(transferencia.getContaOrigem(), (conta, atual) -> {
+            Total novo = atual.somar(-1, transferencia.getValorTransferencia().negate());
+            return novo.quantidade <= 0 ? null : novo;
+        });
+    }
+
+    /**
+     * @return Valor máximo agendado por conta em uma data, ou {@code null} se não houver limite.
+     */
+    public BigDecimal getLimiteDiario() {
+        return limiteDiario;
+    }
+
+    /**
+     * Retorna o total reservado em memória por uma conta em uma data,
+     * incluindo reservas ainda não confirmadas.
+     *
+     * @param conta Conta de origem.
+     * @param data  Data da transferência.
+     * @return Total reservado, com o limite diário configurado.
+     */
+    TotalDiarioConta reservado(String conta, LocalDate data) {
+        Map<String, Total> totais = totaisPorData.get(data);
+        Total total = totais == null ? Total.VAZIO : totais.getOrDefault(conta, Total.VAZIO);
+        return new TotalDiarioConta(conta, data, total.quantidade, total.valor, limiteDiario);
+    }
+
+    /**
+     * Descarta as datas anteriores a hoje, que não recebem mais agendamentos.
+     */
+    @Scheduled(cron = "${transferencias.limites.cron-limpeza:0 5 0 * * *}")
+    public void descartarDatasPassadas() {
+        LocalDate hoje = LocalDate.now();
+        totaisPorData.keySet().removeIf(data -> data.isBefore(hoje));
+    }
+
+    private ConcurrentMap<String, Total> totaisDa(LocalDate data) {
+        return totaisPorData.computeIfAbsent(data, d -> new ConcurrentHashMap<>());
+    }
+
+    private static final class Total {
+
+        static final Total VAZIO = new Total(0, BigDecimal.ZERO);
+
+        final long quantidade;
+        final BigDecimal valor;
+
+        Total(long quantidade, BigDecimal valor) {
+            this.quantidade = quantidade;
+            this.valor = valor;
+        }
+
+        Total somar(long quantidade, BigDecimal valor) {
+            return new Total(this.quantidade + quantidade, this.valor.add(valor));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.RoteamentoLeitura;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cache read-through das transferências por data de transferência, usado pela
+ * consulta diária de liquidação. O tamanho é limitado pela quantidade total
+ * de transferências em memória (não pela quantidade de datas), e cada entrada
+ * expira após um tempo máximo.
+ *
+ * A entrada de uma data é invalidada sempre que uma transferência é gravada
+ * nessa data por esta instância. Em implantações com várias instâncias, a
+ * expiração limita o tempo em que uma instância pode servir dados anteriores
+ * a gravações feitas por outra.
+ *
+ * Com a réplica de leitura habilitada, a data invalidada é recarregada no
+ * primário durante a janela de consistência: uma réplica atrasada não deve
+ * colocar no cache a lista anterior à gravação, servida depois a todos os
+ * clientes até a expiração.
+ */
+@Component
+public class CacheTransferenciasPorData {
+
+    private final Cache<LocalDate, List<Transferencia>> cache;
+    private final Cache<LocalDate, Boolean> invalidadasRecentemente;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param maximoTransferencias Quantidade máxima de transferências mantidas no cache.
+     * @param expiracao            Tempo máximo de vida de uma entrada.
+     * @param janelaConsistencia   Tempo após a invalidação em que a data é recarregada no primário.
+     * @param registry             Registro onde as estatísticas do cache são publicadas.
+     */
+    @Autowired
+    public CacheTransferenciasPorData(
+            @Value("${transferencias.cache.por-data.maximo-transferencias:200000}") long maximoTransferencias,
+            @Value("${transferencias.cache.por-data.expiracao:10m}") Duration expiracao,
+            @Value("${transferencias.leitura.janela-consistencia:5s}") Duration janelaConsistencia,
+            MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximoTransferencias)
+                .weigher((LocalDate data, List<Transferencia> transferencias) -> Math.max(1, transferencias.size()))
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        this.invalidadasRecentemente = Caffeine.newBuilder()
+                .expireAfterWrite(janelaConsistencia)
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "transferencias.por-data");
+    }
+
+    /**
+     * Retorna as transferências da data, consultando a origem apenas quando a
+     * data não está em cache. Consultas simultâneas à mesma data aguardam uma
+     * única carga.
+     *
+     * @param data       Data de transferência.
+     * @param carregador Consulta executada quando a data não está em cache.
+     * @return Lista imutável com as transferências da data.
+     */
+    public List<Transferencia> buscar(LocalDate data, Function<LocalDate, List<Transferencia>> carregador) {
+        return cache.get(data, d -> invalidadasRecentemente.getIfPresent(d) == null
+                ? List.copyOf(carregador.apply(d))
+                : RoteamentoLeitura.noPrimario(() -> List.copyOf(carregador.apply(d))));
+    }
+
+    /**
+     * Remove a data do cache.
+     *
+     * @param data Data de transferência que recebeu gravações.
+     */
+    public void invalidar(LocalDate data) {
+        invalidadasRecentemente.put(data, Boolean.TRUE);
+        cache.invalidate(data);
+    }
+
+    /**
+     * Remove várias datas do cache.
+     *
+     * @param datas Datas de transferência que receberam gravações.
+     */
+    public void invalidar(Collection<LocalDate> datas) {
+        for (LocalDate data : datas) {
+            invalidadasRecentemente.put(data, Boolean.TRUE);
+        }
+        cache.invalidateAll(datas);
+    }
+}
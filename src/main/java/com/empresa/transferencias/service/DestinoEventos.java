@@ -0,0 +1,27 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino para onde o {@link RelayEventos} publica os eventos de
+ * transferência (ex.: arquivo local, broker de mensagens).
+ *
+ * A entrega é pelo menos uma vez: um lote cuja publicação foi concluída
+ * pode ser publicado de novo se a posição do consumidor não chegar a ser
+ * gravada. Os consumidores do destino devem descartar eventos repetidos
+ * pela sequência.
+ */
+public interface DestinoEventos {
+
+    /**
+     * Publica um lote de eventos. Só deve retornar quando o lote estiver
+     * durável no destino; em seguida, a posição do consumidor avança.
+     *
+     * @param eventos Eventos em ordem de sequência.
+     * @throws IOException Se o lote não puder ser publicado; o lote é publicado de novo no próximo ciclo.
+     */
+    void publicar(List<EventoTransferencia> eventos) throws IOException;
+}
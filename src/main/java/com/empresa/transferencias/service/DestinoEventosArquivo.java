@@ -0,0 +1,66 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Destino local dos eventos: acrescenta cada lote a um arquivo NDJSON (um
+ * evento por linha) e força a gravação em disco antes de confirmar. Usado em
+ * desenvolvimento e testes, e como referência para destinos externos.
+ *
+ * Selecionado por {@code transferencias.eventos.relay.destino=arquivo} (padrão).
+ */
+@Component
+@ConditionalOnProperty(name = "transferencias.eventos.relay.destino", havingValue = "arquivo", matchIfMissing = true)
+public class DestinoEventosArquivo implements DestinoEventos {
+
+    private final Path arquivo;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param arquivo      Arquivo NDJSON de destino, criado se não existir.
+     * @param objectMapper Mapper JSON usado para escrever os eventos.
+     */
+    @Autowired
+    public DestinoEventosArquivo(@Value("${transferencias.eventos.relay.arquivo:eventos/transferencias.ndjson}")
+                                 Path arquivo, ObjectMapper objectMapper) {
+        this.arquivo = arquivo;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoTransferencia> eventos) throws IOException {
+        ByteArrayOutputStream linhas = new ByteArrayOutputStream();
+        for (EventoTransferencia evento : eventos) {
+            linhas.write(objectMapper.writeValueAsBytes(evento));
+            linhas.write('\n');
+        }
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        if (diretorio != null) {
+            Files.createDirectories(diretorio);
+        }
+        try (FileChannel canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(linhas.toByteArray());
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+import com.empresa.transferencias.model.OffsetConsumidor;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.EventoTransferenciaRepository;
+import com.empresa.transferencias.repository.OffsetConsumidorRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Outbox transacional das mudanças de transferências.
+ *
+ * Quem grava ou altera transferências registra os eventos na mesma
+ * transação ({@link #registrar}), de modo que os consumidores (relay e
+ * acompanhamento em NDJSON/SSE) leem apenas mudanças confirmadas, em ordem
+ * de sequência, sem consultar a tabela de transferências.
+ *
+ * O id gerado no insert não serve de posição: transações concorrentes
+ * confirmam fora de ordem, e um consumidor que avançasse até o evento 11
+ * perderia o 10 confirmado depois. Por isso a posição dos consumidores é a
+ * sequência de publicação, atribuída por {@link #numerarConfirmados} apenas
+ * a eventos já confirmados, em transações serializadas pela linha
+ * {@link #SEQUENCIADOR} de {@code offsets_consumidor} (uma instância por
+ * vez, via SKIP LOCKED). Cada numeração é confirmada antes da seguinte
+ * começar, então as sequências ficam visíveis em ordem e sem lacunas, e
+ * nenhum evento confirmado é pulado, por mais longa que seja a transação
+ * que o gravou.
+ *
+ * Habilitado por {@code transferencias.eventos.habilitado=true}.
+ */
+@Service
+@ConditionalOnProperty(name = "transferencias.eventos.habilitado", havingValue = "true")
+public class EventosTransferencia {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventosTransferencia.class);
+
+    /**
+     * Linha de {@code offsets_consumidor} com a última sequência de
+     * publicação atribuída. Como a sequência dela nunca é menor que a dos
+     * eventos, ela não segura a retenção.
+     */
+    public static final String SEQUENCIADOR = "#publicacao";
+
+    private static final int TAMANHO_NUMERACAO = 1000;
+
+    private static final String INSERIR = "insert into eventos_transferencia"
+            + " (transferencia_id, tipo, dados, criado_em) values (?, ?, ?, ?)";
+
+    private final EventoTransferenciaRepository repository;
+    private final OffsetConsumidorRepository offsets;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionOperations transactionOperations;
+    private final ObjectMapper objectMapper;
+    private final int tamanhoBatch;
+    private final Duration retencao;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param repository            Repositório dos eventos.
+     * @param offsets               Repositório das posições, onde fica a última sequência atribuída.
+     * @param jdbcTemplate          Template JDBC usado para inserir os eventos em batch.
+     * @param transactionOperations Executor da transação de cada numeração.
+     * @param objectMapper          Mapper JSON usado para gravar a transferência no evento.
+     * @param tamanhoBatch          Quantidade de inserts por batch JDBC.
+     * @param retencao              Tempo mínimo de permanência de um evento já entregue.
+     */
+    @Autowired
+    public EventosTransferencia(EventoTransferenciaRepository repository,
+                                OffsetConsumidorRepository offsets,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionOperations transactionOperations,
+                                ObjectMapper objectMapper,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int tamanhoBatch,
+                                @Value("${transferencias.eventos.retencao:7d}") Duration retencao) {
+        this.repository = repository;
+        this.offsets = offsets;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.objectMapper = objectMapper;
+        this.tamanhoBatch = tamanhoBatch;
+        this.retencao = retencao;
+    }
+
+    /**
+     * Registra um evento para cada transferência, com a situação informada.
+     * Deve ser chamado na transação que grava as transferências, depois que
+     * os identificadores foram atribuídos.
+     *
+     * Os eventos são inseridos pelo {@link JdbcTemplate}, na conexão da
+     * transação corrente, em batches de {@code hibernate.jdbc.batch_size}:
+     * com o id gerado por IDENTITY o Hibernate faria um insert por evento
+     * para ler o id de volta, e ninguém precisa dele aqui.
+     *
+     * @param transferencias Transferências alteradas.
+     * @param tipo           Situação das transferências após a mudança.
+     */
+    public void registrar(Collection<Transferencia> transferencias, StatusTransferencia tipo) {
+        Timestamp agora = Timestamp.from(Instant.now());
+        List<Object[]> eventos = new ArrayList<>(transferencias.size());
+        for (Transferencia transferencia : transferencias) {
+            eventos.add(new Object[] {transferencia.getId(), tipo.name(), json(transferencia), agora});
+        }
+        jdbcTemplate.batchUpdate(INSERIR, eventos, tamanhoBatch, (ps, evento) -> {
+            for (int i = 0; i < evento.length; i++) {
+                ps.setObject(i + 1, evento[i]);
+            }
+        });
+    }
+
+    /**
+     * Busca os eventos já numerados posteriores a uma posição.
+     *
+     * @param sequencia Sequência do último evento já lido; 0 para o início.
+     * @param limite    Quantidade máxima de eventos.
+     * @return Eventos em ordem de sequência.
+     */
+    public List<EventoTransferencia> buscarApos(long sequencia, int limite) {
+        return repository.buscarApos(sequencia, PageRequest.of(0, limite));
+    }
+
+    @Scheduled(fixedDelayString = "${transferencias.eventos.intervalo-numeracao:PT0.2S}")
+    public void executarNumeracao() {
+        try {
+            numerarConfirmados();
+        } catch (RuntimeException e) {
+            logger.error("Erro ao numerar eventos de transferência: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Atribui a sequência de publicação aos eventos confirmados ainda sem
+     * sequência, na ordem de gravação, em lotes de até 1000 por transação.
+     *
+     * @return Quantidade de eventos numerados.
+     */
+    public long numerarConfirmados() {
+        registrarSequenciador();
+        long total = 0;
+        int numerados;
+        do {
+            Integer lote = transactionOperations.execute(status -> numerarLote());
+            numerados = lote == null ? 0 : lote;
+            total += numerados;
+        } while (numerados == TAMANHO_NUMERACAO);
+        return total;
+    }
+
+    private int numerarLote() {
+        Optional<OffsetConsumidor> bloqueado = offsets.bloquear(SEQUENCIADOR);
+        if (bloqueado.isEmpty()) {
+            return 0;
+        }
+        List<EventoTransferencia> pendentes = repository.buscarNaoNumerados(PageRequest.of(0, TAMANHO_NUMERACAO));
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+        OffsetConsumidor ultima = bloqueado.get();
+        long sequencia = ultima.getSequencia();
+        for (EventoTransferencia evento : pendentes) {
+            evento.setSequencia(++sequencia);
+        }
+        repository.saveAll(pendentes);
+        ultima.setSequencia(sequencia);
+        ultima.setAtualizadoEm(Instant.now());
+        offsets.save(ultima);
+        return pendentes.size();
+    }
+
+    /**
+     * Cria a linha do sequenciador, a partir da maior sequência já atribuída,
+     * se ainda não existir (a migração a cria no PostgreSQL).
+     */
+    private void registrarSequenciador() {
+        if (offsets.existsById(SEQUENCIADOR)) {
+            return;
+        }
+        try {
+            transactionOperations.executeWithoutResult(status -> offsets.save(new OffsetConsumidor(
+                    SEQUENCIADOR, repository.ultimaSequencia().orElse(0L), Instant.now())));
+        } catch (DataIntegrityViolationException e) {
+            // Registrado por outra instância.
+        }
+    }
+
+    /**
+     * Remove os eventos mais antigos que a retenção configurada que já foram
+     * entregues a todos os consumidores registrados.
+     */
+    @Scheduled(fixedDelayString = "${transferencias.eventos.intervalo-limpeza:PT1H}",
+            initialDelayString = "${transferencias.eventos.intervalo-limpeza:PT1H}")
+    public void removerEntregues() {
+        int removidos = repository.removerEntreguesAntes(Instant.now().minus(retencao));
+        logger.info("Eventos de transferência entregues removidos: {}", removidos);
+    }
+
+    private String json(Transferencia transferencia) {
+        try {
+            return objectMapper.writeValueAsString(transferencia);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar a transferência " + transferencia.getId(), e);
+        }
+    }
+}
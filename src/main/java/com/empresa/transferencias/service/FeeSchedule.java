@@ -0,0 +1,213 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.exception.MotivoRejeicao;
+import com.empresa.transferencias.exception.TransferenciaInvalidaException;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tabela de taxas de transferência, pré-calculada por dia de antecedência.
+ * As faixas configuradas são expandidas uma única vez em um vetor indexado
+ * pela diferença em dias (0 até o último dia atendido), de modo que o cálculo
+ * da taxa é um acesso direto ao vetor seguido da aritmética com constantes
+ * já construídas.
+ *
+ * Instâncias são imutáveis. A tabela em uso é publicada por
+ * {@link #instalar(FeeSchedule)} e trocada de forma atômica.
+ */
+public final class FeeSchedule {
+
+    private static final AtomicReference<FeeSchedule> ATUAL = new AtomicReference<>(padrao());
+
+    private final Faixa[] faixaPorDia;
+    private final List<Faixa> faixas;
+    private final Integer escala;
+    private final RoundingMode arredondamento;
+
+    private FeeSchedule(List<Faixa> faixas, Integer escala, RoundingMode arredondamento) {
+        List<Faixa> ordenadas = new ArrayList<>(faixas);
+        ordenadas.sort(Comparator.comparingInt(Faixa::getDiaInicial));
+        validar(ordenadas);
+
+        this.faixas = List.copyOf(ordenadas);
+        this.escala = escala;
+        this.arredondamento = arredondamento;
+        this.faixaPorDia = new Faixa[ordenadas.get(ordenadas.size() - 1).getDiaFinal() + 1];
+        for (Faixa faixa : ordenadas) {
+            for (int dia = faixa.getDiaInicial(); dia <= faixa.getDiaFinal(); dia++) {
+                faixaPorDia[dia] = faixa;
+            }
+        }
+    }
+
+    /**
+     * Cria uma tabela a partir das faixas informadas, sem arredondamento do resultado.
+     *
+     * @param faixas Faixas contíguas, começando no dia zero.
+     * @return Tabela de taxas.
+     * @throws IllegalArgumentException Se as faixas tiverem lacunas ou sobreposições.
+     */
+    public static FeeSchedule de(List<Faixa> faixas) {
+        return new FeeSchedule(faixas, null, null);
+    }
+
+    /**
+     * Cria uma tabela a partir das faixas informadas, arredondando o resultado.
+     *
+     * @param faixas         Faixas contíguas, começando no dia zero.
+     * @param escala         Quantidade de casas decimais da taxa calculada.
+     * @param arredondamento Modo de arredondamento aplicado na escala informada.
+     * @return Tabela de taxas.
+     * @throws IllegalArgumentException Se as faixas tiverem lacunas ou sobreposições.
+     */
+    public static FeeSchedule de(List<Faixa> faixas, int escala, RoundingMode arredondamento) {
+        return new FeeSchedule(faixas, escala, Objects.requireNonNull(arredondamento));
+    }
+
+    /**
+     * Tabela padrão do sistema:
+     * - 0 dias: 2,5% do valor + R$ 3,00
+     * - 1 a 10 dias: R$ 12,00
+     * - 11 a 20 dias: 8,2% do valor
+     * - 21 a 30 dias: 6,9% do valor
+     * - 31 a 40 dias: 4,7% do valor
+     * - 41 a 50 dias: 1,7% do valor
+     *
+     * @return Tabela de taxas padrão.
+     */
+    public static FeeSchedule padrao() {
+        return de(List.of(
+                new Faixa(0, 0, new BigDecimal("0.025"), new BigDecimal("3.0")),
+                new Faixa(1, 10, BigDecimal.ZERO, new BigDecimal("12.0")),
+                new Faixa(11, 20, new BigDecimal("0.082"), BigDecimal.ZERO),
+                new Faixa(21, 30, new BigDecimal("0.069"), BigDecimal.ZERO),
+                new Faixa(31, 40, new BigDecimal("0.047"), BigDecimal.ZERO),
+                new Faixa(41, 50, new BigDecimal("0.017"), BigDecimal.ZERO)
+        ));
+    }
+
+    /**
+     * @return Tabela de taxas atualmente em uso.
+     */
+    public static FeeSchedule atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Publica uma nova tabela de taxas. Cálculos em andamento terminam com a
+     * tabela anterior; os seguintes usam a nova.
+     *
+     * @param tabela Nova tabela de taxas.
+     * @return Tabela que estava em uso.
+     */
+    public static FeeSchedule instalar(FeeSchedule tabela) {
+        return ATUAL.getAndSet(Objects.requireNonNull(tabela));
+    }
+
+    /**
+     * Calcula a taxa para uma transferência.
+     *
+     * @param diasDiferenca Diferença em dias entre o agendamento e a transferência.
+     * @param valor         Valor da transferência.
+     * @return Taxa calculada.
+     * @throws TransferenciaInvalidaException Se não houver faixa para a diferença de dias.
+     */
+    public BigDecimal calcular(int diasDiferenca, BigDecimal valor) {
+        BigDecimal taxa = faixa(diasDiferenca).calcular(valor);
+        return escala == null ? taxa : taxa.setScale(escala, arredondamento);
+    }
+
+    /**
+     * Retorna a faixa aplicável a uma diferença de dias.
+     *
+     * @param diasDiferenca Diferença em dias entre o agendamento e a transferência.
+     * @return Faixa correspondente.
+     * @throws TransferenciaInvalidaException Se não houver faixa para a diferença de dias.
+     */
+    public Faixa faixa(int diasDiferenca) {
+        if (diasDiferenca < 0 || diasDiferenca >= faixaPorDia.length) {
+            throw new TransferenciaInvalidaException(MotivoRejeicao.TAXA_NAO_APLICAVEL,
+                    "Taxa não aplicável. Transferência não permitida.");
+        }
+        return faixaPorDia[diasDiferenca];
+    }
+
+    /**
+     * @return Faixas da tabela, ordenadas pelo dia inicial.
+     */
+    public List<Faixa> getFaixas() {
+        return faixas;
+    }
+
+    /**
+     * @return Maior diferença de dias atendida pela tabela.
+     */
+    public int getDiasMaximos() {
+        return faixaPorDia.length - 1;
+    }
+
+    private static void validar(List<Faixa> ordenadas) {
+        if (ordenadas.isEmpty()) {
+            throw new IllegalArgumentException("A tabela de taxas deve ter ao menos uma faixa.");
+        }
+        int proximoDia = 0;
+        for (Faixa faixa : ordenadas) {
+            if (faixa.getDiaInicial() != proximoDia) {
+                throw new IllegalArgumentException("Faixas de taxa devem ser contíguas a partir do dia 0. "
+                        + "Esperado início no dia " + proximoDia + ", encontrado " + faixa.getRotulo() + ".");
+            }
+            proximoDia = faixa.getDiaFinal() + 1;
+        }
+    }
+
+    /**
+     * Faixa de dias com um percentual sobre o valor e uma taxa fixa.
+     * Percentual ou taxa fixa iguais a zero são omitidos do cálculo, preservando
+     * a escala do termo restante.
+     */
+    @Getter
+    public static final class Faixa {
+
+        private final int diaInicial;
+        private final int diaFinal;
+        private final BigDecimal percentual;
+        private final BigDecimal taxaFixa;
+        private final String rotulo;
+        private final boolean aplicaPercentual;
+        private final boolean aplicaTaxaFixa;
+
+        /**
+         * @param diaInicial Primeiro dia da faixa (inclusivo).
+         * @param diaFinal   Último dia da faixa (inclusivo).
+         * @param percentual Fração do valor cobrada (ex.: 0.025 para 2,5%).
+         * @param taxaFixa   Valor fixo cobrado.
+         */
+        public Faixa(int diaInicial, int diaFinal, BigDecimal percentual, BigDecimal taxaFixa) {
+            if (diaInicial < 0 || diaFinal < diaInicial) {
+                throw new IllegalArgumentException("Faixa de dias inválida: " + diaInicial + "-" + diaFinal + ".");
+            }
+            this.diaInicial = diaInicial;
+            this.diaFinal = diaFinal;
+            this.percentual = Objects.requireNonNull(percentual);
+            this.taxaFixa = Objects.requireNonNull(taxaFixa);
+            this.rotulo = diaInicial == diaFinal ? String.valueOf(diaInicial) : diaInicial + "-" + diaFinal;
+            this.aplicaPercentual = percentual.signum() != 0;
+            this.aplicaTaxaFixa = taxaFixa.signum() != 0;
+        }
+
+        BigDecimal calcular(BigDecimal valor) {
+            if (!aplicaPercentual) {
+                return taxaFixa;
+            }
+            BigDecimal taxa = valor.multiply(percentual);
+            return aplicaTaxaFixa ? taxa.add(taxaFixa) : taxa;
+        }
+    }
+}
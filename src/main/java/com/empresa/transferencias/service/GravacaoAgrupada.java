@@ -0,0 +1,311 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.exception.GravacaoIndisponivelException;
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Gravação agrupada (group commit) das transferências agendadas.
+ *
+ * As requisições já validadas e com a taxa calculada são colocadas em uma
+ * fila limitada. Uma única thread gravadora retira da fila grupos de até
+ * {@code tamanho-grupo} transferências e grava cada grupo em uma única
+ * transação. O grupo é gravado quando atinge o tamanho máximo ou quando a
+ * espera máxima, contada a partir da primeira transferência do grupo, se
+ * esgota. Cada requisição aguarda até que a sua transferência tenha sido
+ * confirmada (commit) no banco, de modo que a durabilidade é a mesma da
+ * gravação direta, com muito menos commits e conexões ocupadas.
+ *
+ * Com o outbox habilitado, os eventos AGENDADA do grupo são gravados na
+ * mesma transação.
+ *
+ * Se a gravação de um grupo falhar, as transferências do grupo são
+ * gravadas uma a uma, para que apenas as inválidas sejam rejeitadas. Com a
+ * fila cheia, a transferência é recusada imediatamente.
+ */
+@Service
+@ConditionalOnProperty(name = "transferencias.gravacao-agrupada.habilitada", havingValue = "true")
+public class GravacaoAgrupada implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(GravacaoAgrupada.class);
+
+    private final TransferenciaRepository repository;
+    private final TransactionOperations transactionOperations;
+    private final TransferenciaMetricas metricas;
+    private final CacheTransferenciasPorData cachePorData;
+    private final AgregadoDiarioContas agregadoContas;
+    private final EventosTransferencia eventos;
+    private final BlockingQueue<Pendente> fila;
+    private final int tamanhoGrupo;
+    private final long esperaMaximaNanos;
+    private final Duration tempoMaximoResposta;
+    private final Thread gravadora;
+    private volatile boolean ativa = true;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param repository            Repositório de transferências.
+     * @param transactionOperations Executor da transação de cada grupo.
+     * @param metricas              Métricas de gravação.
+     * @param cachePorData          Cache das transferências por data, invalidado a cada grupo.
+     * @param agregadoContas        Totais por conta e data, estornados quando a gravação falha.
+     * @param eventos               Outbox dos eventos de transferência, ou {@code null} se desabilitado.
+     * @param capacidade            Quantidade máxima de transferências aguardando gravação.
+     * @param tamanhoGrupo          Quantidade máxima de transferências por transação.
+     * @param esperaMaxima          Tempo máximo de espera para completar um grupo.
+     * @param tempoMaximoResposta   Tempo máximo que uma transferência aguarda na fila antes de ser recusada.
+     */
+    @Autowired
+    public GravacaoAgrupada(TransferenciaRepository repository,
+                            TransactionOperations transactionOperations,
+                            TransferenciaMetricas metricas,
+                            CacheTransferenciasPorData cachePorData,
+                            AgregadoDiarioContas agregadoContas,
+                            @Nullable EventosTransferencia eventos,
+                            @Value("${transferencias.gravacao-agrupada.capacidade:4096}") int capacidade,
+                            @Value("${transferencias.gravacao-agrupada.tamanho-grupo:200}") int tamanhoGrupo,
+                            @Value("${transferencias.gravacao-agrupada.espera-maxima:2ms}") Duration esperaMaxima,
+                            @Value("${transferencias.gravacao-agrupada.tempo-maximo-resposta:10s}")
+                            Duration tempoMaximoResposta) {
+        this.repository = repository;
+        this.transactionOperations = transactionOperations;
+        this.metricas = metricas;
+        this.cachePorData = cachePorData;
+        this.agregadoContas = agregadoContas;
+        this.eventos = eventos;
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.tamanhoGrupo = tamanhoGrupo;
+        this.esperaMaximaNanos = esperaMaxima.toNanos();
+        this.tempoMaximoResposta = tempoMaximoResposta;
+        this.gravadora = new Thread(this::executar, "gravacao-agrupada");
+        this.gravadora.setDaemon(true);
+    }
+
+    /**
+     * Inicia a thread gravadora.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        gravadora.start();
+        logger.info("Gravação agrupada habilitada: até {} transferências por transação, espera máxima de {} µs.",
+                tamanhoGrupo, TimeUnit.NANOSECONDS.toMicros(esperaMaximaNanos));
+    }
+
+    /**
+     * Enfileira uma transferência preparada para gravação e aguarda a
+     * confirmação do grupo em que ela foi gravada.
+     *
+     * Se a gravação falhar, a reserva no limite diário da conta é desfeita
+     * pela thread gravadora. Se o tempo máximo de resposta se esgotar com a
+     * transferência ainda na fila, ela é retirada e recusada como com a fila
+     * cheia; se o grupo dela já estiver sendo gravado, a requisição aguarda o
+     * resultado real. Assim, uma resposta de erro nunca corresponde a uma
+     * transferência que acabe gravada, e a repetição com a mesma
+     * Idempotency-Key não a duplica.
+     *
+     * @param transferencia Transferência validada, com taxa e data de agendamento.
+     * @return A transferência gravada, com o identificador preenchido.
+     * @throws GravacaoIndisponivelException Se a fila estiver cheia ou em encerramento, ou se a
+     *                                       transferência foi retirada da fila sem ser gravada.
+     * @throws RuntimeException              Se a gravação falhar.
+     */
+    public Transferencia gravar(Transferencia transferencia) {
+        Pendente pendente = new Pendente(transferencia);
+        if (!ativa || !fila.offer(pendente)) {
+            throw new GravacaoIndisponivelException("Fila de gravação cheia. Tente novamente.");
+        }
+        try {
+            return pendente.futuro.get(tempoMaximoResposta.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw comoRuntime(e.getCause());
+        } catch (TimeoutException e) {
+            return retirarOuAguardar(pendente, "Tempo esgotado aguardando a gravação. Tente novamente.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return retirarOuAguardar(pendente, "Interrompido aguardando a gravação. Tente novamente.");
+        }
+    }
+
+    /**
+     * Retira da fila uma transferência que ainda não entrou em um grupo ou,
+     * se o grupo já estiver sendo gravado, aguarda o resultado da transação.
+     */
+    private Transferencia retirarOuAguardar(Pendente pendente, String mensagem) {
+        if (fila.remove(pendente)) {
+            throw new GravacaoIndisponivelException(mensagem);
+        }
+        logger.warn("Transferência já em gravação após o tempo máximo de resposta; aguardando o commit.");
+        try {
+            return pendente.futuro.join();
+        } catch (CompletionException e) {
+            throw comoRuntime(e.getCause());
+        }
+    }
+
+    private static RuntimeException comoRuntime(Throwable causa) {
+        return causa instanceof RuntimeException ? (RuntimeException) causa : new RuntimeException(causa);
+    }
+
+    /**
+     * @return Quantidade de transferências aguardando gravação.
+     */
+    public int pendentes() {
+        return fila.size();
+    }
+
+    private void executar() {
+        List<Pendente> grupo = new ArrayList<>(tamanhoGrupo);
+        while (ativa || !fila.isEmpty()) {
+            try {
+                if (coletarGrupo(grupo)) {
+                    gravarGrupo(grupo);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Erro inesperado na gravação agrupada: {}", e.getMessage(), e);
+                grupo.forEach(pendente -> falhar(pendente, e));
+            } finally {
+                grupo.clear();
+            }
+        }
+        logger.info("Gravação agrupada encerrada.");
+    }
+
+    /**
+     * Aguarda a primeira transferência e completa o grupo com as que chegarem
+     * até atingir o tamanho máximo ou esgotar a espera máxima.
+     *
+     * @return {@code true} se o grupo tiver ao menos uma transferência.
+     */
+    private boolean coletarGrupo(List<Pendente> grupo) throws InterruptedException {
+        Pendente primeira = fila.poll(100, TimeUnit.MILLISECONDS);
+        if (primeira == null) {
+            return false;
+        }
+        grupo.add(primeira);
+        long limite = System.nanoTime() + esperaMaximaNanos;
+        while (grupo.size() < tamanhoGrupo) {
+            fila.drainTo(grupo, tamanhoGrupo - grupo.size());
+            long restante = limite - System.nanoTime();
+            if (grupo.size() >= tamanhoGrupo || restante <= 0) {
+                break;
+            }
+            Pendente proxima = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proxima == null) {
+                break;
+            }
+            grupo.add(proxima);
+        }
+        return true;
+    }
+
+    /**
+     * Grava um grupo em uma única transação e completa as requisições.
+     * Se a transação falhar, grava as transferências uma a uma.
+     *
+     * @param grupo Transferências a serem gravadas, na ordem de chegada.
+     */
+    void gravarGrupo(List<Pendente> grupo) {
+        List<Transferencia> transferencias = grupo.stream().map(p -> p.transferencia).collect(Collectors.toList());
+        long inicio = System.nanoTime();
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                repository.saveAll(transferencias);
+                registrarEventos(transferencias);
+            });
+        } catch (RuntimeException e) {
+            if (grupo.size() == 1) {
+                falhar(grupo.get(0), e);
+                return;
+            }
+            logger.warn("Erro ao gravar grupo de {} transferências; gravando individualmente: {}",
+                    grupo.size(), e.getMessage());
+            grupo.forEach(this::gravarIndividualmente);
+            return;
+        }
+        metricas.registrarGravacaoGrupo(grupo.size(), System.nanoTime() - inicio);
+        cachePorData.invalidar(transferencias.stream()
+                .map(Transferencia::getDataTransferencia)
+                .collect(Collectors.toSet()));
+        grupo.forEach(pendente -> pendente.futuro.complete(pendente.transferencia));
+    }
+
+    private void gravarIndividualmente(Pendente pendente) {
+        Transferencia transferencia = pendente.transferencia;
+        transferencia.setId(null);
+        long inicio = System.nanoTime();
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                repository.save(transferencia);
+                registrarEventos(List.of(transferencia));
+            });
+        } catch (RuntimeException e) {
+            falhar(pendente, e);
+            return;
+        }
+        metricas.registrarGravacaoGrupo(1, System.nanoTime() - inicio);
+        cachePorData.invalidar(transferencia.getDataTransferencia());
+        pendente.futuro.complete(transferencia);
+    }
+
+    private void registrarEventos(List<Transferencia> transferencias) {
+        if (eventos != null) {
+            eventos.registrar(transferencias, StatusTransferencia.AGENDADA);
+        }
+    }
+
+    private void falhar(Pendente pendente, RuntimeException e) {
+        if (pendente.futuro.completeExceptionally(e)) {
+            agregadoContas.estornar(pendente.transferencia);
+        }
+    }
+
+    /**
+     * Recusa novas transferências e aguarda a gravação das que já estão na fila.
+     */
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        ativa = false;
+        gravadora.join(tempoMaximoResposta.toMillis());
+    }
+
+    /**
+     * Transferência aguardando gravação e a requisição que aguarda o resultado.
+     */
+    static final class Pendente {
+
+        final Transferencia transferencia;
+        final CompletableFuture<Transferencia> futuro = new CompletableFuture<>();
+
+        Pendente(Transferencia transferencia) {
+            this.transferencia = transferencia;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.RegistroIdempotencia;
+import com.empresa.transferencias.repository.RegistroIdempotenciaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Serviço de idempotência das operações de escrita (cabeçalho Idempotency-Key).
+ *
+ * A primeira requisição com uma chave reserva a chave no banco, executa a
+ * operação e grava a resposta. As repetições recebem a resposta gravada, sem
+ * executar validação, cálculo de taxa ou insert novamente. As respostas mais
+ * recentes ficam em um cache LRU limitado; o banco é consultado apenas em
+ * caso de ausência no cache (ex.: após reinício ou em outra instância).
+ *
+ * Requisições simultâneas com a mesma chave na mesma instância são unificadas
+ * em uma única execução. Entre instâncias, a chave primária da tabela garante
+ * uma única execução e a requisição concorrente recebe 409.
+ *
+ * Respostas 5xx não são gravadas, permitindo que o cliente tente novamente.
+ * Se a operação terminou mas a resposta não pôde ser gravada, a chave
+ * continua reservada: a operação pode ter gravado dados e não deve ser
+ * executada de novo. Uma reserva sem resposta mais antiga que
+ * {@code reserva-maxima} (ex.: processo encerrado durante a execução) é
+ * considerada abandonada e pode ser retomada por uma repetição.
+ */
+@Service
+public class IdempotenciaService {
+
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final String CABECALHO_REPETICAO = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotenciaService.class);
+
+    /**
+     * Corpo gravado quando a resposta original não pode ser convertida em JSON.
+     */
+    private static final String CORPO_INDISPONIVEL =
+            "{\"aviso\":\"Operação concluída; a resposta original não pôde ser gravada.\"}";
+
+    private static final int TENTATIVAS_GRAVACAO = 2;
+
+    /**
+     * Operação protegida por idempotência.
+     *
+     * @param <E> Exceção verificada lançada pela operação.
+     */
+    @FunctionalInterface
+    public interface Operacao<E extends Exception> {
+        ResponseEntity<?> executar() throws E;
+    }
+
+    private final RegistroIdempotenciaRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, RegistroIdempotencia> respostas;
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<?>>> emAndamento = new ConcurrentHashMap<>();
+    private final Duration esperaMaxima;
+    private final Duration validade;
+    private final Duration reservaMaxima;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param repository    Repositório dos registros de idempotência.
+     * @param objectMapper  Mapper JSON usado para gravar as respostas.
+     * @param maximoChaves  Quantidade máxima de respostas mantidas em memória.
+     * @param validade      Tempo durante o qual uma chave é lembrada.
+     * @param esperaMaxima  Tempo máximo de espera por uma execução em andamento com a mesma chave.
+     * @param reservaMaxima Tempo após o qual uma reserva sem resposta é considerada abandonada.
+     * @param registry      Registro onde as estatísticas do cache são publicadas.
+     */
+    @Autowired
+    public IdempotenciaService(RegistroIdempotenciaRepository repository,
+                               ObjectMapper objectMapper,
+                               @Value("${transferencias.idempotencia.maximo-chaves:100000}") long maximoChaves,
+                               @Value("${transferencias.idempotencia.validade:24h}") Duration validade,
+                               @Value("${transferencias.idempotencia.espera-maxima:30s}") Duration esperaMaxima,
+                               @Value("${transferencias.idempotencia.reserva-maxima:15m}") Duration reservaMaxima,
+                               MeterRegistry registry) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.validade = validade;
+        this.esperaMaxima = esperaMaxima;
+        this.reservaMaxima = reservaMaxima;
+        this.respostas = Caffeine.newBuilder()
+                .maximumSize(maximoChaves)
+                .expireAfterWrite(validade)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, respostas, "transferencias.idempotencia");
+    }
+
+    /**
+     * Executa a operação uma única vez por chave.
+     *
+     * @param chave    Valor do cabeçalho Idempotency-Key; se nulo, a operação é executada normalmente.
+     * @param rota     Identificação da operação (ex.: "POST /api/transferencias").
+     * @param operacao Operação a ser executada.
+     * @return Resposta da operação, ou a resposta gravada em caso de repetição.
+     * @throws E Exceção lançada pela operação.
+     */
+    public <E extends Exception> ResponseEntity<?> executar(String chave, String rota, Operacao<E> operacao) throws E {
+        if (chave == null) {
+            return operacao.executar();
+        }
+        if (chave.isBlank() || chave.length() > RegistroIdempotencia.TAMANHO_MAXIMO_CHAVE) {
+            return erro(HttpStatus.BAD_REQUEST, "O cabeçalho " + CABECALHO + " deve ter entre 1 e "
+                    + RegistroIdempotencia.TAMANHO_MAXIMO_CHAVE + " caracteres.");
+        }
+        RegistroIdempotencia gravado = respostas.getIfPresent(chave);
+        if (gravado != null) {
+            return repetir(gravado, rota);
+        }
+
+        CompletableFuture<ResponseEntity<?>> futuro = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<?>> existente = emAndamento.putIfAbsent(chave, futuro);
+        if (existente != null) {
+            return aguardar(chave, rota, existente);
+        }
+        try {
+            ResponseEntity<?> resposta = executarUnica(chave, rota, operacao);
+            futuro.complete(resposta);
+            return resposta;
+        } catch (Exception e) {
+            futuro.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, futuro);
+        }
+    }
+
+    private <E extends Exception> ResponseEntity<?> executarUnica(String chave, String rota, Operacao<E> operacao)
+            throws E {
+        RegistroIdempotencia registro = reservar(chave, rota);
+        if (registro == null) {
+            return repository.findById(chave)
+                    .map(existente -> existente.isEmExecucao()
+                            ? emExecucao()
+                            : repetir(armazenar(existente), rota))
+                    .orElseGet(this::emExecucao);
+        }
+
+        ResponseEntity<?> resposta;
+        try {
+            resposta = operacao.executar();
+        } catch (Exception e) {
+            liberar(chave);
+            throw e;
+        }
+        if (resposta.getStatusCode().is5xxServerError()) {
+            liberar(chave);
+            return resposta;
+        }
+        registro.setStatus(resposta.getStatusCodeValue());
+        registro.setCorpo(corpo(chave, resposta));
+        armazenar(registro);
+        gravarResposta(registro);
+        return resposta;
+    }
+
+    /**
+     * Reserva a chave no banco, retomando uma reserva abandonada.
+     *
+     * @return Registro reservado, ou null se a chave já estiver reservada ou respondida.
+     */
+    private RegistroIdempotencia reservar(String chave, String rota) {
+        Instant agora = Instant.now();
+        RegistroIdempotencia registro = new RegistroIdempotencia(chave, rota, agora);
+        if (inserir(registro)) {
+            return registro;
+        }
+        if (repository.removerReservaAbandonada(chave, agora.minus(reservaMaxima)) == 0) {
+            return null;
+        }
+        logger.warn("Reserva abandonada da chave de idempotência {} retomada.", chave);
+        registro = new RegistroIdempotencia(chave, rota, agora);
+        return inserir(registro) ? registro : null;
+    }
+
+    /**
+     * @return false se a chave já existir no banco.
+     */
+    private boolean inserir(RegistroIdempotencia registro) {
+        try {
+            repository.saveAndFlush(registro);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private String corpo(String chave, ResponseEntity<?> resposta) {
+        try {
+            return objectMapper.writeValueAsString(resposta.getBody());
+        } catch (JsonProcessingException e) {
+            logger.error("Erro ao converter resposta da chave de idempotência {}: {}", chave, e.getMessage(), e);
+            return CORPO_INDISPONIVEL;
+        }
+    }
+
+    /**
+     * Grava a resposta de uma operação concluída. Em caso de falha, a chave
+     * continua reservada (e a resposta, no cache desta instância): liberar a
+     * chave permitiria executar de novo uma operação que já gravou dados.
+     */
+    private void gravarResposta(RegistroIdempotencia registro) {
+        for (int tentativa = 1; tentativa <= TENTATIVAS_GRAVACAO; tentativa++) {
+            try {
+                repository.save(registro);
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Erro ao gravar resposta da chave de idempotência {} (tentativa {}): {}",
+                        registro.getChave(), tentativa, e.getMessage(), e);
+            }
+        }
+    }
+
+    private ResponseEntity<?> aguardar(String chave, String rota, CompletableFuture<ResponseEntity<?>> execucao) {
+        try {
+            ResponseEntity<?> resposta = execucao.get(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS);
+            RegistroIdempotencia gravado = respostas.getIfPresent(chave);
+            return gravado != null ? repetir(gravado, rota) : resposta;
+        } catch (TimeoutException e) {
+            return emExecucao();
+        } catch (ExecutionException e) {
+            return erro(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Erro ao processar a requisição original: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return emExecucao();
+        }
+    }
+
+    private RegistroIdempotencia armazenar(RegistroIdempotencia registro) {
+        respostas.put(registro.getChave(), registro);
+        return registro;
+    }
+
+    private void liberar(String chave) {
+        try {
+            repository.deleteById(chave);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao liberar chave de idempotência {}: {}", chave, e.getMessage(), e);
+        }
+    }
+
+    private ResponseEntity<?> repetir(RegistroIdempotencia registro, String rota) {
+        if (!registro.getRota().equals(rota)) {
+            return erro(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "A chave " + CABECALHO + " já foi utilizada em outra operação.");
+        }
+        return ResponseEntity.status(registro.getStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(CABECALHO_REPETICAO, "true")
+                .body(registro.getCorpo());
+    }
+
+    private ResponseEntity<?> emExecucao() {
+        return erro(HttpStatus.CONFLICT, "Requisição com a mesma chave " + CABECALHO + " em processamento.");
+    }
+
+    private static ResponseEntity<?> erro(HttpStatus status, String mensagem) {
+        return ResponseEntity.status(status).body(Map.of("erro", mensagem));
+    }
+
+    /**
+     * Remove do banco as chaves mais antigas que a validade configurada.
+     */
+    @Scheduled(fixedDelayString = "${transferencias.idempotencia.intervalo-limpeza:PT1H}",
+            initialDelayString = "${transferencias.idempotencia.intervalo-limpeza:PT1H}")
+    public void removerExpiradas() {
+        int removidas = repository.removerCriadosAntes(Instant.now().minus(validade));
+        logger.info("Chaves de idempotência expiradas removidas: {}", removidas);
+    }
+}
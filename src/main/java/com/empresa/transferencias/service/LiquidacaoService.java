@@ -0,0 +1,337 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Executor de liquidação das transferências vencidas.
+ *
+ * Cada ciclo reserva blocos de transferências AGENDADAS com data até a data
+ * de referência ({@code SELECT ... FOR UPDATE SKIP LOCKED}), marcando-as como
+ * PROCESSANDO na mesma transação curta. Os blocos reservados são liquidados
+ * em paralelo em um pool de tamanho fixo e cada bloco termina com um único
+ * comando de atualização para CONCLUIDA e outro para FALHOU.
+ *
+ * A quantidade de blocos reservados e ainda não processados nunca excede o
+ * número de trabalhadores, de modo que uma instância não reserva mais do que
+ * consegue processar. Reservas abandonadas (ex.: queda da instância) voltam a
+ * AGENDADA após o tempo máximo de processamento.
+ *
+ * Enquanto um bloco é liquidado, a reserva é renovada (novo instante em
+ * {@code atualizadoEm}) a cada terço do tempo máximo de processamento, para
+ * que um bloco lento, mas vivo, não seja devolvido e liquidado de novo por
+ * outro ciclo. Transferências cuja reserva já foi devolvida deixam de ser
+ * liquidadas pelo bloco.
+ *
+ * A conclusão só altera as transferências que continuam reservadas pelo
+ * bloco (PROCESSANDO desde o instante da reserva): se um bloco lento teve a
+ * reserva devolvida e reservada por outro ciclo, apenas o último a reservar
+ * grava o resultado.
+ *
+ * Com o outbox habilitado, a conclusão de cada bloco grava, na mesma
+ * transação, um evento CONCLUIDA ou FALHOU por transferência efetivamente
+ * alterada.
+ */
+@Service
+public class LiquidacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiquidacaoService.class);
+
+    private final TransferenciaRepository repository;
+    private final LiquidacaoTransferencia liquidacao;
+    private final TransactionOperations transactionOperations;
+    private final TransferenciaMetricas metricas;
+    private final CacheTransferenciasPorData cachePorData;
+    private final EventosTransferencia eventos;
+    private final int tamanhoBloco;
+    private final int trabalhadores;
+    private final Duration tempoMaximoProcessamento;
+    private final long intervaloRenovacaoNanos;
+    private final ExecutorService pool;
+    private final Semaphore blocosEmAndamento;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param repository               Repositório de transferências.
+     * @param liquidacao               Efetivação de cada transferência.
+     * @param transactionOperations    Executor das transações de reserva e de conclusão.
+     * @param metricas                 Métricas de liquidação.
+     * @param cachePorData             Cache das transferências por data, invalidado a cada transição.
+     * @param eventos                  Outbox dos eventos de transferência, ou {@code null} se desabilitado.
+     * @param tamanhoBloco             Quantidade de transferências reservadas por bloco.
+     * @param trabalhadores            Quantidade de blocos processados em paralelo.
+     * @param tempoMaximoProcessamento Tempo após o qual uma reserva é considerada abandonada.
+     */
+    @Autowired
+    public LiquidacaoService(TransferenciaRepository repository,
+                             LiquidacaoTransferencia liquidacao,
+                             TransactionOperations transactionOperations,
+                             TransferenciaMetricas metricas,
+                             CacheTransferenciasPorData cachePorData,
+                             @Nullable EventosTransferencia eventos,
+                             @Value("${transferencias.liquidacao.tamanho-bloco:100}") int tamanhoBloco,
+                             @Value("${transferencias.liquidacao.trabalhadores:4}") int trabalhadores,
+                             @Value("${transferencias.liquidacao.tempo-maximo-processamento:10m}")
+                             Duration tempoMaximoProcessamento) {
+        this.repository = repository;
+        this.liquidacao = liquidacao;
+        this.transactionOperations = transactionOperations;
+        this.metricas = metricas;
+        this.cachePorData = cachePorData;
+        this.eventos = eventos;
+        this.tamanhoBloco = tamanhoBloco;
+        this.trabalhadores = trabalhadores;
+        this.tempoMaximoProcessamento = tempoMaximoProcessamento;
+        this.intervaloRenovacaoNanos = tempoMaximoProcessamento.dividedBy(3).toNanos();
+        this.blocosEmAndamento = new Semaphore(trabalhadores);
+        AtomicInteger sequencia = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(trabalhadores, trabalhadores, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(trabalhadores), tarefa -> {
+                    Thread thread = new Thread(tarefa, "liquidacao-" + sequencia.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Liquida todas as transferências vencidas até a data informada.
+     * Retorna quando todos os blocos reservados pelo ciclo foram processados.
+     *
+     * @param dataReferencia Data de referência; são vencidas as transferências até esta data.
+     * @return Quantidade de transferências reservadas no ciclo.
+     * @throws InterruptedException Se a thread for interrompida aguardando os trabalhadores.
+     */
+    public synchronized int executarCiclo(LocalDate dataReferencia) throws InterruptedException {
+        recuperarReservasAbandonadas();
+        int reservadas = 0;
+        try {
+            while (true) {
+                blocosEmAndamento.acquire();
+                Instant reservadoEm = agora();
+                List<Transferencia> bloco;
+                try {
+                    bloco = reservarBloco(dataReferencia, reservadoEm);
+                } catch (RuntimeException e) {
+                    blocosEmAndamento.release();
+                    throw e;
+                }
+                if (bloco.isEmpty()) {
+                    blocosEmAndamento.release();
+                    break;
+                }
+                reservadas += bloco.size();
+                pool.execute(() -> {
+                    try {
+                        processarBloco(bloco, reservadoEm);
+                    } finally {
+                        blocosEmAndamento.release();
+                    }
+                });
+                if (bloco.size() < tamanhoBloco) {
+                    break;
+                }
+            }
+        } finally {
+            blocosEmAndamento.acquire(trabalhadores);
+            blocosEmAndamento.release(trabalhadores);
+        }
+        if (reservadas > 0) {
+            logger.info("Ciclo de liquidação concluído. Transferências processadas: {}", reservadas);
+        }
+        return reservadas;
+    }
+
+    private void recuperarReservasAbandonadas() {
+        Instant limite = Instant.now().minus(tempoMaximoProcessamento);
+        List<LocalDate> datas = new ArrayList<>();
+        Integer recuperadas = transactionOperations.execute(status -> {
+            datas.addAll(repository.buscarDatasComStatusAnteriorA(StatusTransferencia.PROCESSANDO, limite));
+            return repository.reverterStatusAnteriorA(
+                    StatusTransferencia.PROCESSANDO, StatusTransferencia.AGENDADA, limite);
+        });
+        if (recuperadas != null && recuperadas > 0) {
+            cachePorData.invalidar(datas);
+            logger.warn("Reservas de liquidação abandonadas devolvidas para AGENDADA: {}", recuperadas);
+        }
+    }
+
+    private List<Transferencia> reservarBloco(LocalDate dataReferencia, Instant reservadoEm) {
+        List<Transferencia> bloco = transactionOperations.execute(status -> {
+            List<Transferencia> bloqueadas = repository.bloquearVencidas(
+                    StatusTransferencia.AGENDADA, dataReferencia, PageRequest.of(0, tamanhoBloco));
+            if (!bloqueadas.isEmpty()) {
+                // O update limpa o contexto de persistência: as entidades ficam
+                // desanexadas e os setters abaixo não geram novos UPDATEs no commit.
+                repository.atualizarStatus(ids(bloqueadas), StatusTransferencia.PROCESSANDO, reservadoEm);
+                for (Transferencia transferencia : bloqueadas) {
+                    transferencia.setStatus(StatusTransferencia.PROCESSANDO);
+                    transferencia.setAtualizadoEm(reservadoEm);
+                }
+            }
+            return bloqueadas;
+        });
+        return bloco == null ? Collections.emptyList() : bloco;
+    }
+
+    /**
+     * Instante truncado em microssegundos, a precisão da coluna, para que o
+     * instante da reserva possa ser comparado com o gravado.
+     */
+    private static Instant agora() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /**
+     * Liquida as transferências de um bloco e grava o resultado de cada uma.
+     * Uma falha ao gravar o resultado deixa o bloco em PROCESSANDO, para ser
+     * recuperado após o tempo máximo de processamento.
+     *
+     * @param bloco       Transferências reservadas, em status PROCESSANDO.
+     * @param reservadoEm Instante da reserva do bloco.
+     */
+    void processarBloco(List<Transferencia> bloco, Instant reservadoEm) {
+        long inicio = System.nanoTime();
+        List<Transferencia> concluidas = new ArrayList<>(bloco.size());
+        List<Transferencia> falhas = new ArrayList<>();
+        Set<UUID> devolvidas = new HashSet<>();
+        Instant reserva = reservadoEm;
+        long renovarEm = inicio + intervaloRenovacaoNanos;
+        for (Transferencia transferencia : bloco) {
+            if (System.nanoTime() - renovarEm >= 0) {
+                reserva = renovarReserva(bloco, reserva, devolvidas);
+                renovarEm = System.nanoTime() + intervaloRenovacaoNanos;
+            }
+            if (devolvidas.contains(transferencia.getId())) {
+                continue;
+            }
+            try {
+                liquidacao.liquidar(transferencia);
+                concluidas.add(transferencia);
+            } catch (RuntimeException e) {
+                logger.error("Erro ao liquidar transferência {}: {}", transferencia.getId(), e.getMessage(), e);
+                falhas.add(transferencia);
+            }
+        }
+        Instant reservaAtual = reserva;
+        try {
+            int[] alteradas = transactionOperations.execute(status -> {
+                Instant agora = agora();
+                return new int[] {
+                        concluir(concluidas, reservaAtual, StatusTransferencia.CONCLUIDA, agora),
+                        concluir(falhas, reservaAtual, StatusTransferencia.FALHOU, agora)};
+            });
+            cachePorData.invalidar(bloco.stream()
+                    .map(Transferencia::getDataTransferencia)
+                    .collect(Collectors.toSet()));
+            metricas.registrarLiquidacao(alteradas[0], alteradas[1], System.nanoTime() - inicio);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao gravar resultado de bloco de {} transferências: {}", bloco.size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Renova a reserva das transferências do bloco que continuam reservadas
+     * por ele. As que já foram devolvidas são acrescentadas a
+     * {@code devolvidas}. Se a renovação falhar, a reserva anterior é mantida.
+     *
+     * @return Instante da reserva após a renovação.
+     */
+    private Instant renovarReserva(List<Transferencia> bloco, Instant reservadoEm, Set<UUID> devolvidas) {
+        List<UUID> ids = bloco.stream()
+                .map(Transferencia::getId)
+                .filter(id -> !devolvidas.contains(id))
+                .collect(Collectors.toList());
+        Instant renovadoEm = agora();
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                int renovadas = repository.atualizarStatusSe(ids, StatusTransferencia.PROCESSANDO, reservadoEm,
+                        StatusTransferencia.PROCESSANDO, renovadoEm);
+                if (renovadas < ids.size()) {
+                    Set<UUID> mantidas = new HashSet<>(
+                            repository.buscarIdsComStatus(ids, StatusTransferencia.PROCESSANDO, renovadoEm));
+                    ids.stream().filter(id -> !mantidas.contains(id)).forEach(devolvidas::add);
+                    logger.warn("Reserva devolvida durante a liquidação: {} de {} transferências deixam o bloco.",
+                            ids.size() - mantidas.size(), ids.size());
+                }
+            });
+            return renovadoEm;
+        } catch (RuntimeException e) {
+            logger.error("Erro ao renovar a reserva de bloco de {} transferências: {}", ids.size(), e.getMessage(), e);
+            return reservadoEm;
+        }
+    }
+
+    /**
+     * Grava o resultado das transferências que continuam reservadas pelo bloco
+     * e os eventos apenas dessas transferências.
+     *
+     * @return Quantidade de transferências alteradas.
+     */
+    private int concluir(List<Transferencia> transferencias, Instant reservadoEm,
+                         StatusTransferencia status, Instant agora) {
+        if (transferencias.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = ids(transferencias);
+        int alteradas = repository.atualizarStatusSe(ids, StatusTransferencia.PROCESSANDO, reservadoEm, status, agora);
+        List<Transferencia> alteradasNoBloco = transferencias;
+        if (alteradas < ids.size()) {
+            logger.warn("Reserva devolvida antes da conclusão: {} de {} transferências não foram marcadas como {}.",
+                    ids.size() - alteradas, ids.size(), status);
+            Set<UUID> idsAlterados = alteradas == 0
+                    ? Collections.emptySet()
+                    : new HashSet<>(repository.buscarIdsComStatus(ids, status, agora));
+            alteradasNoBloco = transferencias.stream()
+                    .filter(t -> idsAlterados.contains(t.getId()))
+                    .collect(Collectors.toList());
+        }
+        if (eventos != null && !alteradasNoBloco.isEmpty()) {
+            // Entidades desanexadas (o update limpa o contexto): só o payload do evento muda.
+            for (Transferencia transferencia : alteradasNoBloco) {
+                transferencia.setStatus(status);
+                transferencia.setAtualizadoEm(agora);
+            }
+            eventos.registrar(alteradasNoBloco, status);
+        }
+        return alteradasNoBloco.size();
+    }
+
+    private static List<UUID> ids(List<Transferencia> transferencias) {
+        return transferencias.stream().map(Transferencia::getId).collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    void encerrar() {
+        pool.shutdown();
+    }
+}
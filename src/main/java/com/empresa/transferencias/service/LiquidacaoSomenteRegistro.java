@@ -0,0 +1,21 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.Transferencia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Liquidação padrão: apenas registra a transferência como efetivada.
+ * Deve ser substituída (com {@code @Primary}) pela integração real.
+ */
+@Component
+public class LiquidacaoSomenteRegistro implements LiquidacaoTransferencia {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiquidacaoSomenteRegistro.class);
+
+    @Override
+    public void liquidar(Transferencia transferencia) {
+        logger.debug("Transferência liquidada: ID = {}", transferencia.getId());
+    }
+}
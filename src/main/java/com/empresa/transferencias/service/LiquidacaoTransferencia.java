@@ -0,0 +1,26 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.Transferencia;
+
+/**
+ * Ponto de extensão para a efetivação de uma transferência vencida
+ * (ex.: integração com o sistema de pagamentos). Chamado pelo executor de
+ * liquidação fora de transação, em paralelo, para transferências distintas.
+ *
+ * Implementações devem ser idempotentes pelo id da transferência: a reserva
+ * de um bloco é renovada apenas entre uma liquidação e outra, e uma chamada
+ * que passe do tempo máximo de processamento, ou uma instância que caia
+ * antes de gravar o resultado, faz a transferência voltar a AGENDADA e ser
+ * liquidada de novo.
+ */
+public interface LiquidacaoTransferencia {
+
+    /**
+     * Efetiva a transferência.
+     *
+     * @param transferencia Transferência vencida, em status PROCESSANDO.
+     * @throws RuntimeException Se a transferência não puder ser liquidada;
+     *                          ela é então marcada como FALHOU.
+     */
+    void liquidar(Transferencia transferencia);
+}
@@ -0,0 +1,140 @@
+package com.empresa.transferencias.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manutenção das partições mensais da tabela transferencias no PostgreSQL.
+ * As funções SQL usadas aqui são criadas pela migração
+ * V2__particionar_transferencias.
+ *
+ * Na inicialização e uma vez por dia, cria as partições do mês atual e dos
+ * próximos meses, para que a partição padrão permaneça vazia. Com retenção
+ * configurada, as partições de meses anteriores ao período retido são
+ * desanexadas da tabela (e mantidas como tabelas avulsas de arquivo) ou
+ * removidas. Em outros bancos a manutenção é desativada.
+ */
+@Service
+public class ParticionamentoTransferencias implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParticionamentoTransferencias.class);
+
+    /**
+     * O que fazer com as partições além do período de retenção.
+     */
+    public enum AcaoRetencao {
+        /** Desanexa a partição, que permanece como tabela de arquivo. */
+        DESANEXAR,
+        /** Desanexa e remove a partição. */
+        REMOVER
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean habilitado;
+    private final int mesesAFrente;
+    private final int retencaoMeses;
+    private final AcaoRetencao acaoRetencao;
+    private final String prefixoEsquema;
+    private volatile boolean postgres;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param jdbcTemplate  Acesso JDBC usado para chamar as funções de manutenção.
+     * @param habilitado    Se a manutenção das partições é executada.
+     * @param mesesAFrente  Quantidade de meses após o atual com partição criada antecipadamente.
+     * @param retencaoMeses Meses anteriores ao atual mantidos na tabela; zero mantém todos.
+     * @param acaoRetencao  Ação aplicada às partições além da retenção.
+     * @param esquema       Esquema da tabela (o mesmo do Hibernate), ou vazio para o padrão da conexão.
+     */
+    @Autowired
+    public ParticionamentoTransferencias(
+            JdbcTemplate jdbcTemplate,
+            @Value("${transferencias.particionamento.habilitado:true}") boolean habilitado,
+            @Value("${transferencias.particionamento.meses-a-frente:3}") int mesesAFrente,
+            @Value("${transferencias.particionamento.retencao-meses:0}") int retencaoMeses,
+            @Value("${transferencias.particionamento.acao-retencao:DESANEXAR}") AcaoRetencao acaoRetencao,
+            @Value("${spring.jpa.properties.hibernate.default_schema:}") String esquema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.habilitado = habilitado;
+        this.mesesAFrente = mesesAFrente;
+        this.retencaoMeses = retencaoMeses;
+        this.acaoRetencao = acaoRetencao;
+        this.prefixoEsquema = esquema == null || esquema.isBlank() ? "" : esquema + ".";
+    }
+
+    /**
+     * Verifica o banco e executa a primeira manutenção, após as migrações.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            String banco = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equalsIgnoreCase(banco);
+            if (!postgres) {
+                logger.info("Particionamento de transferências desativado: banco {} não é PostgreSQL.", banco);
+                return;
+            }
+            manter();
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível manter as partições de transferências: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cria as partições que faltam e aplica a retenção.
+     */
+    @Scheduled(cron = "${transferencias.particionamento.cron:0 30 0 * * *}")
+    public void manter() {
+        if (!habilitado || !postgres) {
+            return;
+        }
+        YearMonth atual = YearMonth.now();
+        for (YearMonth mes : mesesACriar(atual, mesesAFrente)) {
+            String criada = jdbcTemplate.queryForObject("select " + prefixoEsquema + "criar_particao_transferencias(?)",
+                    String.class, Date.valueOf(mes.atDay(1)));
+            if (criada != null) {
+                logger.info("Partição {} criada.", criada);
+            }
+        }
+        if (retencaoMeses > 0) {
+            LocalDate limite = atual.minusMonths(retencaoMeses).atDay(1);
+            List<String> desanexadas = jdbcTemplate.queryForList(
+                    "select " + prefixoEsquema + "desanexar_particoes_transferencias(?, ?)",
+                    String.class, Date.valueOf(limite), acaoRetencao == AcaoRetencao.REMOVER);
+            if (!desanexadas.isEmpty()) {
+                logger.info("Partições anteriores a {} {}: {}", limite,
+                        acaoRetencao == AcaoRetencao.REMOVER ? "removidas" : "desanexadas", desanexadas);
+            }
+        }
+    }
+
+    /**
+     * @param atual        Mês atual.
+     * @param mesesAFrente Quantidade de meses após o atual.
+     * @return Meses, do atual até {@code mesesAFrente} meses à frente, cujas partições devem existir.
+     */
+    static List<YearMonth> mesesACriar(YearMonth atual, int mesesAFrente) {
+        List<YearMonth> meses = new ArrayList<>(mesesAFrente + 1);
+        for (int i = 0; i <= mesesAFrente; i++) {
+            meses.add(atual.plusMonths(i));
+        }
+        return meses;
+    }
+}
@@ -0,0 +1,138 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+import com.empresa.transferencias.model.OffsetConsumidor;
+import com.empresa.transferencias.repository.OffsetConsumidorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Publica os eventos do outbox ({@link EventosTransferencia}) em lotes no
+ * {@link DestinoEventos} configurado.
+ *
+ * Cada lote é lido, publicado e tem a posição do consumidor gravada em uma
+ * única transação, com a linha da posição bloqueada: entre instâncias,
+ * apenas uma publica para o mesmo consumidor de cada vez (as demais pulam o
+ * ciclo, via SKIP LOCKED). Se a publicação ou a gravação da posição falhar,
+ * o lote é publicado de novo no ciclo seguinte (entrega pelo menos uma vez).
+ *
+ * Habilitado por {@code transferencias.eventos.relay.habilitado=true}; requer
+ * o outbox habilitado.
+ */
+@Service
+@ConditionalOnProperty(name = "transferencias.eventos.relay.habilitado", havingValue = "true")
+public class RelayEventos {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelayEventos.class);
+
+    private final EventosTransferencia eventos;
+    private final OffsetConsumidorRepository offsets;
+    private final DestinoEventos destino;
+    private final TransactionOperations transactionOperations;
+    private final String consumidor;
+    private final int tamanhoLote;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param eventos               Outbox de onde os eventos são lidos.
+     * @param offsets               Repositório das posições dos consumidores.
+     * @param destino               Destino dos eventos.
+     * @param transactionOperations Executor da transação de cada lote.
+     * @param consumidor            Nome sob o qual a posição do relay é gravada.
+     * @param tamanhoLote           Quantidade máxima de eventos por publicação.
+     */
+    @Autowired
+    public RelayEventos(EventosTransferencia eventos,
+                        OffsetConsumidorRepository offsets,
+                        DestinoEventos destino,
+                        TransactionOperations transactionOperations,
+                        @Value("${transferencias.eventos.relay.consumidor:relay}") String consumidor,
+                        @Value("${transferencias.eventos.relay.tamanho-lote:500}") int tamanhoLote) {
+        this.eventos = eventos;
+        this.offsets = offsets;
+        this.destino = destino;
+        this.transactionOperations = transactionOperations;
+        this.consumidor = consumidor;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Scheduled(fixedDelayString = "${transferencias.eventos.relay.intervalo:PT1S}")
+    public void executar() {
+        try {
+            publicarPendentes();
+        } catch (RuntimeException e) {
+            logger.error("Erro ao publicar eventos de transferência: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Publica lotes até alcançar o último evento disponível.
+     *
+     * @return Quantidade de eventos publicados.
+     */
+    public long publicarPendentes() {
+        registrarConsumidor();
+        long total = 0;
+        int publicados;
+        do {
+            Integer lote = transactionOperations.execute(status -> publicarLote());
+            publicados = lote == null ? 0 : lote;
+            total += publicados;
+        } while (publicados == tamanhoLote);
+        if (total > 0) {
+            logger.debug("Eventos de transferência publicados: {}", total);
+        }
+        return total;
+    }
+
+    private int publicarLote() {
+        Optional<OffsetConsumidor> bloqueado = offsets.bloquear(consumidor);
+        if (bloqueado.isEmpty()) {
+            return 0;
+        }
+        OffsetConsumidor offset = bloqueado.get();
+        List<EventoTransferencia> lote = eventos.buscarApos(offset.getSequencia(), tamanhoLote);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        try {
+            destino.publicar(lote);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao publicar lote de " + lote.size() + " eventos", e);
+        }
+        offset.setSequencia(lote.get(lote.size() - 1).getSequencia());
+        offset.setAtualizadoEm(Instant.now());
+        offsets.save(offset);
+        return lote.size();
+    }
+
+    /**
+     * Cria a posição do consumidor no início do fluxo, se ainda não existir.
+     */
+    private void registrarConsumidor() {
+        if (offsets.existsById(consumidor)) {
+            return;
+        }
+        try {
+            transactionOperations.executeWithoutResult(status ->
+                    offsets.save(new OffsetConsumidor(consumidor, 0, Instant.now())));
+            logger.info("Consumidor de eventos registrado: {}", consumidor);
+        } catch (DataIntegrityViolationException e) {
+            // Registrado por outra instância.
+        }
+    }
+}
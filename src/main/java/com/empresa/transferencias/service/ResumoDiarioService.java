@@ -0,0 +1,140 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.model.ResumoDiario;
+import com.empresa.transferencias.repository.ResumoDiarioRepository;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Totais das transferências agrupados por data, calculados no banco.
+ *
+ * Sem o resumo diário, os totais de um período são obtidos com uma única
+ * consulta agregada sobre a tabela de transferências. Com o resumo
+ * habilitado, as datas já passadas são consolidadas uma vez por dia na
+ * tabela resumo_diario (apenas as datas ainda não consolidadas) e lidas de
+ * lá; somente as datas posteriores à última consolidada são agregadas sobre
+ * a tabela de transferências. O custo de um período longo passa a depender
+ * da quantidade de dias, e não da quantidade de transferências.
+ */
+@Service
+public class ResumoDiarioService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumoDiarioService.class);
+
+    private final TransferenciaRepository repository;
+    private final ResumoDiarioRepository resumoRepository;
+    private final TransactionOperations transactionOperations;
+    private final boolean habilitado;
+    private final AtomicReference<LocalDate> ultimaConsolidada = new AtomicReference<>();
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param repository            Repositório de transferências.
+     * @param resumoRepository      Repositório dos totais consolidados.
+     * @param transactionOperations Executor da transação de consolidação.
+     * @param habilitado            Se os totais de datas passadas são lidos do resumo diário.
+     */
+    @Autowired
+    public ResumoDiarioService(TransferenciaRepository repository,
+                               ResumoDiarioRepository resumoRepository,
+                               TransactionOperations transactionOperations,
+                               @Value("${transferencias.resumo-diario.habilitado:false}") boolean habilitado) {
+        this.repository = repository;
+        this.resumoRepository = resumoRepository;
+        this.transactionOperations = transactionOperations;
+        this.habilitado = habilitado;
+    }
+
+    /**
+     * Carrega a última data consolidada.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            ultimaConsolidada.set(resumoRepository.ultimaDataConsolidada());
+            logger.info("Resumo diário consolidado até {}.", ultimaConsolidada.get());
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível ler o resumo diário: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Retorna os totais por data de um período. Datas sem transferências são omitidas.
+     *
+     * @param de  Data inicial (inclusiva).
+     * @param ate Data final (inclusiva).
+     * @return Quantidade, soma dos valores e soma das taxas por data, em ordem de data.
+     * @throws RuntimeException Em caso de falha ao acessar o banco de dados.
+     */
+    public List<TotalDiario> totaisPorDia(LocalDate de, LocalDate ate) {
+        LocalDate consolidada = habilitado ? ultimaConsolidada.get() : null;
+        if (consolidada == null || de.isAfter(consolidada)) {
+            return repository.somarPorDia(de, ate);
+        }
+        if (!ate.isAfter(consolidada)) {
+            return resumoRepository.buscarPeriodo(de, ate);
+        }
+        List<TotalDiario> totais = new ArrayList<>(resumoRepository.buscarPeriodo(de, consolidada));
+        totais.addAll(repository.somarPorDia(consolidada.plusDays(1), ate));
+        return totais;
+    }
+
+    /**
+     * Consolida no resumo as datas passadas ainda não consolidadas, da
+     * seguinte à última consolidada até ontem, em uma única transação.
+     * Na primeira execução, parte da menor data de transferência cadastrada.
+     *
+     * @return Quantidade de datas consolidadas.
+     */
+    @Scheduled(cron = "${transferencias.resumo-diario.cron:0 15 0 * * *}")
+    public int consolidar() {
+        if (!habilitado) {
+            return 0;
+        }
+        LocalDate ontem = LocalDate.now().minusDays(1);
+        LocalDate ultima = resumoRepository.ultimaDataConsolidada();
+        LocalDate inicio = ultima != null ? ultima.plusDays(1) : repository.primeiraDataTransferencia();
+        if (inicio == null || inicio.isAfter(ontem)) {
+            ultimaConsolidada.set(ultima);
+            return 0;
+        }
+
+        Map<LocalDate, TotalDiario> totais = new HashMap<>();
+        for (TotalDiario total : repository.somarPorDia(inicio, ontem)) {
+            totais.put(total.getData(), total);
+        }
+        Instant agora = Instant.now();
+        List<ResumoDiario> resumos = new ArrayList<>();
+        for (LocalDate data = inicio; !data.isAfter(ontem); data = data.plusDays(1)) {
+            TotalDiario total = totais.get(data);
+            resumos.add(total == null
+                    ? new ResumoDiario(data, 0, BigDecimal.ZERO, BigDecimal.ZERO, agora)
+                    : new ResumoDiario(data, total.getQuantidade(), total.getValorTotal(), total.getTaxaTotal(), agora));
+        }
+        transactionOperations.executeWithoutResult(status -> resumoRepository.saveAll(resumos));
+        ultimaConsolidada.set(ontem);
+        logger.info("Resumo diário consolidado de {} a {} ({} datas).", inicio, ontem, resumos.size());
+        return resumos.size();
+    }
+}
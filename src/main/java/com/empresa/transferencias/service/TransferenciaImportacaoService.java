@@ -0,0 +1,282 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.ResultadoLote;
+import com.empresa.transferencias.dto.ResumoImportacao;
+import com.empresa.transferencias.model.Transferencia;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serviço de importação de arquivos de transferências (centenas de milhares
+ * de itens), com uso de memória limitado independentemente do tamanho do
+ * arquivo.
+ *
+ * Os itens são agrupados em blocos na ordem do arquivo. Cada bloco é validado
+ * e tem as taxas calculadas em um pool com uma thread por núcleo, enquanto a
+ * requisição continua lendo o arquivo e persiste, em ordem, os blocos já
+ * validados (um bloco por transação, como no lote). No máximo
+ * {@code blocos-em-voo} blocos aguardam validação ou gravação: ao atingir o
+ * limite, a leitura do arquivo para até o bloco mais antigo ser gravado, o
+ * que segura o envio do cliente pelo próprio TCP.
+ *
+ * Como os blocos são validados em paralelo, transferências da mesma conta e
+ * data em blocos diferentes disputam o limite diário sem ordem definida: se
+ * o limite for atingido, as rejeitadas não são necessariamente as últimas
+ * do arquivo.
+ */
+@Service
+public class TransferenciaImportacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferenciaImportacaoService.class);
+
+    private final TransferenciaLoteService loteService;
+    private final AgregadoDiarioContas agregadoContas;
+    private final int tamanhoBloco;
+    private final int blocosEmVoo;
+    private final int maximoRejeicoes;
+    private final ExecutorService pool;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param loteService     Validação e persistência dos blocos, compartilhadas com o agendamento em lote.
+     * @param agregadoContas  Totais por conta e data, estornados quando uma importação é interrompida.
+     * @param tamanhoBloco    Quantidade de itens validados por tarefa e persistidos por transação.
+     * @param threads         Threads de validação; zero para uma por núcleo.
+     * @param blocosEmVoo     Blocos lidos e ainda não gravados por importação; zero para o dobro de threads.
+     * @param maximoRejeicoes Quantidade máxima de rejeições detalhadas no resumo.
+     */
+    @Autowired
+    public TransferenciaImportacaoService(TransferenciaLoteService loteService,
+                                          AgregadoDiarioContas agregadoContas,
+                                          @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int tamanhoBloco,
+                                          @Value("${transferencias.importacao.threads:0}") int threads,
+                                          @Value("${transferencias.importacao.blocos-em-voo:0}") int blocosEmVoo,
+                                          @Value("${transferencias.importacao.maximo-rejeicoes:1000}") int maximoRejeicoes) {
+        this.loteService = loteService;
+        this.agregadoContas = agregadoContas;
+        this.tamanhoBloco = tamanhoBloco;
+        int trabalhadores = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.blocosEmVoo = blocosEmVoo > 0 ? blocosEmVoo : 2 * trabalhadores;
+        this.maximoRejeicoes = maximoRejeicoes;
+        AtomicInteger sequencia = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(trabalhadores, trabalhadores, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), tarefa -> {
+                    Thread thread = new Thread(tarefa, "importacao-" + sequencia.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Inicia uma nova importação. Os itens devem ser adicionados na ordem do
+     * arquivo e a importação deve ser concluída para que os blocos pendentes
+     * sejam persistidos; se for fechada antes disso (ex.: falha na leitura do
+     * arquivo), as reservas dos itens não gravados são estornadas.
+     *
+     * @return Importação vazia, pronta para receber itens.
+     */
+    public Importacao iniciarImportacao() {
+        return new Importacao(LocalDate.now());
+    }
+
+    private Bloco validar(Bloco bloco, LocalDate dataAgendamento) {
+        for (int i = 0; i < bloco.itens.size(); i++) {
+            Transferencia transferencia = bloco.itens.get(i);
+            int indice = bloco.indices.get(i);
+            String erro;
+            try {
+                erro = transferencia == null ? "Item vazio." : loteService.validar(transferencia, dataAgendamento);
+            } catch (RuntimeException e) {
+                erro = "Erro ao validar: " + e.getMessage();
+            }
+            if (erro == null) {
+                bloco.validas.add(transferencia);
+                bloco.indicesValidos.add(indice);
+            } else {
+                bloco.rejeicoes.add(ResultadoLote.rejeitada(indice, erro));
+            }
+        }
+        return bloco;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        pool.shutdown();
+    }
+
+    /**
+     * Itens de um bloco, na ordem do arquivo, e o resultado da validação.
+     */
+    private static final class Bloco {
+
+        private final List<Transferencia> itens;
+        private final List<Integer> indices;
+        private final List<Transferencia> validas;
+        private final List<Integer> indicesValidos;
+        private final List<ResultadoLote> rejeicoes = new ArrayList<>();
+
+        private Bloco(List<Transferencia> itens, List<Integer> indices) {
+            this.itens = itens;
+            this.indices = indices;
+            this.validas = new ArrayList<>(itens.size());
+            this.indicesValidos = new ArrayList<>(itens.size());
+        }
+    }
+
+    /**
+     * Importação em andamento. Não é thread-safe: deve ser usada por uma
+     * única requisição, que lê o arquivo e grava os blocos validados.
+     */
+    public class Importacao implements AutoCloseable {
+
+        private final LocalDate dataAgendamento;
+        private final Deque<CompletableFuture<Bloco>> emVoo = new ArrayDeque<>();
+        private final List<ResultadoLote> rejeicoes = new ArrayList<>();
+        private List<Transferencia> itens = new ArrayList<>(tamanhoBloco);
+        private List<Integer> indices = new ArrayList<>(tamanhoBloco);
+        private int quantidade;
+        private long aceitas;
+        private long rejeitadas;
+        private boolean concluida;
+
+        private Importacao(LocalDate dataAgendamento) {
+            this.dataAgendamento = dataAgendamento;
+        }
+
+        /**
+         * Adiciona uma transferência à importação. A validação ocorre em
+         * segundo plano; a chamada só bloqueia quando há
+         * {@code blocos-em-voo} blocos aguardando gravação.
+         *
+         * @param transferencia Transferência a ser agendada.
+         */
+        public void adicionar(Transferencia transferencia) {
+            itens.add(transferencia);
+            indices.add(quantidade++);
+            if (itens.size() >= tamanhoBloco) {
+                despachar();
+            }
+        }
+
+        /**
+         * Registra um item que não pôde sequer ser interpretado (ex.: linha inválida).
+         *
+         * @param erro Motivo da rejeição.
+         */
+        public void rejeitar(String erro) {
+            registrarRejeicao(ResultadoLote.rejeitada(quantidade++, erro));
+        }
+
+        /**
+         * Valida e persiste os blocos pendentes e retorna o resumo da importação.
+         *
+         * @return Totais e as primeiras rejeições.
+         */
+        public ResumoImportacao concluir() {
+            despachar();
+            while (!emVoo.isEmpty()) {
+                gravar(emVoo.poll().join());
+            }
+            concluida = true;
+            logger.info("Importação concluída. Itens: {}, aceitos: {}, rejeitados: {}",
+                    quantidade, aceitas, rejeitadas);
+            return new ResumoImportacao(quantidade, aceitas, rejeitadas, rejeicoes, false);
+        }
+
+        /**
+         * Encerra uma importação cuja leitura falhou no meio do arquivo:
+         * descarta os blocos não gravados, estornando as reservas, e retorna
+         * o resumo dos itens lidos até a falha.
+         *
+         * @return Totais até a falha, marcados como interrompidos.
+         */
+        public ResumoImportacao interromper() {
+            descartar();
+            concluida = true;
+            return new ResumoImportacao(quantidade, aceitas, rejeitadas, rejeicoes, true);
+        }
+
+        /**
+         * @return Quantidade de transferências já gravadas.
+         */
+        public long getAceitas() {
+            return aceitas;
+        }
+
+        /**
+         * Descarta os blocos não gravados de uma importação não concluída,
+         * estornando as reservas dos itens já validados.
+         */
+        @Override
+        public void close() {
+            if (!concluida) {
+                descartar();
+            }
+        }
+
+        private void descartar() {
+            int descartadas = 0;
+            while (!emVoo.isEmpty()) {
+                Bloco bloco = emVoo.poll().join();
+                bloco.validas.forEach(agregadoContas::estornar);
+                descartadas += bloco.validas.size();
+            }
+            logger.warn("Importação interrompida após {} itens. Aceitos: {}, descartados sem gravar: {}",
+                    quantidade, aceitas, descartadas);
+        }
+
+        private void despachar() {
+            if (itens.isEmpty()) {
+                return;
+            }
+            Bloco bloco = new Bloco(itens, indices);
+            itens = new ArrayList<>(tamanhoBloco);
+            indices = new ArrayList<>(tamanhoBloco);
+            emVoo.add(CompletableFuture.supplyAsync(() -> validar(bloco, dataAgendamento), pool));
+            while (emVoo.size() > blocosEmVoo) {
+                gravar(emVoo.poll().join());
+            }
+        }
+
+        private void gravar(Bloco bloco) {
+            bloco.rejeicoes.forEach(this::registrarRejeicao);
+            if (bloco.validas.isEmpty()) {
+                return;
+            }
+            try {
+                loteService.persistirBloco(bloco.validas);
+                aceitas += bloco.validas.size();
+            } catch (RuntimeException e) {
+                logger.error("Erro ao persistir bloco de {} transferências: {}",
+                        bloco.validas.size(), e.getMessage(), e);
+                for (int indice : bloco.indicesValidos) {
+                    registrarRejeicao(ResultadoLote.rejeitada(indice, "Erro ao persistir: " + e.getMessage()));
+                }
+            }
+        }
+
+        private void registrarRejeicao(ResultadoLote rejeicao) {
+            rejeitadas++;
+            if (rejeicoes.size() < maximoRejeicoes) {
+                rejeicoes.add(rejeicao);
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.ResultadoLote;
+import com.empresa.transferencias.dto.ResultadoValidacao;
+import com.empresa.transferencias.exception.GravacaoIndisponivelException;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço responsável pelo agendamento de transferências em lote.
+ * Cada item é validado e tem sua taxa calculada individualmente; os itens
+ * válidos são persistidos em blocos, um bloco por transação, permitindo que
+ * o Hibernate agrupe os inserts em batches JDBC. Com o outbox habilitado,
+ * os eventos AGENDADA de cada bloco são gravados na transação do bloco.
+ */
+@Service
+public class TransferenciaLoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferenciaLoteService.class);
+
+    private final TransferenciaService transferenciaService;
+    private final TransferenciaRepository repository;
+    private final TransactionOperations transactionOperations;
+    private final CacheTransferenciasPorData cachePorData;
+    private final AgregadoDiarioContas agregadoContas;
+    private final EventosTransferencia eventos;
+    private final int tamanhoBloco;
+
+    /**
+     * Construtor para injeção de dependência.
+     *
+     * @param transferenciaService  Serviço com as regras de validação e cálculo de taxa.
+     * @param repository            Repositório de transferências.
+     * @param transactionOperations Executor de transações para cada bloco persistido.
+     * @param cachePorData          Cache das transferências por data, invalidado a cada bloco.
+     * @param agregadoContas        Totais por conta e data, estornados quando um bloco falha.
+     * @param eventos               Outbox dos eventos de transferência, ou {@code null} se desabilitado.
+     * @param tamanhoBloco          Quantidade de itens persistidos por transação.
+     */
+    @Autowired
+    public TransferenciaLoteService(TransferenciaService transferenciaService,
+                                    TransferenciaRepository repository,
+                                    TransactionOperations transactionOperations,
+                                    CacheTransferenciasPorData cachePorData,
+                                    AgregadoDiarioContas agregadoContas,
+                                    @Nullable EventosTransferencia eventos,
+                                    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int tamanhoBloco) {
+        this.transferenciaService = transferenciaService;
+        this.repository = repository;
+        this.transactionOperations = transactionOperations;
+        this.cachePorData = cachePorData;
+        this.agregadoContas = agregadoContas;
+        this.eventos = eventos;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * Inicia um novo lote de agendamento.
+     * Os itens devem ser adicionados na ordem do arquivo e o lote deve ser
+     * concluído para que os itens pendentes sejam persistidos.
+     *
+     * @return Lote vazio, pronto para receber itens.
+     */
+    public Lote iniciarLote() {
+        return new Lote(LocalDate.now());
+    }
+
+    /**
+     * Agenda uma lista de transferências em lote.
+     *
+     * @param transferencias Transferências a serem agendadas.
+     * @return Resultado de cada item, na mesma ordem da lista recebida.
+     */
+    public List<ResultadoLote> agendarLote(List<Transferencia> transferencias) {
+        Lote lote = iniciarLote();
+        transferencias.forEach(lote::adicionar);
+        return lote.concluir();
+    }
+
+    /**
+     * Persiste um bloco de transferências já preparadas em uma única transação
+     * (com os eventos AGENDADA, se o outbox estiver habilitado) e invalida o
+     * cache das datas do bloco. Se a gravação falhar, as reservas do limite
+     * diário são estornadas antes de a exceção ser propagada.
+     *
+     * @param bloco Transferências validadas e com a taxa calculada.
+     * @throws RuntimeException Se a transação não for confirmada.
+     */
+    void persistirBloco(List<Transferencia> bloco) {
+        try {
+            transactionOperations.executeWithoutResult(status -> {
+                repository.saveAll(bloco);
+                if (eventos != null) {
+                    eventos.registrar(bloco, StatusTransferencia.AGENDADA);
+                }
+            });
+        } catch (RuntimeException e) {
+            bloco.forEach(agregadoContas::estornar);
+            throw e;
+        }
+        cachePorData.invalidar(bloco.stream()
+                .map(Transferencia::getDataTransferencia)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Valida a transferência e calcula a taxa, reservando o valor no limite
+     * diário. Compartilhado com a importação de arquivos.
+     *
+     * @return null se válida, ou o motivo da rejeição.
+     */
+    String validar(Transferencia transferencia, LocalDate dataAgendamento) {
+        ResultadoValidacao validacao;
+        try {
+            validacao = transferenciaService.prepararAgendamento(transferencia, dataAgendamento);
+        } catch (GravacaoIndisponivelException e) {
+            return e.getMessage();
+        }
+        return validacao.isValida() ? null : validacao.getMensagem();
+    }
+
+    /**
+     * Lote de agendamento em andamento.
+     * Acumula os itens válidos até completar um bloco e então os persiste
+     * em uma única transação. Não é thread-safe: deve ser usado por uma
+     * única requisição.
+     */
+    public class Lote {
+
+        private final LocalDate dataAgendamento;
+        private final List<ResultadoLote> resultados = new ArrayList<>();
+        private final List<Transferencia> pendentes = new ArrayList<>(tamanhoBloco);
+        private final List<Integer> indicesPendentes = new ArrayList<>(tamanhoBloco);
+        private int aceitas;
+
+        private Lote(LocalDate dataAgendamento) {
+            this.dataAgendamento = dataAgendamento;
+        }
+
+        /**
+         * Adiciona uma transferência ao lote, validando-a e calculando sua taxa.
+         *
+         * @param transferencia Transferência a ser agendada.
+         */
+        public void adicionar(Transferencia transferencia) {
+            int indice = resultados.size();
+            String erro = transferencia == null
+                    ? "Item vazio."
+                    : validar(transferencia, dataAgendamento);
+            if (erro != null) {
+                resultados.add(ResultadoLote.rejeitada(indice, erro));
+                return;
+            }
+            resultados.add(null);
+            pendentes.add(transferencia);
+            indicesPendentes.add(indice);
+            if (pendentes.size() >= tamanhoBloco) {
+                persistirPendentes();
+            }
+        }
+
+        /**
+         * Registra um item que não pôde sequer ser interpretado (ex.: JSON inválido).
+         *
+         * @param erro Motivo da rejeição.
+         */
+        public void rejeitar(String erro) {
+            resultados.add(ResultadoLote.rejeitada(resultados.size(), erro));
+        }
+
+        /**
+         * Persiste os itens pendentes e retorna o resultado de todos os itens.
+         *
+         * @return Resultado de cada item, na ordem em que foram adicionados.
+         */
+        public List<ResultadoLote> concluir() {
+            persistirPendentes();
+            return resultados;
+        }
+
+        /**
+         * Encerra um lote cuja leitura falhou no meio do corpo: os itens
+         * pendentes não são gravados e têm as reservas estornadas.
+         *
+         * @return Resultado dos itens lidos até a falha; os pendentes ficam rejeitados.
+         */
+        public List<ResultadoLote> interromper() {
+            pendentes.forEach(agregadoContas::estornar);
+            for (int indice : indicesPendentes) {
+                resultados.set(indice, ResultadoLote.rejeitada(indice, "Não gravada: leitura do lote interrompida."));
+            }
+            pendentes.clear();
+            indicesPendentes.clear();
+            return resultados;
+        }
+
+        /**
+         * @return Quantidade de transferências já gravadas.
+         */
+        public int getAceitas() {
+            return aceitas;
+        }
+
+        private void persistirPendentes() {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            try {
+                persistirBloco(pendentes);
+                for (int i = 0; i < pendentes.size(); i++) {
+                    Transferencia salva = pendentes.get(i);
+                    int indice = indicesPendentes.get(i);
+                    resultados.set(indice, ResultadoLote.aceita(indice, salva.getId(), salva.getTaxa()));
+                }
+                aceitas += pendentes.size();
+            } catch (RuntimeException e) {
+                logger.error("Erro ao persistir bloco de {} transferências: {}", pendentes.size(), e.getMessage(), e);
+                for (int indice : indicesPendentes) {
+                    resultados.set(indice, ResultadoLote.rejeitada(indice, "Erro ao persistir: " + e.getMessage()));
+                }
+            } finally {
+                pendentes.clear();
+                indicesPendentes.clear();
+            }
+        }
+    }
+}
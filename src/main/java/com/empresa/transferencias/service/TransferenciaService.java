@@ -1,17 +1,41 @@
 package com.empresa.transferencias.service;
 
+import com.empresa.transferencias.dto.CotacaoTaxa;
+import com.empresa.transferencias.dto.CursorPaginacao;
+import com.empresa.transferencias.dto.PaginaTransferencias;
+import com.empresa.transferencias.dto.ResultadoAgendamento;
+import com.empresa.transferencias.dto.ResultadoValidacao;
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.exception.GravacaoIndisponivelException;
+import com.empresa.transferencias.exception.MotivoRejeicao;
+import com.empresa.transferencias.exception.TransferenciaInvalidaException;
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.model.StatusTransferencia;
 import com.empresa.transferencias.model.Transferencia;
 import com.empresa.transferencias.repository.TransferenciaRepository;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Serviço responsável pela lógica de negócios para agendamento de transferências.
@@ -22,85 +46,347 @@ public class TransferenciaService {
     private static final Logger logger = LoggerFactory.getLogger(TransferenciaService.class);
 
     private final TransferenciaRepository repository;
+    private final TransferenciaMetricas metricas;
+    private final CacheTransferenciasPorData cachePorData;
+    private final AgregadoDiarioContas agregadoContas;
+    private final GravacaoAgrupada gravacaoAgrupada;
+    private final TransactionOperations transactionOperations;
+    private final EventosTransferencia eventos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Construtor para injeção de dependência.
      *
-     * @param repository Repositório de transferências.
+     * @param repository   Repositório de transferências.
+     * @param metricas     Métricas de agendamento.
+     * @param cachePorData   Cache das transferências por data de transferência.
+     * @param agregadoContas Totais agendados por conta e data, usados no limite diário.
+     * @param gravacaoAgrupada Gravação agrupada das transferências, ou {@code null} para gravar
+     *                         cada transferência em sua própria transação.
+     * @param transactionOperations Executor da transação que grava a transferência e o seu evento.
+     * @param eventos          Outbox dos eventos de transferência, ou {@code null} se desabilitado.
      */
     @Autowired
-    public TransferenciaService(TransferenciaRepository repository) {
+    public TransferenciaService(TransferenciaRepository repository, TransferenciaMetricas metricas,
+                                CacheTransferenciasPorData cachePorData, AgregadoDiarioContas agregadoContas,
+                                @Nullable GravacaoAgrupada gravacaoAgrupada,
+                                TransactionOperations transactionOperations,
+                                @Nullable EventosTransferencia eventos) {
         this.repository = repository;
+        this.metricas = metricas;
+        this.cachePorData = cachePorData;
+        this.agregadoContas = agregadoContas;
+        this.gravacaoAgrupada = gravacaoAgrupada;
+        this.transactionOperations = transactionOperations;
+        this.eventos = eventos;
     }
 
     /**
      * Agenda uma nova transferência financeira.
      * Este método valida os dados da transferência, calcula a taxa com base
      * na diferença de dias entre o agendamento e a data de transferência,
-     * e salva a transferência no banco de dados.
+     * e salva a transferência no banco de dados. Com a gravação agrupada
+     * habilitada, a transferência é gravada junto com as de outras requisições
+     * e o método retorna após a confirmação da transação do grupo. Com o
+     * outbox habilitado, o evento AGENDADA é gravado na mesma transação.
+     *
+     * Dados inválidos não geram exceção: a rejeição é devolvida no resultado,
+     * com o código de cada violação.
      *
      * @param transferencia Dados da transferência, incluindo conta de origem,
      *                      conta de destino, valor e data de transferência.
-     * @return Transferencia Dados da transferência agendada, incluindo a taxa.
-     * @throws RuntimeException Em caso de validação ou falha interna.
+     * @return A transferência agendada, incluindo a taxa, ou as violações que a rejeitaram.
+     * @throws GravacaoIndisponivelException Se a fila da gravação agrupada estiver cheia
+     *                                       ou o limite diário não puder ser verificado.
+     * @throws RuntimeException Em caso de falha interna.
      */
-    public Transferencia agendarTransferencia(Transferencia transferencia) {
+    public ResultadoAgendamento agendarTransferencia(Transferencia transferencia) {
+        Timer.Sample amostra = metricas.iniciarAgendamento();
         try {
-            validarTransferencia(transferencia);
-
-            LocalDate dataAgendamento = LocalDate.now();
-            transferencia.setDataAgendamento(dataAgendamento);
-
-            int diasDiferenca = (int) ChronoUnit.DAYS.between(dataAgendamento, transferencia.getDataTransferencia());
-            BigDecimal taxa = calcularTaxa(diasDiferenca, transferencia.getValorTransferencia());
-            transferencia.setTaxa(taxa);
+            ResultadoValidacao validacao = prepararAgendamento(transferencia, LocalDate.now());
+            if (!validacao.isValida()) {
+                metricas.registrarAgendamento(amostra, TransferenciaMetricas.Resultado.REJEITADA);
+                logger.debug("Transferência rejeitada: {}", validacao.getMensagem());
+                return ResultadoAgendamento.rejeitada(validacao);
+            }
 
-            Transferencia salva = repository.save(transferencia);
+            Transferencia salva;
+            if (gravacaoAgrupada != null) {
+                try {
+                    salva = gravacaoAgrupada.gravar(transferencia);
+                } catch (GravacaoIndisponivelException e) {
+                    agregadoContas.estornar(transferencia);
+                    throw e;
+                }
+            } else {
+                try {
+                    salva = gravar(transferencia);
+                } catch (RuntimeException e) {
+                    agregadoContas.estornar(transferencia);
+                    throw e;
+                }
+                cachePorData.invalidar(salva.getDataTransferencia());
+            }
             logger.info("Transferência salva com sucesso: ID = {}", salva.getId());
-            return salva;
-        } catch (IllegalArgumentException e) {
-            logger.error("Erro de validação ao agendar transferência: {}", e.getMessage(), e);
-            throw new RuntimeException("Erro de validação: " + e.getMessage(), e);
+            metricas.registrarAgendamento(amostra, TransferenciaMetricas.Resultado.SUCESSO);
+            return ResultadoAgendamento.aceita(salva);
+        } catch (GravacaoIndisponivelException e) {
+            metricas.registrarAgendamento(amostra, TransferenciaMetricas.Resultado.ERRO);
+            logger.warn("Transferência recusada: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
+            metricas.registrarAgendamento(amostra, TransferenciaMetricas.Resultado.ERRO);
             logger.error("Erro ao agendar a transferência: {}", e.getMessage(), e);
             throw new RuntimeException("Erro interno: " + e.getMessage(), e);
         }
     }
 
+    private Transferencia gravar(Transferencia transferencia) {
+        if (eventos == null) {
+            return repository.save(transferencia);
+        }
+        return transactionOperations.execute(status -> {
+            Transferencia salva = repository.save(transferencia);
+            eventos.registrar(List.of(salva), StatusTransferencia.AGENDADA);
+            return salva;
+        });
+    }
+
     /**
-     * Valida os dados da transferência para garantir que estejam corretos.
-     * Regras de validação:
-     * - Conta de origem e destino não podem ser iguais.
-     * - O valor da transferência deve ser maior que zero.
+     * Valida a transferência e preenche a data de agendamento e a taxa,
+     * deixando-a pronta para ser persistida. O identificador é sempre gerado
+     * pela aplicação no momento da persistência; um id ou status enviado pelo
+     * cliente é descartado. Por último, o valor é reservado no limite diário
+     * da conta de origem; se a transferência não for gravada, a reserva deve
+     * ser desfeita com {@link AgregadoDiarioContas#estornar(Transferencia)}.
+     * Cada transferência rejeitada é contabilizada uma vez, pelo código da
+     * primeira violação.
      *
-     * @param transferencia Dados da transferência a serem validados.
-     * @throws IllegalArgumentException Se as regras de validação forem violadas.
+     * @param transferencia   Dados da transferência a serem preparados.
+     * @param dataAgendamento Data considerada como data de agendamento.
+     * @return {@link ResultadoValidacao#VALIDA} se a transferência estiver pronta
+     *         para ser persistida, ou as violações das regras de validação, da
+     *         tabela de taxas ou do limite diário da conta.
      */
-    private void validarTransferencia(Transferencia transferencia) {
-        if (transferencia.getContaOrigem().equals(transferencia.getContaDestino())) {
-            throw new IllegalArgumentException("Conta de origem e destino não podem ser iguais.");
+    ResultadoValidacao prepararAgendamento(Transferencia transferencia, LocalDate dataAgendamento) {
+        ResultadoValidacao validacao = validarTransferencia(transferencia, dataAgendamento);
+        if (validacao.isValida()) {
+            validacao = calcularEReservar(transferencia, dataAgendamento);
+        }
+        if (!validacao.isValida()) {
+            metricas.registrarRejeicao(validacao.getMotivo());
         }
-        if (transferencia.getValorTransferencia().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("O valor da transferência deve ser maior que zero.");
+        return validacao;
+    }
+
+    private ResultadoValidacao calcularEReservar(Transferencia transferencia, LocalDate dataAgendamento) {
+        transferencia.setId(null);
+        transferencia.setDataAgendamento(dataAgendamento);
+        transferencia.setStatus(StatusTransferencia.AGENDADA);
+        transferencia.setAtualizadoEm(null);
+
+        int diasDiferenca = (int) ChronoUnit.DAYS.between(dataAgendamento, transferencia.getDataTransferencia());
+        try {
+            long inicio = System.nanoTime();
+            BigDecimal taxa = calcularTaxa(diasDiferenca, transferencia.getValorTransferencia());
+            metricas.registrarCalculoTaxa(diasDiferenca, System.nanoTime() - inicio);
+            transferencia.setTaxa(taxa);
+        } catch (TransferenciaInvalidaException e) {
+            // A tabela de taxas foi substituída por outra menor após a validação.
+            return ResultadoValidacao.rejeitada(e.getMotivo(), "dataTransferencia", e.getMessage());
+        }
+
+        if (!agregadoContas.reservar(transferencia)) {
+            return ResultadoValidacao.rejeitada(MotivoRejeicao.LIMITE_DIARIO_EXCEDIDO, "valorTransferencia",
+                    "Limite diário da conta de origem excedido para " + transferencia.getDataTransferencia() + ".");
         }
+        return ResultadoValidacao.VALIDA;
     }
 
     /**
-     * Retorna todas as transferências cadastradas no banco de dados.
+     * Valida os dados da transferência em uma única passagem, sem exceções.
+     * Verifica as restrições de {@link Transferencia} (campos obrigatórios,
+     * tamanho das contas, valor mínimo e data futura), se as contas de origem
+     * e destino são diferentes e se a tabela de taxas atende a data.
      *
-     * @return Lista contendo todas as transferências registradas.
+     * @param transferencia   Dados da transferência a serem validados.
+     * @param dataAgendamento Data considerada como data de agendamento.
+     * @return {@link ResultadoValidacao#VALIDA} ou todas as violações encontradas.
+     * @see ValidadorTransferencia
+     */
+    public ResultadoValidacao validarTransferencia(Transferencia transferencia, LocalDate dataAgendamento) {
+        return ValidadorTransferencia.validar(transferencia, dataAgendamento);
+    }
+
+    /**
+     * Retorna uma página das transferências cadastradas, ordenadas por
+     * (dataTransferencia, id), usando paginação por chave.
+     *
+     * @param cursor Token da página anterior, ou {@code null} para a primeira página.
+     * @param limite Quantidade máxima de transferências na página.
+     * @return Página com as transferências e o cursor da próxima página, se houver.
+     * @throws IllegalArgumentException Se o cursor for inválido.
      * @throws RuntimeException Em caso de falha ao acessar o banco de dados.
      */
-    public List<Transferencia> listarTransferencias() {
+    @Transactional(readOnly = true)
+    public PaginaTransferencias listarTransferencias(String cursor, int limite) {
+        CursorPaginacao posicao = cursor == null || cursor.isBlank() ? null : CursorPaginacao.decodificar(cursor);
         try {
-            return repository.findAll();
+            Pageable pagina = PageRequest.of(0, limite + 1);
+            List<Transferencia> transferencias = posicao == null
+                    ? repository.findAllByOrderByDataTransferenciaAscIdAsc(pagina)
+                    : repository.buscarPaginaApos(posicao.getDataTransferencia(), posicao.getId(), pagina);
+
+            return paginar(transferencias, limite);
         } catch (Exception e) {
             throw new RuntimeException("Erro ao listar transferências: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Retorna uma página das transferências de um período, ordenadas por
+     * (dataTransferencia, id), usando paginação por chave.
+     *
+     * @param de     Data inicial (inclusiva).
+     * @param ate    Data final (inclusiva).
+     * @param cursor Token da página anterior, ou {@code null} para a primeira página.
+     * @param limite Quantidade máxima de transferências na página.
+     * @return Página com as transferências e o cursor da próxima página, se houver.
+     * @throws IllegalArgumentException Se o cursor for inválido.
+     * @throws RuntimeException Em caso de falha ao acessar o banco de dados.
+     */
+    @Transactional(readOnly = true)
+    public PaginaTransferencias listarPeriodo(LocalDate de, LocalDate ate, String cursor, int limite) {
+        CursorPaginacao posicao = cursor == null || cursor.isBlank() ? null : CursorPaginacao.decodificar(cursor);
+        try {
+            Pageable pagina = PageRequest.of(0, limite + 1);
+            List<Transferencia> transferencias = posicao == null
+                    ? repository.buscarPeriodo(de, ate, pagina)
+                    : repository.buscarPeriodoApos(de, ate, posicao.getDataTransferencia(), posicao.getId(), pagina);
+            return paginar(transferencias, limite);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao listar transferências do período: " + e.getMessage(), e);
+        }
+    }
+
+    private static PaginaTransferencias paginar(List<Transferencia> transferencias, int limite) {
+        if (transferencias.size() <= limite) {
+            return new PaginaTransferencias(transferencias, null);
+        }
+        List<Transferencia> itens = transferencias.subList(0, limite);
+        Transferencia ultima = itens.get(limite - 1);
+        String proximoCursor = new CursorPaginacao(ultima.getDataTransferencia(), ultima.getId()).codificar();
+        return new PaginaTransferencias(itens, proximoCursor);
+    }
+
+    /**
+     * Percorre todas as transferências cadastradas sem carregá-las de uma vez
+     * em memória. Cada transferência é entregue ao consumidor e em seguida
+     * desanexada do contexto de persistência, mantendo o uso de memória
+     * constante independentemente do tamanho da tabela.
+     *
+     * @param consumidor Recebe cada transferência, na ordem (dataTransferencia, id).
+     * @return Quantidade de transferências entregues.
+     * @throws RuntimeException Em caso de falha ao acessar o banco de dados.
+     */
+    @Transactional(readOnly = true)
+    public long transmitirTransferencias(Consumer<Transferencia> consumidor) {
+        return percorrer(repository.streamTodas(), consumidor);
+    }
+
+    /**
+     * Percorre as transferências de um período com um cursor no servidor, com
+     * uso de memória constante, da mesma forma que
+     * {@link #transmitirTransferencias(Consumer)}.
+     *
+     * @param de         Data inicial (inclusiva).
+     * @param ate        Data final (inclusiva).
+     * @param consumidor Recebe cada transferência, na ordem (dataTransferencia, id).
+     * @return Quantidade de transferências entregues.
+     * @throws RuntimeException Em caso de falha ao acessar o banco de dados.
+     */
+    @Transactional(readOnly = true)
+    public long transmitirPeriodo(LocalDate de, LocalDate ate, Consumer<Transferencia> consumidor) {
+        return percorrer(repository.streamPeriodo(de, ate), consumidor);
+    }
+
+    private long percorrer(Stream<Transferencia> stream, Consumer<Transferencia> consumidor) {
+        long quantidade = 0;
+        try (Stream<Transferencia> transferencias = stream) {
+            Iterator<Transferencia> iterador = transferencias.iterator();
+            while (iterador.hasNext()) {
+                Transferencia transferencia = iterador.next();
+                consumidor.accept(transferencia);
+                entityManager.detach(transferencia);
+                quantidade++;
+            }
+        }
+        return quantidade;
+    }
+
+    /**
+     * Busca uma transferência pelo identificador, consultando antes o cache
+     * de segundo nível do Hibernate.
+     *
+     * @param id Identificador da transferência.
+     * @return A transferência, ou vazio se não existir.
+     * @throws RuntimeException Em caso de falha no acesso ao banco de dados.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Transferencia> buscarPorId(UUID id) {
+        try {
+            return repository.findById(id);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao buscar a transferência: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Busca as transferências de uma conta de origem, em uma data ou de hoje
+     * em diante.
+     *
+     * @param conta  Conta de origem.
+     * @param data   Data da transferência, ou {@code null} para todas a partir de hoje.
+     * @param limite Quantidade máxima de transferências.
+     * @return Transferências da conta, ordenadas por (dataTransferencia, id).
+     * @throws RuntimeException Em caso de falha no acesso ao banco de dados.
+     */
+    @Transactional(readOnly = true)
+    public List<Transferencia> buscarPorConta(String conta, LocalDate data, int limite) {
+        try {
+            Pageable pagina = PageRequest.of(0, limite);
+            return data == null
+                    ? repository.buscarPorContaDesde(conta, LocalDate.now(), pagina)
+                    : repository.findByContaOrigemAndDataTransferenciaOrderByIdAsc(conta, data, pagina);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao buscar transferências da conta: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Retorna o total agendado por uma conta de origem em uma data, somado no
+     * banco: o agregado em memória inclui reservas ainda não confirmadas e,
+     * com várias instâncias, apenas as da própria instância.
+     *
+     * @param conta Conta de origem.
+     * @param data  Data da transferência.
+     * @return Quantidade e valor agendados, com o limite diário configurado.
+     */
+    @Transactional(readOnly = true)
+    public TotalDiarioConta totalDiarioPorConta(String conta, LocalDate data) {
+        BigDecimal limiteDiario = agregadoContas.getLimiteDiario();
+        return repository.somarPorContaEData(conta, data)
+                .map(total -> new TotalDiarioConta(conta, data, total.getQuantidade(), total.getValorTotal(),
+                        limiteDiario))
+                .orElseGet(() -> new TotalDiarioConta(conta, data, 0, BigDecimal.ZERO, limiteDiario));
+    }
+
     /**
      * Busca transferências agendadas para uma data específica.
+     * O resultado é servido do cache por data enquanto nenhuma transferência
+     * nova for agendada para a mesma data.
      *
      * @param dataTransferencia Data de transferência no formato LocalDate.
      * @return Lista de transferências cadastradas para a data informada.
@@ -108,35 +394,49 @@ public class TransferenciaService {
      */
     public List<Transferencia> buscarPorDataTransferencia(LocalDate dataTransferencia) {
         try {
-            return repository.findByDataTransferencia(dataTransferencia);
+            return cachePorData.buscar(dataTransferencia, repository::findByDataTransferencia);
         } catch (Exception e) {
             throw new RuntimeException("Erro ao buscar transferências pela data: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Cota a taxa de uma transferência ainda não agendada, sem acessar o
+     * banco: valida o valor e a data com as regras do agendamento e calcula
+     * a taxa com {@link #calcularTaxa(int, BigDecimal)}. Não reserva o limite
+     * diário nem registra métricas de rejeição.
+     *
+     * @param valor           Valor da transferência.
+     * @param data            Data da transferência.
+     * @param dataAgendamento Data considerada como data de agendamento.
+     * @return Cotação com a taxa, ou com as violações do valor e da data.
+     */
+    public CotacaoTaxa cotarTaxa(BigDecimal valor, LocalDate data, LocalDate dataAgendamento) {
+        ResultadoValidacao validacao = ValidadorTransferencia.validarCotacao(valor, data, dataAgendamento);
+        if (!validacao.isValida()) {
+            return CotacaoTaxa.rejeitada(valor, data, validacao);
+        }
+        try {
+            return CotacaoTaxa.aceita(valor, data,
+                    calcularTaxa((int) ChronoUnit.DAYS.between(dataAgendamento, data), valor));
+        } catch (TransferenciaInvalidaException e) {
+            // A tabela de taxas foi substituída por outra menor após a validação.
+            return CotacaoTaxa.rejeitada(valor, data,
+                    ResultadoValidacao.rejeitada(e.getMotivo(), "dataTransferencia", e.getMessage()));
+        }
+    }
+
     /**
      * Calcula a taxa de transferência com base na diferença de dias
-     * entre a data de agendamento e a data de transferência.
+     * entre a data de agendamento e a data de transferência, usando a
+     * tabela de taxas em uso ({@link FeeSchedule#atual()}).
      *
      * @param diasDiferenca Diferença em dias entre as duas datas.
      * @param valor Valor da transferência.
      * @return BigDecimal Valor calculado da taxa.
-     * @throws IllegalArgumentException Se a diferença de dias for inválida.
+     * @throws TransferenciaInvalidaException Se não houver faixa para a diferença de dias.
      */
     public static BigDecimal calcularTaxa(int diasDiferenca, BigDecimal valor) {
-        if (diasDiferenca == 0) {
-            return valor.multiply(BigDecimal.valueOf(0.025)).add(BigDecimal.valueOf(3.00));
-        } else if (diasDiferenca <= 10) {
-            return BigDecimal.valueOf(12.00);
-        } else if (diasDiferenca <= 20) {
-            return valor.multiply(BigDecimal.valueOf(0.082));
-        } else if (diasDiferenca <= 30) {
-            return valor.multiply(BigDecimal.valueOf(0.069));
-        } else if (diasDiferenca <= 40) {
-            return valor.multiply(BigDecimal.valueOf(0.047));
-        } else if (diasDiferenca <= 50) {
-            return valor.multiply(BigDecimal.valueOf(0.017));
-        }
-        throw new IllegalArgumentException("Taxa não aplicável. Transferência não permitida.");
+        return FeeSchedule.atual().calcular(diasDiferenca, valor);
     }
 }
@@ -0,0 +1,119 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.ResultadoValidacao;
+import com.empresa.transferencias.dto.ResultadoValidacao.Violacao;
+import com.empresa.transferencias.exception.MotivoRejeicao;
+import com.empresa.transferencias.model.Transferencia;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validação de uma transferência em uma única passagem, sem reflexão e sem
+ * exceções: as restrições declaradas em {@link Transferencia} ({@code @NotNull},
+ * {@code @Size}, {@code @DecimalMin} e {@code @Future}), a regra de contas
+ * distintas e a existência de faixa na tabela de taxas são verificadas
+ * diretamente, e todas as violações são devolvidas em um
+ * {@link ResultadoValidacao}. As mensagens são as mesmas das anotações.
+ */
+public final class ValidadorTransferencia {
+
+    /** Quantidade de caracteres de uma conta. */
+    public static final int TAMANHO_CONTA = 6;
+
+    private static final BigDecimal VALOR_MINIMO = new BigDecimal("0.01");
+
+    private ValidadorTransferencia() {
+    }
+
+    /**
+     * Valida uma transferência.
+     *
+     * @param transferencia   Transferência a ser validada.
+     * @param dataAgendamento Data considerada como hoje; a data da transferência deve ser posterior.
+     * @return {@link ResultadoValidacao#VALIDA} ou o resultado com todas as violações encontradas.
+     */
+    public static ResultadoValidacao validar(Transferencia transferencia, LocalDate dataAgendamento) {
+        List<Violacao> violacoes = null;
+
+        String origem = transferencia.getContaOrigem();
+        if (origem == null) {
+            violacoes = adicionar(violacoes, MotivoRejeicao.CAMPO_OBRIGATORIO, "contaOrigem",
+                    "Conta de origem é obrigatória.");
+        } else if (origem.length() != TAMANHO_CONTA) {
+            violacoes = adicionar(violacoes, MotivoRejeicao.CONTA_INVALIDA, "contaOrigem",
+                    "Conta de origem deve ter exatamente 6 caracteres.");
+        }
+
+        String destino = transferencia.getContaDestino();
+        if (destino == null) {
+            violacoes = adicionar(violacoes, MotivoRejeicao.CAMPO_OBRIGATORIO, "contaDestino",
+                    "Conta de destino é obrigatória.");
+        } else if (destino.length() != TAMANHO_CONTA) {
+            violacoes = adicionar(violacoes, MotivoRejeicao.CONTA_INVALIDA, "contaDestino",
+                    "Conta de destino deve ter exatamente 6 caracteres.");
+        } else if (destino.equals(origem)) {
+            violacoes = adicionar(violacoes, MotivoRejeicao.CONTAS_IGUAIS, "contaDestino",
+                    "Conta de origem e destino não podem ser iguais.");
+        }
+
+        violacoes = validarValor(violacoes, transferencia.getValorTransferencia());
+        violacoes = validarData(violacoes, transferencia.getDataTransferencia(), dataAgendamento);
+
+        return ResultadoValidacao.de(violacoes);
+    }
+
+    /**
+     * Valida apenas os dados de que a taxa depende (valor e data), com as
+     * mesmas regras e mensagens do agendamento. Usado na cotação, em que as
+     * contas ainda não são conhecidas.
+     *
+     * @param valor           Valor da transferência.
+     * @param data            Data da transferência.
+     * @param dataAgendamento Data considerada como hoje; a data da transferência deve ser posterior.
+     * @return {@link ResultadoValidacao#VALIDA} ou o resultado com as violações encontradas.
+     */
+    public static ResultadoValidacao validarCotacao(BigDecimal valor, LocalDate data, LocalDate dataAgendamento) {
+        List<Violacao> violacoes = validarValor(null, valor);
+        violacoes = validarData(violacoes, data, dataAgendamento);
+        return ResultadoValidacao.de(violacoes);
+    }
+
+    private static List<Violacao> validarValor(List<Violacao> violacoes, BigDecimal valor) {
+        if (valor == null) {
+            return adicionar(violacoes, MotivoRejeicao.CAMPO_OBRIGATORIO, "valorTransferencia",
+                    "O valor da transferência é obrigatório.");
+        }
+        if (valor.compareTo(VALOR_MINIMO) < 0) {
+            return adicionar(violacoes, MotivoRejeicao.VALOR_INVALIDO, "valorTransferencia",
+                    "O valor da transferência deve ser maior que 0.");
+        }
+        return violacoes;
+    }
+
+    private static List<Violacao> validarData(List<Violacao> violacoes, LocalDate data, LocalDate dataAgendamento) {
+        if (data == null) {
+            return adicionar(violacoes, MotivoRejeicao.CAMPO_OBRIGATORIO, "dataTransferencia",
+                    "A data da transferência é obrigatória.");
+        }
+        if (!data.isAfter(dataAgendamento)) {
+            return adicionar(violacoes, MotivoRejeicao.DATA_INVALIDA, "dataTransferencia",
+                    "A data da transferência deve ser no futuro.");
+        }
+        if (ChronoUnit.DAYS.between(dataAgendamento, data) > FeeSchedule.atual().getDiasMaximos()) {
+            return adicionar(violacoes, MotivoRejeicao.TAXA_NAO_APLICAVEL, "dataTransferencia",
+                    "Taxa não aplicável. Transferência não permitida.");
+        }
+        return violacoes;
+    }
+
+    private static List<Violacao> adicionar(List<Violacao> violacoes, MotivoRejeicao codigo,
+                                            String campo, String mensagem) {
+        List<Violacao> lista = violacoes == null ? new ArrayList<>(4) : violacoes;
+        lista.add(new Violacao(codigo, campo, mensagem));
+        return lista;
+    }
+}
@@ -0,0 +1,39 @@
+-- Esquema equivalente ao que o Hibernate criava com ddl-auto=update.
+-- Em bancos ja existentes o baseline e registrado na versao 0
+-- (spring.flyway.baseline-on-migrate, baseline-version=0) e esta versao e
+-- executada sobre o esquema existente: todos os comandos sao idempotentes.
+
+create table if not exists transferencias (
+    id                  uuid          not null,
+    conta_origem        varchar(6)    not null,
+    conta_destino       varchar(6)    not null,
+    valor_transferencia numeric(19,2) not null,
+    taxa                numeric(19,2) not null,
+    data_transferencia  date          not null,
+    data_agendamento    date          not null,
+    status              varchar(12)   default 'AGENDADA' not null,
+    atualizado_em       timestamp,
+    primary key (id)
+);
+
+create index if not exists idx_transferencias_data_id on transferencias (data_transferencia, id);
+create index if not exists idx_transferencias_status_data on transferencias (status, data_transferencia);
+create index if not exists idx_transferencias_conta_data on transferencias (conta_origem, data_transferencia);
+
+create table if not exists idempotencia (
+    chave     varchar(100) not null,
+    rota      varchar(100) not null,
+    status    integer,
+    corpo     text,
+    criado_em timestamp    not null,
+    primary key (chave)
+);
+
+create table if not exists resumo_diario (
+    data           date          not null,
+    quantidade     bigint        not null,
+    valor_total    numeric(19,2) not null,
+    taxa_total     numeric(19,2) not null,
+    consolidado_em timestamp     not null,
+    primary key (data)
+);
@@ -0,0 +1,93 @@
+-- Particiona transferencias por mes de data_transferencia (particionamento
+-- nativo por faixa). As particoes seguem o nome transferencias_pAAAAMM; a
+-- particao padrao recebe apenas linhas fora das particoes ja criadas e deve
+-- permanecer vazia. A chave primaria inclui a coluna de particionamento,
+-- exigencia do PostgreSQL; o id continua unico por ser um UUID.
+
+create or replace function criar_particao_transferencias(mes date) returns text
+    language plpgsql
+    set search_path from current
+as $$
+declare
+    inicio date := date_trunc('month', mes)::date;
+    nome   text := 'transferencias_p' || to_char(inicio, 'YYYYMM');
+begin
+    if to_regclass(nome) is not null then
+        return null;
+    end if;
+    execute format('create table %I partition of transferencias for values from (%L) to (%L)',
+                   nome, inicio, (inicio + interval '1 month')::date);
+    return nome;
+end;
+$$;
+
+create or replace function desanexar_particoes_transferencias(anteriores_a date, remover boolean) returns setof text
+    language plpgsql
+    set search_path from current
+as $$
+declare
+    particao record;
+begin
+    for particao in
+        select c.relname as nome
+        from pg_inherits i
+        join pg_class c on c.oid = i.inhrelid
+        where i.inhparent = 'transferencias'::regclass
+          and c.relname ~ '^transferencias_p[0-9]{6}$'
+          and to_date(substr(c.relname, 17), 'YYYYMM') < date_trunc('month', anteriores_a)
+        order by c.relname
+    loop
+        execute format('alter table transferencias detach partition %I', particao.nome);
+        if remover then
+            execute format('drop table %I', particao.nome);
+        end if;
+        return next particao.nome;
+    end loop;
+end;
+$$;
+
+alter table transferencias rename to transferencias_nao_particionada;
+drop index if exists idx_transferencias_data_id;
+drop index if exists idx_transferencias_status_data;
+drop index if exists idx_transferencias_conta_data;
+
+create table transferencias (
+    id                  uuid          not null,
+    conta_origem        varchar(6)    not null,
+    conta_destino       varchar(6)    not null,
+    valor_transferencia numeric(19,2) not null,
+    taxa                numeric(19,2) not null,
+    data_transferencia  date          not null,
+    data_agendamento    date          not null,
+    status              varchar(12)   default 'AGENDADA' not null,
+    atualizado_em       timestamp,
+    constraint pk_transferencias primary key (id, data_transferencia)
+) partition by range (data_transferencia);
+
+create table transferencias_padrao partition of transferencias default;
+
+create index idx_transferencias_data_id on transferencias (data_transferencia, id);
+create index idx_transferencias_status_data on transferencias (status, data_transferencia);
+create index idx_transferencias_conta_data on transferencias (conta_origem, data_transferencia);
+
+-- Particoes do primeiro mes com transferencias ate tres meses a frente; as
+-- seguintes sao criadas pela aplicacao (ParticionamentoTransferencias).
+do $$
+declare
+    mes date := date_trunc('month', coalesce((select min(data_transferencia) from transferencias_nao_particionada),
+                                             current_date))::date;
+begin
+    while mes <= date_trunc('month', current_date + interval '3 months') loop
+        perform criar_particao_transferencias(mes);
+        mes := (mes + interval '1 month')::date;
+    end loop;
+end;
+$$;
+
+insert into transferencias (id, conta_origem, conta_destino, valor_transferencia, taxa, data_transferencia,
+                            data_agendamento, status, atualizado_em)
+select id, conta_origem, conta_destino, valor_transferencia, taxa, data_transferencia,
+       data_agendamento, status, atualizado_em
+from transferencias_nao_particionada;
+
+drop table transferencias_nao_particionada;
@@ -0,0 +1,19 @@
+-- Outbox transacional: cada mudanca de transferencia grava um evento na
+-- mesma transacao. A sequencia ordena os eventos e e a posicao usada pelos
+-- consumidores (offsets_consumidor).
+
+create table if not exists eventos_transferencia (
+    sequencia        bigint generated by default as identity,
+    transferencia_id uuid        not null,
+    tipo             varchar(12) not null,
+    dados            text        not null,
+    criado_em        timestamp   not null,
+    primary key (sequencia)
+);
+
+create table if not exists offsets_consumidor (
+    consumidor    varchar(100) not null,
+    sequencia     bigint       not null,
+    atualizado_em timestamp    not null,
+    primary key (consumidor)
+);
@@ -0,0 +1,23 @@
+-- Sequencia de publicacao dos eventos, atribuida depois do commit pelo
+-- EventosTransferencia, em ordem e sem lacunas. A coluna sequencia (identity)
+-- segue a ordem dos inserts, e transacoes concorrentes confirmam fora dessa
+-- ordem; os consumidores passam a usar publicacao como posicao.
+--
+-- Os eventos existentes recebem publicacao = sequencia, para que as posicoes
+-- ja gravadas em offsets_consumidor continuem validas. A linha '#publicacao'
+-- de offsets_consumidor guarda a ultima sequencia atribuida e serializa a
+-- numeracao entre instancias.
+
+alter table eventos_transferencia add column if not exists publicacao bigint;
+
+update eventos_transferencia set publicacao = sequencia where publicacao is null;
+
+create unique index if not exists eventos_transferencia_publicacao
+    on eventos_transferencia (publicacao);
+
+create index if not exists eventos_transferencia_nao_numerados
+    on eventos_transferencia (sequencia) where publicacao is null;
+
+insert into offsets_consumidor (consumidor, sequencia, atualizado_em)
+select '#publicacao', coalesce(max(sequencia), 0), now() from eventos_transferencia
+on conflict (consumidor) do nothing;
@@ -0,0 +1,72 @@
+package com.empresa.transferencias;
+
+import com.empresa.transferencias.repository.RoteamentoLeitura;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sobe o contexto com o pool de leitura apontando para outro banco H2, para
+ * verificar em qual banco cada transação é executada.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+		"transferencias.leitura.habilitada=true",
+		"spring.datasource.url=jdbc:h2:mem:primario;DB_CLOSE_DELAY=-1",
+		"spring.datasource.hikari.maximum-pool-size=4",
+		"transferencias.leitura.hikari.jdbc-url=jdbc:h2:mem:leitura;DB_CLOSE_DELAY=-1",
+		"transferencias.leitura.hikari.maximum-pool-size=6"
+})
+class LeituraReplicaTests {
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("dataSourcePrimario")
+	private HikariDataSource primario;
+
+	@Autowired
+	@Qualifier("dataSourceLeitura")
+	private HikariDataSource leitura;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private String banco(boolean somenteLeitura) {
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+		transacao.setReadOnly(somenteLeitura);
+		return transacao.execute(status ->
+				(String) entityManager.createNativeQuery("select database()").getSingleResult());
+	}
+
+	@Test
+	void poolsSaoDimensionadosSeparadamente() {
+		assertEquals(4, primario.getMaximumPoolSize());
+		assertEquals(6, leitura.getMaximumPoolSize());
+		assertEquals("primario", primario.getPoolName());
+		assertEquals("leitura", leitura.getPoolName());
+	}
+
+	@Test
+	void transacoesSomenteLeituraUsamOPoolDeLeitura() {
+		assertEquals("LEITURA", banco(true));
+		assertEquals("PRIMARIO", banco(false));
+	}
+
+	@Test
+	void leituraMarcadaParaOPrimarioUsaOPrimario() {
+		assertEquals("PRIMARIO", RoteamentoLeitura.noPrimario(() -> banco(true)));
+		assertEquals("LEITURA", banco(true));
+	}
+}
@@ -0,0 +1,60 @@
+package com.empresa.transferencias;
+
+import com.empresa.transferencias.dto.ResultadoAgendamento;
+import com.empresa.transferencias.model.EventoTransferencia;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import com.empresa.transferencias.repository.TransferenciaRepositoryEmMemoria;
+import com.empresa.transferencias.service.EventosTransferencia;
+import com.empresa.transferencias.service.TransferenciaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sobe o contexto com o perfil memoria: as transferências são gravadas e
+ * consultadas sem banco de dados.
+ */
+@ActiveProfiles({"test", "memoria"})
+@SpringBootTest
+class PerfilMemoriaTests {
+
+	@Autowired
+	private TransferenciaRepository repository;
+
+	@Autowired
+	private TransferenciaService service;
+
+	@Autowired
+	private EventosTransferencia eventos;
+
+	@Test
+	void agendamentoUsaOArmazenamentoEmMemoria() {
+		assertTrue(repository instanceof TransferenciaRepositoryEmMemoria);
+
+		Transferencia transferencia = new Transferencia();
+		transferencia.setContaOrigem("123456");
+		transferencia.setContaDestino("654321");
+		transferencia.setValorTransferencia(new BigDecimal("100.00"));
+		transferencia.setDataTransferencia(LocalDate.now().plusDays(5));
+		ResultadoAgendamento resultado = service.agendarTransferencia(transferencia);
+
+		assertTrue(resultado.isAceita());
+		assertEquals(1, service.buscarPorDataTransferencia(transferencia.getDataTransferencia()).size());
+		assertEquals(1, service.listarTransferencias(null, 10).getQuantidade());
+
+		eventos.numerarConfirmados();
+		List<EventoTransferencia> registrados = eventos.buscarApos(0, 10);
+		assertEquals(1, registrados.size());
+		assertEquals(resultado.getTransferencia().getId(), registrados.get(0).getTransferenciaId());
+		assertEquals(StatusTransferencia.AGENDADA, registrados.get(0).getTipo());
+	}
+}
@@ -0,0 +1,38 @@
+package com.empresa.transferencias;
+
+import com.empresa.transferencias.service.FeeSchedule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sobe o contexto com o perfil prod-fast. O H2 de teste não tem as tabelas
+ * do Flyway, por isso a validação do esquema é desligada aqui.
+ */
+@ActiveProfiles({"test", "prod-fast"})
+@SpringBootTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+class PerfilProdFastTests {
+
+	@Autowired
+	private ConfigurableApplicationContext contexto;
+
+	@Test
+	void beansDeInicializacaoSaoCriadosEOsDemaisSobDemanda() {
+		ConfigurableListableBeanFactory fabrica = contexto.getBeanFactory();
+
+		assertTrue(fabrica.containsSingleton("feeSchedule"));
+		assertTrue(fabrica.containsSingleton("transferenciaMetricas"));
+		assertTrue(fabrica.containsSingleton("agregadoDiarioContas"));
+		assertTrue(fabrica.containsSingleton("idempotenciaService"));
+		assertFalse(fabrica.containsSingleton("transferenciaController"));
+		assertFalse(fabrica.containsSingleton("transferenciaLoteService"));
+
+		contexto.getBean("transferenciaController");
+		assertSame(contexto.getBean(FeeSchedule.class), FeeSchedule.atual());
+	}
+}
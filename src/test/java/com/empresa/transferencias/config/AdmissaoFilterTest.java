@@ -0,0 +1,154 @@
+package com.empresa.transferencias.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissaoFilterTest {
+
+    private AdmissaoFilter filter;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ExecucaoProperties.Admissao admissao = new ExecucaoProperties.Admissao();
+        admissao.setMaximoConcorrentes(1);
+        admissao.setEsperaMaxima(Duration.ZERO);
+        admissao.setRetryAfterSegundos(2);
+        registry = new SimpleMeterRegistry();
+        filter = new AdmissaoFilter(admissao, registry);
+    }
+
+    private MockHttpServletRequest requisicao(String metodo) {
+        return new MockHttpServletRequest(metodo, "/api/transferencias");
+    }
+
+    private double emUso() {
+        return registry.get("transferencias.admissao.em.uso").gauge().value();
+    }
+
+    @Test
+    void testRecusaQuandoNaoHaVaga() throws Exception {
+        MockHttpServletResponse recusada = new MockHttpServletResponse();
+        FilterChain ocupaVaga = (req, res) -> filter.doFilter(requisicao("POST"), recusada, new MockFilterChain());
+
+        MockHttpServletResponse aceita = new MockHttpServletResponse();
+        filter.doFilter(requisicao("POST"), aceita, ocupaVaga);
+
+        assertEquals(200, aceita.getStatus());
+        assertEquals(503, recusada.getStatus());
+        assertEquals("2", recusada.getHeader("Retry-After"));
+        assertEquals(1.0, registry.get("transferencias.admissao.recusas").counter().count());
+        assertEquals(0.0, emUso());
+    }
+
+    @Test
+    void testLiberaVagaAoFinalDaRequisicao() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(requisicao("GET"), response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+        assertEquals(0.0, registry.get("transferencias.admissao.recusas").counter().count());
+    }
+
+    @Test
+    void testLiberaVagaMesmoComErroNoProcessamento() {
+        FilterChain falha = (req, res) -> {
+            throw new IllegalStateException("erro");
+        };
+
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(requisicao("POST"), new MockHttpServletResponse(), falha));
+        assertEquals(0.0, emUso());
+    }
+
+    @Test
+    void testRequisicaoAssincronaMantemVagaAteConcluir() throws Exception {
+        MockHttpServletRequest request = requisicao("GET");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        assertEquals(1.0, emUso());
+        MockAsyncContext contexto = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : contexto.getListeners()) {
+            listener.onComplete(new AsyncEvent(contexto));
+        }
+        assertEquals(0.0, emUso());
+    }
+
+    @Test
+    void testPreflightNaoPassaPeloControle() throws Exception {
+        MockHttpServletResponse recusada = new MockHttpServletResponse();
+        FilterChain preflight = (req, res) -> filter.doFilter(requisicao("OPTIONS"), recusada, new MockFilterChain());
+
+        filter.doFilter(requisicao("POST"), new MockHttpServletResponse(), preflight);
+
+        assertEquals(200, recusada.getStatus());
+    }
+
+    @Test
+    void testAcompanhamentoPorSseNaoOcupaVaga() throws Exception {
+        MockHttpServletRequest sse = new MockHttpServletRequest("GET", "/api/transferencias/eventos");
+        sse.addHeader("Accept", "text/event-stream");
+        sse.setAsyncSupported(true);
+
+        filter.doFilter(sse, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(0.0, emUso());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(requisicao("POST"), response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void testAcceptDeSseForaDoAcompanhamentoPassaPeloControle() throws Exception {
+        MockHttpServletRequest post = requisicao("POST");
+        post.addHeader("Accept", "text/event-stream");
+        MockHttpServletResponse recusada = new MockHttpServletResponse();
+        FilterChain ocupaVaga = (req, res) -> filter.doFilter(post, recusada, new MockFilterChain());
+
+        filter.doFilter(requisicao("POST"), new MockHttpServletResponse(), ocupaVaga);
+
+        assertEquals(503, recusada.getStatus());
+    }
+
+    @Test
+    void testCotacaoDeTaxaNaoPassaPeloControle() throws Exception {
+        MockHttpServletResponse cotacao = new MockHttpServletResponse();
+        FilterChain cotar = (req, res) -> filter.doFilter(
+                new MockHttpServletRequest("POST", "/api/transferencias/taxa"), cotacao, new MockFilterChain());
+
+        filter.doFilter(requisicao("POST"), new MockHttpServletResponse(), cotar);
+
+        assertEquals(200, cotacao.getStatus());
+    }
+
+    @Test
+    void testGravacaoAgrupadaAmpliaAsVagas() throws Exception {
+        ExecucaoProperties.Admissao admissao = new ExecucaoProperties.Admissao();
+        admissao.setMaximoConcorrentes(1);
+        admissao.setEsperaMaxima(Duration.ZERO);
+        filter = new AdmissaoFilter(ExecucaoConfig.ampliar(admissao, 1), new SimpleMeterRegistry());
+        MockHttpServletResponse segunda = new MockHttpServletResponse();
+        FilterChain ocupaVaga = (req, res) -> filter.doFilter(requisicao("POST"), segunda, new MockFilterChain());
+
+        filter.doFilter(requisicao("POST"), new MockHttpServletResponse(), ocupaVaga);
+
+        assertEquals(200, segunda.getStatus());
+        assertEquals(1, admissao.getMaximoConcorrentes());
+    }
+}
@@ -0,0 +1,101 @@
+package com.empresa.transferencias.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorsFilterTest {
+
+    private MockHttpServletRequest requisicao(String metodo, String origem) {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, "/api/transferencias");
+        if (origem != null) {
+            request.addHeader("Origin", origem);
+        }
+        return request;
+    }
+
+    @Test
+    void testOrigemComCuringaDePorta() throws Exception {
+        CorsFilter filter = new CorsFilter(new String[]{"http://localhost:*"}, 3600, 100);
+        MockHttpServletResponse permitida = new MockHttpServletResponse();
+        MockHttpServletResponse recusada = new MockHttpServletResponse();
+
+        filter.doFilter(requisicao("GET", "http://localhost:4200"), permitida, new MockFilterChain());
+        filter.doFilter(requisicao("GET", "http://localhost.evil.com"), recusada, new MockFilterChain());
+
+        assertEquals("http://localhost:4200", permitida.getHeader("Access-Control-Allow-Origin"));
+        assertEquals("Origin", permitida.getHeader("Vary"));
+        assertNull(recusada.getHeader("Access-Control-Allow-Origin"));
+    }
+
+    @Test
+    void testOrigemComCuringaDeSubdominio() throws Exception {
+        CorsFilter filter = new CorsFilter(new String[]{"https://*.empresa.com", "https://app.parceiro.com"}, 3600, 100);
+        MockHttpServletResponse subdominio = new MockHttpServletResponse();
+        MockHttpServletResponse exata = new MockHttpServletResponse();
+        MockHttpServletResponse outroHost = new MockHttpServletResponse();
+
+        filter.doFilter(requisicao("GET", "https://portal.empresa.com"), subdominio, new MockFilterChain());
+        filter.doFilter(requisicao("GET", "https://APP.parceiro.com"), exata, new MockFilterChain());
+        filter.doFilter(requisicao("GET", "https://evil.com/x.empresa.com"), outroHost, new MockFilterChain());
+
+        assertNotNull(subdominio.getHeader("Access-Control-Allow-Origin"));
+        assertNotNull(exata.getHeader("Access-Control-Allow-Origin"));
+        assertNull(outroHost.getHeader("Access-Control-Allow-Origin"));
+    }
+
+    @Test
+    void testPreflightRespondidoSemPassarPelaCadeia() throws Exception {
+        CorsFilter filter = new CorsFilter(new String[]{"*"}, 600, 100);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(requisicao("OPTIONS", "https://qualquer.com"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("600", response.getHeader("Access-Control-Max-Age"));
+        assertNotNull(response.getHeader("Access-Control-Allow-Methods"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testPreflightDeOrigemNaoPermitida() throws Exception {
+        CorsFilter filter = new CorsFilter(new String[]{"https://app.empresa.com"}, 3600, 100);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(requisicao("OPTIONS", "https://outra.com"), response, chain);
+
+        assertEquals(403, response.getStatus());
+        assertNull(response.getHeader("Access-Control-Max-Age"));
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testRequisicaoSemOrigemSegueACadeia() throws Exception {
+        CorsFilter filter = new CorsFilter(new String[]{"https://app.empresa.com"}, 3600, 100);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(requisicao("POST", null), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertNull(response.getHeader("Access-Control-Allow-Origin"));
+    }
+
+    @Test
+    void testSemOrigensConfiguradasRecusaTodas() throws Exception {
+        CorsFilter filter = new CorsFilter(new String[0], 3600, 100);
+        MockHttpServletResponse simples = new MockHttpServletResponse();
+        MockHttpServletResponse preflight = new MockHttpServletResponse();
+
+        filter.doFilter(requisicao("GET", "https://qualquer.com"), simples, new MockFilterChain());
+        filter.doFilter(requisicao("OPTIONS", "https://qualquer.com"), preflight, new MockFilterChain());
+
+        assertNull(simples.getHeader("Access-Control-Allow-Origin"));
+        assertEquals(403, preflight.getStatus());
+    }
+}
@@ -0,0 +1,105 @@
+package com.empresa.transferencias.config;
+
+import com.empresa.transferencias.repository.RoteamentoLeitura;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.Cookie;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeituraConsistenteFilterTest {
+
+    private final LeituraConsistenteFilter filter = new LeituraConsistenteFilter(Duration.ofSeconds(5));
+
+    private MockHttpServletRequest requisicao(String metodo) {
+        return new MockHttpServletRequest(metodo, "/api/transferencias");
+    }
+
+    private boolean executar(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        boolean[] primario = new boolean[1];
+        FilterChain chain = (req, res) -> primario[0] = RoteamentoLeitura.isPrimarioExigido();
+        filter.doFilter(request, response, chain);
+        assertFalse(RoteamentoLeitura.isPrimarioExigido());
+        return primario[0];
+    }
+
+    @Test
+    void testLeituraSemCookieUsaPoolDeLeitura() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(executar(requisicao("GET"), response));
+        assertNull(response.getHeader("Set-Cookie"));
+    }
+
+    @Test
+    void testGravacaoUsaPrimarioEDevolveCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long antes = System.currentTimeMillis();
+
+        assertTrue(executar(requisicao("POST"), response));
+
+        String cookie = response.getHeader("Set-Cookie");
+        assertNotNull(cookie);
+        assertTrue(cookie.startsWith(LeituraConsistenteFilter.COOKIE + "="));
+        assertTrue(cookie.contains("Max-Age=5"));
+        assertTrue(cookie.contains("Path=/api"));
+        long ate = Long.parseLong(cookie.substring(cookie.indexOf('=') + 1, cookie.indexOf(';')));
+        assertTrue(ate >= antes + 5_000);
+    }
+
+    @Test
+    void testJanelaContadaAPartirDaResposta() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long[] respondidoEm = new long[1];
+        FilterChain gravacaoDemorada = (req, res) -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respondidoEm[0] = System.currentTimeMillis();
+            res.getOutputStream().write('{');
+            assertNotNull(response.getHeader("Set-Cookie"));
+        };
+
+        filter.doFilter(requisicao("POST"), response, gravacaoDemorada);
+
+        String cookie = response.getHeader("Set-Cookie");
+        long ate = Long.parseLong(cookie.substring(cookie.indexOf('=') + 1, cookie.indexOf(';')));
+        assertTrue(ate >= respondidoEm[0] + 5_000);
+        assertEquals(1, response.getHeaders("Set-Cookie").size());
+    }
+
+    @Test
+    void testLeituraDentroDaJanelaUsaPrimario() throws Exception {
+        MockHttpServletRequest request = requisicao("GET");
+        request.setCookies(new Cookie(LeituraConsistenteFilter.COOKIE,
+                String.valueOf(System.currentTimeMillis() + 5_000)));
+
+        assertTrue(executar(request, new MockHttpServletResponse()));
+    }
+
+    @Test
+    void testLeituraComCookieExpiradoOuInvalidoUsaPoolDeLeitura() throws Exception {
+        MockHttpServletRequest expirado = requisicao("GET");
+        expirado.setCookies(new Cookie(LeituraConsistenteFilter.COOKIE,
+                String.valueOf(System.currentTimeMillis() - 1)));
+        MockHttpServletRequest invalido = requisicao("GET");
+        invalido.setCookies(new Cookie(LeituraConsistenteFilter.COOKIE, "amanha"));
+
+        assertFalse(executar(expirado, new MockHttpServletResponse()));
+        assertFalse(executar(invalido, new MockHttpServletResponse()));
+    }
+
+    @Test
+    void testCotacaoEmLoteNaoContaComoGravacao() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertFalse(executar(new MockHttpServletRequest("POST", "/api/transferencias/taxa"), response));
+        assertNull(response.getHeader("Set-Cookie"));
+    }
+}
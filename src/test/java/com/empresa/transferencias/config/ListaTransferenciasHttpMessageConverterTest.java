@@ -0,0 +1,100 @@
+package com.empresa.transferencias.config;
+
+import com.empresa.transferencias.dto.CampoTransferencia;
+import com.empresa.transferencias.dto.ListaTransferencias;
+import com.empresa.transferencias.dto.PaginaTransferencias;
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListaTransferenciasHttpMessageConverterTest {
+
+    private ObjectMapper objectMapper;
+    private ListaTransferenciasHttpMessageConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        // Mesma configuração de datas do ObjectMapper do Spring Boot.
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        converter = new ListaTransferenciasHttpMessageConverter(objectMapper.getFactory());
+    }
+
+    private Transferencia criarTransferencia() {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setId(UUID.randomUUID());
+        transferencia.setContaOrigem("123456");
+        transferencia.setContaDestino("654321");
+        transferencia.setValorTransferencia(new BigDecimal("1500.00"));
+        transferencia.setTaxa(new BigDecimal("12.0"));
+        transferencia.setDataTransferencia(LocalDate.of(2030, 1, 10));
+        transferencia.setDataAgendamento(LocalDate.of(2030, 1, 1));
+        transferencia.setStatus(StatusTransferencia.CONCLUIDA);
+        transferencia.setAtualizadoEm(Instant.parse("2030-01-10T08:00:00.123Z"));
+        return transferencia;
+    }
+
+    private String escrever(ListaTransferencias lista) throws IOException {
+        MockHttpOutputMessage saida = new MockHttpOutputMessage();
+        converter.write(lista, null, saida);
+        return saida.getBodyAsString();
+    }
+
+    @Test
+    void testSemProjecaoEscreveOMesmoJsonQueOJackson() throws IOException {
+        Transferencia completa = criarTransferencia();
+        Transferencia vazia = new Transferencia();
+        vazia.setStatus(null);
+        List<Transferencia> transferencias = List.of(completa, vazia);
+
+        String json = escrever(ListaTransferencias.de(new PaginaTransferencias(transferencias, "abc"),
+                CampoTransferencia.TODOS));
+
+        assertEquals(objectMapper.writeValueAsString(new PaginaTransferencias(transferencias, "abc")), json);
+    }
+
+    @Test
+    void testProjecaoEscreveApenasOsCamposSelecionados() throws IOException {
+        Transferencia transferencia = criarTransferencia();
+
+        String json = escrever(ListaTransferencias.de(List.of(transferencia),
+                CampoTransferencia.projecao("valorTransferencia, id")));
+
+        assertEquals("{\"quantidade\":1,\"transferencias\":[{\"id\":\"" + transferencia.getId()
+                + "\",\"valorTransferencia\":1500.00}]}", json);
+    }
+
+    @Test
+    void testTotaisPorDiaSaoEscritosAposAsTransferencias() throws IOException {
+        List<TotalDiario> totais = List.of(new TotalDiario(LocalDate.of(2030, 1, 10), 2L,
+                new BigDecimal("300.00"), new BigDecimal("24.0")));
+
+        String json = escrever(ListaTransferencias.de(new PaginaTransferencias(List.of(), null),
+                CampoTransferencia.TODOS, totais));
+
+        assertEquals("{\"quantidade\":0,\"transferencias\":[],\"totaisPorDia\":[{\"data\":\"2030-01-10\","
+                + "\"quantidade\":2,\"valorTotal\":300.00,\"taxaTotal\":24.0}]}", json);
+    }
+
+    @Test
+    void testProjecaoComCampoDesconhecido() {
+        assertThrows(IllegalArgumentException.class, () -> CampoTransferencia.projecao("id,senha"));
+        assertSame(CampoTransferencia.TODOS, CampoTransferencia.projecao(" "));
+    }
+}
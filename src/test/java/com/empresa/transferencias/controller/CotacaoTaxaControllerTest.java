@@ -0,0 +1,102 @@
+package com.empresa.transferencias.controller;
+
+import com.empresa.transferencias.dto.CotacaoTaxa;
+import com.empresa.transferencias.exception.MotivoRejeicao;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import com.empresa.transferencias.service.TransferenciaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CotacaoTaxaControllerTest {
+
+    private static final LocalDate DATA = LocalDate.now().plusDays(12);
+
+    private CotacaoTaxaController controller;
+
+    @BeforeEach
+    void setUp() {
+        TransferenciaService service = new TransferenciaService(Mockito.mock(TransferenciaRepository.class),
+                null, null, null, null, null, null);
+        controller = new CotacaoTaxaController(service, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    private static InputStream corpo(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCotarRetornaATaxaDoAgendamento() {
+        ResponseEntity<?> response = controller.cotar("250.00", DATA.toString());
+
+        assertEquals(200, response.getStatusCodeValue());
+        CotacaoTaxa cotacao = (CotacaoTaxa) response.getBody();
+        assertEquals(TransferenciaService.calcularTaxa(12, new BigDecimal("250.00")), cotacao.getTaxa());
+        assertEquals(DATA, cotacao.getDataTransferencia());
+    }
+
+    @Test
+    void testCotarComParametrosInvalidosRetorna400() {
+        assertEquals(400, controller.cotar("abc", DATA.toString()).getStatusCodeValue());
+        assertEquals(400, controller.cotar("250.00", "amanha").getStatusCodeValue());
+
+        ResponseEntity<?> response = controller.cotar("0", LocalDate.now().toString());
+
+        assertEquals(400, response.getStatusCodeValue());
+        Map<?, ?> corpo = (Map<?, ?>) response.getBody();
+        assertTrue(corpo.get("erro").toString().startsWith("Erro de validação: valorTransferencia: "));
+        assertEquals(2, ((List<?>) corpo.get("violacoes")).size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCotarLoteRespondeCadaItemNaOrdem() throws IOException {
+        String json = "[{\"valorTransferencia\":100.00,\"dataTransferencia\":\"" + DATA + "\"},"
+                + "{\"valorTransferencia\":100.00,\"dataTransferencia\":\"" + LocalDate.now().plusDays(90) + "\"},"
+                + "null]";
+
+        ResponseEntity<?> response = controller.cotarLote(corpo(json));
+
+        assertEquals(200, response.getStatusCodeValue());
+        List<CotacaoTaxa> cotacoes = (List<CotacaoTaxa>) response.getBody();
+        assertEquals(3, cotacoes.size());
+        assertNotNull(cotacoes.get(0).getTaxa());
+        assertEquals(MotivoRejeicao.TAXA_NAO_APLICAVEL, cotacoes.get(1).getViolacoes().get(0).getCodigo());
+        assertFalse(cotacoes.get(2).isValida());
+    }
+
+    @Test
+    void testCotarLoteAcimaDoLimiteRetorna400SemLerORestante() throws IOException {
+        // O item 1002 é inválido: a leitura precisa parar no 1001.
+        String json = "[" + String.join(",", Collections.nCopies(1001, "{}")) + ",{isto nao e json}]";
+
+        ResponseEntity<?> response = controller.cotarLote(corpo(json));
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("A quantidade de cotações deve ser no máximo 1000.",
+                ((Map<?, ?>) response.getBody()).get("erro"));
+        assertEquals(200, controller.cotarLote(
+                corpo("[" + String.join(",", Collections.nCopies(1000, "{}")) + "]")).getStatusCodeValue());
+    }
+
+    @Test
+    void testCotarLoteComCorpoInvalidoRetorna400() throws IOException {
+        assertEquals(400, controller.cotarLote(corpo("{}")).getStatusCodeValue());
+        assertEquals(400, controller.cotarLote(corpo("[{}, 12")).getStatusCodeValue());
+    }
+}
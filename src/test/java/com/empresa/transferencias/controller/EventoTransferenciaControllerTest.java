@@ -0,0 +1,90 @@
+package com.empresa.transferencias.controller;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.service.AcompanhamentoEventos;
+import com.empresa.transferencias.service.EventosTransferencia;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventoTransferenciaControllerTest {
+
+    private EventoTransferenciaController controller;
+    private EventosTransferencia eventos;
+    private AcompanhamentoEventos acompanhamento;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        eventos = Mockito.mock(EventosTransferencia.class);
+        acompanhamento = Mockito.mock(AcompanhamentoEventos.class);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        controller = new EventoTransferenciaController(eventos, acompanhamento, objectMapper);
+    }
+
+    private static EventoTransferencia evento(long sequencia, StatusTransferencia tipo) {
+        EventoTransferencia evento = new EventoTransferencia(UUID.randomUUID(), tipo,
+                "{\"contaOrigem\":\"123456\"}", Instant.parse("2030-01-10T12:00:00Z"));
+        evento.setSequencia(sequencia);
+        return evento;
+    }
+
+    @Test
+    void testListarEventosEscreveUmEventoPorLinha() throws Exception {
+        when(eventos.buscarApos(10, 100)).thenReturn(List.of(
+                evento(11, StatusTransferencia.AGENDADA), evento(12, StatusTransferencia.CONCLUIDA)));
+
+        ResponseEntity<StreamingResponseBody> response = controller.listarEventos(10, 100);
+
+        assertEquals(200, response.getStatusCodeValue());
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        response.getBody().writeTo(saida);
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals(11, objectMapper.readTree(linhas[0]).get("sequencia").asLong());
+        assertEquals("CONCLUIDA", objectMapper.readTree(linhas[1]).get("tipo").asText());
+        assertEquals("123456", objectMapper.readTree(linhas[1]).get("dados").get("contaOrigem").asText());
+    }
+
+    @Test
+    void testListarEventosComLimiteInvalido() {
+        assertEquals(400, controller.listarEventos(0, 0).getStatusCodeValue());
+        assertEquals(400, controller.listarEventos(-1, 10).getStatusCodeValue());
+        verifyNoInteractions(eventos);
+    }
+
+    @Test
+    void testAcompanharRetomaDoUltimoEventoRecebido() {
+        SseEmitter emissor = new SseEmitter();
+        when(acompanhamento.acompanhar(42)).thenReturn(emissor);
+
+        ResponseEntity<SseEmitter> response = controller.acompanharEventos(0, "42");
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(emissor, response.getBody());
+        assertEquals(400, controller.acompanharEventos(0, "abc").getStatusCodeValue());
+    }
+
+    @Test
+    void testEventosDesabilitados() {
+        EventoTransferenciaController desabilitado = new EventoTransferenciaController(null, null, objectMapper);
+
+        assertEquals(404, desabilitado.listarEventos(0, 10).getStatusCodeValue());
+        assertEquals(404, desabilitado.acompanharEventos(0, null).getStatusCodeValue());
+    }
+}
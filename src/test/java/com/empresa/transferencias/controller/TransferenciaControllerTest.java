@@ -1,17 +1,38 @@
 package com.empresa.transferencias.controller;
 
+import com.empresa.transferencias.dto.ListaTransferencias;
+import com.empresa.transferencias.dto.PaginaTransferencias;
+import com.empresa.transferencias.dto.ResultadoAgendamento;
+import com.empresa.transferencias.dto.ResultadoValidacao;
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.exception.GravacaoIndisponivelException;
+import com.empresa.transferencias.exception.MotivoRejeicao;
 import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.RegistroIdempotenciaRepository;
+import com.empresa.transferencias.service.IdempotenciaService;
+import com.empresa.transferencias.service.ResumoDiarioService;
 import com.empresa.transferencias.service.TransferenciaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,12 +41,17 @@ class TransferenciaControllerTest {
 
     private TransferenciaController controller;
     private TransferenciaService service;
+    private ResumoDiarioService resumoDiario;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.initMocks(this);
         service = Mockito.mock(TransferenciaService.class);
-        controller = new TransferenciaController(service);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        IdempotenciaService idempotencia = new IdempotenciaService(Mockito.mock(RegistroIdempotenciaRepository.class),
+                objectMapper, 1_000, Duration.ofHours(1), Duration.ofSeconds(1), Duration.ofMinutes(15), new SimpleMeterRegistry());
+        resumoDiario = Mockito.mock(ResumoDiarioService.class);
+        controller = new TransferenciaController(service, idempotencia, resumoDiario, objectMapper);
     }
 
     @Test
@@ -44,15 +70,66 @@ class TransferenciaControllerTest {
         transferenciaAgendada.setDataTransferencia(LocalDate.now().plusDays(10));
         transferenciaAgendada.setTaxa(new BigDecimal("12.00"));
 
-        when(service.agendarTransferencia(any(Transferencia.class))).thenReturn(transferenciaAgendada);
+        when(service.agendarTransferencia(any(Transferencia.class)))
+                .thenReturn(ResultadoAgendamento.aceita(transferenciaAgendada));
 
-        ResponseEntity<?> response = controller.agendarTransferencia(transferencia);
+        ResponseEntity<?> response = controller.agendarTransferencia(transferencia, null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         verify(service, times(1)).agendarTransferencia(any(Transferencia.class));
     }
 
+    @Test
+    void testAgendarTransferenciaRepetidaComMesmaChave() {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setDataTransferencia(LocalDate.now().plusDays(10));
+        Transferencia transferenciaAgendada = new Transferencia();
+        transferenciaAgendada.setId(UUID.randomUUID());
+        when(service.agendarTransferencia(any(Transferencia.class)))
+                .thenReturn(ResultadoAgendamento.aceita(transferenciaAgendada));
+
+        ResponseEntity<?> original = controller.agendarTransferencia(transferencia, "chave-1");
+        ResponseEntity<?> repetida = controller.agendarTransferencia(transferencia, "chave-1");
+
+        assertEquals(200, original.getStatusCodeValue());
+        assertEquals(200, repetida.getStatusCodeValue());
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotenciaService.CABECALHO_REPETICAO));
+        assertTrue(repetida.getBody().toString().contains(transferenciaAgendada.getId().toString()));
+        verify(service, times(1)).agendarTransferencia(any(Transferencia.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testAgendarTransferenciaRejeitadaRetorna400ComAsViolacoes() {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setDataTransferencia(LocalDate.now().plusDays(10));
+        when(service.agendarTransferencia(any(Transferencia.class))).thenReturn(ResultadoAgendamento.rejeitada(
+                ResultadoValidacao.rejeitada(MotivoRejeicao.CONTAS_IGUAIS, "contaDestino",
+                        "Conta de origem e destino não podem ser iguais.")));
+
+        ResponseEntity<?> response = controller.agendarTransferencia(transferencia, null);
+
+        assertEquals(400, response.getStatusCodeValue());
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        List<ResultadoValidacao.Violacao> violacoes = (List<ResultadoValidacao.Violacao>) body.get("violacoes");
+        assertEquals(MotivoRejeicao.CONTAS_IGUAIS, violacoes.get(0).getCodigo());
+        assertEquals("contaDestino", violacoes.get(0).getCampo());
+    }
+
+    @Test
+    void testAgendarTransferenciaComFilaDeGravacaoCheiaRetorna503() {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setDataTransferencia(LocalDate.now().plusDays(10));
+        when(service.agendarTransferencia(any(Transferencia.class)))
+                .thenThrow(new GravacaoIndisponivelException("Fila de gravação cheia. Tente novamente."));
+
+        ResponseEntity<?> response = controller.agendarTransferencia(transferencia, null);
+
+        assertEquals(503, response.getStatusCodeValue());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+    }
+
     @Test
     void testListarTransferencias() {
         Transferencia t1 = new Transferencia();
@@ -65,13 +142,51 @@ class TransferenciaControllerTest {
         t2.setContaOrigem("987654");
         t2.setContaDestino("456789");
 
-        when(service.listarTransferencias()).thenReturn(List.of(t1, t2));
+        when(service.listarTransferencias(null, 100)).thenReturn(new PaginaTransferencias(List.of(t1, t2), null));
 
-        ResponseEntity<?> response = controller.listarTransferencias();
+        ResponseEntity<?> response = controller.listarTransferencias(null, 100, null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
-        verify(service, times(1)).listarTransferencias();
+        verify(service, times(1)).listarTransferencias(null, 100);
+    }
+
+    @Test
+    void testListarTransferenciasRejeitaLimiteInvalido() {
+        ResponseEntity<?> response = controller.listarTransferencias(null, 0, null);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void testListarTransferenciasRejeitaCursorInvalido() {
+        when(service.listarTransferencias("invalido", 100)).thenThrow(new IllegalArgumentException("Cursor inválido."));
+
+        ResponseEntity<?> response = controller.listarTransferencias("invalido", 100, null);
+
+        assertEquals(400, response.getStatusCodeValue());
+    }
+
+    @Test
+    void testTransmitirTransferencias() throws Exception {
+        Transferencia t1 = new Transferencia();
+        t1.setId(UUID.randomUUID());
+        t1.setDataTransferencia(LocalDate.of(2030, 1, 1));
+        when(service.transmitirTransferencias(any())).thenAnswer(invocation -> {
+            Consumer<Transferencia> consumidor = invocation.getArgument(0);
+            consumidor.accept(t1);
+            consumidor.accept(t1);
+            return 2L;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = controller.transmitirTransferencias(null);
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        response.getBody().writeTo(saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length);
+        assertTrue(linhas[0].contains(t1.getId().toString()));
     }
 
     @Test
@@ -83,10 +198,111 @@ class TransferenciaControllerTest {
 
         when(service.buscarPorDataTransferencia(data)).thenReturn(List.of(transferencia));
 
-        ResponseEntity<?> response = controller.buscarPorData(data.toString());
+        ResponseEntity<?> response = controller.buscarPorData(data.toString(), null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
         verify(service, times(1)).buscarPorDataTransferencia(data);
     }
+
+    @Test
+    void testBuscarPorId() {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setId(UUID.randomUUID());
+        UUID inexistente = UUID.randomUUID();
+        when(service.buscarPorId(transferencia.getId())).thenReturn(Optional.of(transferencia));
+        when(service.buscarPorId(inexistente)).thenReturn(Optional.empty());
+
+        ResponseEntity<?> encontrada = controller.buscarPorId(transferencia.getId());
+        ResponseEntity<?> naoEncontrada = controller.buscarPorId(inexistente);
+
+        assertEquals(200, encontrada.getStatusCodeValue());
+        assertSame(transferencia, encontrada.getBody());
+        assertEquals(404, naoEncontrada.getStatusCodeValue());
+    }
+
+    @Test
+    void testTransmitirTransferenciasComProjecao() throws Exception {
+        Transferencia t1 = new Transferencia();
+        t1.setId(UUID.randomUUID());
+        t1.setValorTransferencia(new BigDecimal("10.50"));
+        when(service.transmitirTransferencias(any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Transferencia>>getArgument(0).accept(t1);
+            return 1L;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = controller.transmitirTransferencias("id,valorTransferencia");
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        response.getBody().writeTo(saida);
+
+        assertEquals("{\"id\":\"" + t1.getId() + "\",\"valorTransferencia\":10.50}\n",
+                saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testProjecaoComCampoDesconhecido() {
+        assertEquals(400, controller.listarTransferencias(null, 100, "id,senha").getStatusCodeValue());
+        assertEquals(400, controller.buscarPorData(LocalDate.now().toString(), "senha").getStatusCodeValue());
+        assertEquals(400, controller.transmitirTransferencias("senha").getStatusCodeValue());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void testBuscarPorConta() {
+        LocalDate data = LocalDate.now().plusDays(3);
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem("123456");
+        when(service.buscarPorConta("123456", data, 10)).thenReturn(List.of(transferencia));
+
+        ResponseEntity<?> response = controller.buscarPorConta("123456", data.toString(), 10, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(1, ((ListaTransferencias) response.getBody()).getQuantidade());
+    }
+
+    @Test
+    void testBuscarPorContaRejeitaParametrosInvalidos() {
+        assertEquals(400, controller.buscarPorConta("12345", null, 10, null).getStatusCodeValue());
+        assertEquals(400, controller.buscarPorConta("123456", "amanha", 10, null).getStatusCodeValue());
+        assertEquals(400, controller.buscarPorConta("123456", null, 0, null).getStatusCodeValue());
+        assertEquals(400, controller.totalPorConta("123456", "amanha").getStatusCodeValue());
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void testTotalPorConta() {
+        LocalDate hoje = LocalDate.now();
+        TotalDiarioConta total = new TotalDiarioConta("123456", hoje, 2, new BigDecimal("300.00"), null);
+        when(service.totalDiarioPorConta("123456", hoje)).thenReturn(total);
+
+        ResponseEntity<?> response = controller.totalPorConta("123456", null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertSame(total, response.getBody());
+    }
+
+    @Test
+    void testListarPeriodoTrazTotaisApenasNaPrimeiraPagina() {
+        LocalDate de = LocalDate.of(2030, 1, 1);
+        LocalDate ate = LocalDate.of(2030, 1, 31);
+        List<TotalDiario> totais = List.of(new TotalDiario(de, 2L, new BigDecimal("300.00"), new BigDecimal("24.00")));
+        when(service.listarPeriodo(de, ate, null, 10)).thenReturn(new PaginaTransferencias(List.of(), null));
+        when(service.listarPeriodo(de, ate, "c", 10)).thenReturn(new PaginaTransferencias(List.of(), null));
+        when(resumoDiario.totaisPorDia(de, ate)).thenReturn(totais);
+
+        ResponseEntity<?> primeira = controller.listarPeriodo(de.toString(), ate.toString(), null, 10, null);
+        ResponseEntity<?> seguinte = controller.listarPeriodo(de.toString(), ate.toString(), "c", 10, null);
+
+        assertEquals(totais, ((ListaTransferencias) primeira.getBody()).getTotaisPorDia());
+        assertNull(((ListaTransferencias) seguinte.getBody()).getTotaisPorDia());
+        verify(resumoDiario, times(1)).totaisPorDia(de, ate);
+    }
+
+    @Test
+    void testListarPeriodoRejeitaPeriodoInvertido() {
+        ResponseEntity<?> response = controller.listarPeriodo("2030-02-01", "2030-01-01", null, 10, null);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(service, resumoDiario);
+    }
 }
@@ -0,0 +1,215 @@
+package com.empresa.transferencias.controller;
+
+import com.empresa.transferencias.dto.ResumoImportacao;
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.RegistroIdempotenciaRepository;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import com.empresa.transferencias.service.AgregadoDiarioContas;
+import com.empresa.transferencias.service.CacheTransferenciasPorData;
+import com.empresa.transferencias.service.IdempotenciaService;
+import com.empresa.transferencias.service.TransferenciaImportacaoService;
+import com.empresa.transferencias.service.TransferenciaLoteService;
+import com.empresa.transferencias.service.TransferenciaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransferenciaImportacaoControllerTest {
+
+    private static final LocalDate DATA = LocalDate.now().plusDays(3);
+
+    private TransferenciaImportacaoController controller;
+    private TransferenciaRepository repository;
+    private TransferenciaService exportacao;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(TransferenciaRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransferenciaMetricas metricas = new TransferenciaMetricas(registry);
+        CacheTransferenciasPorData cachePorData =
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry);
+        AgregadoDiarioContas agregadoContas = new AgregadoDiarioContas(repository, null);
+        TransferenciaService service = new TransferenciaService(repository, metricas, cachePorData, agregadoContas,
+                null, TransactionOperations.withoutTransaction(), null);
+        TransferenciaLoteService loteService = new TransferenciaLoteService(service, repository,
+                TransactionOperations.withoutTransaction(), cachePorData, agregadoContas, null, 50);
+        TransferenciaImportacaoService importacaoService =
+                new TransferenciaImportacaoService(loteService, agregadoContas, 50, 2, 4, 100);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        IdempotenciaService idempotencia = new IdempotenciaService(Mockito.mock(RegistroIdempotenciaRepository.class),
+                objectMapper, 1_000, Duration.ofHours(1), Duration.ofSeconds(1), Duration.ofMinutes(15), registry);
+        exportacao = Mockito.mock(TransferenciaService.class);
+        controller = new TransferenciaImportacaoController(importacaoService, exportacao, idempotencia, objectMapper,
+                256);
+    }
+
+    private ByteArrayInputStream corpo(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String itemNdjson() {
+        return "{\"contaOrigem\":\"123456\",\"contaDestino\":\"654321\","
+                + "\"valorTransferencia\":100.00,\"dataTransferencia\":\"" + DATA + "\"}";
+    }
+
+    /**
+     * Corpo que entrega o conteúdo e então falha, como uma conexão encerrada.
+     */
+    private InputStream corpoInterrompido(String conteudo) {
+        return new SequenceInputStream(corpo(conteudo), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Conexão encerrada.");
+            }
+        });
+    }
+
+    @Test
+    void testImportarCsvComColunasEmQualquerOrdem() throws IOException {
+        String csv = "\uFEFFdataTransferencia,valorTransferencia,contaOrigem,contaDestino,status\n"
+                + DATA + ",100.00,123456,654321,CONCLUIDA\n"
+                + "\n"
+                + DATA + ",\"1,000.00\",123456,654321,\n"
+                + DATA + ",100.00,123456,123456,\n"
+                + "amanha,100.00,123456,654321,\n";
+
+        ResponseEntity<?> response = controller.importarCsv(corpo(csv), null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        ResumoImportacao resumo = (ResumoImportacao) response.getBody();
+        assertEquals(4, resumo.getQuantidade());
+        assertEquals(1, resumo.getAceitas());
+        assertEquals(3, resumo.getRejeitadas());
+        assertEquals("Valor da transferência inválido: 1,000.00.", resumo.getRejeicoes().get(0).getErro());
+        assertEquals(3, resumo.getRejeicoes().get(1).getIndice());
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testImportarCsvSemColunasObrigatoriasRetorna400() throws IOException {
+        ResponseEntity<?> response = controller.importarCsv(corpo("contaOrigem,contaDestino\n123456,654321\n"), null);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertTrue(((Map<?, ?>) response.getBody()).get("erro").toString().contains("valorTransferencia"));
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testImportarNdjsonRejeitaLinhasInvalidasSemInterromper() throws IOException {
+        String item = "{\"contaOrigem\":\"123456\",\"contaDestino\":\"654321\","
+                + "\"valorTransferencia\":100.00,\"dataTransferencia\":\"" + DATA + "\"}";
+        String ndjson = item + "\n{invalido\n\n" + item + "\n";
+
+        ResponseEntity<?> response = controller.importarNdjson(corpo(ndjson), null);
+
+        ResumoImportacao resumo = (ResumoImportacao) response.getBody();
+        assertEquals(3, resumo.getQuantidade());
+        assertEquals(2, resumo.getAceitas());
+        assertEquals(1, resumo.getRejeicoes().get(0).getIndice());
+    }
+
+    @Test
+    void testImportarNdjsonRejeitaLinhaAcimaDoTamanhoMaximo() throws IOException {
+        String ndjson = itemNdjson() + "\n" + "{\"contaOrigem\":\"" + "1".repeat(1_000) + "\"}\n" + itemNdjson();
+
+        ResponseEntity<?> response = controller.importarNdjson(corpo(ndjson), null);
+
+        ResumoImportacao resumo = (ResumoImportacao) response.getBody();
+        assertEquals(3, resumo.getQuantidade());
+        assertEquals(2, resumo.getAceitas());
+        assertEquals("Linha com mais de 256 caracteres.", resumo.getRejeicoes().get(0).getErro());
+        assertEquals(1, resumo.getRejeicoes().get(0).getIndice());
+    }
+
+    @Test
+    void testImportacaoInterrompidaAposGravarMantemAChaveDeIdempotencia() throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            ndjson.append(itemNdjson()).append('\n');
+        }
+
+        ResponseEntity<?> response = controller.importarNdjson(corpoInterrompido(ndjson.toString()), "importacao-1");
+
+        assertEquals(200, response.getStatusCodeValue());
+        ResumoImportacao resumo = (ResumoImportacao) response.getBody();
+        assertTrue(resumo.isInterrompida());
+        assertEquals(50, resumo.getAceitas());
+        verify(repository, times(1)).saveAll(anyList());
+
+        ResponseEntity<?> repeticao = controller.importarNdjson(corpo(ndjson.toString()), "importacao-1");
+
+        assertEquals("true", repeticao.getHeaders().getFirst(IdempotenciaService.CABECALHO_REPETICAO));
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testImportacaoInterrompidaSemGravarPropagaAFalha() {
+        assertThrows(IOException.class,
+                () -> controller.importarNdjson(corpoInterrompido(itemNdjson() + "\n"), "importacao-2"));
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testExportarCsvEscreveCabecalhoELinhas() throws IOException {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setId(UUID.randomUUID());
+        transferencia.setContaOrigem("123456");
+        transferencia.setContaDestino("65,321");
+        transferencia.setValorTransferencia(new BigDecimal("10.50"));
+        transferencia.setDataTransferencia(DATA);
+        transferencia.setStatus(StatusTransferencia.AGENDADA);
+        when(exportacao.transmitirPeriodo(eq(DATA), eq(DATA.plusDays(30)), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Transferencia>>getArgument(2).accept(transferencia);
+            return 1L;
+        });
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportarCsv(
+                DATA.toString(), DATA.plusDays(30).toString(), "id,contaDestino,valorTransferencia,taxa,status");
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        response.getBody().writeTo(saida);
+
+        assertTrue(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("attachment"));
+        assertEquals("id,contaDestino,valorTransferencia,taxa,status\n"
+                        + transferencia.getId() + ",\"65,321\",10.50,,AGENDADA\n",
+                saida.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testExportarCsvComPeriodoInvalidoRetorna400() {
+        assertEquals(400, controller.exportarCsv(DATA.toString(), DATA.minusDays(1).toString(), null)
+                .getStatusCodeValue());
+        assertEquals(400, controller.exportarCsv("ontem", DATA.toString(), null).getStatusCodeValue());
+        assertEquals(400, controller.exportarCsv(DATA.toString(), DATA.toString(), "senha").getStatusCodeValue());
+        verifyNoInteractions(exportacao);
+    }
+}
@@ -0,0 +1,192 @@
+package com.empresa.transferencias.controller;
+
+import com.empresa.transferencias.dto.ResultadoLote;
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.repository.RegistroIdempotenciaRepository;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import com.empresa.transferencias.service.AgregadoDiarioContas;
+import com.empresa.transferencias.service.CacheTransferenciasPorData;
+import com.empresa.transferencias.service.IdempotenciaService;
+import com.empresa.transferencias.service.TransferenciaLoteService;
+import com.empresa.transferencias.service.TransferenciaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TransferenciaLoteControllerTest {
+
+    private TransferenciaLoteController controller;
+    private TransferenciaRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(TransferenciaRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransferenciaMetricas metricas = new TransferenciaMetricas(registry);
+        CacheTransferenciasPorData cachePorData =
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry);
+        AgregadoDiarioContas agregadoContas = new AgregadoDiarioContas(repository, null);
+        TransferenciaLoteService loteService = new TransferenciaLoteService(
+                new TransferenciaService(repository, metricas, cachePorData, agregadoContas, null,
+                        TransactionOperations.withoutTransaction(), null), repository,
+                TransactionOperations.withoutTransaction(), cachePorData, agregadoContas, null, 50);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        IdempotenciaService idempotencia = new IdempotenciaService(Mockito.mock(RegistroIdempotenciaRepository.class),
+                objectMapper, 1_000, Duration.ofHours(1), Duration.ofSeconds(1), Duration.ofMinutes(15), registry);
+        controller = new TransferenciaLoteController(loteService, idempotencia, objectMapper, 16_384);
+    }
+
+    private String item(String origem, String destino) {
+        return "{\"contaOrigem\":\"" + origem + "\",\"contaDestino\":\"" + destino + "\","
+                + "\"valorTransferencia\":100.00,\"dataTransferencia\":\"" + LocalDate.now().plusDays(3) + "\"}";
+    }
+
+    private ByteArrayInputStream corpo(String conteudo) {
+        return new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Corpo que entrega o conteúdo e então falha, como uma conexão encerrada.
+     */
+    private InputStream corpoInterrompido(String conteudo) {
+        return new SequenceInputStream(corpo(conteudo), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Conexão encerrada.");
+            }
+        });
+    }
+
+    @Test
+    void testAgendarLoteJson() throws IOException {
+        String json = "[" + item("123456", "654321") + "," + item("111111", "111111") + "]";
+
+        ResponseEntity<?> response = controller.agendarLoteJson(corpo(json), null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertEquals(2, body.get("quantidade"));
+        assertEquals(1L, body.get("aceitas"));
+        assertEquals(1L, body.get("rejeitadas"));
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testAgendarLoteJsonRejeitaCorpoQueNaoEArray() throws IOException {
+        ResponseEntity<?> response = controller.agendarLoteJson(corpo(item("123456", "654321")), null);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testAgendarLoteNdjsonIsolaLinhaInvalida() throws IOException {
+        String ndjson = item("123456", "654321") + "\n"
+                + "{isto nao e json}\n"
+                + "\n"
+                + item("222222", "333333") + "\n";
+
+        ResponseEntity<?> response = controller.agendarLoteNdjson(corpo(ndjson), null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertEquals(3, body.get("quantidade"));
+        assertEquals(2L, body.get("aceitas"));
+        List<?> resultados = (List<?>) body.get("resultados");
+        assertEquals(3, resultados.size());
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testAgendarLoteNdjsonRejeitaLinhaAcimaDoTamanhoMaximo() throws IOException {
+        String ndjson = item("123456", "654321") + "\n"
+                + "{\"contaOrigem\":\"" + "9".repeat(100_000) + "\"}\n"
+                + item("222222", "333333") + "\n";
+
+        ResponseEntity<?> response = controller.agendarLoteNdjson(corpo(ndjson), null);
+
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertEquals(3, body.get("quantidade"));
+        assertEquals(2L, body.get("aceitas"));
+        ResultadoLote rejeitado = (ResultadoLote) ((List<?>) body.get("resultados")).get(1);
+        assertEquals("Linha com mais de 16384 caracteres.", rejeitado.getErro());
+    }
+
+    @Test
+    void testAgendarLoteJsonInterrompeNoItemAcimaDoTamanhoMaximo() throws IOException {
+        String json = "[" + item("123456", "654321") + ","
+                + "{\"contaOrigem\":\"" + "9".repeat(100_000) + "\"},"
+                + item("222222", "333333") + "]";
+
+        ResponseEntity<?> response = controller.agendarLoteJson(corpo(json), null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertEquals(2, body.get("quantidade"));
+        assertEquals(1L, body.get("aceitas"));
+        ResultadoLote rejeitado = (ResultadoLote) ((List<?>) body.get("resultados")).get(1);
+        assertTrue(rejeitado.getErro().startsWith("Item com mais de 16384 bytes."));
+    }
+
+    @Test
+    void testAgendarLoteRepetidoComMesmaChaveNaoLeOCorpo() throws IOException {
+        String json = "[" + item("123456", "654321") + "]";
+
+        controller.agendarLoteJson(corpo(json), "lote-1");
+        ResponseEntity<?> repetida = controller.agendarLoteNdjson(corpo("{isto nao e lido}"), "lote-1");
+
+        assertEquals(200, repetida.getStatusCodeValue());
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotenciaService.CABECALHO_REPETICAO));
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testLoteInterrompidoAposGravarMantemAChaveDeIdempotencia() throws IOException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            ndjson.append(item("123456", "654321")).append('\n');
+        }
+
+        ResponseEntity<?> response = controller.agendarLoteNdjson(corpoInterrompido(ndjson.toString()), "lote-2");
+
+        assertEquals(200, response.getStatusCodeValue());
+        Map<?, ?> body = (Map<?, ?>) response.getBody();
+        assertEquals(true, body.get("interrompido"));
+        assertEquals(50L, body.get("aceitas"));
+        assertEquals(10L, body.get("rejeitadas"));
+        verify(repository, times(1)).saveAll(anyList());
+
+        ResponseEntity<?> repetida = controller.agendarLoteNdjson(corpo(ndjson.toString()), "lote-2");
+
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotenciaService.CABECALHO_REPETICAO));
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testLoteInterrompidoSemGravarPropagaAFalha() {
+        String json = "[" + item("123456", "654321") + ",";
+
+        assertThrows(IOException.class, () -> controller.agendarLoteJson(corpoInterrompido(json), "lote-3"));
+        verify(repository, never()).saveAll(anyList());
+    }
+}
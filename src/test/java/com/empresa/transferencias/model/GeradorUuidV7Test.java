@@ -0,0 +1,77 @@
+package com.empresa.transferencias.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeradorUuidV7Test {
+
+    @Test
+    void testVersaoVarianteEInstante() {
+        long antes = System.currentTimeMillis();
+        UUID uuid = GeradorUuidV7.gerar();
+        long depois = System.currentTimeMillis();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long instante = GeradorUuidV7.instante(uuid);
+        assertTrue(instante >= antes && instante <= depois + 10);
+    }
+
+    @Test
+    void testGeracoesNoMesmoMilissegundoSaoCrescentes() {
+        long agora = System.currentTimeMillis();
+        List<UUID> gerados = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            gerados.add(GeradorUuidV7.gerar(agora));
+        }
+
+        for (int i = 1; i < gerados.size(); i++) {
+            assertTrue(gerados.get(i - 1).compareTo(gerados.get(i)) < 0);
+            assertTrue(comparacaoSemSinal(gerados.get(i - 1), gerados.get(i)) < 0);
+        }
+        assertTrue(GeradorUuidV7.instante(gerados.get(gerados.size() - 1)) >= agora);
+    }
+
+    @Test
+    void testRelogioRetrocedidoNaoQuebraAOrdem() {
+        UUID primeiro = GeradorUuidV7.gerar(System.currentTimeMillis());
+        UUID segundo = GeradorUuidV7.gerar(System.currentTimeMillis() - 60_000);
+
+        assertTrue(primeiro.compareTo(segundo) < 0);
+    }
+
+    @Test
+    void testGeracaoConcorrenteSemDuplicados() throws InterruptedException {
+        Set<UUID> gerados = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    gerados.add(GeradorUuidV7.gerar());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(80_000, gerados.size());
+    }
+
+    /**
+     * Ordem dos bytes sem sinal, como o PostgreSQL compara o tipo uuid.
+     */
+    private static int comparacaoSemSinal(UUID a, UUID b) {
+        int mais = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return mais != 0 ? mais : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,120 @@
+package com.empresa.transferencias.repository;
+
+import com.empresa.transferencias.config.CacheHibernateConfig;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de segundo nível do Hibernate, com a região de
+ * {@link CacheHibernateConfig}. Cada operação roda em uma transação
+ * confirmada, pois o cache só recebe as entidades após o commit.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.properties.hibernate.dialect=com.empresa.transferencias.repository.TransferenciaRepositoryTest$DialetoH2",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(CacheHibernateConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private TransferenciaRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private TransactionTemplate transacao(boolean somenteLeitura) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(somenteLeitura);
+        return transacao;
+    }
+
+    private Transferencia gravar(LocalDate data) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem("123456");
+        transferencia.setContaDestino("654321");
+        transferencia.setValorTransferencia(new BigDecimal("100.00"));
+        transferencia.setTaxa(new BigDecimal("12.00"));
+        transferencia.setDataTransferencia(data);
+        transferencia.setDataAgendamento(data.minusDays(5));
+        transferencia.setStatus(StatusTransferencia.AGENDADA);
+        return transacao(false).execute(status -> repository.save(transferencia));
+    }
+
+    @Test
+    void testBuscaPorIdServidaDoCacheAposGravacao() {
+        Transferencia gravada = gravar(LocalDate.of(2030, 2, 1));
+        estatisticas.clear();
+
+        Transferencia lida = transacao(true).execute(status -> repository.findById(gravada.getId()).orElseThrow());
+
+        assertEquals(gravada.getId(), lida.getId());
+        assertEquals(1, estatisticas.getSecondLevelCacheHitCount());
+        assertEquals(0, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void testConsultaPorDataNaoUsaCacheDeConsultas() {
+        LocalDate data = LocalDate.of(2030, 3, 1);
+        gravar(data);
+        estatisticas.clear();
+
+        assertEquals(1, transacao(true).execute(status -> repository.findByDataTransferencia(data)).size());
+        assertEquals(1, transacao(true).execute(status -> repository.findByDataTransferencia(data)).size());
+
+        assertEquals(0, estatisticas.getQueryCachePutCount());
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void testTransacaoSomenteLeituraNaoVerificaAlteracoes() {
+        Transferencia gravada = gravar(LocalDate.of(2030, 4, 1));
+
+        transacao(true).executeWithoutResult(status -> {
+            Session sessao = entityManager.unwrap(Session.class);
+            Transferencia lida = repository.findById(gravada.getId()).orElseThrow();
+            assertEquals(FlushMode.MANUAL, sessao.getHibernateFlushMode());
+            assertTrue(sessao.isReadOnly(lida));
+            lida.setStatus(StatusTransferencia.CONCLUIDA);
+        });
+
+        assertEquals(StatusTransferencia.AGENDADA, transacao(false).execute(status ->
+                repository.findById(gravada.getId()).orElseThrow().getStatus()));
+    }
+}
@@ -0,0 +1,93 @@
+package com.empresa.transferencias.repository;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+import com.empresa.transferencias.model.OffsetConsumidor;
+import com.empresa.transferencias.model.StatusTransferencia;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Consultas do outbox contra um banco H2 embarcado.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ActiveProfiles("test")
+class EventoTransferenciaRepositoryTest {
+
+    private static final Instant AGORA = Instant.parse("2030-01-10T12:00:00Z");
+
+    @Autowired
+    private EventoTransferenciaRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private EventoTransferencia gravar(Instant criadoEm, Long sequencia) {
+        EventoTransferencia evento = new EventoTransferencia(UUID.randomUUID(), StatusTransferencia.AGENDADA,
+                "{}", criadoEm);
+        evento.setSequencia(sequencia);
+        return entityManager.persistAndFlush(evento);
+    }
+
+    @Test
+    void testBuscarAposUsaASequenciaDePublicacao() {
+        gravar(AGORA, 2L);
+        gravar(AGORA, 1L);
+        gravar(AGORA, null);
+        gravar(AGORA, 3L);
+
+        List<Long> lidas = repository.buscarApos(1, PageRequest.of(0, 10)).stream()
+                .map(EventoTransferencia::getSequencia)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(2L, 3L), lidas);
+        assertEquals(1, repository.buscarApos(1, PageRequest.of(0, 1)).size());
+        assertEquals(3L, repository.ultimaSequencia().orElseThrow());
+    }
+
+    @Test
+    void testBuscarNaoNumeradosNaOrdemDeGravacao() {
+        gravar(AGORA, 1L);
+        long primeiro = gravar(AGORA, null).getId();
+        long segundo = gravar(AGORA, null).getId();
+
+        List<Long> ids = repository.buscarNaoNumerados(PageRequest.of(0, 10)).stream()
+                .map(EventoTransferencia::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(primeiro, segundo), ids);
+    }
+
+    @Test
+    void testRemoveApenasEventosAntigosJaEntreguesATodosOsConsumidores() {
+        long antigoEntregue = gravar(AGORA.minusSeconds(3600), 1L).getId();
+        long antigoPendente = gravar(AGORA.minusSeconds(3600), 2L).getId();
+        long antigoNaoNumerado = gravar(AGORA.minusSeconds(3600), null).getId();
+        long recente = gravar(AGORA, 3L).getId();
+        entityManager.persist(new OffsetConsumidor("relay", 1L, AGORA));
+        entityManager.persist(new OffsetConsumidor("auditoria", 2L, AGORA));
+        entityManager.flush();
+
+        int removidos = repository.removerEntreguesAntes(AGORA.minusSeconds(60));
+        entityManager.clear();
+
+        assertEquals(1, removidos);
+        assertFalse(repository.existsById(antigoEntregue));
+        assertTrue(repository.existsById(antigoPendente));
+        assertTrue(repository.existsById(antigoNaoNumerado));
+        assertTrue(repository.existsById(recente));
+    }
+}
@@ -0,0 +1,232 @@
+package com.empresa.transferencias.repository;
+
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * As mesmas consultas de {@link TransferenciaRepositoryTest}, contra o
+ * armazenamento em memória.
+ */
+class TransferenciaRepositoryEmMemoriaTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2030, 1, 10);
+
+    private TransferenciaRepositoryEmMemoria repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new TransferenciaRepositoryEmMemoria();
+    }
+
+    private Transferencia criar(String conta, LocalDate data, StatusTransferencia status) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem(conta);
+        transferencia.setContaDestino("654321");
+        transferencia.setValorTransferencia(new BigDecimal("100.00"));
+        transferencia.setTaxa(new BigDecimal("12.00"));
+        transferencia.setDataTransferencia(data);
+        transferencia.setDataAgendamento(data.minusDays(5));
+        transferencia.setStatus(status);
+        transferencia.setAtualizadoEm(Instant.parse("2030-01-01T00:00:00Z"));
+        return repository.save(transferencia);
+    }
+
+    private Transferencia criar(LocalDate data, StatusTransferencia status) {
+        return criar("123456", data, status);
+    }
+
+    private static List<UUID> ids(List<Transferencia> transferencias) {
+        return transferencias.stream().map(Transferencia::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testBloquearVencidasFiltraPorStatusEDataEmOrdem() {
+        Transferencia ontem = criar(HOJE.minusDays(1), StatusTransferencia.AGENDADA);
+        Transferencia hoje = criar(HOJE, StatusTransferencia.AGENDADA);
+        criar(HOJE.plusDays(1), StatusTransferencia.AGENDADA);
+        criar(HOJE.minusDays(2), StatusTransferencia.CONCLUIDA);
+
+        List<Transferencia> bloco = repository.bloquearVencidas(StatusTransferencia.AGENDADA, HOJE, PageRequest.of(0, 10));
+
+        assertEquals(List.of(ontem.getId(), hoje.getId()), ids(bloco));
+        assertEquals(1, repository.bloquearVencidas(StatusTransferencia.AGENDADA, HOJE, PageRequest.of(0, 1)).size());
+    }
+
+    @Test
+    void testAtualizarStatusEReverterReservasAbandonadas() {
+        Transferencia antiga = criar(HOJE, StatusTransferencia.AGENDADA);
+        Transferencia recente = criar(HOJE, StatusTransferencia.AGENDADA);
+
+        repository.atualizarStatus(List.of(antiga.getId()), StatusTransferencia.PROCESSANDO,
+                Instant.parse("2030-01-10T08:00:00Z"));
+        repository.atualizarStatus(List.of(recente.getId()), StatusTransferencia.PROCESSANDO,
+                Instant.parse("2030-01-10T09:00:00Z"));
+        assertEquals(List.of(HOJE), repository.buscarDatasComStatusAnteriorA(StatusTransferencia.PROCESSANDO,
+                Instant.parse("2030-01-10T08:30:00Z")));
+        int revertidas = repository.reverterStatusAnteriorA(StatusTransferencia.PROCESSANDO,
+                StatusTransferencia.AGENDADA, Instant.parse("2030-01-10T08:30:00Z"));
+
+        assertEquals(1, revertidas);
+        assertEquals(StatusTransferencia.AGENDADA, antiga.getStatus());
+        assertEquals(StatusTransferencia.PROCESSANDO, recente.getStatus());
+    }
+
+    @Test
+    void testAtualizarStatusSeExigeAReservaInformada() {
+        Transferencia reservada = criar(HOJE, StatusTransferencia.AGENDADA);
+        Transferencia reservadaDeNovo = criar(HOJE, StatusTransferencia.AGENDADA);
+        Instant reservadoEm = Instant.parse("2030-01-10T08:00:00Z");
+        Instant concluidoEm = Instant.parse("2030-01-10T08:01:00Z");
+
+        repository.atualizarStatus(List.of(reservada.getId()), StatusTransferencia.PROCESSANDO, reservadoEm);
+        repository.atualizarStatus(List.of(reservadaDeNovo.getId()), StatusTransferencia.PROCESSANDO,
+                reservadoEm.plusSeconds(30));
+        List<UUID> ids = List.of(reservada.getId(), reservadaDeNovo.getId());
+        int alteradas = repository.atualizarStatusSe(ids, StatusTransferencia.PROCESSANDO, reservadoEm,
+                StatusTransferencia.CONCLUIDA, concluidoEm);
+
+        assertEquals(1, alteradas);
+        assertEquals(List.of(reservada.getId()),
+                repository.buscarIdsComStatus(ids, StatusTransferencia.CONCLUIDA, concluidoEm));
+        assertEquals(StatusTransferencia.PROCESSANDO, reservadaDeNovo.getStatus());
+    }
+
+    @Test
+    void testSomarPorContaEDataAgrupaAPartirDaData() {
+        criar(HOJE, StatusTransferencia.AGENDADA);
+        criar(HOJE, StatusTransferencia.AGENDADA);
+        criar(HOJE.plusDays(1), StatusTransferencia.AGENDADA);
+        criar(HOJE.minusDays(1), StatusTransferencia.AGENDADA);
+        criar("111111", HOJE, StatusTransferencia.AGENDADA);
+
+        List<TotalDiarioConta> totais = repository.somarPorContaEDataDesde(HOJE);
+
+        assertEquals(3, totais.size());
+        TotalDiarioConta total = repository.somarPorContaEData("123456", HOJE).orElseThrow();
+        assertEquals(2, total.getQuantidade());
+        assertEquals(0, new BigDecimal("200.00").compareTo(total.getValorTotal()));
+        assertTrue(repository.somarPorContaEData("999999", HOJE).isEmpty());
+        assertEquals(3, repository.buscarPorContaDesde("123456", HOJE, PageRequest.of(0, 10)).size());
+        assertEquals(1, repository.findByContaOrigemAndDataTransferenciaOrderByIdAsc(
+                "123456", HOJE.plusDays(1), PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void testSomarPorDiaAgregaOPeriodo() {
+        criar(HOJE, StatusTransferencia.AGENDADA);
+        criar(HOJE, StatusTransferencia.CONCLUIDA);
+        criar(HOJE.plusDays(2), StatusTransferencia.AGENDADA);
+        criar(HOJE.plusDays(3), StatusTransferencia.AGENDADA);
+
+        List<TotalDiario> totais = repository.somarPorDia(HOJE, HOJE.plusDays(2));
+
+        assertEquals(List.of(HOJE, HOJE.plusDays(2)),
+                totais.stream().map(TotalDiario::getData).collect(Collectors.toList()));
+        assertEquals(2, totais.get(0).getQuantidade());
+        assertEquals(0, new BigDecimal("200.00").compareTo(totais.get(0).getValorTotal()));
+        assertEquals(0, new BigDecimal("24.00").compareTo(totais.get(0).getTaxaTotal()));
+        assertEquals(HOJE, repository.primeiraDataTransferencia());
+        assertEquals(2, repository.findByDataTransferencia(HOJE).size());
+    }
+
+    @Test
+    void testPaginacaoPorChavePercorreTodasEmOrdem() {
+        List<Transferencia> todas = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            todas.add(criar(HOJE.plusDays(i % 5), StatusTransferencia.AGENDADA));
+        }
+        List<UUID> esperados;
+        try (Stream<Transferencia> stream = repository.streamTodas()) {
+            esperados = stream.map(Transferencia::getId).collect(Collectors.toList());
+        }
+
+        List<UUID> percorridos = new ArrayList<>();
+        List<Transferencia> pagina = repository.findAllByOrderByDataTransferenciaAscIdAsc(PageRequest.of(0, 7));
+        while (!pagina.isEmpty()) {
+            percorridos.addAll(ids(pagina));
+            Transferencia ultima = pagina.get(pagina.size() - 1);
+            pagina = repository.buscarPaginaApos(ultima.getDataTransferencia(), ultima.getId(), PageRequest.of(0, 7));
+        }
+
+        assertEquals(25, esperados.size());
+        assertEquals(esperados, percorridos);
+        assertTrue(esperados.containsAll(ids(todas)));
+
+        List<Transferencia> periodo = repository.buscarPeriodo(HOJE.plusDays(1), HOJE.plusDays(2), PageRequest.of(0, 6));
+        Transferencia ultima = periodo.get(periodo.size() - 1);
+        List<Transferencia> restante = repository.buscarPeriodoApos(HOJE.plusDays(1), HOJE.plusDays(2),
+                ultima.getDataTransferencia(), ultima.getId(), PageRequest.of(0, 10));
+        assertEquals(6, periodo.size());
+        assertEquals(4, restante.size());
+        assertTrue(restante.stream().allMatch(t -> !t.getDataTransferencia().isAfter(HOJE.plusDays(2))));
+    }
+
+    @Test
+    void testGravarNovamenteReindexaATransferencia() {
+        Transferencia transferencia = criar(HOJE, StatusTransferencia.AGENDADA);
+        Transferencia alterada = new Transferencia();
+        alterada.setId(transferencia.getId());
+        alterada.setContaOrigem("222222");
+        alterada.setContaDestino("654321");
+        alterada.setValorTransferencia(new BigDecimal("50.00"));
+        alterada.setDataTransferencia(HOJE.plusDays(1));
+
+        repository.save(alterada);
+
+        assertEquals(1, repository.count());
+        assertTrue(repository.findByDataTransferencia(HOJE).isEmpty());
+        assertEquals(List.of(alterada), repository.findByDataTransferencia(HOJE.plusDays(1)));
+        assertTrue(repository.somarPorContaEData("123456", HOJE).isEmpty());
+    }
+
+    @Test
+    void testGravacoesConcorrentesSaoTodasIndexadas() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8_000; i++) {
+            LocalDate data = HOJE.plusDays(i % 10);
+            executor.submit(() -> criar(data, StatusTransferencia.AGENDADA));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(8_000, repository.count());
+        assertEquals(800, repository.findByDataTransferencia(HOJE).size());
+        assertEquals(8_000, repository.somarPorDia(HOJE, HOJE.plusDays(9)).stream()
+                .mapToLong(TotalDiario::getQuantidade).sum());
+    }
+
+    @Test
+    void testStreamPeriodoPercorreApenasOPeriodoEmOrdem() {
+        criar(HOJE.minusDays(1), StatusTransferencia.AGENDADA);
+        Transferencia segunda = criar(HOJE.plusDays(1), StatusTransferencia.AGENDADA);
+        Transferencia primeira = criar(HOJE, StatusTransferencia.AGENDADA);
+        criar(HOJE.plusDays(2), StatusTransferencia.AGENDADA);
+
+        List<UUID> ids;
+        try (Stream<Transferencia> stream = repository.streamPeriodo(HOJE, HOJE.plusDays(1))) {
+            ids = stream.map(Transferencia::getId).collect(Collectors.toList());
+        }
+
+        assertEquals(List.of(primeira.getId(), segunda.getId()), ids);
+        assertEquals(0, repository.streamPeriodo(HOJE.plusDays(1), HOJE).count());
+    }
+}
@@ -0,0 +1,198 @@
+package com.empresa.transferencias.repository;
+
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Consultas do repositório contra um banco H2 embarcado. O H2 não suporta
+ * SKIP LOCKED: o dialeto gera apenas FOR UPDATE, o que basta para validar o
+ * filtro, a ordenação e o tamanho do bloco.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database=H2",
+        "spring.jpa.properties.hibernate.dialect=com.empresa.transferencias.repository.TransferenciaRepositoryTest$DialetoH2",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ActiveProfiles("test")
+class TransferenciaRepositoryTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2030, 1, 10);
+
+    /**
+     * No H2, BINARY(n) tem tamanho fixo e completa o UUID com zeros, o que
+     * impede a comparação por id em comandos JPQL. No PostgreSQL o UUID usa o
+     * tipo nativo.
+     */
+    public static class DialetoH2 extends H2Dialect {
+        public DialetoH2() {
+            registerColumnType(Types.BINARY, "varbinary($l)");
+        }
+    }
+
+    @Autowired
+    private TransferenciaRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Transferencia criar(LocalDate data, StatusTransferencia status) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem("123456");
+        transferencia.setContaDestino("654321");
+        transferencia.setValorTransferencia(new BigDecimal("100.00"));
+        transferencia.setTaxa(new BigDecimal("12.00"));
+        transferencia.setDataTransferencia(data);
+        transferencia.setDataAgendamento(data.minusDays(5));
+        transferencia.setStatus(status);
+        transferencia.setAtualizadoEm(Instant.parse("2030-01-01T00:00:00Z"));
+        return entityManager.persist(transferencia);
+    }
+
+    @Test
+    void testBloquearVencidasFiltraPorStatusEDataEmOrdem() {
+        Transferencia ontem = criar(HOJE.minusDays(1), StatusTransferencia.AGENDADA);
+        Transferencia hoje = criar(HOJE, StatusTransferencia.AGENDADA);
+        criar(HOJE.plusDays(1), StatusTransferencia.AGENDADA);
+        criar(HOJE.minusDays(2), StatusTransferencia.CONCLUIDA);
+        entityManager.flush();
+
+        List<Transferencia> bloco = repository.bloquearVencidas(StatusTransferencia.AGENDADA, HOJE, PageRequest.of(0, 10));
+
+        assertEquals(List.of(ontem.getId(), hoje.getId()),
+                bloco.stream().map(Transferencia::getId).collect(Collectors.toList()));
+        assertEquals(1, repository.bloquearVencidas(StatusTransferencia.AGENDADA, HOJE, PageRequest.of(0, 1)).size());
+    }
+
+    @Test
+    void testAtualizarStatusEReverterReservasAbandonadas() {
+        Transferencia antiga = criar(HOJE, StatusTransferencia.AGENDADA);
+        Transferencia recente = criar(HOJE, StatusTransferencia.AGENDADA);
+        entityManager.flush();
+
+        repository.atualizarStatus(List.of(antiga.getId()), StatusTransferencia.PROCESSANDO,
+                Instant.parse("2030-01-10T08:00:00Z"));
+        repository.atualizarStatus(List.of(recente.getId()), StatusTransferencia.PROCESSANDO,
+                Instant.parse("2030-01-10T09:00:00Z"));
+        assertEquals(List.of(HOJE), repository.buscarDatasComStatusAnteriorA(StatusTransferencia.PROCESSANDO,
+                Instant.parse("2030-01-10T08:30:00Z")));
+        int revertidas = repository.reverterStatusAnteriorA(StatusTransferencia.PROCESSANDO,
+                StatusTransferencia.AGENDADA, Instant.parse("2030-01-10T08:30:00Z"));
+        entityManager.clear();
+
+        assertEquals(1, revertidas);
+        assertEquals(StatusTransferencia.AGENDADA, entityManager.find(Transferencia.class, antiga.getId()).getStatus());
+        assertEquals(StatusTransferencia.PROCESSANDO, entityManager.find(Transferencia.class, recente.getId()).getStatus());
+    }
+
+    @Test
+    void testAtualizarStatusSeExigeAReservaInformada() {
+        Transferencia reservada = criar(HOJE, StatusTransferencia.AGENDADA);
+        Transferencia reservadaDeNovo = criar(HOJE, StatusTransferencia.AGENDADA);
+        entityManager.flush();
+        Instant reservadoEm = Instant.parse("2030-01-10T08:00:00.123456Z");
+        Instant concluidoEm = Instant.parse("2030-01-10T08:01:00Z");
+
+        repository.atualizarStatus(List.of(reservada.getId()), StatusTransferencia.PROCESSANDO, reservadoEm);
+        repository.atualizarStatus(List.of(reservadaDeNovo.getId()), StatusTransferencia.PROCESSANDO,
+                reservadoEm.plusSeconds(30));
+        List<UUID> ids = List.of(reservada.getId(), reservadaDeNovo.getId());
+        int alteradas = repository.atualizarStatusSe(ids, StatusTransferencia.PROCESSANDO, reservadoEm,
+                StatusTransferencia.CONCLUIDA, concluidoEm);
+
+        assertEquals(1, alteradas);
+        assertEquals(List.of(reservada.getId()),
+                repository.buscarIdsComStatus(ids, StatusTransferencia.CONCLUIDA, concluidoEm));
+        assertEquals(StatusTransferencia.PROCESSANDO,
+                entityManager.find(Transferencia.class, reservadaDeNovo.getId()).getStatus());
+    }
+
+    @Test
+    void testSomarPorContaEDataAgrupaAPartirDaData() {
+        criar(HOJE, StatusTransferencia.AGENDADA);
+        criar(HOJE, StatusTransferencia.AGENDADA);
+        criar(HOJE.plusDays(1), StatusTransferencia.AGENDADA);
+        criar(HOJE.minusDays(1), StatusTransferencia.AGENDADA);
+        entityManager.flush();
+
+        List<TotalDiarioConta> totais = repository.somarPorContaEDataDesde(HOJE);
+
+        assertEquals(2, totais.size());
+        TotalDiarioConta total = repository.somarPorContaEData("123456", HOJE).orElseThrow();
+        assertEquals(2, total.getQuantidade());
+        assertEquals(0, new BigDecimal("200.00").compareTo(total.getValorTotal()));
+        assertTrue(repository.somarPorContaEData("999999", HOJE).isEmpty());
+        assertEquals(3, repository.buscarPorContaDesde("123456", HOJE, PageRequest.of(0, 10)).size());
+        assertEquals(1, repository.findByContaOrigemAndDataTransferenciaOrderByIdAsc(
+                "123456", HOJE.plusDays(1), PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void testSomarPorDiaAgregaOPeriodoNoBanco() {
+        criar(HOJE, StatusTransferencia.AGENDADA);
+        criar(HOJE, StatusTransferencia.CONCLUIDA);
+        criar(HOJE.plusDays(2), StatusTransferencia.AGENDADA);
+        criar(HOJE.plusDays(3), StatusTransferencia.AGENDADA);
+        entityManager.flush();
+
+        List<TotalDiario> totais = repository.somarPorDia(HOJE, HOJE.plusDays(2));
+
+        assertEquals(List.of(HOJE, HOJE.plusDays(2)),
+                totais.stream().map(TotalDiario::getData).collect(Collectors.toList()));
+        assertEquals(2, totais.get(0).getQuantidade());
+        assertEquals(0, new BigDecimal("200.00").compareTo(totais.get(0).getValorTotal()));
+        assertEquals(0, new BigDecimal("24.00").compareTo(totais.get(0).getTaxaTotal()));
+        assertEquals(HOJE, repository.primeiraDataTransferencia());
+    }
+
+    @Test
+    void testBuscarPeriodoPaginaPorChaveDentroDoPeriodo() {
+        criar(HOJE.minusDays(1), StatusTransferencia.AGENDADA);
+        Transferencia primeira = criar(HOJE, StatusTransferencia.AGENDADA);
+        Transferencia segunda = criar(HOJE.plusDays(1), StatusTransferencia.AGENDADA);
+        criar(HOJE.plusDays(5), StatusTransferencia.AGENDADA);
+        entityManager.flush();
+
+        List<Transferencia> pagina = repository.buscarPeriodo(HOJE, HOJE.plusDays(1), PageRequest.of(0, 1));
+        List<Transferencia> seguinte = repository.buscarPeriodoApos(HOJE, HOJE.plusDays(1),
+                primeira.getDataTransferencia(), primeira.getId(), PageRequest.of(0, 10));
+
+        assertEquals(List.of(primeira.getId()), pagina.stream().map(Transferencia::getId).collect(Collectors.toList()));
+        assertEquals(List.of(segunda.getId()), seguinte.stream().map(Transferencia::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testStreamPeriodoPercorreApenasOPeriodoEmOrdem() {
+        criar(HOJE.minusDays(1), StatusTransferencia.AGENDADA);
+        Transferencia segunda = criar(HOJE.plusDays(1), StatusTransferencia.AGENDADA);
+        Transferencia primeira = criar(HOJE, StatusTransferencia.AGENDADA);
+        criar(HOJE.plusDays(2), StatusTransferencia.AGENDADA);
+        entityManager.flush();
+
+        List<UUID> ids;
+        try (Stream<Transferencia> stream = repository.streamPeriodo(HOJE, HOJE.plusDays(1))) {
+            ids = stream.map(Transferencia::getId).collect(Collectors.toList());
+        }
+
+        assertEquals(List.of(primeira.getId(), segunda.getId()), ids);
+    }
+}
@@ -0,0 +1,114 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.exception.GravacaoIndisponivelException;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AgregadoDiarioContasTest {
+
+    private static final LocalDate AMANHA = LocalDate.now().plusDays(1);
+
+    private TransferenciaRepository repository;
+    private AgregadoDiarioContas agregado;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(TransferenciaRepository.class);
+        agregado = new AgregadoDiarioContas(repository, new BigDecimal("1000.00"));
+    }
+
+    private Transferencia criar(String conta, String valor) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem(conta);
+        transferencia.setContaDestino("654321");
+        transferencia.setValorTransferencia(new BigDecimal(valor));
+        transferencia.setDataTransferencia(AMANHA);
+        return transferencia;
+    }
+
+    @Test
+    void testReservarAcumulaPorContaEData() {
+        agregado.reservar(criar("123456", "300.00"));
+        agregado.reservar(criar("123456", "200.00"));
+        agregado.reservar(criar("111111", "50.00"));
+
+        TotalDiarioConta total = agregado.reservado("123456", AMANHA);
+        assertEquals(2, total.getQuantidade());
+        assertEquals(new BigDecimal("500.00"), total.getValorTotal());
+        assertEquals(new BigDecimal("1000.00"), total.getLimiteDiario());
+        assertEquals(0, agregado.reservado("123456", AMANHA.plusDays(1)).getQuantidade());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testReservarAcimaDoLimiteRejeitaSemAlterarOTotal() {
+        agregado.reservar(criar("123456", "900.00"));
+
+        assertFalse(agregado.reservar(criar("123456", "100.01")));
+
+        assertEquals(new BigDecimal("900.00"), agregado.reservado("123456", AMANHA).getValorTotal());
+        assertTrue(agregado.reservar(criar("123456", "100.00")));
+    }
+
+    @Test
+    void testEstornarDesfazReserva() {
+        Transferencia transferencia = criar("123456", "300.00");
+        agregado.reservar(transferencia);
+
+        agregado.estornar(transferencia);
+
+        TotalDiarioConta total = agregado.reservado("123456", AMANHA);
+        assertEquals(0, total.getQuantidade());
+        assertEquals(0, BigDecimal.ZERO.compareTo(total.getValorTotal()));
+    }
+
+    @Test
+    void testReconstruirSubstituiPelosTotaisDoBanco() {
+        agregado.reservar(criar("111111", "10.00"));
+        when(repository.somarPorContaEDataDesde(LocalDate.now())).thenReturn(List.of(
+                new TotalDiarioConta("123456", AMANHA, 3L, new BigDecimal("950.00"))));
+
+        agregado.afterSingletonsInstantiated();
+
+        assertEquals(3, agregado.reservado("123456", AMANHA).getQuantidade());
+        assertEquals(0, agregado.reservado("111111", AMANHA).getQuantidade());
+        assertFalse(agregado.reservar(criar("123456", "60.00")));
+    }
+
+    @Test
+    void testFalhaNaReconstrucaoRecusaReservasAteNovaTentativa() {
+        when(repository.somarPorContaEDataDesde(LocalDate.now()))
+                .thenThrow(new IllegalStateException("banco indisponível"))
+                .thenReturn(List.of(new TotalDiarioConta("123456", AMANHA, 3L, new BigDecimal("950.00"))));
+
+        agregado.afterSingletonsInstantiated();
+
+        assertThrows(GravacaoIndisponivelException.class, () -> agregado.reservar(criar("123456", "10.00")));
+
+        agregado.reconstruirSeIndisponivel();
+
+        assertFalse(agregado.reservar(criar("123456", "60.00")));
+        assertTrue(agregado.reservar(criar("123456", "50.00")));
+        verify(repository, times(2)).somarPorContaEDataDesde(LocalDate.now());
+    }
+
+    @Test
+    void testSemLimiteNaoRejeita() {
+        AgregadoDiarioContas semLimite = new AgregadoDiarioContas(repository, null);
+
+        semLimite.reservar(criar("123456", "1000000.00"));
+
+        assertNull(semLimite.reservado("123456", AMANHA).getLimiteDiario());
+    }
+}
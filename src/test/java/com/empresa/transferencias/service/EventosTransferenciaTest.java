@@ -0,0 +1,146 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+import com.empresa.transferencias.model.OffsetConsumidor;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.EventoTransferenciaRepository;
+import com.empresa.transferencias.repository.OffsetConsumidorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EventosTransferenciaTest {
+
+    private static final Instant AGORA = Instant.parse("2030-01-10T12:00:00Z");
+
+    private EventosTransferencia eventos;
+    private EventoTransferenciaRepository repository;
+    private OffsetConsumidorRepository offsets;
+    private JdbcTemplate jdbcTemplate;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(EventoTransferenciaRepository.class);
+        offsets = Mockito.mock(OffsetConsumidorRepository.class);
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        eventos = new EventosTransferencia(repository, offsets, jdbcTemplate,
+                TransactionOperations.withoutTransaction(), objectMapper, 50, Duration.ofDays(7));
+    }
+
+    private static EventoTransferencia evento(long sequencia, Instant criadoEm) {
+        EventoTransferencia evento = new EventoTransferencia(UUID.randomUUID(), StatusTransferencia.AGENDADA,
+                "{}", criadoEm);
+        evento.setSequencia(sequencia);
+        return evento;
+    }
+
+    private static EventoTransferencia naoNumerado(long id) {
+        EventoTransferencia evento = new EventoTransferencia(UUID.randomUUID(), StatusTransferencia.AGENDADA,
+                "{}", AGORA);
+        evento.setId(id);
+        return evento;
+    }
+
+    private static List<Long> sequencias(List<EventoTransferencia> eventos) {
+        return eventos.stream().map(EventoTransferencia::getSequencia).collect(Collectors.toList());
+    }
+
+    @Test
+    void testNumeracaoContinuaAPartirDaUltimaSequencia() {
+        // Os ids 7 e 9 confirmaram antes do 8: recebem as próximas sequências na ordem de id.
+        OffsetConsumidor sequenciador = new OffsetConsumidor(EventosTransferencia.SEQUENCIADOR, 10, AGORA);
+        when(offsets.existsById(EventosTransferencia.SEQUENCIADOR)).thenReturn(true);
+        when(offsets.bloquear(EventosTransferencia.SEQUENCIADOR)).thenReturn(Optional.of(sequenciador));
+        List<EventoTransferencia> confirmados = List.of(naoNumerado(7), naoNumerado(9));
+        when(repository.buscarNaoNumerados(any())).thenReturn(confirmados, List.of());
+
+        assertEquals(2, eventos.numerarConfirmados());
+
+        assertEquals(List.of(11L, 12L), sequencias(confirmados));
+        assertEquals(12, sequenciador.getSequencia());
+        verify(offsets).save(sequenciador);
+    }
+
+    @Test
+    void testNumeracaoEmOutraInstanciaNaoNumera() {
+        when(offsets.existsById(EventosTransferencia.SEQUENCIADOR)).thenReturn(true);
+        when(offsets.bloquear(EventosTransferencia.SEQUENCIADOR)).thenReturn(Optional.empty());
+
+        assertEquals(0, eventos.numerarConfirmados());
+
+        verify(repository, never()).buscarNaoNumerados(any());
+    }
+
+    @Test
+    void testSequenciadorCriadoAPartirDaMaiorSequencia() {
+        when(repository.ultimaSequencia()).thenReturn(Optional.of(42L));
+
+        eventos.numerarConfirmados();
+
+        verify(offsets).save(argThat(offset -> EventosTransferencia.SEQUENCIADOR.equals(offset.getConsumidor())
+                && offset.getSequencia() == 42));
+    }
+
+    @Test
+    void testRegistrarGravaATransferenciaEmJson() throws Exception {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setId(UUID.randomUUID());
+        transferencia.setContaOrigem("123456");
+        transferencia.setContaDestino("654321");
+        transferencia.setValorTransferencia(new BigDecimal("100.00"));
+        transferencia.setTaxa(new BigDecimal("12.00"));
+        transferencia.setDataTransferencia(LocalDate.of(2030, 1, 15));
+
+        eventos.registrar(List.of(transferencia, transferencia), StatusTransferencia.AGENDADA);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Object[]>> gravados = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), gravados.capture(), eq(50), any());
+        verify(repository, never()).saveAll(any());
+        assertEquals(2, gravados.getValue().size());
+        Object[] linha = gravados.getValue().iterator().next();
+        assertEquals(transferencia.getId(), linha[0]);
+        assertEquals("AGENDADA", linha[1]);
+        assertEquals("123456", objectMapper.readTree((String) linha[2]).get("contaOrigem").asText());
+
+        EventoTransferencia evento = new EventoTransferencia(transferencia.getId(), StatusTransferencia.AGENDADA,
+                (String) linha[2], Instant.now());
+        evento.setSequencia(1L);
+        String json = objectMapper.writeValueAsString(evento);
+        assertEquals("654321", objectMapper.readTree(json).get("dados").get("contaDestino").asText());
+    }
+
+    @Test
+    void testBuscarAposConsultaAPartirDaSequencia() {
+        when(repository.buscarApos(eq(10L), any())).thenReturn(List.of(evento(11, Instant.now())));
+
+        assertEquals(List.of(11L), sequencias(eventos.buscarApos(10, 100)));
+        verify(repository).buscarApos(anyLong(), any());
+    }
+}
@@ -0,0 +1,114 @@
+package com.empresa.transferencias.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeeScheduleTest {
+
+    private static final int AMOSTRAS_POR_DIA = 2_000;
+
+    @AfterEach
+    void restaurarTabelaPadrao() {
+        FeeSchedule.instalar(FeeSchedule.padrao());
+    }
+
+    /**
+     * Implementação original do cálculo de taxa, mantida como referência.
+     */
+    private static BigDecimal calcularTaxaReferencia(int diasDiferenca, BigDecimal valor) {
+        if (diasDiferenca == 0) {
+            return valor.multiply(BigDecimal.valueOf(0.025)).add(BigDecimal.valueOf(3.00));
+        } else if (diasDiferenca <= 10) {
+            return BigDecimal.valueOf(12.00);
+        } else if (diasDiferenca <= 20) {
+            return valor.multiply(BigDecimal.valueOf(0.082));
+        } else if (diasDiferenca <= 30) {
+            return valor.multiply(BigDecimal.valueOf(0.069));
+        } else if (diasDiferenca <= 40) {
+            return valor.multiply(BigDecimal.valueOf(0.047));
+        } else if (diasDiferenca <= 50) {
+            return valor.multiply(BigDecimal.valueOf(0.017));
+        }
+        throw new IllegalArgumentException("Taxa não aplicável. Transferência não permitida.");
+    }
+
+    private static BigDecimal valorAleatorio(Random random) {
+        long unscaled = 1 + (random.nextLong() & Long.MAX_VALUE) % 10_000_000_000L;
+        return BigDecimal.valueOf(unscaled, random.nextInt(5));
+    }
+
+    @Test
+    void testTabelaPadraoEquivalenteAoCalculoOriginalEmTodosOsDias() {
+        Random random = new Random(20241017L);
+        for (int dias = 0; dias <= 50; dias++) {
+            for (int i = 0; i < AMOSTRAS_POR_DIA; i++) {
+                BigDecimal valor = valorAleatorio(random);
+                BigDecimal esperado = calcularTaxaReferencia(dias, valor);
+                BigDecimal calculado = TransferenciaService.calcularTaxa(dias, valor);
+                assertEquals(esperado, calculado, "dias=" + dias + ", valor=" + valor);
+            }
+        }
+    }
+
+    @Test
+    void testTabelaPadraoResolveFaixaPorDia() {
+        Random random = new Random(7L);
+        FeeSchedule padrao = FeeSchedule.padrao();
+        for (int dias = 0; dias <= 50; dias++) {
+            BigDecimal valor = valorAleatorio(random);
+            assertEquals(calcularTaxaReferencia(dias, valor), padrao.calcular(dias, valor));
+            assertSame(padrao.faixa(dias), padrao.faixa(dias));
+        }
+        assertEquals(50, padrao.getDiasMaximos());
+    }
+
+    @Test
+    void testDiasForaDaTabelaSaoRejeitados() {
+        assertThrows(IllegalArgumentException.class, () -> TransferenciaService.calcularTaxa(51, BigDecimal.TEN));
+        assertThrows(IllegalArgumentException.class, () -> TransferenciaService.calcularTaxa(-1, BigDecimal.TEN));
+    }
+
+    @Test
+    void testFaixasComLacunaSaoRejeitadas() {
+        List<FeeSchedule.Faixa> faixas = List.of(
+                new FeeSchedule.Faixa(0, 5, BigDecimal.ZERO, BigDecimal.ONE),
+                new FeeSchedule.Faixa(7, 10, BigDecimal.ZERO, BigDecimal.ONE));
+
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.de(faixas));
+    }
+
+    @Test
+    void testFaixasSobrepostasSaoRejeitadas() {
+        List<FeeSchedule.Faixa> faixas = List.of(
+                new FeeSchedule.Faixa(0, 5, BigDecimal.ZERO, BigDecimal.ONE),
+                new FeeSchedule.Faixa(5, 10, BigDecimal.ZERO, BigDecimal.ONE));
+
+        assertThrows(IllegalArgumentException.class, () -> FeeSchedule.de(faixas));
+    }
+
+    @Test
+    void testTabelaComEscalaArredondaResultado() {
+        FeeSchedule tabela = FeeSchedule.de(
+                List.of(new FeeSchedule.Faixa(0, 0, new BigDecimal("0.025"), new BigDecimal("3.0"))),
+                2, RoundingMode.HALF_EVEN);
+
+        assertEquals(new BigDecimal("3.03"), tabela.calcular(0, new BigDecimal("1.25")));
+    }
+
+    @Test
+    void testInstalarNovaTabelaSubstituiAAtual() {
+        FeeSchedule nova = FeeSchedule.de(List.of(new FeeSchedule.Faixa(0, 60, BigDecimal.ZERO, new BigDecimal("1.00"))));
+
+        FeeSchedule anterior = FeeSchedule.instalar(nova);
+
+        assertNotSame(nova, anterior);
+        assertEquals(new BigDecimal("1.00"), TransferenciaService.calcularTaxa(55, BigDecimal.TEN));
+    }
+}
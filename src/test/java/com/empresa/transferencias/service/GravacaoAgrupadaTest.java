@@ -0,0 +1,188 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.exception.GravacaoIndisponivelException;
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class GravacaoAgrupadaTest {
+
+    private static final LocalDate AMANHA = LocalDate.now().plusDays(1);
+
+    private TransferenciaRepository repository;
+    private SimpleMeterRegistry registry;
+    private AgregadoDiarioContas agregadoContas;
+    private GravacaoAgrupada gravacao;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(TransferenciaRepository.class);
+        registry = new SimpleMeterRegistry();
+        agregadoContas = new AgregadoDiarioContas(repository, null);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (gravacao != null) {
+            gravacao.encerrar();
+        }
+    }
+
+    private GravacaoAgrupada criar(int capacidade, int tamanhoGrupo, Duration esperaMaxima) {
+        return criar(capacidade, tamanhoGrupo, esperaMaxima, Duration.ofSeconds(5));
+    }
+
+    private GravacaoAgrupada criar(int capacidade, int tamanhoGrupo, Duration esperaMaxima,
+                                   Duration tempoMaximoResposta) {
+        return new GravacaoAgrupada(repository, TransactionOperations.withoutTransaction(),
+                new TransferenciaMetricas(registry),
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry),
+                agregadoContas, null, capacidade, tamanhoGrupo, esperaMaxima, tempoMaximoResposta);
+    }
+
+    private Transferencia criar(String valor) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem("123456");
+        transferencia.setContaDestino("654321");
+        transferencia.setValorTransferencia(new BigDecimal(valor));
+        transferencia.setDataTransferencia(AMANHA);
+        return transferencia;
+    }
+
+    private static Transferencia atribuirId(Transferencia transferencia) {
+        transferencia.setId(UUID.randomUUID());
+        return transferencia;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRequisicoesConcorrentesSaoGravadasEmGrupos() throws Exception {
+        CountDownLatch primeiroGrupo = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            primeiroGrupo.await(5, TimeUnit.SECONDS);
+            List<Transferencia> grupo = invocation.getArgument(0);
+            grupo.forEach(GravacaoAgrupadaTest::atribuirId);
+            return grupo;
+        });
+        gravacao = criar(100, 50, Duration.ofMillis(50));
+        gravacao.afterSingletonsInstantiated();
+
+        int requisicoes = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(requisicoes);
+        try {
+            List<Future<Transferencia>> respostas = new ArrayList<>();
+            for (int i = 0; i < requisicoes; i++) {
+                respostas.add(executor.submit(() -> gravacao.gravar(criar("10.00"))));
+            }
+            primeiroGrupo.countDown();
+            for (Future<Transferencia> resposta : respostas) {
+                assertNotNull(resposta.get(5, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(repository, atMost(requisicoes / 2)).saveAll(anyList());
+        assertEquals((double) requisicoes, registry.get(TransferenciaMetricas.GRAVACAO_GRUPO).summary().totalAmount());
+    }
+
+    @Test
+    void testFalhaNoGrupoGravaIndividualmenteERejeitaApenasAInvalida() throws Exception {
+        when(repository.saveAll(anyList())).thenThrow(new RuntimeException("violação de restrição"));
+        when(repository.save(any(Transferencia.class))).thenAnswer(invocation -> {
+            Transferencia transferencia = invocation.getArgument(0);
+            if (transferencia.getValorTransferencia().compareTo(new BigDecimal("999.00")) == 0) {
+                throw new RuntimeException("violação de restrição");
+            }
+            return atribuirId(transferencia);
+        });
+        gravacao = criar(10, 10, Duration.ZERO);
+        Transferencia valida = criar("10.00");
+        Transferencia invalida = criar("999.00");
+        agregadoContas.reservar(valida);
+        agregadoContas.reservar(invalida);
+        GravacaoAgrupada.Pendente pendenteValida = new GravacaoAgrupada.Pendente(valida);
+        GravacaoAgrupada.Pendente pendenteInvalida = new GravacaoAgrupada.Pendente(invalida);
+
+        gravacao.gravarGrupo(List.of(pendenteValida, pendenteInvalida));
+
+        assertNotNull(pendenteValida.futuro.get().getId());
+        assertTrue(pendenteInvalida.futuro.isCompletedExceptionally());
+        assertEquals(1, agregadoContas.reservado("123456", AMANHA).getQuantidade());
+        assertEquals(new BigDecimal("10.00"), agregadoContas.reservado("123456", AMANHA).getValorTotal());
+    }
+
+    @Test
+    void testFilaCheiaRecusaImediatamente() throws InterruptedException {
+        gravacao = criar(1, 10, Duration.ZERO);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> gravacao.gravar(criar("10.00")));
+            while (gravacao.pendentes() < 1) {
+                Thread.sleep(1);
+            }
+
+            assertThrows(GravacaoIndisponivelException.class, () -> gravacao.gravar(criar("20.00")));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTempoEsgotadoNaFilaRetiraATransferencia() {
+        gravacao = criar(10, 10, Duration.ZERO, Duration.ofMillis(50));
+
+        assertThrows(GravacaoIndisponivelException.class, () -> gravacao.gravar(criar("10.00")));
+
+        assertEquals(0, gravacao.pendentes());
+        gravacao.afterSingletonsInstantiated();
+        verify(repository, after(300).never()).saveAll(anyList());
+    }
+
+    @Test
+    void testTempoEsgotadoComGrupoEmGravacaoAguardaOCommit() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            List<Transferencia> grupo = invocation.getArgument(0);
+            grupo.forEach(GravacaoAgrupadaTest::atribuirId);
+            return grupo;
+        });
+        gravacao = criar(10, 10, Duration.ZERO, Duration.ofMillis(50));
+        gravacao.afterSingletonsInstantiated();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Transferencia> resposta = executor.submit(() -> gravacao.gravar(criar("10.00")));
+            Thread.sleep(200);
+            assertFalse(resposta.isDone());
+            liberar.countDown();
+            assertNotNull(resposta.get(5, TimeUnit.SECONDS).getId());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.RegistroIdempotencia;
+import com.empresa.transferencias.repository.RegistroIdempotenciaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotenciaServiceTest {
+
+    private static final String ROTA = "POST /api/transferencias";
+
+    private IdempotenciaService service;
+    private RegistroIdempotenciaRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(RegistroIdempotenciaRepository.class);
+        service = new IdempotenciaService(repository, new ObjectMapper(), 1_000,
+                Duration.ofHours(1), Duration.ofSeconds(5), Duration.ofMinutes(15), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testRepeticaoDevolveRespostaGravadaSemExecutarNovamente() {
+        AtomicInteger execucoes = new AtomicInteger();
+
+        ResponseEntity<?> original = service.executar("k1", ROTA,
+                () -> ResponseEntity.ok(Map.of("numero", execucoes.incrementAndGet())));
+        ResponseEntity<?> repetida = service.executar("k1", ROTA,
+                () -> ResponseEntity.ok(Map.of("numero", execucoes.incrementAndGet())));
+
+        assertEquals(1, execucoes.get());
+        assertEquals(200, original.getStatusCodeValue());
+        assertEquals("{\"numero\":1}", repetida.getBody());
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotenciaService.CABECALHO_REPETICAO));
+        verify(repository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void testSemChaveExecutaSempre() {
+        AtomicInteger execucoes = new AtomicInteger();
+
+        service.executar(null, ROTA, () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+        service.executar(null, ROTA, () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+
+        assertEquals(2, execucoes.get());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testErroDoServidorNaoEGravado() {
+        AtomicInteger execucoes = new AtomicInteger();
+
+        service.executar("k1", ROTA, () -> {
+            execucoes.incrementAndGet();
+            return ResponseEntity.status(500).body(Map.of("erro", "falha"));
+        });
+        ResponseEntity<?> novaTentativa = service.executar("k1", ROTA,
+                () -> ResponseEntity.ok(execucoes.incrementAndGet()));
+
+        assertEquals(2, execucoes.get());
+        assertEquals(200, novaTentativa.getStatusCodeValue());
+        verify(repository, times(1)).deleteById("k1");
+    }
+
+    @Test
+    void testChaveReutilizadaEmOutraRota() {
+        service.executar("k1", ROTA, () -> ResponseEntity.ok("ok"));
+
+        ResponseEntity<?> resposta = service.executar("k1", "POST /api/transferencias/lote",
+                () -> ResponseEntity.ok("ok"));
+
+        assertEquals(422, resposta.getStatusCodeValue());
+    }
+
+    @Test
+    void testChaveInvalida() {
+        ResponseEntity<?> resposta = service.executar("x".repeat(101), ROTA, () -> ResponseEntity.ok("ok"));
+
+        assertEquals(400, resposta.getStatusCodeValue());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testChaveGravadaPorOutraInstancia() {
+        RegistroIdempotencia gravado = new RegistroIdempotencia("k1", ROTA, Instant.now());
+        gravado.setStatus(201);
+        gravado.setCorpo("{\"id\":1}");
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("chave duplicada"));
+        when(repository.findById("k1")).thenReturn(Optional.of(gravado));
+
+        ResponseEntity<?> resposta = service.executar("k1", ROTA, () -> fail("Não deveria executar"));
+
+        assertEquals(201, resposta.getStatusCodeValue());
+        assertEquals("{\"id\":1}", resposta.getBody());
+    }
+
+    @Test
+    void testChaveEmExecucaoEmOutraInstancia() {
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("chave duplicada"));
+        when(repository.findById("k1")).thenReturn(Optional.of(new RegistroIdempotencia("k1", ROTA, Instant.now())));
+
+        ResponseEntity<?> resposta = service.executar("k1", ROTA, () -> fail("Não deveria executar"));
+
+        assertEquals(409, resposta.getStatusCodeValue());
+    }
+
+    @Test
+    void testReservaAbandonadaERetomada() {
+        when(repository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("chave duplicada"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(repository.removerReservaAbandonada(eq("k1"), any())).thenReturn(1);
+
+        ResponseEntity<?> resposta = service.executar("k1", ROTA, () -> ResponseEntity.status(201).body("ok"));
+
+        assertEquals(201, resposta.getStatusCodeValue());
+        verify(repository, times(2)).saveAndFlush(any());
+        verify(repository).save(argThat(registro -> registro.getStatus() == 201));
+    }
+
+    @Test
+    void testFalhaAoGravarRespostaMantemAChaveReservada() {
+        AtomicInteger execucoes = new AtomicInteger();
+        when(repository.save(any())).thenThrow(new IllegalStateException("banco indisponível"));
+
+        service.executar("k1", ROTA, () -> ResponseEntity.status(201).body(execucoes.incrementAndGet()));
+        ResponseEntity<?> repetida = service.executar("k1", ROTA,
+                () -> ResponseEntity.status(201).body(execucoes.incrementAndGet()));
+
+        assertEquals(1, execucoes.get());
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotenciaService.CABECALHO_REPETICAO));
+        verify(repository, times(2)).save(any());
+        verify(repository, never()).deleteById(any());
+    }
+
+    @Test
+    void testRequisicoesSimultaneasExecutamUmaUnicaVez() throws Exception {
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ResponseEntity<?>> primeira = executor.submit(() -> service.executar("k1", ROTA, () -> {
+                execucoes.incrementAndGet();
+                emExecucao.countDown();
+                liberar.await();
+                return ResponseEntity.ok(Map.of("numero", 1));
+            }));
+            assertTrue(emExecucao.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<?>> segunda = executor.submit(() -> service.executar("k1", ROTA,
+                    () -> ResponseEntity.ok(Map.of("numero", execucoes.incrementAndGet()))));
+            Future<ResponseEntity<?>> terceira = executor.submit(() -> service.executar("k1", ROTA,
+                    () -> ResponseEntity.ok(Map.of("numero", execucoes.incrementAndGet()))));
+            Thread.sleep(100);
+            liberar.countDown();
+
+            assertEquals(200, primeira.get(5, TimeUnit.SECONDS).getStatusCodeValue());
+            assertEquals("{\"numero\":1}", segunda.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals("{\"numero\":1}", terceira.get(5, TimeUnit.SECONDS).getBody());
+            assertEquals(1, execucoes.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LiquidacaoServiceTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2030, 1, 10);
+
+    private TransferenciaRepository repository;
+    private LiquidacaoTransferencia liquidacao;
+    private SimpleMeterRegistry registry;
+    private LiquidacaoService service;
+    private final Set<Thread> threadsLiquidacao = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(TransferenciaRepository.class);
+        liquidacao = Mockito.mock(LiquidacaoTransferencia.class);
+        doAnswer(invocation -> threadsLiquidacao.add(Thread.currentThread())).when(liquidacao).liquidar(any());
+        when(repository.atualizarStatusSe(anyCollection(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Collection<?>>getArgument(0).size());
+        registry = new SimpleMeterRegistry();
+        service = new LiquidacaoService(repository, liquidacao, TransactionOperations.withoutTransaction(),
+                new TransferenciaMetricas(registry),
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry), null,
+                2, 2, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    private List<Transferencia> bloco(int quantidade) {
+        List<Transferencia> bloco = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            Transferencia transferencia = new Transferencia();
+            transferencia.setId(UUID.randomUUID());
+            transferencia.setDataTransferencia(HOJE);
+            bloco.add(transferencia);
+        }
+        return bloco;
+    }
+
+    private double liquidacoes(String resultado) {
+        return registry.get(TransferenciaMetricas.LIQUIDACOES).tag("resultado", resultado).counter().count();
+    }
+
+    @Test
+    void testCicloReservaBlocosAteEsgotarAsVencidas() throws InterruptedException {
+        when(repository.bloquearVencidas(eq(StatusTransferencia.AGENDADA), eq(HOJE), any(Pageable.class)))
+                .thenReturn(bloco(2), bloco(2), bloco(1));
+
+        int processadas = service.executarCiclo(HOJE);
+
+        assertEquals(5, processadas);
+        verify(repository, times(3)).bloquearVencidas(any(), any(), any());
+        verify(repository, times(3)).atualizarStatus(anyCollection(), eq(StatusTransferencia.PROCESSANDO), any());
+        verify(repository, times(3)).atualizarStatusSe(anyCollection(), eq(StatusTransferencia.PROCESSANDO), any(),
+                eq(StatusTransferencia.CONCLUIDA), any());
+        verify(liquidacao, times(5)).liquidar(any());
+        assertEquals(5.0, liquidacoes("concluida"));
+        assertTrue(threadsLiquidacao.stream().allMatch(t -> t.getName().startsWith("liquidacao-")));
+    }
+
+    @Test
+    void testFalhaNaLiquidacaoMarcaApenasATransferencia() throws InterruptedException {
+        List<Transferencia> bloco = bloco(2);
+        Transferencia falha = bloco.get(1);
+        doThrow(new IllegalStateException("recusada")).when(liquidacao).liquidar(falha);
+        when(repository.bloquearVencidas(any(), any(), any())).thenReturn(bloco, List.of());
+
+        service.executarCiclo(HOJE);
+
+        verify(repository).atualizarStatusSe(eq(List.of(bloco.get(0).getId())), eq(StatusTransferencia.PROCESSANDO),
+                any(), eq(StatusTransferencia.CONCLUIDA), any());
+        verify(repository).atualizarStatusSe(eq(List.of(falha.getId())), eq(StatusTransferencia.PROCESSANDO),
+                any(), eq(StatusTransferencia.FALHOU), any());
+        assertEquals(1.0, liquidacoes("concluida"));
+        assertEquals(1.0, liquidacoes("falhou"));
+    }
+
+    @Test
+    void testCicloSemVencidasApenasRecuperaReservasAbandonadas() throws InterruptedException {
+        when(repository.bloquearVencidas(any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, service.executarCiclo(HOJE));
+
+        verify(repository).reverterStatusAnteriorA(eq(StatusTransferencia.PROCESSANDO),
+                eq(StatusTransferencia.AGENDADA), any());
+        verify(repository, never()).atualizarStatus(anyCollection(), any(), any());
+        verify(repository, never()).atualizarStatusSe(anyCollection(), any(), any(), any(), any());
+        verifyNoInteractions(liquidacao);
+    }
+
+    @Test
+    void testConclusaoExigeAReservaDoProprioBloco() throws InterruptedException {
+        when(repository.bloquearVencidas(any(), any(), any())).thenReturn(bloco(2), List.of());
+
+        service.executarCiclo(HOJE);
+
+        ArgumentCaptor<Instant> reservadoEm = ArgumentCaptor.forClass(Instant.class);
+        verify(repository).atualizarStatus(anyCollection(), eq(StatusTransferencia.PROCESSANDO), reservadoEm.capture());
+        verify(repository).atualizarStatusSe(anyCollection(), eq(StatusTransferencia.PROCESSANDO),
+                eq(reservadoEm.getValue()), eq(StatusTransferencia.CONCLUIDA), any());
+    }
+
+    @Test
+    void testReservaDevolvidaNaoContaComoConcluida() throws InterruptedException {
+        List<Transferencia> bloco = bloco(3);
+        when(repository.bloquearVencidas(any(), any(), any())).thenReturn(bloco, List.of());
+        when(repository.atualizarStatusSe(anyCollection(), any(), any(), eq(StatusTransferencia.CONCLUIDA), any()))
+                .thenReturn(1);
+        when(repository.buscarIdsComStatus(anyCollection(), eq(StatusTransferencia.CONCLUIDA), any()))
+                .thenReturn(List.of(bloco.get(2).getId()));
+
+        service.executarCiclo(HOJE);
+
+        assertEquals(1.0, liquidacoes("concluida"));
+    }
+
+    @Test
+    void testTransferenciasReservadasFicamEmProcessando() throws InterruptedException {
+        List<Transferencia> bloco = bloco(1);
+        List<StatusTransferencia> statusNaLiquidacao = new ArrayList<>();
+        doAnswer(invocation -> statusNaLiquidacao.add(invocation.<Transferencia>getArgument(0).getStatus()))
+                .when(liquidacao).liquidar(any());
+        when(repository.bloquearVencidas(any(), any(), any())).thenReturn(bloco);
+
+        service.executarCiclo(HOJE);
+
+        assertEquals(List.of(StatusTransferencia.PROCESSANDO), statusNaLiquidacao);
+    }
+
+    private LiquidacaoService serviceRenovandoACadaTransferencia() {
+        // Com tempo máximo zero, a reserva é renovada antes de cada liquidação.
+        service.encerrar();
+        service = new LiquidacaoService(repository, liquidacao, TransactionOperations.withoutTransaction(),
+                new TransferenciaMetricas(registry),
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry), null,
+                2, 2, Duration.ZERO);
+        return service;
+    }
+
+    @Test
+    void testReservaRenovadaDuranteALiquidacao() {
+        List<Transferencia> bloco = bloco(2);
+        Instant reservadoEm = Instant.parse("2030-01-10T10:00:00Z");
+
+        serviceRenovandoACadaTransferencia().processarBloco(bloco, reservadoEm);
+
+        ArgumentCaptor<Instant> renovadoEm = ArgumentCaptor.forClass(Instant.class);
+        verify(repository, times(2)).atualizarStatusSe(anyCollection(), eq(StatusTransferencia.PROCESSANDO), any(),
+                eq(StatusTransferencia.PROCESSANDO), renovadoEm.capture());
+        verify(repository).atualizarStatusSe(anyCollection(), eq(StatusTransferencia.PROCESSANDO),
+                eq(reservadoEm), eq(StatusTransferencia.PROCESSANDO), any());
+        verify(repository).atualizarStatusSe(anyCollection(), eq(StatusTransferencia.PROCESSANDO),
+                eq(renovadoEm.getValue()), eq(StatusTransferencia.CONCLUIDA), any());
+        verify(liquidacao, times(2)).liquidar(any());
+    }
+
+    @Test
+    void testReservaDevolvidaDuranteALiquidacaoNaoLiquidaDeNovo() {
+        List<Transferencia> bloco = bloco(2);
+        when(repository.atualizarStatusSe(anyCollection(), any(), any(), eq(StatusTransferencia.PROCESSANDO), any()))
+                .thenReturn(1);
+        when(repository.buscarIdsComStatus(anyCollection(), eq(StatusTransferencia.PROCESSANDO), any()))
+                .thenReturn(List.of(bloco.get(0).getId()));
+
+        serviceRenovandoACadaTransferencia().processarBloco(bloco, Instant.now());
+
+        verify(liquidacao).liquidar(bloco.get(0));
+        verify(liquidacao, never()).liquidar(bloco.get(1));
+    }
+
+    @Test
+    void testReservasAbandonadasInvalidamOCacheDaData() throws InterruptedException {
+        CacheTransferenciasPorData cache =
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry);
+        service.encerrar();
+        service = new LiquidacaoService(repository, liquidacao, TransactionOperations.withoutTransaction(),
+                new TransferenciaMetricas(registry), cache, null, 2, 2, Duration.ofMinutes(10));
+        cache.buscar(HOJE, data -> List.of());
+        when(repository.buscarDatasComStatusAnteriorA(eq(StatusTransferencia.PROCESSANDO), any()))
+                .thenReturn(List.of(HOJE));
+        when(repository.reverterStatusAnteriorA(any(), any(), any())).thenReturn(1);
+        when(repository.bloquearVencidas(any(), any(), any())).thenReturn(List.of());
+
+        service.executarCiclo(HOJE);
+
+        List<Transferencia> recarregada = bloco(1);
+        assertEquals(recarregada, cache.buscar(HOJE, data -> recarregada));
+    }
+}
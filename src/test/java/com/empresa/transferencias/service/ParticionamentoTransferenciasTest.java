@@ -0,0 +1,68 @@
+package com.empresa.transferencias.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ParticionamentoTransferenciasTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+    }
+
+    private ParticionamentoTransferencias criar(String banco, int retencaoMeses) {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(banco);
+        return new ParticionamentoTransferencias(jdbcTemplate, true, 2, retencaoMeses,
+                ParticionamentoTransferencias.AcaoRetencao.REMOVER, "agendamento");
+    }
+
+    @Test
+    void testMesesACriarIncluemOAtualEOsSeguintes() {
+        assertEquals(List.of(YearMonth.of(2030, 12), YearMonth.of(2031, 1), YearMonth.of(2031, 2)),
+                ParticionamentoTransferencias.mesesACriar(YearMonth.of(2030, 12), 2));
+    }
+
+    @Test
+    void testInicializacaoCriaParticoesEAplicaRetencao() {
+        ParticionamentoTransferencias particionamento = criar("PostgreSQL", 12);
+
+        particionamento.afterSingletonsInstantiated();
+
+        verify(jdbcTemplate, times(3)).queryForObject(eq("select agendamento.criar_particao_transferencias(?)"),
+                eq(String.class), any(Date.class));
+        verify(jdbcTemplate).queryForList("select agendamento.desanexar_particoes_transferencias(?, ?)",
+                String.class, Date.valueOf(YearMonth.now().minusMonths(12).atDay(1)), true);
+    }
+
+    @Test
+    void testSemRetencaoNaoDesanexa() {
+        criar("PostgreSQL", 0).afterSingletonsInstantiated();
+
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(), any());
+    }
+
+    @Test
+    void testOutroBancoDesativaAManutencao() {
+        ParticionamentoTransferencias particionamento = criar("H2", 12);
+
+        particionamento.afterSingletonsInstantiated();
+        particionamento.manter();
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(String.class), any(Object[].class));
+    }
+}
@@ -0,0 +1,115 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.model.EventoTransferencia;
+import com.empresa.transferencias.model.OffsetConsumidor;
+import com.empresa.transferencias.model.StatusTransferencia;
+import com.empresa.transferencias.repository.OffsetConsumidorRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RelayEventosTest {
+
+    private EventosTransferencia eventos;
+    private OffsetConsumidorRepository offsets;
+    private OffsetConsumidor offset;
+    private List<EventoTransferencia> publicados;
+
+    @BeforeEach
+    void setUp() {
+        eventos = Mockito.mock(EventosTransferencia.class);
+        offsets = Mockito.mock(OffsetConsumidorRepository.class);
+        offset = new OffsetConsumidor("relay", 0, Instant.now());
+        when(offsets.existsById("relay")).thenReturn(true);
+        when(offsets.bloquear("relay")).thenReturn(Optional.of(offset));
+        publicados = new ArrayList<>();
+    }
+
+    private RelayEventos relay(DestinoEventos destino) {
+        return new RelayEventos(eventos, offsets, destino, TransactionOperations.withoutTransaction(), "relay", 2);
+    }
+
+    private static EventoTransferencia evento(long sequencia) {
+        EventoTransferencia evento = new EventoTransferencia(UUID.randomUUID(), StatusTransferencia.AGENDADA,
+                "{\"taxa\":12.00}", Instant.now());
+        evento.setSequencia(sequencia);
+        return evento;
+    }
+
+    @Test
+    void testPublicaEmLotesEAvancaAPosicao() {
+        when(eventos.buscarApos(0, 2)).thenReturn(List.of(evento(1), evento(2)));
+        when(eventos.buscarApos(2, 2)).thenReturn(List.of(evento(3)));
+
+        long total = relay(publicados::addAll).publicarPendentes();
+
+        assertEquals(3, total);
+        assertEquals(3, publicados.size());
+        assertEquals(3, offset.getSequencia());
+        verify(offsets, times(2)).save(offset);
+    }
+
+    @Test
+    void testFalhaNaPublicacaoMantemAPosicao() {
+        when(eventos.buscarApos(0, 2)).thenReturn(List.of(evento(1), evento(2)));
+
+        RelayEventos relay = relay(lote -> {
+            throw new IOException("destino indisponível");
+        });
+
+        assertThrows(RuntimeException.class, relay::publicarPendentes);
+        assertEquals(0, offset.getSequencia());
+        verify(offsets, never()).save(any());
+    }
+
+    @Test
+    void testPosicaoBloqueadaPorOutraInstanciaPulaOCiclo() {
+        when(offsets.bloquear("relay")).thenReturn(Optional.empty());
+
+        assertEquals(0, relay(publicados::addAll).publicarPendentes());
+        verify(eventos, never()).buscarApos(anyLong(), anyInt());
+    }
+
+    @Test
+    void testRegistraOConsumidorNaPrimeiraExecucao() {
+        when(offsets.existsById("relay")).thenReturn(false);
+        when(eventos.buscarApos(0, 2)).thenReturn(List.of());
+
+        relay(publicados::addAll).publicarPendentes();
+
+        verify(offsets).save(argThat(o -> "relay".equals(o.getConsumidor()) && o.getSequencia() == 0));
+    }
+
+    @Test
+    void testDestinoArquivoAcrescentaUmEventoPorLinha(@TempDir Path diretorio) throws Exception {
+        Path arquivo = diretorio.resolve("eventos/transferencias.ndjson");
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        DestinoEventosArquivo destino = new DestinoEventosArquivo(arquivo, objectMapper);
+
+        destino.publicar(List.of(evento(1), evento(2)));
+        destino.publicar(List.of(evento(3)));
+
+        List<String> linhas = Files.readAllLines(arquivo);
+        assertEquals(3, linhas.size());
+        assertEquals(3, objectMapper.readTree(linhas.get(2)).get("sequencia").asLong());
+        assertTrue(linhas.get(0).contains("\"dados\":{\"taxa\":12.00}"), linhas.get(0));
+    }
+}
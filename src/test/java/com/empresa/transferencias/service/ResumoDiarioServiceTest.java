@@ -0,0 +1,94 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.TotalDiario;
+import com.empresa.transferencias.model.ResumoDiario;
+import com.empresa.transferencias.repository.ResumoDiarioRepository;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ResumoDiarioServiceTest {
+
+    private static final LocalDate ONTEM = LocalDate.now().minusDays(1);
+
+    private TransferenciaRepository repository;
+    private ResumoDiarioRepository resumoRepository;
+    private ResumoDiarioService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(TransferenciaRepository.class);
+        resumoRepository = Mockito.mock(ResumoDiarioRepository.class);
+        service = new ResumoDiarioService(repository, resumoRepository, TransactionOperations.withoutTransaction(), true);
+    }
+
+    private TotalDiario total(LocalDate data, long quantidade) {
+        return new TotalDiario(data, quantidade, new BigDecimal("100.00"), new BigDecimal("12.0"));
+    }
+
+    @Test
+    void testSemResumoConsolidadoAgregaTudoNaTabelaDeTransferencias() {
+        LocalDate de = ONTEM.minusDays(30);
+        when(repository.somarPorDia(de, ONTEM)).thenReturn(List.of(total(de, 1)));
+
+        assertEquals(1, service.totaisPorDia(de, ONTEM).size());
+        verifyNoInteractions(resumoRepository);
+    }
+
+    @Test
+    void testPeriodoLongoLeDatasConsolidadasDoResumo() {
+        LocalDate consolidada = ONTEM.minusDays(10);
+        when(resumoRepository.ultimaDataConsolidada()).thenReturn(consolidada);
+        service.afterSingletonsInstantiated();
+        LocalDate de = consolidada.minusDays(365);
+        LocalDate ate = ONTEM.plusDays(30);
+        when(resumoRepository.buscarPeriodo(de, consolidada)).thenReturn(List.of(total(de, 3)));
+        when(repository.somarPorDia(consolidada.plusDays(1), ate)).thenReturn(List.of(total(ate, 2)));
+
+        List<TotalDiario> totais = service.totaisPorDia(de, ate);
+
+        assertEquals(List.of(de, ate), List.of(totais.get(0).getData(), totais.get(1).getData()));
+        verify(repository, never()).somarPorDia(eq(de), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testConsolidarGravaApenasAsDatasNovasIncluindoDatasVazias() {
+        LocalDate inicio = ONTEM.minusDays(2);
+        when(resumoRepository.ultimaDataConsolidada()).thenReturn(inicio.minusDays(1));
+        when(repository.somarPorDia(inicio, ONTEM)).thenReturn(List.of(total(inicio, 4), total(ONTEM, 1)));
+
+        assertEquals(3, service.consolidar());
+
+        ArgumentCaptor<List<ResumoDiario>> captor = ArgumentCaptor.forClass(List.class);
+        verify(resumoRepository).saveAll(captor.capture());
+        List<ResumoDiario> resumos = captor.getValue();
+        assertEquals(4, resumos.get(0).getQuantidade());
+        assertEquals(0, resumos.get(1).getQuantidade());
+        assertEquals(ONTEM, resumos.get(2).getData());
+
+        when(resumoRepository.buscarPeriodo(inicio, ONTEM)).thenReturn(List.of(total(inicio, 4)));
+        service.totaisPorDia(inicio, ONTEM);
+        verify(repository, times(1)).somarPorDia(any(), any());
+    }
+
+    @Test
+    void testConsolidarSemDatasPendentesNaoGrava() {
+        when(resumoRepository.ultimaDataConsolidada()).thenReturn(ONTEM);
+
+        assertEquals(0, service.consolidar());
+        verify(resumoRepository, never()).saveAll(anyList());
+    }
+}
@@ -0,0 +1,151 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.ResultadoLote;
+import com.empresa.transferencias.dto.ResumoImportacao;
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TransferenciaImportacaoServiceTest {
+
+    private TransferenciaImportacaoService importacaoService;
+    private TransferenciaRepository repository;
+    private AgregadoDiarioContas agregadoContas;
+    private final List<String> gravadas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(TransferenciaRepository.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransferenciaMetricas metricas = new TransferenciaMetricas(registry);
+        CacheTransferenciasPorData cachePorData =
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry);
+        agregadoContas = new AgregadoDiarioContas(repository, null);
+        TransferenciaService service = new TransferenciaService(repository, metricas, cachePorData, agregadoContas, null,
+                TransactionOperations.withoutTransaction(), null);
+        TransferenciaLoteService loteService = new TransferenciaLoteService(service, repository,
+                TransactionOperations.withoutTransaction(), cachePorData, agregadoContas, null, 2);
+        importacaoService = new TransferenciaImportacaoService(loteService, agregadoContas, 2, 3, 2, 2);
+
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transferencia> bloco = invocation.getArgument(0);
+            bloco.forEach(t -> {
+                t.setId(UUID.randomUUID());
+                gravadas.add(t.getContaDestino());
+            });
+            return bloco;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        importacaoService.encerrar();
+    }
+
+    private Transferencia criarTransferencia(String origem, String destino, int dias) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem(origem);
+        transferencia.setContaDestino(destino);
+        transferencia.setValorTransferencia(new BigDecimal("100.00"));
+        transferencia.setDataTransferencia(LocalDate.now().plusDays(dias));
+        return transferencia;
+    }
+
+    private static String destino(int i) {
+        return String.format("%06d", i);
+    }
+
+    @Test
+    void testImportacaoPersisteEmBlocosNaOrdemDoArquivo() {
+        List<String> esperadas = new ArrayList<>();
+        ResumoImportacao resumo;
+        try (TransferenciaImportacaoService.Importacao importacao = importacaoService.iniciarImportacao()) {
+            for (int i = 0; i < 25; i++) {
+                importacao.adicionar(criarTransferencia("123456", destino(i), 5));
+                esperadas.add(destino(i));
+            }
+            resumo = importacao.concluir();
+        }
+
+        assertEquals(25, resumo.getQuantidade());
+        assertEquals(25, resumo.getAceitas());
+        assertEquals(0, resumo.getRejeitadas());
+        assertEquals(esperadas, gravadas);
+        verify(repository, times(13)).saveAll(anyList());
+        assertEquals(25L, agregadoContas.reservado("123456", LocalDate.now().plusDays(5)).getQuantidade());
+    }
+
+    @Test
+    void testRejeicoesGuardamAPosicaoELimitamODetalhe() {
+        ResumoImportacao resumo;
+        try (TransferenciaImportacaoService.Importacao importacao = importacaoService.iniciarImportacao()) {
+            importacao.adicionar(criarTransferencia("123456", "654321", 5));
+            importacao.rejeitar("Linha inválida.");
+            importacao.adicionar(criarTransferencia("123456", "123456", 5));
+            importacao.adicionar(null);
+            importacao.adicionar(criarTransferencia("123456", "654321", 60));
+            resumo = importacao.concluir();
+        }
+
+        assertEquals(5, resumo.getQuantidade());
+        assertEquals(1, resumo.getAceitas());
+        assertEquals(4, resumo.getRejeitadas());
+        assertEquals(2, resumo.getRejeicoes().size());
+        assertEquals(1, resumo.getRejeicoes().get(0).getIndice());
+        assertEquals("Linha inválida.", resumo.getRejeicoes().get(0).getErro());
+        assertEquals(ResultadoLote.Status.REJEITADA, resumo.getRejeicoes().get(1).getStatus());
+    }
+
+    @Test
+    void testFalhaAoPersistirRejeitaOBlocoEEstornaAsReservas() {
+        when(repository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("conexão perdida"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ResumoImportacao resumo;
+        try (TransferenciaImportacaoService.Importacao importacao = importacaoService.iniciarImportacao()) {
+            importacao.adicionar(criarTransferencia("123456", "654321", 5));
+            importacao.adicionar(criarTransferencia("123456", "654321", 5));
+            importacao.adicionar(criarTransferencia("123456", "654321", 5));
+            resumo = importacao.concluir();
+        }
+
+        assertEquals(1, resumo.getAceitas());
+        assertEquals(2, resumo.getRejeitadas());
+        assertEquals(List.of(0, 1), resumo.getRejeicoes().stream()
+                .map(ResultadoLote::getIndice).collect(Collectors.toList()));
+        assertTrue(resumo.getRejeicoes().get(0).getErro().startsWith("Erro ao persistir"));
+        assertEquals(1L, agregadoContas.reservado("123456", LocalDate.now().plusDays(5)).getQuantidade());
+    }
+
+    @Test
+    void testImportacaoInterrompidaEstornaOsItensNaoGravados() {
+        try (TransferenciaImportacaoService.Importacao importacao = importacaoService.iniciarImportacao()) {
+            for (int i = 0; i < 5; i++) {
+                importacao.adicionar(criarTransferencia("123456", destino(i), 5));
+            }
+        }
+
+        long gravadasAntesDoFim = gravadas.size();
+        assertEquals(gravadasAntesDoFim, agregadoContas.reservado("123456", LocalDate.now().plusDays(5)).getQuantidade());
+        assertTrue(gravadasAntesDoFim < 5);
+    }
+}
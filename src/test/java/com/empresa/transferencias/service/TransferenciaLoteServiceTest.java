@@ -0,0 +1,106 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.ResultadoLote;
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
+import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.TransferenciaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TransferenciaLoteServiceTest {
+
+    private TransferenciaLoteService loteService;
+    private TransferenciaRepository repository;
+    private AgregadoDiarioContas agregadoContas;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(TransferenciaRepository.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TransferenciaMetricas metricas = new TransferenciaMetricas(registry);
+        CacheTransferenciasPorData cachePorData =
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry);
+        agregadoContas = new AgregadoDiarioContas(repository, null);
+        TransferenciaService service = new TransferenciaService(repository, metricas, cachePorData, agregadoContas, null,
+                TransactionOperations.withoutTransaction(), null);
+        loteService = new TransferenciaLoteService(service, repository,
+                TransactionOperations.withoutTransaction(), cachePorData, agregadoContas, null, 2);
+
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Transferencia> bloco = invocation.getArgument(0);
+            bloco.forEach(t -> t.setId(UUID.randomUUID()));
+            return bloco;
+        });
+    }
+
+    private Transferencia criarTransferencia(String origem, String destino, String valor, int dias) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem(origem);
+        transferencia.setContaDestino(destino);
+        transferencia.setValorTransferencia(new BigDecimal(valor));
+        transferencia.setDataTransferencia(LocalDate.now().plusDays(dias));
+        return transferencia;
+    }
+
+    @Test
+    void testAgendarLotePersisteEmBlocos() {
+        List<ResultadoLote> resultados = loteService.agendarLote(List.of(
+                criarTransferencia("123456", "654321", "100.00", 5),
+                criarTransferencia("123456", "654321", "200.00", 15),
+                criarTransferencia("123456", "654321", "300.00", 25)
+        ));
+
+        assertEquals(3, resultados.size());
+        resultados.forEach(r -> assertEquals(ResultadoLote.Status.ACEITA, r.getStatus()));
+        assertEquals(new BigDecimal("12.0"), resultados.get(0).getTaxa());
+        verify(repository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void testAgendarLoteRejeitaItensInvalidosSemFalharOsDemais() {
+        List<ResultadoLote> resultados = loteService.agendarLote(List.of(
+                criarTransferencia("123456", "654321", "100.00", 5),
+                criarTransferencia("123456", "123456", "100.00", 5),
+                criarTransferencia("12345", "654321", "100.00", 5),
+                criarTransferencia("123456", "654321", "100.00", 60)
+        ));
+
+        assertEquals(ResultadoLote.Status.ACEITA, resultados.get(0).getStatus());
+        assertEquals(ResultadoLote.Status.REJEITADA, resultados.get(1).getStatus());
+        assertEquals(ResultadoLote.Status.REJEITADA, resultados.get(2).getStatus());
+        assertEquals(ResultadoLote.Status.REJEITADA, resultados.get(3).getStatus());
+        assertTrue(resultados.get(2).getErro().startsWith("contaOrigem"));
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testFalhaAoPersistirRejeitaApenasOBloco() {
+        when(repository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("conexão perdida"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<ResultadoLote> resultados = loteService.agendarLote(List.of(
+                criarTransferencia("123456", "654321", "100.00", 5),
+                criarTransferencia("123456", "654321", "100.00", 5),
+                criarTransferencia("123456", "654321", "100.00", 5)
+        ));
+
+        assertEquals(ResultadoLote.Status.REJEITADA, resultados.get(0).getStatus());
+        assertEquals(ResultadoLote.Status.REJEITADA, resultados.get(1).getStatus());
+        assertEquals(ResultadoLote.Status.ACEITA, resultados.get(2).getStatus());
+        assertEquals(1L, agregadoContas.reservado("123456", LocalDate.now().plusDays(5)).getQuantidade());
+    }
+}
@@ -1,15 +1,30 @@
 package com.empresa.transferencias.service;
 
+import com.empresa.transferencias.dto.CotacaoTaxa;
+import com.empresa.transferencias.dto.CursorPaginacao;
+import com.empresa.transferencias.dto.PaginaTransferencias;
+import com.empresa.transferencias.dto.ResultadoAgendamento;
+import com.empresa.transferencias.dto.TotalDiarioConta;
+import com.empresa.transferencias.exception.MotivoRejeicao;
+import com.empresa.transferencias.metrics.TransferenciaMetricas;
 import com.empresa.transferencias.model.Transferencia;
+import com.empresa.transferencias.repository.RoteamentoLeitura;
 import com.empresa.transferencias.repository.TransferenciaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,12 +34,17 @@ class TransferenciaServiceTest {
 
     private TransferenciaService service;
     private TransferenciaRepository repository;
+    private SimpleMeterRegistry registry;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.initMocks(this);
         repository = Mockito.mock(TransferenciaRepository.class);
-        service = new TransferenciaService(repository);
+        registry = new SimpleMeterRegistry();
+        service = new TransferenciaService(repository, new TransferenciaMetricas(registry),
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry),
+                new AgregadoDiarioContas(repository, null), null,
+                TransactionOperations.withoutTransaction(), null);
     }
 
     @Test
@@ -41,7 +61,7 @@ class TransferenciaServiceTest {
             return t;
         });
 
-        Transferencia agendada = service.agendarTransferencia(transferencia);
+        Transferencia agendada = service.agendarTransferencia(transferencia).getTransferencia();
 
         assertNotNull(agendada.getId());
         assertEquals(new BigDecimal("1000.00"), agendada.getValorTransferencia());
@@ -49,6 +69,26 @@ class TransferenciaServiceTest {
         verify(repository, times(1)).save(any(Transferencia.class));
     }
 
+    @Test
+    void testAgendarTransferenciaRejeitadaRegistraMetricas() {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem("123456");
+        transferencia.setContaDestino("123456");
+        transferencia.setValorTransferencia(new BigDecimal("1000.00"));
+        transferencia.setDataTransferencia(LocalDate.now().plusDays(5));
+
+        ResultadoAgendamento resultado = service.agendarTransferencia(transferencia);
+
+        assertFalse(resultado.isAceita());
+        assertEquals(MotivoRejeicao.CONTAS_IGUAIS, resultado.getValidacao().getMotivo());
+
+        assertEquals(1.0, registry.get(TransferenciaMetricas.REJEICOES)
+                .tag("motivo", MotivoRejeicao.CONTAS_IGUAIS.name()).counter().count());
+        assertEquals(1, registry.get(TransferenciaMetricas.AGENDAMENTO)
+                .tag("resultado", "rejeitada").timer().count());
+        verify(repository, never()).save(any(Transferencia.class));
+    }
+
     @Test
     void testListarTransferencias() {
         Transferencia t1 = new Transferencia();
@@ -61,12 +101,39 @@ class TransferenciaServiceTest {
         t2.setContaOrigem("987654");
         t2.setContaDestino("456789");
 
-        when(repository.findAll()).thenReturn(List.of(t1, t2));
+        when(repository.findAllByOrderByDataTransferenciaAscIdAsc(any(Pageable.class))).thenReturn(List.of(t1, t2));
+
+        PaginaTransferencias pagina = service.listarTransferencias(null, 10);
+
+        assertEquals(2, pagina.getQuantidade());
+        assertNull(pagina.getProximoCursor());
+        verify(repository, times(1)).findAllByOrderByDataTransferenciaAscIdAsc(PageRequest.of(0, 11));
+    }
+
+    @Test
+    void testListarTransferenciasComCursor() {
+        LocalDate data = LocalDate.now().plusDays(5);
+        Transferencia t1 = new Transferencia();
+        t1.setId(UUID.randomUUID());
+        t1.setDataTransferencia(data);
+        Transferencia t2 = new Transferencia();
+        t2.setId(UUID.randomUUID());
+        t2.setDataTransferencia(data);
+        UUID anterior = UUID.randomUUID();
+        String cursor = new CursorPaginacao(data, anterior).codificar();
+
+        when(repository.buscarPaginaApos(eq(data), eq(anterior), any(Pageable.class))).thenReturn(List.of(t1, t2));
 
-        List<Transferencia> transferencias = service.listarTransferencias();
+        PaginaTransferencias pagina = service.listarTransferencias(cursor, 1);
 
-        assertEquals(2, transferencias.size());
-        verify(repository, times(1)).findAll();
+        assertEquals(1, pagina.getQuantidade());
+        assertEquals(new CursorPaginacao(data, t1.getId()), CursorPaginacao.decodificar(pagina.getProximoCursor()));
+    }
+
+    @Test
+    void testListarTransferenciasComCursorInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> service.listarTransferencias("nao-e-um-cursor", 10));
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -86,4 +153,91 @@ class TransferenciaServiceTest {
         assertEquals(data, resultado.get(0).getDataTransferencia());
         verify(repository, times(1)).findByDataTransferencia(data);
     }
+
+    @Test
+    void testBuscarPorDataTransferenciaServidaDoCacheAteNovoAgendamento() {
+        LocalDate data = LocalDate.now().plusDays(5);
+        Transferencia existente = new Transferencia();
+        existente.setId(UUID.randomUUID());
+        existente.setDataTransferencia(data);
+        when(repository.findByDataTransferencia(data)).thenReturn(List.of(existente));
+        when(repository.save(any(Transferencia.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.buscarPorDataTransferencia(data);
+        service.buscarPorDataTransferencia(data);
+        verify(repository, times(1)).findByDataTransferencia(data);
+
+        Transferencia nova = new Transferencia();
+        nova.setContaOrigem("123456");
+        nova.setContaDestino("654321");
+        nova.setValorTransferencia(new BigDecimal("10.00"));
+        nova.setDataTransferencia(data);
+        service.agendarTransferencia(nova);
+
+        service.buscarPorDataTransferencia(data);
+        verify(repository, times(2)).findByDataTransferencia(data);
+    }
+
+    @Test
+    void testBuscarPorDataTransferenciaRecarregaNoPrimarioAposNovoAgendamento() {
+        LocalDate data = LocalDate.now().plusDays(5);
+        List<Boolean> primario = new ArrayList<>();
+        when(repository.findByDataTransferencia(data)).thenAnswer(invocation -> {
+            primario.add(RoteamentoLeitura.isPrimarioExigido());
+            return List.of();
+        });
+        when(repository.save(any(Transferencia.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.buscarPorDataTransferencia(data);
+        Transferencia nova = new Transferencia();
+        nova.setContaOrigem("123456");
+        nova.setContaDestino("654321");
+        nova.setValorTransferencia(new BigDecimal("10.00"));
+        nova.setDataTransferencia(data);
+        service.agendarTransferencia(nova);
+        service.buscarPorDataTransferencia(data);
+
+        assertEquals(List.of(false, true), primario);
+        assertFalse(RoteamentoLeitura.isPrimarioExigido());
+    }
+
+    @Test
+    void testCotarTaxaNaoAcessaORepositorio() {
+        LocalDate hoje = LocalDate.now();
+
+        CotacaoTaxa cotacao = service.cotarTaxa(new BigDecimal("1000.00"), hoje.plusDays(15), hoje);
+        CotacaoTaxa semFaixa = service.cotarTaxa(new BigDecimal("1000.00"), hoje.plusDays(60), hoje);
+
+        assertTrue(cotacao.isValida());
+        assertNull(cotacao.getViolacoes());
+        assertEquals(TransferenciaService.calcularTaxa(15, new BigDecimal("1000.00")), cotacao.getTaxa());
+        assertNull(semFaixa.getTaxa());
+        assertEquals(MotivoRejeicao.TAXA_NAO_APLICAVEL, semFaixa.getViolacoes().get(0).getCodigo());
+        verifyNoInteractions(repository);
+        assertEquals(0.0, registry.get(TransferenciaMetricas.REJEICOES)
+                .tag("motivo", MotivoRejeicao.TAXA_NAO_APLICAVEL.name()).counter().count());
+    }
+
+    @Test
+    void testTotalDiarioPorContaSomadoNoBanco() {
+        LocalDate data = LocalDate.now().plusDays(1);
+        Transferencia reservada = new Transferencia();
+        reservada.setContaOrigem("123456");
+        reservada.setValorTransferencia(new BigDecimal("500.00"));
+        reservada.setDataTransferencia(data);
+        AgregadoDiarioContas agregado = new AgregadoDiarioContas(repository, new BigDecimal("1000.00"));
+        agregado.reservar(reservada);
+        service = new TransferenciaService(repository, new TransferenciaMetricas(registry),
+                new CacheTransferenciasPorData(1_000, Duration.ofMinutes(1), Duration.ofSeconds(5), registry),
+                agregado, null, TransactionOperations.withoutTransaction(), null);
+        when(repository.somarPorContaEData("123456", data)).thenReturn(Optional.of(
+                new TotalDiarioConta("123456", data, 2L, new BigDecimal("70.00"))));
+
+        TotalDiarioConta total = service.totalDiarioPorConta("123456", data);
+
+        assertEquals(2, total.getQuantidade());
+        assertEquals(new BigDecimal("70.00"), total.getValorTotal());
+        assertEquals(new BigDecimal("1000.00"), total.getLimiteDiario());
+        assertEquals(0, BigDecimal.ZERO.compareTo(service.totalDiarioPorConta("111111", data).getValorTotal()));
+    }
 }
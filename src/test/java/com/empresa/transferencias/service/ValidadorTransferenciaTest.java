@@ -0,0 +1,103 @@
+package com.empresa.transferencias.service;
+
+import com.empresa.transferencias.dto.ResultadoValidacao;
+import com.empresa.transferencias.exception.MotivoRejeicao;
+import com.empresa.transferencias.model.Transferencia;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidadorTransferenciaTest {
+
+    private static final LocalDate HOJE = LocalDate.now();
+
+    private Transferencia criar(String origem, String destino, String valor, LocalDate data) {
+        Transferencia transferencia = new Transferencia();
+        transferencia.setContaOrigem(origem);
+        transferencia.setContaDestino(destino);
+        transferencia.setValorTransferencia(valor == null ? null : new BigDecimal(valor));
+        transferencia.setDataTransferencia(data);
+        return transferencia;
+    }
+
+    @Test
+    void testTransferenciaValidaRetornaSempreOMesmoResultado() {
+        ResultadoValidacao resultado = ValidadorTransferencia.validar(
+                criar("123456", "654321", "100.00", HOJE.plusDays(5)), HOJE);
+
+        assertSame(ResultadoValidacao.VALIDA, resultado);
+        assertTrue(resultado.isValida());
+        assertNull(resultado.getMotivo());
+    }
+
+    @Test
+    void testTodasAsViolacoesSaoDevolvidasEmUmaPassagem() {
+        ResultadoValidacao resultado = ValidadorTransferencia.validar(
+                criar("12345", null, "0.001", HOJE), HOJE);
+
+        List<MotivoRejeicao> codigos = resultado.getViolacoes().stream()
+                .map(ResultadoValidacao.Violacao::getCodigo)
+                .collect(Collectors.toList());
+        assertEquals(List.of(MotivoRejeicao.CONTA_INVALIDA, MotivoRejeicao.CAMPO_OBRIGATORIO,
+                MotivoRejeicao.VALOR_INVALIDO, MotivoRejeicao.DATA_INVALIDA), codigos);
+        assertEquals(MotivoRejeicao.CONTA_INVALIDA, resultado.getMotivo());
+        assertTrue(resultado.getMensagem().startsWith("contaOrigem: "));
+    }
+
+    @Test
+    void testValidarCotacaoConsideraApenasValorEData() {
+        assertSame(ResultadoValidacao.VALIDA,
+                ValidadorTransferencia.validarCotacao(new BigDecimal("100.00"), HOJE.plusDays(5), HOJE));
+
+        ResultadoValidacao resultado = ValidadorTransferencia.validarCotacao(new BigDecimal("0.001"), HOJE, HOJE);
+
+        assertEquals(List.of("valorTransferencia", "dataTransferencia"), resultado.getViolacoes().stream()
+                .map(ResultadoValidacao.Violacao::getCampo)
+                .collect(Collectors.toList()));
+        assertEquals(MotivoRejeicao.VALOR_INVALIDO, resultado.getMotivo());
+    }
+
+    @Test
+    void testContasIguaisEDataSemFaixaDeTaxa() {
+        ResultadoValidacao contasIguais = ValidadorTransferencia.validar(
+                criar("123456", "123456", "100.00", HOJE.plusDays(5)), HOJE);
+        ResultadoValidacao semFaixa = ValidadorTransferencia.validar(
+                criar("123456", "654321", "100.00", HOJE.plusDays(FeeSchedule.atual().getDiasMaximos() + 1)), HOJE);
+
+        assertEquals(MotivoRejeicao.CONTAS_IGUAIS, contasIguais.getMotivo());
+        assertEquals(MotivoRejeicao.TAXA_NAO_APLICAVEL, semFaixa.getMotivo());
+    }
+
+    @Test
+    void testCamposRejeitadosSaoOsMesmosDasAnotacoesDaEntidade() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        List<Transferencia> casos = List.of(
+                criar(null, "654321", "100.00", HOJE.plusDays(5)),
+                criar("1234567", "65432", "100.00", HOJE.plusDays(5)),
+                criar("123456", "654321", null, null),
+                criar("123456", "654321", "0.00", HOJE),
+                criar("123456", "654321", "0.01", HOJE.minusDays(1)),
+                criar("123456", "654321", "0.01", HOJE.plusDays(1)));
+
+        for (Transferencia caso : casos) {
+            Set<ConstraintViolation<Transferencia>> violacoes = validator.validate(caso);
+            Set<String> esperados = violacoes.stream()
+                    .map(v -> v.getPropertyPath().toString())
+                    .collect(Collectors.toCollection(TreeSet::new));
+            Set<String> obtidos = ValidadorTransferencia.validar(caso, HOJE).getViolacoes().stream()
+                    .map(ResultadoValidacao.Violacao::getCampo)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            assertEquals(esperados, obtidos, caso.toString());
+        }
+    }
+}